@@ -0,0 +1,76 @@
+package analyzer.benchmark;
+
+import analyzer.parser.LogBatch;
+import analyzer.statistics.AnalyzerSettings;
+import analyzer.statistics.LogStatistics;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures taking a parsed log into account in the statistics, one log at a time and by batches,
+ * with exact and approximate estimators.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AggregateBenchmark extends ParsedLogsState {
+
+    /**
+     * The capacity of the approximate top-K counters, 0 for exact counting.
+     */
+    @Param({"0", "1000"})
+    public int topKCapacity;
+
+    /**
+     * The relative error of the percentile sketch, 0 for exact percentiles.
+     */
+    @Param({"0", "0.01"})
+    public double percentileError;
+
+    private AnalyzerSettings settings;
+
+    @Setup(Level.Trial)
+    public void prepareSettings() {
+        settings = AnalyzerSettings.builder()
+            .topKCapacity(topKCapacity)
+            .percentileError(percentileError)
+            .build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public LogStatistics update() {
+        LogStatistics statistics = new LogStatistics("benchmark", settings);
+        for (var log : logs) {
+            statistics.update(log);
+        }
+        return statistics;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public LogStatistics updateBatch() {
+        LogStatistics statistics = new LogStatistics("benchmark", settings);
+        LogBatch batch = new LogBatch();
+        for (var log : logs) {
+            if (batch.add(log)) {
+                statistics.updateBatch(batch);
+                batch.clear();
+            }
+        }
+        statistics.updateBatch(batch);
+        return statistics;
+    }
+}
@@ -0,0 +1,79 @@
+package analyzer.benchmark;
+
+import analyzer.parser.ParserService;
+import analyzer.render.MarkdownRenderer;
+import analyzer.statistics.AnalyzerSettings;
+import analyzer.statistics.LogAnalyzer;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the whole path from a local file to the rendered report: reading, parsing, filtering,
+ * aggregating and rendering.
+ * <p>All generated logs are valid, since a single invalid log makes the analyzer reject the whole file.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class EndToEndBenchmark {
+
+    private static final long SEED = 42;
+
+    @Param({"200000"})
+    public int lines;
+
+    @Param({"100000"})
+    public int cardinality;
+
+    @Param({"150"})
+    public int lineLength;
+
+    @Param({"regex", "scanner"})
+    public String engine;
+
+    @Param({"pipeline", "mmap", "parallel"})
+    public String mode;
+
+    private Path file;
+
+    private AnalyzerSettings settings;
+
+    @Setup(Level.Trial)
+    public void writeFile() throws IOException {
+        file = Files.createTempFile("analyzer-benchmark", ".log");
+        Files.write(file, new LogLineGenerator(SEED, cardinality, lineLength, 0).next(lines));
+        settings = AnalyzerSettings.builder()
+            .parser(ParserService.getParser(engine))
+            .memoryMapped("mmap".equals(mode))
+            .parallel("parallel".equals(mode))
+            .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public String analyze() {
+        return new MarkdownRenderer().render(LogAnalyzer.getStatisticsFromFile(file, settings));
+    }
+}
@@ -0,0 +1,56 @@
+package analyzer.benchmark;
+
+import analyzer.statistics.AnalyzerSettings;
+import analyzer.statistics.LogAnalyzer;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures checking of a single parsed log against the date range and the field filters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FilterBenchmark extends ParsedLogsState {
+
+    @Param({"dates", "field", "both"})
+    public String filter;
+
+    private AnalyzerSettings settings;
+
+    @Setup(Level.Trial)
+    public void prepareSettings() {
+        AnalyzerSettings.AnalyzerSettingsBuilder builder = AnalyzerSettings.builder();
+        if (!"field".equals(filter)) {
+            builder
+                .from(LogLineGenerator.START.plusSeconds(LINES / 4))
+                .to(LogLineGenerator.START.plusSeconds(LINES * 3 / 4));
+        }
+        if (!"dates".equals(filter)) {
+            builder.filterParams(Map.of("httpStatus", "2"));
+        }
+        settings = builder.build();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void matches(Blackhole blackhole) {
+        for (var log : logs) {
+            blackhole.consume(LogAnalyzer.matches(log, settings));
+        }
+    }
+}
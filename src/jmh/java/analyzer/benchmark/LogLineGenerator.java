@@ -0,0 +1,104 @@
+package analyzer.benchmark;
+
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * A generator of synthetic NGINX logs in format:
+ * <p>'$remote_addr - $remote_user [$time_local]' '"$request" $status $body_bytes_sent
+ * ' '"$http_referer" "$http_user_agent"'</p>
+ * The generated logs are reproducible for the same seed. Each log is one second later than the previous one.
+ */
+public final class LogLineGenerator {
+
+    /**
+     * The date and time of the first generated log.
+     */
+    public static final OffsetDateTime START = OffsetDateTime.parse("2015-05-17T08:05:00Z");
+
+    private static final DateTimeFormatter DATE_TIME_FORMATTER =
+        DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.ENGLISH);
+
+    private static final String[] METHODS = {"GET", "GET", "GET", "POST", "PUT", "DELETE", "HEAD"};
+    private static final String[] STATUSES = {"200", "200", "200", "200", "304", "404", "500"};
+    private static final String USER_AGENT = "Mozilla/5.0 (X11; Linux x86_64)";
+    private static final String VALID_VERSION = " HTTP/1.1\"";
+    private static final String INVALID_VERSION = " HTTP/9.9\"";
+
+    private static final int OCTET_BITS = 8;
+    private static final int OCTET_MASK = 0xFF;
+    private static final int MAX_RESPONSE_SIZE = 100_000;
+
+    private final Random random;
+    private final int cardinality;
+    private final int lineLength;
+    private final double invalidRatio;
+
+    private long seconds;
+
+    /**
+     * Creates a generator.
+     *
+     * @param seed         the seed of the generator.
+     * @param cardinality  the number of distinct remote addresses, resources and referrers.
+     * @param lineLength   the minimum length of a log, the user agent is padded up to it.
+     * @param invalidRatio the share of logs that don't match the format, from 0 to 1.
+     */
+    public LogLineGenerator(long seed, int cardinality, int lineLength, double invalidRatio) {
+        this.random = new Random(seed);
+        this.cardinality = cardinality;
+        this.lineLength = lineLength;
+        this.invalidRatio = invalidRatio;
+    }
+
+    /**
+     * Generates the next log.
+     *
+     * @return the next log.
+     */
+    public String next() {
+        int address = random.nextInt(cardinality);
+        StringBuilder line = new StringBuilder(lineLength)
+            .append(address >>> (3 * OCTET_BITS) & OCTET_MASK).append('.')
+            .append(address >>> (2 * OCTET_BITS) & OCTET_MASK).append('.')
+            .append(address >>> OCTET_BITS & OCTET_MASK).append('.')
+            .append(address & OCTET_MASK)
+            .append(" - - [")
+            .append(DATE_TIME_FORMATTER.format(START.plusSeconds(seconds++)))
+            .append("] \"")
+            .append(METHODS[random.nextInt(METHODS.length)])
+            .append(" /downloads/product_")
+            .append(random.nextInt(cardinality))
+            .append(random.nextDouble() < invalidRatio ? INVALID_VERSION : VALID_VERSION)
+            .append(' ')
+            .append(STATUSES[random.nextInt(STATUSES.length)])
+            .append(' ')
+            .append(random.nextInt(MAX_RESPONSE_SIZE))
+            .append(" \"")
+            .append(random.nextBoolean() ? "-" : "https://example.com/page_" + random.nextInt(cardinality))
+            .append("\" \"")
+            .append(USER_AGENT);
+        while (line.length() < lineLength - 1) {
+            line.append(' ');
+        }
+        return line.append('"').toString();
+    }
+
+    /**
+     * Generates the given number of logs.
+     *
+     * @param count the number of logs.
+     * @return the list of generated logs.
+     */
+    public List<String> next(int count) {
+        List<String> lines = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            lines.add(next());
+        }
+        return lines;
+    }
+}
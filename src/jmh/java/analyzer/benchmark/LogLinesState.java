@@ -0,0 +1,39 @@
+package analyzer.benchmark;
+
+import java.util.List;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A benchmark state containing synthetic logs. The shape of the logs is configured by JMH parameters,
+ * which can be overridden from the command line, e.g. {@code -p cardinality=1000000}.
+ */
+@State(Scope.Benchmark)
+public class LogLinesState {
+
+    /**
+     * The number of logs processed by one benchmark invocation.
+     */
+    public static final int LINES = 10_000;
+
+    private static final long SEED = 42;
+
+    @Param({"100", "100000"})
+    public int cardinality;
+
+    @Param({"150"})
+    public int lineLength;
+
+    @Param({"0.0", "0.1"})
+    public double invalidRatio;
+
+    public List<String> lines;
+
+    @Setup(Level.Trial)
+    public void generateLines() {
+        lines = new LogLineGenerator(SEED, cardinality, lineLength, invalidRatio).next(LINES);
+    }
+}
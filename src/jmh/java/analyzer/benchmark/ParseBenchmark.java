@@ -0,0 +1,88 @@
+package analyzer.benchmark;
+
+import analyzer.error.InvalidLogFormatException;
+import analyzer.parser.LineParser;
+import analyzer.parser.LogView;
+import analyzer.parser.ParserService;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Measures parsing of a single log by each parser engine, invalid logs included: from a string, from UTF-8 bytes
+ * into a Log object and from UTF-8 bytes into a reused view, whose fields used by the statistics are then read.
+ * The module of the Vector API is added to the forked JVM, so the simd engine is measured with vector instructions.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class ParseBenchmark extends LogLinesState {
+
+    @Param({"regex", "scanner", "simd"})
+    public String engine;
+
+    private LineParser parser;
+
+    private List<byte[]> encodedLines;
+
+    @Setup
+    public void prepareParser() {
+        parser = ParserService.getParser(engine);
+        encodedLines = lines.stream().map(line -> line.getBytes(StandardCharsets.UTF_8)).toList();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void parse(Blackhole blackhole) {
+        for (var line : lines) {
+            try {
+                blackhole.consume(parser.parse(line));
+            } catch (InvalidLogFormatException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void parseBytes(Blackhole blackhole) {
+        for (var line : encodedLines) {
+            try {
+                blackhole.consume(parser.parse(line, 0, line.length));
+            } catch (InvalidLogFormatException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LINES)
+    public void parseView(Blackhole blackhole) {
+        LogView view = new LogView();
+        for (var line : encodedLines) {
+            try {
+                var log = parser.parse(line, 0, line.length, view);
+                blackhole.consume(log.getHttpRequestBody());
+                blackhole.consume(log.httpStatus());
+                blackhole.consume(log.remoteAddress());
+                blackhole.consume(log.httpReferer());
+                blackhole.consume(log.bodyBytesSentAsLong());
+            } catch (InvalidLogFormatException e) {
+                blackhole.consume(e);
+            }
+        }
+    }
+}
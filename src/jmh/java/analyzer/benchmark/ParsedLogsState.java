@@ -0,0 +1,33 @@
+package analyzer.benchmark;
+
+import analyzer.error.InvalidLogFormatException;
+import analyzer.parser.Log;
+import analyzer.parser.LogScanner;
+import java.util.ArrayList;
+import java.util.List;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * A benchmark state containing the valid synthetic logs parsed in advance, so that the stages after parsing
+ * can be measured in isolation.
+ */
+@State(Scope.Benchmark)
+public class ParsedLogsState extends LogLinesState {
+
+    public List<Log> logs;
+
+    @Setup(Level.Trial)
+    public void parseLines() {
+        logs = new ArrayList<>(lines.size());
+        for (var line : lines) {
+            try {
+                logs.add(LogScanner.parse(line));
+            } catch (InvalidLogFormatException e) {
+                // invalid logs never reach the stages after parsing
+            }
+        }
+    }
+}
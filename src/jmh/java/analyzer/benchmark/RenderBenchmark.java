@@ -0,0 +1,53 @@
+package analyzer.benchmark;
+
+import analyzer.render.AbstractRenderer;
+import analyzer.render.RendererService;
+import analyzer.statistics.LogStatistics;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures rendering of the statistics collected over the synthetic logs.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RenderBenchmark extends ParsedLogsState {
+
+    @Param({"markdown", "adoc"})
+    public String format;
+
+    private AbstractRenderer renderer;
+
+    private LogStatistics statistics;
+
+    @Setup(Level.Trial)
+    public void collectStatistics() {
+        renderer = RendererService.getRenderer(format);
+        statistics = new LogStatistics(null, null, "benchmark");
+        logs.forEach(statistics::update);
+    }
+
+    @Benchmark
+    public String render() {
+        return renderer.render(statistics);
+    }
+
+    @Benchmark
+    public void renderToWriter() throws IOException {
+        renderer.render(statistics, Writer.nullWriter());
+    }
+}
@@ -4,7 +4,11 @@ import analyzer.args.CommandLineArgs;
 import analyzer.parser.Log;
 import analyzer.render.AbstractRenderer;
 import analyzer.render.MarkdownRenderer;
+import analyzer.statistics.AnalyzerSettings;
 import analyzer.statistics.LogAnalyzer;
+import analyzer.statistics.LogFollower;
+import analyzer.statistics.LogStatistics;
+import analyzer.statistics.StatisticsSnapshots;
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.ParameterException;
 import java.io.BufferedWriter;
@@ -25,11 +29,21 @@ import java.nio.file.PathMatcher;
 import java.nio.file.Paths;
 import java.nio.file.SimpleFileVisitor;
 import java.nio.file.attribute.BasicFileAttributes;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 import lombok.extern.log4j.Log4j2;
 
 /**
@@ -43,6 +57,14 @@ import lombok.extern.log4j.Log4j2;
 @Log4j2
 public class AnalyzerApp {
 
+    private static final long FOLLOW_POLL_MILLIS = 1000;
+
+    /**
+     * The number of sources per thread that are analyzed or wait for analysis while the statistics of an earlier
+     * source are rendered.
+     */
+    private static final int PENDING_SOURCES_PER_THREAD = 2;
+
     private final BufferedWriter out;
 
     public AnalyzerApp(OutputStream outputStream) {
@@ -63,8 +85,10 @@ public class AnalyzerApp {
      * </p>
      * <p>Note that you cannot pass more than one --from and --to key. In case of transfer of both keys, the logs in
      * the transmitted range will be analyzed.</p>
-     * <p>{@code --format} - the format in which the statistics will be displayed. There are 2 formats available:
-     * markdown and adoc (default - markdown). Note that you cannot pass more than one --format key.</p>
+     * <p>{@code --format} - the format in which the statistics will be displayed. There are 3 formats available:
+     * markdown, adoc and json (default - markdown). Besides the reported values, the json format contains
+     * the complete state of the statistics, which can be loaded by {@link StatisticsSnapshots#readJson}.
+     * Note that you cannot pass more than one --format key.</p>
      * <p>{@code --filter-field} - The log field by which logs should be filtered before collecting statistics.</p>
      * <p>{@code --filter-value} - The log field's value by which logs should be filtered before collecting statistics.
      * </p>
@@ -78,6 +102,74 @@ public class AnalyzerApp {
      * <p>{@code bodyBytesSent}</p>
      * <p>{@code httpReferer}</p>
      * <p>{@code httpUserAgent}</p>
+     * <p>{@code --filter} - the filter expression the logs have to match in addition to the filter fields, for
+     * example, {@code httpStatus >= 400 and not remoteAddress in 10.0.0.0/8}. Conditions on the fields are combined
+     * by {@code or}, {@code and}, {@code not} and parentheses, the operators of the conditions are {@code =},
+     * {@code !=}, {@code ^=} (prefix), {@code ~}, {@code !~} (regular expression), {@code glob} (the path glob),
+     * {@code <}, {@code <=}, {@code >}, {@code >=} and {@code in} (a list, a numeric range or a CIDR network), see
+     * {@link analyzer.filter.FilterParser}. Besides the fields of the log, the fields {@code method} and {@code path}
+     * of the request can be used. The conjuncts referring only to the fields that can be found in the unparsed line
+     * are checked before the line is parsed.</p>
+     * <p>{@code --parser} - the engine used to parse logs. There are 3 engines available: regex, scanner and simd
+     * (default - regex). The scanner engine accepts the same logs, but walks each log once without backtracking.
+     * The simd engine accepts the same logs as the scanner engine, but finds their spaces and quotes by the Vector API
+     * if the JVM is started with {@code --add-modules jdk.incubator.vector}, and works like the scanner otherwise.
+     * Note that you cannot pass more than one --parser key.</p>
+     * <p>{@code --mmap} - memory-map local files, split them into newline-aligned chunks and process the chunks
+     * in parallel. The result is the same as without the key.</p>
+     * <p>{@code --parallel} - process the lines of each source by a parallel stream.</p>
+     * <p>{@code --seek} - for local files ordered by time, find the part of the file that falls into
+     * the {@code --from}/{@code --to} range by binary search and read only this part. Files that turn out not to be
+     * ordered are read entirely.</p>
+     * <p>{@code --index} - analyze local files using persistent indexes, which store the statistics of the logs
+     * pre-aggregated by minutes. The index of a file is built on the first run and extended when the file grows,
+     * later runs parse only the minutes at the edges of the {@code --from}/{@code --to} range.</p>
+     * <p>{@code --index-dir} - the directory of the indexes (default - the directory of each file). Indexes matched
+     * by a directory or a glob path are skipped.</p>
+     * <p>{@code --follow} - follow local files like {@code tail -F}: the logs appended to the files are parsed as
+     * they arrive, and the statistics of the logs appended during the last {@code --follow-window} minutes
+     * (default - 60) are rendered every {@code --follow-interval} seconds (default - 10) until the application is
+     * stopped. Rotation and truncation of the files are handled. The logs the files contain at the start are skipped.
+     * Percentiles and the most frequent values are always estimated with bounded memory in this mode.</p>
+     * <p>{@code --threads} - the number of worker threads (default - the number of available processors).
+     * The sources are analyzed concurrently by a shared pool of the worker threads, which also process the chunks
+     * of large sources, so that the threads that have finished small sources help with large ones. The reports are
+     * printed in the order of the sources, and a source that fails to be analyzed doesn't stop the others.</p>
+     * <p>{@code --connect-timeout} - the number of seconds to wait for a connection to a server (default - 10).
+     * A timeout of 0 means waiting indefinitely.</p>
+     * <p>{@code --read-timeout} - the number of seconds to wait for the next bytes of a response of a server
+     * (default - 30). A timeout of 0 means waiting indefinitely.</p>
+     * <p>{@code --retries} - the number of times a failed request to a server is retried (default - 3).
+     * An interrupted download is resumed from the last byte received. Large resources are downloaded by ranges
+     * in parallel if the server supports range requests.</p>
+     * <p>{@code --aggregate} - combine the statistics of all sources into a single report instead of
+     * printing a report per source.</p>
+     * <p>{@code --percentiles} - the percentiles of the response size to be reported instead of the default 95th
+     * percentile, e.g. {@code --percentiles 50 90 99 99.9}. The percentiles are computed by the nearest-rank method.
+     * </p>
+     * <p>{@code --percentile-error} - the relative error (from 0.0001 inclusive to 1 exclusive) of percentiles
+     * of the response size. If the key is passed, percentiles are estimated by a mergeable sketch of bounded memory
+     * instead of storing the size of every response.</p>
+     * <p>{@code --top-k} - the number of the most frequent values reported for each field (default - 3).</p>
+     * <p>{@code --top-k-capacity} - the number of values tracked for requested resources, remote addresses and
+     * HTTP referrers. If the key is passed, the most frequent values are estimated by the Space-Saving algorithm
+     * with fixed memory instead of counting every distinct value, and the report shows the maximum overestimation
+     * of each count.</p>
+     * <p>{@code --group-by} - the fields the statistics of the response size are grouped by, e.g.
+     * {@code --group-by httpStatus method}. Any field of the log, {@code method} and {@code path} can be used.</p>
+     * <p>{@code --time-bucket} - the period of time the statistics of the response size are grouped by:
+     * {@code minute}, {@code hour} or {@code day} (in UTC). The report gets a table with the number of requests,
+     * the total, the average and the percentiles of the response size of each group.</p>
+     * <p>{@code --group-limit} - the number of the largest groups reported for each time bucket (default - all).</p>
+     * <p>{@code --export} - the file the combined statistics of all sources are saved to as a compact binary
+     * snapshot. A snapshot passed to {@code --path} is loaded instead of being parsed, so the statistics of logs
+     * analyzed at different times or on different machines can be merged, provided that the percentiles,
+     * the most frequent values and the groups are estimated with the same keys. The {@code --from}/{@code --to}
+     * range and the filters aren't applied to loaded snapshots. The key can't be used with {@code --follow}.</p>
+     * <p>{@code --pipeline-metrics} - log the metrics of the pipelines in which a reader thread reads a source
+     * into blocks of lines and the workers parse them: the throughput, the average depth of the queue of blocks,
+     * and the time the reader and the workers spend working and waiting, which shows the stage that limits
+     * the throughput.</p>
      *
      * @param args an array containing the above keys and values (command line arguments).
      */
@@ -87,13 +179,12 @@ public class AnalyzerApp {
             List<Path> localPaths = new ArrayList<>();
             List<URL> urlPaths = new ArrayList<>();
             processPaths(cmdArgs.paths(), localPaths, urlPaths);
-            printStatistics(
-                cmdArgs,
-                localPaths,
-                urlPaths,
-                getFilterParams(cmdArgs),
-                Objects.requireNonNullElse(cmdArgs.renderer(), new MarkdownRenderer())
-            );
+            AbstractRenderer renderer = Objects.requireNonNullElse(cmdArgs.renderer(), new MarkdownRenderer());
+            if (cmdArgs.follow()) {
+                followStatistics(getAnalyzerSettings(cmdArgs), localPaths, urlPaths, renderer, cmdArgs);
+            } else {
+                printStatistics(getAnalyzerSettings(cmdArgs), localPaths, urlPaths, renderer, cmdArgs);
+            }
         } catch (ParameterException e) {
             log.error("Error: invalid arguments: {}", e.getMessage(), e);
         } catch (IOException e) {
@@ -155,7 +246,7 @@ public class AnalyzerApp {
             Files.walkFileTree(pathTemplate, new SimpleFileVisitor<>() {
                 @Override
                 public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) {
-                    if (matcher.matches(file)) {
+                    if (matcher.matches(file) && !LogAnalyzer.isIndex(file)) {
                         localPaths.add(file);
                     }
                     return FileVisitResult.CONTINUE;
@@ -175,6 +266,33 @@ public class AnalyzerApp {
         return pathTemplate.getParent();
     }
 
+    private static AnalyzerSettings getAnalyzerSettings(CommandLineArgs args) {
+        return AnalyzerSettings.builder()
+            .from(args.from())
+            .to(args.to())
+            .filterParams(getFilterParams(args))
+            .filter(args.filter())
+            .parser(args.parser())
+            .memoryMapped(args.memoryMapped())
+            .parallel(args.parallel())
+            .seek(args.seek())
+            .indexed(args.indexed())
+            .indexDirectory(args.indexDirectory())
+            .threads(args.threads())
+            .percentileError(args.percentileError())
+            .percentiles(args.percentiles())
+            .topK(args.topK())
+            .topKCapacity(args.topKCapacity())
+            .connectTimeout(Duration.ofSeconds(args.connectTimeout()))
+            .readTimeout(Duration.ofSeconds(args.readTimeout()))
+            .retries(args.retries())
+            .groupBy(args.groupBy())
+            .timeBucket(args.timeBucket())
+            .groupLimit(args.groupLimit())
+            .pipelineMetrics(args.pipelineMetrics())
+            .build();
+    }
+
     private static Map<String, String> getFilterParams(CommandLineArgs args) {
         List<String> fields = Objects.requireNonNullElse(args.filterFields(), List.of());
         List<String> values = Objects.requireNonNullElse(args.filterValues(), List.of());
@@ -193,22 +311,140 @@ public class AnalyzerApp {
     }
 
     private void printStatistics(
-        CommandLineArgs args,
+        AnalyzerSettings settings,
         List<Path> localPaths,
         List<URL> urlPaths,
-        Map<String, String> filterParameters,
-        AbstractRenderer renderer
+        AbstractRenderer renderer,
+        CommandLineArgs args
     ) throws IOException {
-        for (var path : localPaths) {
-            out.write(renderer
-                .render(LogAnalyzer.getStatisticsFromFile(path, args.from(), args.to(), filterParameters)));
-            out.newLine();
+        boolean aggregate = args.aggregate();
+        List<Callable<LogStatistics>> sources = new ArrayList<>();
+        localPaths.forEach(path -> sources.add(isolate(path, () -> LogAnalyzer.getStatisticsFromFile(path, settings))));
+        urlPaths.forEach(url -> sources.add(isolate(url, () -> LogAnalyzer.getStatisticsFromURL(url, settings))));
+        LogStatistics aggregated = null;
+        try (ForkJoinPool pool = new ForkJoinPool(settings.threads())) {
+            Iterator<Callable<LogStatistics>> nextSources = sources.iterator();
+            Deque<Future<LogStatistics>> pending = new ArrayDeque<>();
+            while (nextSources.hasNext() || !pending.isEmpty()) {
+                while (nextSources.hasNext() && pending.size() < settings.threads() * PENDING_SOURCES_PER_THREAD) {
+                    pending.add(pool.submit(nextSources.next()));
+                }
+                LogStatistics statistics = getResult(pending.removeFirst());
+                if (!aggregate) {
+                    printStatistics(renderer, statistics);
+                }
+                if ((aggregate || args.export() != null) && statistics != null) {
+                    aggregated = aggregated == null ? statistics : aggregated.combine(statistics);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
         }
-        for (var url : urlPaths) {
-            out.write(renderer
-                .render(LogAnalyzer.getStatisticsFromURL(url, args.from(), args.to(), filterParameters)));
-            out.newLine();
+        if (aggregate) {
+            printStatistics(renderer, aggregated);
         }
         out.flush();
+        if (args.export() != null) {
+            exportStatistics(args.export(), aggregated);
+        }
+    }
+
+    private static void exportStatistics(Path path, LogStatistics statistics) {
+        if (statistics == null) {
+            log.error("Error: there are no statistics to be exported to file: \"{}\"", path);
+            return;
+        }
+        try (OutputStream output = Files.newOutputStream(path)) {
+            StatisticsSnapshots.write(statistics, output);
+        } catch (IOException e) {
+            log.error("Error occurred while exporting statistics to file: \"{}\"", path, e);
+        }
+    }
+
+    /**
+     * Wraps the analysis of the source, so that an unexpected failure of the analysis is logged and the source
+     * is skipped like a source that can't be read, instead of stopping the analysis of other sources.
+     */
+    private static Callable<LogStatistics> isolate(Object source, Supplier<LogStatistics> analysis) {
+        return () -> {
+            try {
+                return analysis.get();
+            } catch (RuntimeException e) {
+                log.error("Error occurred while analyzing \"{}\".", source, e);
+                return null;
+            }
+        };
+    }
+
+    private static LogStatistics getResult(Future<LogStatistics> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private void followStatistics(
+        AnalyzerSettings settings,
+        List<Path> localPaths,
+        List<URL> urlPaths,
+        AbstractRenderer renderer,
+        CommandLineArgs args
+    ) throws IOException {
+        if (!urlPaths.isEmpty()) {
+            throw new ParameterException("Only local files can be followed.");
+        }
+        if (args.export() != null) {
+            throw new ParameterException("Statistics can't be exported while following files.");
+        }
+        Duration window = Duration.ofMinutes(args.followWindow());
+        long interval = Duration.ofSeconds(args.followInterval()).toMillis();
+        List<LogFollower> followers = localPaths
+            .stream()
+            .map(path -> new LogFollower(path, settings, window, Clock.systemUTC()))
+            .toList();
+        try {
+            long nextRendering = System.currentTimeMillis() + interval;
+            while (!Thread.currentThread().isInterrupted()) {
+                followers.forEach(LogFollower::poll);
+                long now = System.currentTimeMillis();
+                if (now >= nextRendering) {
+                    printFollowedStatistics(renderer, followers, args.aggregate());
+                    nextRendering = now + interval;
+                }
+                Thread.sleep(Math.min(FOLLOW_POLL_MILLIS, Math.max(0, nextRendering - now)));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            for (var follower : followers) {
+                follower.close();
+            }
+        }
+    }
+
+    private void printFollowedStatistics(
+        AbstractRenderer renderer,
+        List<LogFollower> followers,
+        boolean aggregate
+    ) throws IOException {
+        if (aggregate) {
+            printStatistics(renderer, followers
+                .stream()
+                .map(LogFollower::statistics)
+                .reduce(LogStatistics::combine)
+                .orElse(null));
+        } else {
+            for (var follower : followers) {
+                printStatistics(renderer, follower.statistics());
+            }
+        }
+        out.flush();
+    }
+
+    private void printStatistics(AbstractRenderer renderer, LogStatistics statistics) throws IOException {
+        renderer.render(statistics, out);
+        out.newLine();
     }
 }
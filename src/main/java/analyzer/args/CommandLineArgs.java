@@ -1,7 +1,13 @@
 package analyzer.args;
 
+import analyzer.filter.FilterExpression;
+import analyzer.filter.FilterField;
+import analyzer.parser.LineParser;
 import analyzer.render.AbstractRenderer;
+import analyzer.statistics.TimeBucket;
 import com.beust.jcommander.Parameter;
+import com.beust.jcommander.validators.PositiveInteger;
+import java.nio.file.Path;
 import java.time.OffsetDateTime;
 import java.util.List;
 import lombok.Getter;
@@ -11,6 +17,12 @@ import lombok.Getter;
  */
 @Getter
 public class CommandLineArgs {
+    private static final int DEFAULT_FOLLOW_INTERVAL = 10;
+    private static final int DEFAULT_FOLLOW_WINDOW = 60;
+    private static final int DEFAULT_CONNECT_TIMEOUT = 10;
+    private static final int DEFAULT_READ_TIMEOUT = 30;
+    private static final int DEFAULT_RETRIES = 3;
+
     @Parameter(
         names = {"--path"},
         required = true,
@@ -53,4 +65,165 @@ public class CommandLineArgs {
         description = "The value to filter by"
     )
     private List<String> filterValues;
+
+    @Parameter(
+        names = {"--filter"},
+        converter = FilterConverter.class,
+        description = "The filter expression the logs have to match"
+    )
+    private FilterExpression filter;
+
+    @Parameter(
+        names = {"--parser"},
+        converter = ParserConverter.class,
+        description = "Engine used to parse logs"
+    )
+    private LineParser parser;
+
+    @Parameter(
+        names = {"--mmap"},
+        description = "Memory-map local files and process them in parallel chunks"
+    )
+    private boolean memoryMapped;
+
+    @Parameter(
+        names = {"--parallel"},
+        description = "Process the lines of each source by a parallel stream"
+    )
+    private boolean parallel;
+
+    @Parameter(
+        names = {"--seek"},
+        description = "Read only the part of local files ordered by time that falls into the --from/--to range"
+    )
+    private boolean seek;
+
+    @Parameter(
+        names = {"--index"},
+        description = "Analyze local files using persistent indexes of statistics pre-aggregated by minutes"
+    )
+    private boolean indexed;
+
+    @Parameter(
+        names = {"--index-dir"},
+        description = "Directory of the indexes, the directory of each file if not set"
+    )
+    private Path indexDirectory;
+
+    @Parameter(
+        names = {"--follow"},
+        description = "Follow local files and render the statistics of the appended logs periodically"
+    )
+    private boolean follow;
+
+    @Parameter(
+        names = {"--follow-interval"},
+        validateWith = PositiveInteger.class,
+        description = "Number of seconds between renderings of the followed statistics"
+    )
+    private int followInterval = DEFAULT_FOLLOW_INTERVAL;
+
+    @Parameter(
+        names = {"--follow-window"},
+        validateWith = PositiveInteger.class,
+        description = "Number of minutes the followed statistics are kept for"
+    )
+    private int followWindow = DEFAULT_FOLLOW_WINDOW;
+
+    @Parameter(
+        names = {"--aggregate"},
+        description = "Combine statistics of all sources into a single report"
+    )
+    private boolean aggregate;
+
+    @Parameter(
+        names = {"--threads"},
+        validateWith = PositiveInteger.class,
+        description = "Number of worker threads"
+    )
+    private int threads;
+
+    @Parameter(
+        names = {"--connect-timeout"},
+        validateWith = PositiveInteger.class,
+        description = "Number of seconds to wait for a connection to a server"
+    )
+    private int connectTimeout = DEFAULT_CONNECT_TIMEOUT;
+
+    @Parameter(
+        names = {"--read-timeout"},
+        validateWith = PositiveInteger.class,
+        description = "Number of seconds to wait for the next bytes of a response of a server"
+    )
+    private int readTimeout = DEFAULT_READ_TIMEOUT;
+
+    @Parameter(
+        names = {"--retries"},
+        validateWith = PositiveInteger.class,
+        description = "Number of times a failed request to a server is retried"
+    )
+    private int retries = DEFAULT_RETRIES;
+
+    @Parameter(
+        names = {"--percentiles"},
+        variableArity = true,
+        converter = PercentileConverter.class,
+        description = "Percentiles of the response size to be reported"
+    )
+    private List<Double> percentiles;
+
+    @Parameter(
+        names = {"--percentile-error"},
+        converter = RelativeErrorConverter.class,
+        description = "Relative error of the bounded-memory percentile sketch, exact percentiles if not set"
+    )
+    private double percentileError;
+
+    @Parameter(
+        names = {"--top-k"},
+        validateWith = PositiveInteger.class,
+        description = "Number of the most frequent values reported for each field"
+    )
+    private int topK;
+
+    @Parameter(
+        names = {"--top-k-capacity"},
+        validateWith = PositiveInteger.class,
+        description = "Number of values tracked by the approximate top-K counters, exact counting if not set"
+    )
+    private int topKCapacity;
+
+    @Parameter(
+        names = {"--group-by"},
+        variableArity = true,
+        converter = FieldConverter.class,
+        description = "Fields the statistics of the response size are grouped by"
+    )
+    private List<FilterField> groupBy;
+
+    @Parameter(
+        names = {"--time-bucket"},
+        converter = TimeBucketConverter.class,
+        description = "Period of time the statistics of the response size are grouped by: minute, hour or day"
+    )
+    private TimeBucket timeBucket;
+
+    @Parameter(
+        names = {"--group-limit"},
+        validateWith = PositiveInteger.class,
+        description = "Number of the largest groups reported for each time bucket, all groups if not set"
+    )
+    private int groupLimit;
+
+    @Parameter(
+        names = {"--export"},
+        description = "File the combined statistics are saved to as a binary snapshot, which can be passed to --path"
+    )
+    private Path export;
+
+    @Parameter(
+        names = {"--pipeline-metrics"},
+        description = "Log the throughput, the queue depth and the time of each stage of reading and parsing sources"
+    )
+    private boolean pipelineMetrics;
 }
@@ -0,0 +1,17 @@
+package analyzer.args;
+
+import analyzer.filter.FilterField;
+import com.beust.jcommander.IStringConverter;
+import com.beust.jcommander.ParameterException;
+
+public class FieldConverter implements IStringConverter<FilterField> {
+
+    @Override
+    public FilterField convert(String field) {
+        FilterField filterField = FilterField.of(field);
+        if (filterField == null) {
+            throw new ParameterException("Invalid field. Log doesn't contain field: \"" + field + "\"");
+        }
+        return filterField;
+    }
+}
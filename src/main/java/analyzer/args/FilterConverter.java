@@ -0,0 +1,19 @@
+package analyzer.args;
+
+import analyzer.error.InvalidFilterException;
+import analyzer.filter.FilterExpression;
+import analyzer.filter.FilterParser;
+import com.beust.jcommander.IStringConverter;
+import com.beust.jcommander.ParameterException;
+
+public class FilterConverter implements IStringConverter<FilterExpression> {
+
+    @Override
+    public FilterExpression convert(String filter) {
+        try {
+            return FilterParser.parse(filter);
+        } catch (InvalidFilterException e) {
+            throw new ParameterException(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package analyzer.args;
+
+import analyzer.parser.LineParser;
+import analyzer.parser.ParserService;
+import com.beust.jcommander.IStringConverter;
+import com.beust.jcommander.ParameterException;
+
+public class ParserConverter implements IStringConverter<LineParser> {
+
+    @Override
+    public LineParser convert(String parser) {
+        if (!ParserService.isParserExists(parser)) {
+            throw new ParameterException("The parser \"" + parser + "\" is not allowed.");
+        }
+        return ParserService.getParser(parser);
+    }
+}
@@ -0,0 +1,27 @@
+package analyzer.args;
+
+import com.beust.jcommander.IStringConverter;
+import com.beust.jcommander.ParameterException;
+
+public class PercentileConverter implements IStringConverter<Double> {
+
+    private static final double MAX_PERCENTILE = 100;
+
+    @Override
+    public Double convert(String percentile) {
+        double value;
+        try {
+            value = Double.parseDouble(percentile);
+        } catch (NumberFormatException e) {
+            throw invalidPercentile(percentile);
+        }
+        if (!(value > 0 && value <= MAX_PERCENTILE)) {
+            throw invalidPercentile(percentile);
+        }
+        return value;
+    }
+
+    private static ParameterException invalidPercentile(String percentile) {
+        return new ParameterException("Invalid percentile: \"" + percentile + "\", expected a number in (0, 100].");
+    }
+}
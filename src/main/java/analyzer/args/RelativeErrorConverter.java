@@ -0,0 +1,27 @@
+package analyzer.args;
+
+import analyzer.statistics.QuantileSketch;
+import com.beust.jcommander.IStringConverter;
+import com.beust.jcommander.ParameterException;
+
+public class RelativeErrorConverter implements IStringConverter<Double> {
+
+    @Override
+    public Double convert(String error) {
+        double value;
+        try {
+            value = Double.parseDouble(error);
+        } catch (NumberFormatException e) {
+            throw invalidError(error);
+        }
+        if (!(value >= QuantileSketch.MIN_RELATIVE_ERROR && value < 1)) {
+            throw invalidError(error);
+        }
+        return value;
+    }
+
+    private static ParameterException invalidError(String error) {
+        return new ParameterException("Invalid relative error: \"" + error + "\", expected a number in ["
+            + QuantileSketch.MIN_RELATIVE_ERROR + ", 1).");
+    }
+}
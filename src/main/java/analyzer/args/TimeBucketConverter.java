@@ -0,0 +1,19 @@
+package analyzer.args;
+
+import analyzer.statistics.TimeBucket;
+import com.beust.jcommander.IStringConverter;
+import com.beust.jcommander.ParameterException;
+
+public class TimeBucketConverter implements IStringConverter<TimeBucket> {
+
+    @Override
+    public TimeBucket convert(String bucket) {
+        TimeBucket timeBucket = TimeBucket.of(bucket);
+        if (timeBucket == null) {
+            throw new ParameterException(
+                "Invalid time bucket: \"" + bucket + "\", expected \"minute\", \"hour\" or \"day\"."
+            );
+        }
+        return timeBucket;
+    }
+}
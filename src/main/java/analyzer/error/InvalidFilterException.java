@@ -0,0 +1,21 @@
+package analyzer.error;
+
+/**
+ * Thrown to indicate that the code has attempted to parse a filter expression with invalid syntax.
+ * For example, the following code generates an {@code InvalidFilterException}:
+ * <blockquote><pre>
+ *     FilterExpression filter = FilterParser.parse("httpStatus >=");
+ * </pre></blockquote>
+ */
+public class InvalidFilterException extends IllegalArgumentException {
+
+    /**
+     * Constructs an {@code InvalidFilterException} with the specified
+     * detail message.
+     *
+     * @param message the detail message.
+     */
+    public InvalidFilterException(String message) {
+        super(message);
+    }
+}
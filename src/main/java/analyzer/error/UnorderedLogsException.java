@@ -0,0 +1,17 @@
+package analyzer.error;
+
+/**
+ * Thrown to indicate that the logs of a source were expected to be ordered by time, but they aren't.
+ */
+public class UnorderedLogsException extends IllegalStateException {
+
+    /**
+     * Constructs an {@code UnorderedLogsException} with the specified
+     * detail message.
+     *
+     * @param message the detail message.
+     */
+    public UnorderedLogsException(String message) {
+        super(message);
+    }
+}
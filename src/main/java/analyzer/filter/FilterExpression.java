@@ -0,0 +1,249 @@
+package analyzer.filter;
+
+import analyzer.parser.LogFields;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * A compiled filter expression, which is a tree of conditions on the fields of the log combined by
+ * conjunction, disjunction and negation. Expressions are created by {@link FilterParser#parse(String)}.
+ * <p>An expression is evaluated either on a parsed log or, if it refers only to the fields that can be found in
+ * the unparsed line, on the {@link LineFields} of the line.</p>
+ */
+public sealed interface FilterExpression {
+
+    /**
+     * Evaluates the expression on the log.
+     *
+     * @param log the parsed log.
+     * @return {@code true} if the log matches the expression, {@code false} otherwise.
+     */
+    boolean matches(LogFields log);
+
+    /**
+     * Evaluates the expression on the fields of the unparsed line, which must have been found for
+     * the parts of all fields of the expression.
+     *
+     * @param line the fields of the unparsed line.
+     * @return {@code true} if the line matches the expression, {@code false} otherwise.
+     */
+    boolean matches(LineFields line);
+
+    /**
+     * Returns the fields the expression refers to.
+     *
+     * @return the fields of the conditions of the expression.
+     */
+    Stream<FilterField> fields();
+
+    /**
+     * Returns the relative cost of evaluating the expression.
+     *
+     * @return the sum of the costs of the conditions of the expression.
+     */
+    int cost();
+
+    /**
+     * Returns the equivalent expression whose nested conjunctions and disjunctions are flattened and whose operands
+     * are ordered by cost, so that cheap conditions, which may decide the result early, are evaluated first.
+     *
+     * @return the ordered expression.
+     */
+    FilterExpression ordered();
+
+    /**
+     * Checks whether the expression can be evaluated on the unparsed line.
+     *
+     * @return {@code true} if all fields of the expression can be found in the unparsed line, {@code false} otherwise.
+     */
+    default boolean isFoundInLine() {
+        return fields().allMatch(field -> field.part() != FilterField.LinePart.NONE);
+    }
+
+    /**
+     * The conjunction of the operands, which is {@code true} if there are no operands.
+     *
+     * @param operands the operands.
+     */
+    record And(List<FilterExpression> operands) implements FilterExpression {
+
+        public And {
+            operands = List.copyOf(operands);
+        }
+
+        @Override
+        public boolean matches(LogFields log) {
+            for (var operand : operands) {
+                if (!operand.matches(log)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public boolean matches(LineFields line) {
+            for (var operand : operands) {
+                if (!operand.matches(line)) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public Stream<FilterField> fields() {
+            return operands.stream().flatMap(FilterExpression::fields);
+        }
+
+        @Override
+        public int cost() {
+            return operands.stream().mapToInt(FilterExpression::cost).sum();
+        }
+
+        @Override
+        public And ordered() {
+            List<FilterExpression> flattened = new ArrayList<>();
+            for (var operand : operands) {
+                FilterExpression ordered = operand.ordered();
+                if (ordered instanceof And and) {
+                    flattened.addAll(and.operands());
+                } else {
+                    flattened.add(ordered);
+                }
+            }
+            flattened.sort(Comparator.comparingInt(FilterExpression::cost));
+            return new And(flattened);
+        }
+    }
+
+    /**
+     * The disjunction of the operands, which is {@code false} if there are no operands.
+     *
+     * @param operands the operands.
+     */
+    record Or(List<FilterExpression> operands) implements FilterExpression {
+
+        public Or {
+            operands = List.copyOf(operands);
+        }
+
+        @Override
+        public boolean matches(LogFields log) {
+            for (var operand : operands) {
+                if (operand.matches(log)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public boolean matches(LineFields line) {
+            for (var operand : operands) {
+                if (operand.matches(line)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        @Override
+        public Stream<FilterField> fields() {
+            return operands.stream().flatMap(FilterExpression::fields);
+        }
+
+        @Override
+        public int cost() {
+            return operands.stream().mapToInt(FilterExpression::cost).sum();
+        }
+
+        @Override
+        public Or ordered() {
+            List<FilterExpression> flattened = new ArrayList<>();
+            for (var operand : operands) {
+                FilterExpression ordered = operand.ordered();
+                if (ordered instanceof Or or) {
+                    flattened.addAll(or.operands());
+                } else {
+                    flattened.add(ordered);
+                }
+            }
+            flattened.sort(Comparator.comparingInt(FilterExpression::cost));
+            return new Or(flattened);
+        }
+    }
+
+    /**
+     * The negation of the operand.
+     *
+     * @param operand the operand.
+     */
+    record Not(FilterExpression operand) implements FilterExpression {
+
+        @Override
+        public boolean matches(LogFields log) {
+            return !operand.matches(log);
+        }
+
+        @Override
+        public boolean matches(LineFields line) {
+            return !operand.matches(line);
+        }
+
+        @Override
+        public Stream<FilterField> fields() {
+            return operand.fields();
+        }
+
+        @Override
+        public int cost() {
+            return operand.cost();
+        }
+
+        @Override
+        public FilterExpression ordered() {
+            FilterExpression ordered = operand.ordered();
+            return ordered instanceof Not not ? not.operand() : new Not(ordered);
+        }
+    }
+
+    /**
+     * The condition on the value of a field.
+     *
+     * @param field   the field.
+     * @param matcher the check of the value of the field.
+     */
+    record Condition(FilterField field, ValueMatcher matcher) implements FilterExpression {
+
+        @Override
+        public boolean matches(LogFields log) {
+            return matcher.matches(field.get(log));
+        }
+
+        @Override
+        public boolean matches(LineFields line) {
+            return line.matches(field, matcher);
+        }
+
+        @Override
+        public Stream<FilterField> fields() {
+            return Stream.of(field);
+        }
+
+        /**
+         * Returns the cost of the check of the value, increased by the cost of getting the field from a parsed log.
+         */
+        @Override
+        public int cost() {
+            return matcher.cost() + field.ordinal();
+        }
+
+        @Override
+        public Condition ordered() {
+            return this;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package analyzer.filter;
+
+import analyzer.parser.LogFields;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The fields of the log that can be filtered, in the order of the cost of getting them from a parsed log.
+ */
+public enum FilterField {
+    HTTP_STATUS("httpStatus", LogFields::httpStatus, LinePart.TAIL, true),
+    HTTP_METHOD("method", FilterField::getHttpMethod, LinePart.REQUEST, false),
+    REMOTE_ADDRESS("remoteAddress", LogFields::remoteAddress, LinePart.ADDRESS, false),
+    BODY_BYTES_SENT("bodyBytesSent", LogFields::bodyBytesSent, LinePart.TAIL, true),
+    REMOTE_USER("remoteUser", LogFields::remoteUser, LinePart.NONE, false),
+    HTTP_PATH("path", LogFields::getHttpRequestBody, LinePart.REQUEST, false),
+    DATE_TIME("dateTime", LogFields::dateTime, LinePart.NONE, false),
+    HTTP_REQUEST("httpRequest", LogFields::httpRequest, LinePart.NONE, false),
+    HTTP_REFERER("httpReferer", LogFields::httpReferer, LinePart.TAIL, false),
+    HTTP_USER_AGENT("httpUserAgent", LogFields::httpUserAgent, LinePart.TAIL, false);
+
+    private static final Map<String, FilterField> FIELDS_BY_NAME = Arrays
+        .stream(values())
+        .collect(Collectors.toUnmodifiableMap(FilterField::fieldName, Function.identity()));
+
+    private final String fieldName;
+    private final Function<LogFields, String> accessor;
+    private final LinePart part;
+    private final boolean numeric;
+
+    FilterField(String fieldName, Function<LogFields, String> accessor, LinePart part, boolean numeric) {
+        this.fieldName = fieldName;
+        this.accessor = accessor;
+        this.part = part;
+        this.numeric = numeric;
+    }
+
+    /**
+     * Returns the field with the specified name.
+     *
+     * @param fieldName the name of the field, the name of a {@link analyzer.parser.Log} component,
+     *                  {@code method} or {@code path}.
+     * @return the field with the specified name, {@code null} if there is no such field.
+     */
+    public static FilterField of(String fieldName) {
+        return FIELDS_BY_NAME.get(fieldName);
+    }
+
+    /**
+     * Returns the name of the field used in filter expressions.
+     *
+     * @return the name of the field.
+     */
+    public String fieldName() {
+        return fieldName;
+    }
+
+    /**
+     * Returns the value of the field of the log.
+     *
+     * @param log the parsed log.
+     * @return the value of the field.
+     */
+    public String get(LogFields log) {
+        return accessor.apply(log);
+    }
+
+    /**
+     * Checks whether the values of the field are non-negative integers, which can be compared as numbers.
+     *
+     * @return {@code true} if the field is numeric, {@code false} otherwise.
+     */
+    public boolean isNumeric() {
+        return numeric;
+    }
+
+    /**
+     * Returns the part of the unparsed line the field can be found in by {@link LineFields}.
+     *
+     * @return the part of the line containing the field, {@link LinePart#NONE} if the line has to be parsed.
+     */
+    public LinePart part() {
+        return part;
+    }
+
+    private static String getHttpMethod(LogFields log) {
+        String request = log.httpRequest();
+        return request.substring(0, request.indexOf(' '));
+    }
+
+    /**
+     * The parts of the unparsed line that can be found without parsing it.
+     */
+    public enum LinePart {
+        /**
+         * The remote address, which is the first field of the line.
+         */
+        ADDRESS,
+        /**
+         * The method and the path of the request, which follow the date and time.
+         */
+        REQUEST,
+        /**
+         * The status, the number of bytes sent, the referer and the user agent, which are found from the end of
+         * the line, since the referer and the user agent can't contain quotes.
+         */
+        TAIL,
+        /**
+         * The field can't be found without parsing the line.
+         */
+        NONE
+    }
+}
@@ -0,0 +1,327 @@
+package analyzer.filter;
+
+import analyzer.error.InvalidFilterException;
+import analyzer.filter.FilterExpression.And;
+import analyzer.filter.FilterExpression.Condition;
+import analyzer.filter.FilterExpression.Not;
+import analyzer.filter.FilterExpression.Or;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A class that allows to parse filter expressions of the form:
+ * <blockquote><pre>
+ *     httpStatus >= 400 and not (remoteAddress in 10.0.0.0/8 or method in (HEAD, OPTIONS))
+ *     path glob "/downloads/*" || httpUserAgent ~ "(?i)curl|wget"
+ * </pre></blockquote>
+ * <p>Conditions are combined by {@code or} ({@code ||}), {@code and} ({@code &&}) and {@code not} ({@code !}),
+ * in the order of increasing precedence, and may be grouped by parentheses. A condition consists of the name of
+ * a {@link FilterField}, an operator and a value, which is either a word or a string in double quotes with
+ * {@code \"} and {@code \\} escapes. The operators are:</p>
+ * <ul>
+ *     <li>{@code =} ({@code ==}), {@code !=} - the value is (isn't) equal to the specified value;</li>
+ *     <li>{@code ^=} - the value starts with the specified prefix;</li>
+ *     <li>{@code ~}, {@code !~} - the value contains (doesn't contain) a match of the regular expression;</li>
+ *     <li>{@code glob} - the whole value matches the glob, see {@link ValueMatchers#glob(String)};</li>
+ *     <li>{@code <}, {@code <=}, {@code >}, {@code >=} - the value of a numeric field is compared as a number;</li>
+ *     <li>{@code in} - the value is equal to one of the values of the list {@code (a, b, c)}, or the value of
+ *     a numeric field is within the inclusive range {@code min..max}, or the remote address is within
+ *     the network in the CIDR notation.</li>
+ * </ul>
+ * Keywords are case-insensitive.
+ */
+public final class FilterParser {
+
+    private static final String OPERATOR_SYMBOLS = "=!<>~^&|";
+    private static final String DELIMITERS = "(),\"";
+    private static final List<String> OPERATORS = List.of(
+        "==", "!=", "!~", "^=", "<=", ">=", "&&", "||", "=", "!", "~", "<", ">"
+    );
+    private static final String RANGE_SEPARATOR = "..";
+
+    private final String expression;
+    private final List<Token> tokens;
+    private int next;
+
+    private FilterParser(String expression) {
+        this.expression = expression;
+        tokens = tokenize(expression);
+    }
+
+    /**
+     * Parses the filter expression.
+     *
+     * @param expression the filter expression.
+     * @return the parsed expression.
+     * @throws InvalidFilterException if the expression is invalid.
+     */
+    public static FilterExpression parse(String expression) {
+        FilterParser parser = new FilterParser(expression);
+        FilterExpression result = parser.parseDisjunction();
+        if (parser.peek().type() != TokenType.END) {
+            throw parser.invalid(parser.peek(), "an operator \"and\" or \"or\"");
+        }
+        return result;
+    }
+
+    private FilterExpression parseDisjunction() {
+        List<FilterExpression> operands = new ArrayList<>(List.of(parseConjunction()));
+        while (acceptKeyword("or", "||")) {
+            operands.add(parseConjunction());
+        }
+        return operands.size() == 1 ? operands.getFirst() : new Or(operands);
+    }
+
+    private FilterExpression parseConjunction() {
+        List<FilterExpression> operands = new ArrayList<>(List.of(parseNegation()));
+        while (acceptKeyword("and", "&&")) {
+            operands.add(parseNegation());
+        }
+        return operands.size() == 1 ? operands.getFirst() : new And(operands);
+    }
+
+    private FilterExpression parseNegation() {
+        if (acceptKeyword("not", "!")) {
+            return new Not(parseNegation());
+        }
+        if (accept(TokenType.OPEN)) {
+            FilterExpression grouped = parseDisjunction();
+            expect(TokenType.CLOSE, "\")\"");
+            return grouped;
+        }
+        return parseCondition();
+    }
+
+    private FilterExpression parseCondition() {
+        Token fieldToken = expect(TokenType.WORD, "a field name");
+        FilterField field = FilterField.of(fieldToken.text());
+        if (field == null) {
+            throw invalid(fieldToken, "a field name");
+        }
+        Token operator = nextToken();
+        return switch (operator.type() == TokenType.STRING ? "" : operator.text().toLowerCase(Locale.ROOT)) {
+            case "=", "==" -> new Condition(field, ValueMatchers.equalTo(parseValue()));
+            case "!=" -> new Not(new Condition(field, ValueMatchers.equalTo(parseValue())));
+            case "^=" -> new Condition(field, ValueMatchers.prefix(parseValue()));
+            case "~" -> new Condition(field, parseMatcher(ValueMatchers::regex, "a regular expression"));
+            case "!~" -> new Not(new Condition(field, parseMatcher(ValueMatchers::regex, "a regular expression")));
+            case "glob" -> new Condition(field, ValueMatchers.glob(parseValue()));
+            case "<", "<=", ">", ">=" -> new Condition(field, parseComparison(field, operator.text()));
+            case "in" -> parseMembership(field);
+            default -> throw invalid(operator, "an operator");
+        };
+    }
+
+    private ValueMatcher parseComparison(FilterField field, String operator) {
+        Token token = peek();
+        long value = parseNumber(field, parseValue(), token);
+        return switch (operator) {
+            case "<" -> ValueMatchers.range(0, value - 1);
+            case "<=" -> ValueMatchers.range(0, value);
+            case ">" -> ValueMatchers.range(value == Long.MAX_VALUE ? value : value + 1, Long.MAX_VALUE);
+            default -> ValueMatchers.range(value, Long.MAX_VALUE);
+        };
+    }
+
+    private FilterExpression parseMembership(FilterField field) {
+        if (accept(TokenType.OPEN)) {
+            List<FilterExpression> operands = new ArrayList<>();
+            do {
+                operands.add(new Condition(field, ValueMatchers.equalTo(parseValue())));
+            } while (accept(TokenType.COMMA));
+            expect(TokenType.CLOSE, "\")\"");
+            return operands.size() == 1 ? operands.getFirst() : new Or(operands);
+        }
+        Token token = peek();
+        String value = parseValue();
+        int separator = value.indexOf(RANGE_SEPARATOR);
+        if (field.isNumeric() && separator >= 0) {
+            long min = parseNumber(field, value.substring(0, separator), token);
+            long max = parseNumber(field, value.substring(separator + RANGE_SEPARATOR.length()), token);
+            return new Condition(field, ValueMatchers.range(min, max));
+        }
+        if (field == FilterField.REMOTE_ADDRESS) {
+            try {
+                return new Condition(field, ValueMatchers.network(value));
+            } catch (IllegalArgumentException e) {
+                throw invalid(token, "a network in the CIDR notation");
+            }
+        }
+        throw invalid(token, field.isNumeric() ? "a list or a range \"min..max\"" : "a list \"(a, b, c)\"");
+    }
+
+    private ValueMatcher parseMatcher(Function<String, ValueMatcher> factory, String expected) {
+        Token token = peek();
+        try {
+            return factory.apply(parseValue());
+        } catch (PatternSyntaxException e) {
+            throw invalid(token, expected);
+        }
+    }
+
+    private long parseNumber(FilterField field, String value, Token token) {
+        if (!field.isNumeric()) {
+            throw new InvalidFilterException(
+                "Invalid filter: field \"" + field.fieldName() + "\" can't be compared as a number."
+            );
+        }
+        if (!value.chars().allMatch(symbol -> symbol >= '0' && symbol <= '9')) {
+            throw invalid(token, "a non-negative integer");
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw invalid(token, "a non-negative integer");
+        }
+    }
+
+    private String parseValue() {
+        Token token = nextToken();
+        if (token.type() != TokenType.WORD && token.type() != TokenType.STRING) {
+            throw invalid(token, "a value");
+        }
+        return token.text();
+    }
+
+    private boolean acceptKeyword(String keyword, String operator) {
+        Token token = peek();
+        boolean accepted = token.type() == TokenType.WORD && token.text().equalsIgnoreCase(keyword)
+            || token.type() == TokenType.OPERATOR && token.text().equals(operator);
+        if (accepted) {
+            next++;
+        }
+        return accepted;
+    }
+
+    private boolean accept(TokenType type) {
+        boolean accepted = peek().type() == type;
+        if (accepted) {
+            next++;
+        }
+        return accepted;
+    }
+
+    private Token expect(TokenType type, String expected) {
+        Token token = nextToken();
+        if (token.type() != type) {
+            throw invalid(token, expected);
+        }
+        return token;
+    }
+
+    private Token peek() {
+        return tokens.get(next);
+    }
+
+    private Token nextToken() {
+        Token token = tokens.get(next);
+        if (token.type() != TokenType.END) {
+            next++;
+        }
+        return token;
+    }
+
+    private InvalidFilterException invalid(Token token, String expected) {
+        String found = token.type() == TokenType.END ? "the end" : "\"" + token.text() + "\"";
+        return new InvalidFilterException(
+            "Invalid filter \"" + expression + "\" at position " + token.position() + ": expected " + expected
+                + ", found " + found + "."
+        );
+    }
+
+    private static List<Token> tokenize(String expression) {
+        List<Token> tokens = new ArrayList<>();
+        int position = 0;
+        while (true) {
+            while (position < expression.length() && Character.isWhitespace(expression.charAt(position))) {
+                position++;
+            }
+            if (position == expression.length()) {
+                tokens.add(new Token(TokenType.END, "", position));
+                return tokens;
+            }
+            Token token = readToken(expression, position);
+            tokens.add(token);
+            position = token.end();
+        }
+    }
+
+    private static Token readToken(String expression, int position) {
+        char symbol = expression.charAt(position);
+        TokenType delimiter = switch (symbol) {
+            case '(' -> TokenType.OPEN;
+            case ')' -> TokenType.CLOSE;
+            case ',' -> TokenType.COMMA;
+            default -> null;
+        };
+        if (delimiter != null) {
+            return new Token(delimiter, String.valueOf(symbol), position);
+        }
+        if (symbol == '"') {
+            return readString(expression, position);
+        }
+        String operator = OPERATORS.stream()
+            .filter(candidate -> expression.startsWith(candidate, position))
+            .findFirst()
+            .orElse(null);
+        return operator != null
+            ? new Token(TokenType.OPERATOR, operator, position)
+            : readWord(expression, position);
+    }
+
+    private static Token readWord(String expression, int position) {
+        int end = position;
+        while (end < expression.length() && isWordSymbol(expression.charAt(end))) {
+            end++;
+        }
+        if (end == position) {
+            throw new InvalidFilterException(
+                "Invalid filter \"" + expression + "\" at position " + position + ": unexpected \""
+                    + expression.charAt(position) + "\"."
+            );
+        }
+        return new Token(TokenType.WORD, expression.substring(position, end), position);
+    }
+
+    private static Token readString(String expression, int position) {
+        StringBuilder value = new StringBuilder();
+        for (int i = position + 1; i < expression.length(); i++) {
+            char symbol = expression.charAt(i);
+            if (symbol == '"') {
+                return new Token(TokenType.STRING, value.toString(), position, i + 1);
+            }
+            boolean escape = symbol == '\\' && i + 1 < expression.length()
+                && (expression.charAt(i + 1) == '"' || expression.charAt(i + 1) == '\\');
+            value.append(escape ? expression.charAt(++i) : symbol);
+        }
+        throw new InvalidFilterException(
+            "Invalid filter \"" + expression + "\" at position " + position + ": unterminated string."
+        );
+    }
+
+    private static boolean isWordSymbol(char symbol) {
+        return !Character.isWhitespace(symbol)
+            && OPERATOR_SYMBOLS.indexOf(symbol) < 0
+            && DELIMITERS.indexOf(symbol) < 0;
+    }
+
+    private enum TokenType {
+        WORD,
+        STRING,
+        OPERATOR,
+        OPEN,
+        CLOSE,
+        COMMA,
+        END
+    }
+
+    private record Token(TokenType type, String text, int position, int end) {
+
+        Token(TokenType type, String text, int position) {
+            this(type, text, position, position + text.length());
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package analyzer.filter;
+
+import analyzer.filter.FilterField.LinePart;
+import java.util.Set;
+
+/**
+ * The boundaries of the fields found in an unparsed line, so that the fields can be checked before the line is parsed.
+ * <p>The fields are found by their separators: the remote address ends with the first space, the request follows
+ * the first {@code ] "} after it, and the fields after the request are found from the end of the line, since
+ * the referer and the user agent can't contain quotes. The boundaries are exact for lines in the valid format,
+ * while the boundaries found in a line in an invalid format are meaningless.</p>
+ */
+public abstract class LineFields {
+
+    private static final int SPACE = ' ';
+    private static final int QUOTE = '"';
+    private static final int CLOSING_BRACKET = ']';
+    private static final int REQUEST_SEPARATOR_LENGTH = "] \"".length();
+    private static final int HTTP_STATUS_LENGTH = 3;
+
+    private final int[] starts = new int[FilterField.values().length];
+    private final int[] ends = new int[FilterField.values().length];
+
+    private LineFields() {
+    }
+
+    /**
+     * Finds the fields of the parts of UTF-8 encoded line stored in the given range of the array.
+     *
+     * @param line  an array containing UTF-8 encoded log.
+     * @param from  the index of the first byte of the log (inclusive).
+     * @param to    the index of the last byte of the log (exclusive).
+     * @param parts the parts of the line whose fields are to be found.
+     * @return the fields of the line, {@code null} if the separators of the fields aren't found.
+     */
+    public static LineFields locate(byte[] line, int from, int to, Set<LinePart> parts) {
+        LineFields fields = new ByteLine(line);
+        return fields.locate(from, to, parts) ? fields : null;
+    }
+
+    /**
+     * Finds the fields of the parts of the line.
+     *
+     * @param line  the log.
+     * @param parts the parts of the line whose fields are to be found.
+     * @return the fields of the line, {@code null} if the separators of the fields aren't found.
+     */
+    public static LineFields locate(String line, Set<LinePart> parts) {
+        LineFields fields = new StringLine(line);
+        return fields.locate(0, line.length(), parts) ? fields : null;
+    }
+
+    /**
+     * Checks the value of the field, which must belong to one of the parts the fields were found for.
+     *
+     * @param field   the field to be checked.
+     * @param matcher the check of the value.
+     * @return {@code true} if the value of the field matches, {@code false} otherwise.
+     */
+    public boolean matches(FilterField field, ValueMatcher matcher) {
+        return matches(matcher, starts[field.ordinal()], ends[field.ordinal()]);
+    }
+
+    abstract int at(int index);
+
+    abstract boolean matches(ValueMatcher matcher, int from, int to);
+
+    private boolean locate(int from, int to, Set<LinePart> parts) {
+        boolean head = parts.contains(LinePart.ADDRESS) || parts.contains(LinePart.REQUEST);
+        return (!head || locateHead(from, to, parts.contains(LinePart.REQUEST)))
+            && (!parts.contains(LinePart.TAIL) || locateTail(from, to));
+    }
+
+    private boolean locateHead(int from, int to, boolean request) {
+        int addressEnd = indexOf(SPACE, from, to);
+        if (addressEnd < 0) {
+            return false;
+        }
+        setBoundaries(FilterField.REMOTE_ADDRESS, from, addressEnd);
+        if (!request) {
+            return true;
+        }
+        int methodStart = indexOfRequest(addressEnd, to);
+        int methodEnd = methodStart < 0 ? -1 : indexOf(SPACE, methodStart, to);
+        int pathEnd = methodEnd < 0 ? -1 : indexOf(SPACE, methodEnd + 1, to);
+        setBoundaries(FilterField.HTTP_METHOD, methodStart, methodEnd);
+        setBoundaries(FilterField.HTTP_PATH, methodEnd + 1, pathEnd);
+        return pathEnd >= 0;
+    }
+
+    /**
+     * Finds the fields at the end of the line: {@code $status $body_bytes_sent "$http_referer" "$http_user_agent"}.
+     * If a separator isn't found, the start of the status turns out to be before the line.
+     */
+    private boolean locateTail(int from, int to) {
+        int userAgentEnd = to - 1;
+        int userAgentStart = lastIndexOf(QUOTE, from, userAgentEnd) + 1;
+        int refererEnd = lastIndexOf(QUOTE, from, userAgentStart - 1);
+        int refererStart = lastIndexOf(QUOTE, from, refererEnd) + 1;
+        int bytesEnd = refererStart - 2;
+        int bytesStart = lastIndexOf(SPACE, from, bytesEnd) + 1;
+        int statusEnd = bytesStart - 1;
+        setBoundaries(FilterField.HTTP_USER_AGENT, userAgentStart, userAgentEnd);
+        setBoundaries(FilterField.HTTP_REFERER, refererStart, refererEnd);
+        setBoundaries(FilterField.BODY_BYTES_SENT, bytesStart, bytesEnd);
+        setBoundaries(FilterField.HTTP_STATUS, statusEnd - HTTP_STATUS_LENGTH, statusEnd);
+        return statusEnd - HTTP_STATUS_LENGTH >= from;
+    }
+
+    private void setBoundaries(FilterField field, int start, int end) {
+        starts[field.ordinal()] = start;
+        ends[field.ordinal()] = end;
+    }
+
+    /**
+     * Returns the index following the first {@code ] "} in the range, -1 if there is no such separator.
+     */
+    private int indexOfRequest(int from, int to) {
+        for (int i = indexOf(CLOSING_BRACKET, from, to); i >= 0; i = indexOf(CLOSING_BRACKET, i + 1, to)) {
+            if (i + REQUEST_SEPARATOR_LENGTH <= to && at(i + 1) == SPACE && at(i + 2) == QUOTE) {
+                return i + REQUEST_SEPARATOR_LENGTH;
+            }
+        }
+        return -1;
+    }
+
+    private int indexOf(int value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (at(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the last occurrence of the value in the range, {@code from - 1} if there is no such value.
+     */
+    private int lastIndexOf(int value, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            if (at(i) == value) {
+                return i;
+            }
+        }
+        return from - 1;
+    }
+
+    private static final class ByteLine extends LineFields {
+
+        private final byte[] line;
+
+        private ByteLine(byte[] line) {
+            this.line = line;
+        }
+
+        @Override
+        int at(int index) {
+            return line[index];
+        }
+
+        @Override
+        boolean matches(ValueMatcher matcher, int from, int to) {
+            return matcher.matches(line, from, to);
+        }
+    }
+
+    private static final class StringLine extends LineFields {
+
+        private final String line;
+
+        private StringLine(String line) {
+            this.line = line;
+        }
+
+        @Override
+        int at(int index) {
+            return line.charAt(index);
+        }
+
+        @Override
+        boolean matches(ValueMatcher matcher, int from, int to) {
+            return matcher.matches(line.substring(from, to));
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package analyzer.filter;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * A compiled check of the value of a field. Implementations are provided by {@link ValueMatchers}.
+ */
+public interface ValueMatcher {
+
+    /**
+     * Checks the value of a field.
+     *
+     * @param value the value of the field.
+     * @return {@code true} if the value matches, {@code false} otherwise.
+     */
+    boolean matches(String value);
+
+    /**
+     * Checks the UTF-8 encoded value of a field stored in the given range of the array.
+     * By default, the value is decoded to a string and passed to {@link #matches(String)}.
+     *
+     * @param line an array containing UTF-8 encoded value.
+     * @param from the index of the first byte of the value (inclusive).
+     * @param to   the index of the last byte of the value (exclusive).
+     * @return {@code true} if the value matches, {@code false} otherwise.
+     */
+    default boolean matches(byte[] line, int from, int to) {
+        return matches(new String(line, from, to - from, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the relative cost of the check, so that cheaper checks can be done first.
+     *
+     * @return the cost of the check, a positive number.
+     */
+    int cost();
+}
@@ -0,0 +1,304 @@
+package analyzer.filter;
+
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.regex.Pattern;
+import lombok.experimental.UtilityClass;
+
+/**
+ * A class that allows to create the checks of the values of fields. The checks of text, numbers and IPv4 addresses
+ * are done on UTF-8 encoded values without decoding them.
+ */
+@UtilityClass
+public class ValueMatchers {
+
+    private static final int TEXT_COST = 1;
+    private static final int NETWORK_COST = 2;
+    private static final int GLOB_COST = 4;
+    private static final int REGEX_COST = 8;
+
+    private static final int ASCII_LIMIT = 0x80;
+    private static final int IPV4_BITS = 32;
+    private static final int IPV4_OCTETS = 4;
+    private static final int IPV4_MAX_OCTET = 255;
+    private static final int IPV4_MAX_OCTET_LENGTH = 3;
+    private static final int BYTE_MASK = 0xff;
+
+    /**
+     * Creates a check that the value is equal to the specified value.
+     *
+     * @param value the expected value.
+     * @return the check of the value.
+     */
+    public static ValueMatcher equalTo(String value) {
+        return new Text(value, toAscii(value), false);
+    }
+
+    /**
+     * Creates a check that the value starts with the specified prefix.
+     *
+     * @param prefix the expected prefix.
+     * @return the check of the value.
+     */
+    public static ValueMatcher prefix(String prefix) {
+        return new Text(prefix, toAscii(prefix), true);
+    }
+
+    /**
+     * Creates a check that the value contains a match of the regular expression.
+     *
+     * @param regex the regular expression.
+     * @return the check of the value.
+     * @throws java.util.regex.PatternSyntaxException if the regular expression is invalid.
+     */
+    public static ValueMatcher regex(String regex) {
+        return new Regex(Pattern.compile(regex), false, REGEX_COST);
+    }
+
+    /**
+     * Creates a check that the whole value matches the glob: {@code *} matches any characters except {@code /},
+     * {@code **} matches any characters, {@code ?} matches any character except {@code /}, other characters match
+     * themselves.
+     *
+     * @param glob the glob.
+     * @return the check of the value.
+     */
+    public static ValueMatcher glob(String glob) {
+        StringBuilder regex = new StringBuilder();
+        for (int i = 0; i < glob.length(); i++) {
+            char symbol = glob.charAt(i);
+            if (symbol == '*' && i + 1 < glob.length() && glob.charAt(i + 1) == '*') {
+                regex.append(".*");
+                i++;
+            } else if (symbol == '*') {
+                regex.append("[^/]*");
+            } else if (symbol == '?') {
+                regex.append("[^/]");
+            } else {
+                regex.append(Pattern.quote(String.valueOf(symbol)));
+            }
+        }
+        return new Regex(Pattern.compile(regex.toString(), Pattern.DOTALL), true, GLOB_COST);
+    }
+
+    /**
+     * Creates a check that the value is a non-negative integer within the range. Integers exceeding the
+     * {@code long} range are considered to be equal to {@link Long#MAX_VALUE}.
+     *
+     * @param min the minimum value (inclusive).
+     * @param max the maximum value (inclusive).
+     * @return the check of the value.
+     */
+    public static ValueMatcher range(long min, long max) {
+        return new Range(min, max);
+    }
+
+    /**
+     * Creates a check that the value is an IP address within the network.
+     *
+     * @param cidr the network in the CIDR notation, for example, {@code 10.0.0.0/8} or {@code 2001:db8::/32}.
+     * @return the check of the value.
+     * @throws IllegalArgumentException if the network isn't in the CIDR notation.
+     */
+    public static ValueMatcher network(String cidr) {
+        int slash = cidr.indexOf('/');
+        byte[] address = slash < 0 ? null : parseAddress(cidr.substring(0, slash));
+        int prefixLength = slash < 0 ? -1 : parseNumber(cidr.substring(slash + 1));
+        if (address == null || prefixLength < 0 || prefixLength > address.length * Byte.SIZE) {
+            throw new IllegalArgumentException("Invalid network: \"" + cidr + "\"");
+        }
+        return new Network(address, prefixLength);
+    }
+
+    private static byte[] toAscii(String value) {
+        boolean ascii = value.chars().allMatch(symbol -> symbol < ASCII_LIMIT);
+        return ascii ? value.getBytes(StandardCharsets.US_ASCII) : null;
+    }
+
+    private static int parseNumber(String value) {
+        long number = parseNumber(value.getBytes(StandardCharsets.ISO_8859_1), 0, value.length());
+        return number > Integer.MAX_VALUE ? -1 : (int) number;
+    }
+
+    /**
+     * Parses a non-negative integer, saturating at {@link Long#MAX_VALUE}.
+     *
+     * @return the integer, -1 if the value isn't a non-negative integer.
+     */
+    @SuppressWarnings("MagicNumber")
+    private static long parseNumber(byte[] line, int from, int to) {
+        if (from == to) {
+            return -1;
+        }
+        long result = 0;
+        for (int i = from; i < to; i++) {
+            int digit = line[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            result = result > (Long.MAX_VALUE - digit) / 10 ? Long.MAX_VALUE : result * 10 + digit;
+        }
+        return result;
+    }
+
+    private static byte[] parseAddress(String address) {
+        if (address.indexOf(':') < 0) {
+            byte[] line = address.getBytes(StandardCharsets.ISO_8859_1);
+            long ipv4 = parseIpv4(line, 0, line.length);
+            if (ipv4 < 0) {
+                return null;
+            }
+            byte[] octets = new byte[IPV4_OCTETS];
+            for (int i = IPV4_OCTETS - 1; i >= 0; i--, ipv4 >>>= Byte.SIZE) {
+                octets[i] = (byte) ipv4;
+            }
+            return octets;
+        }
+        try {
+            // brackets make the address a literal, which is never resolved by DNS
+            return InetAddress.getByName("[" + address + "]").getAddress();
+        } catch (UnknownHostException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Parses an IPv4 address in the dotted-decimal notation.
+     *
+     * @return the address as an unsigned 32-bit integer, -1 if the value isn't an IPv4 address.
+     */
+    private static long parseIpv4(byte[] line, int from, int to) {
+        long address = 0;
+        int position = from;
+        for (int octet = 0; octet < IPV4_OCTETS; octet++) {
+            if (octet > 0 && (position >= to || line[position++] != '.')) {
+                return -1;
+            }
+            int octetEnd = position;
+            while (octetEnd < to && octetEnd - position < IPV4_MAX_OCTET_LENGTH && line[octetEnd] != '.') {
+                octetEnd++;
+            }
+            long value = parseNumber(line, position, octetEnd);
+            if (value < 0 || value > IPV4_MAX_OCTET) {
+                return -1;
+            }
+            address = address << Byte.SIZE | value;
+            position = octetEnd;
+        }
+        return position == to ? address : -1;
+    }
+
+    private record Text(String value, byte[] ascii, boolean prefix) implements ValueMatcher {
+
+        @Override
+        public boolean matches(String actual) {
+            return prefix ? actual.startsWith(value) : actual.equals(value);
+        }
+
+        @Override
+        public boolean matches(byte[] line, int from, int to) {
+            if (ascii == null) {
+                return ValueMatcher.super.matches(line, from, to);
+            }
+            int length = to - from;
+            return (prefix ? length >= ascii.length : length == ascii.length)
+                && Arrays.equals(line, from, from + ascii.length, ascii, 0, ascii.length);
+        }
+
+        @Override
+        public int cost() {
+            return TEXT_COST;
+        }
+    }
+
+    private record Regex(Pattern pattern, boolean whole, int cost) implements ValueMatcher {
+
+        @Override
+        public boolean matches(String actual) {
+            return whole ? pattern.matcher(actual).matches() : pattern.matcher(actual).find();
+        }
+    }
+
+    private record Range(long min, long max) implements ValueMatcher {
+
+        @Override
+        public boolean matches(String actual) {
+            byte[] line = actual.getBytes(StandardCharsets.ISO_8859_1);
+            return matches(line, 0, line.length);
+        }
+
+        @Override
+        public boolean matches(byte[] line, int from, int to) {
+            long value = parseNumber(line, from, to);
+            return value >= 0 && value >= min && value <= max;
+        }
+
+        @Override
+        public int cost() {
+            return TEXT_COST;
+        }
+    }
+
+    private static final class Network implements ValueMatcher {
+
+        private final byte[] address;
+        private final int prefixLength;
+        private final long ipv4Network;
+        private final long ipv4Mask;
+
+        private Network(byte[] address, int prefixLength) {
+            this.address = address;
+            this.prefixLength = prefixLength;
+            long network = 0;
+            for (var octet : address) {
+                network = network << Byte.SIZE | octet & BYTE_MASK;
+            }
+            ipv4Network = network;
+            ipv4Mask = prefixLength == 0 ? 0 : -1L << (IPV4_BITS - prefixLength);
+        }
+
+        @Override
+        public boolean matches(String actual) {
+            if (actual.indexOf(':') < 0) {
+                byte[] line = actual.getBytes(StandardCharsets.ISO_8859_1);
+                return matches(line, 0, line.length);
+            }
+            return contains(parseAddress(actual));
+        }
+
+        @Override
+        public boolean matches(byte[] line, int from, int to) {
+            for (int i = from; i < to; i++) {
+                if (line[i] == ':') {
+                    return contains(parseAddress(new String(line, from, to - from, StandardCharsets.UTF_8)));
+                }
+            }
+            if (address.length != IPV4_OCTETS) {
+                return false;
+            }
+            long ipv4 = parseIpv4(line, from, to);
+            return ipv4 >= 0 && ((ipv4 ^ ipv4Network) & ipv4Mask) == 0;
+        }
+
+        private boolean contains(byte[] actual) {
+            if (actual == null || actual.length != address.length) {
+                return false;
+            }
+            int bits = prefixLength;
+            for (int i = 0; bits > 0; i++, bits -= Byte.SIZE) {
+                int mask = bits >= Byte.SIZE ? BYTE_MASK : BYTE_MASK << (Byte.SIZE - bits) & BYTE_MASK;
+                if (((actual[i] ^ address[i]) & mask) != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public int cost() {
+            return NETWORK_COST;
+        }
+    }
+}
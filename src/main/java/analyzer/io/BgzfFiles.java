@@ -0,0 +1,125 @@
+package analyzer.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import lombok.experimental.UtilityClass;
+
+/**
+ * A class that allows to split files compressed in the BGZF format into runs of gzip members that can be
+ * decompressed independently.
+ * <p>BGZF is a gzip format whose members store their compressed size in the {@code BC} subfield of the header,
+ * so the boundaries of the members are known without decompressing them. Such files are valid multi-member gzip
+ * files, produced e.g. by {@code bgzip}. The boundaries of the members of other gzip files can only be found by
+ * decompressing them.</p>
+ */
+@UtilityClass
+public class BgzfFiles {
+
+    private static final int FIXED_HEADER_SIZE = 12;
+    private static final byte ID1 = (byte) 0x1f;
+    private static final byte ID2 = (byte) 0x8b;
+    private static final byte DEFLATE = 8;
+    private static final int FLAGS_OFFSET = 3;
+    private static final int FLAG_EXTRA = 4;
+    private static final int EXTRA_LENGTH_OFFSET = 10;
+    private static final int SUBFIELD_HEADER_SIZE = 4;
+    private static final byte SUBFIELD_ID1 = 'B';
+    private static final byte SUBFIELD_ID2 = 'C';
+    private static final int BLOCK_SIZE_LENGTH = 2;
+
+    private static final int UNSIGNED_SHORT_MASK = 0xffff;
+
+    /**
+     * Splits the file into runs of consecutive BGZF members of about the given compressed size.
+     *
+     * @param channel the channel of the file to be split.
+     * @param runSize the desired compressed size of a run.
+     * @return the list of runs covering the whole file in the order of their positions, {@code null} if the file
+     *     isn't a BGZF file.
+     * @throws IOException if an I/O error occurs.
+     */
+    public static List<FileChunk> split(FileChannel channel, long runSize) throws IOException {
+        long size = channel.size();
+        List<FileChunk> runs = new ArrayList<>();
+        long runStart = 0;
+        long position = 0;
+        while (position < size) {
+            long memberSize = readMemberSize(channel, position);
+            if (memberSize <= 0 || position + memberSize > size) {
+                return null;
+            }
+            position += memberSize;
+            if (position - runStart >= runSize || position == size) {
+                runs.add(new FileChunk(runStart, position));
+                runStart = position;
+            }
+        }
+        return runs.isEmpty() ? null : runs;
+    }
+
+    /**
+     * Decompresses the run of members.
+     *
+     * @param channel the channel of the file containing the run.
+     * @param run     the run of members returned by {@link #split(FileChannel, long)}.
+     * @return the decompressed content of the run.
+     * @throws IOException if an I/O error occurs or the members are corrupted.
+     */
+    public static byte[] inflate(FileChannel channel, FileChunk run) throws IOException {
+        ByteBuffer compressed = ByteBuffer.allocate(Math.toIntExact(run.length()));
+        while (compressed.hasRemaining()) {
+            if (channel.read(compressed, run.start() + compressed.position()) < 0) {
+                throw new IOException("Unexpected end of the BGZF file.");
+            }
+        }
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.array()))) {
+            return in.readAllBytes();
+        }
+    }
+
+    /**
+     * Reads the compressed size of the member from the {@code BC} subfield of its header.
+     *
+     * @return the compressed size of the member, -1 if it isn't a BGZF member.
+     */
+    private static long readMemberSize(FileChannel channel, long position) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(FIXED_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+        if (!readFully(channel, header, position)
+            || header.get(0) != ID1 || header.get(1) != ID2 || header.get(2) != DEFLATE
+            || (header.get(FLAGS_OFFSET) & FLAG_EXTRA) == 0) {
+            return -1;
+        }
+        ByteBuffer extra = ByteBuffer
+            .allocate(header.getShort(EXTRA_LENGTH_OFFSET) & UNSIGNED_SHORT_MASK)
+            .order(ByteOrder.LITTLE_ENDIAN);
+        if (!readFully(channel, extra, position + FIXED_HEADER_SIZE)) {
+            return -1;
+        }
+        int offset = 0;
+        while (offset + SUBFIELD_HEADER_SIZE <= extra.limit()) {
+            int length = extra.getShort(offset + 2) & UNSIGNED_SHORT_MASK;
+            if (extra.get(offset) == SUBFIELD_ID1 && extra.get(offset + 1) == SUBFIELD_ID2
+                && length == BLOCK_SIZE_LENGTH && offset + SUBFIELD_HEADER_SIZE + length <= extra.limit()) {
+                return (extra.getShort(offset + SUBFIELD_HEADER_SIZE) & UNSIGNED_SHORT_MASK) + 1;
+            }
+            offset += SUBFIELD_HEADER_SIZE + length;
+        }
+        return -1;
+    }
+
+    private static boolean readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,100 @@
+package analyzer.io;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * The compression formats of logs, which are detected by the magic bytes at the beginning of the compressed data.
+ */
+public enum Compression {
+    /**
+     * Uncompressed data.
+     */
+    NONE,
+    /**
+     * The gzip format, including concatenated multi-member files and BGZF files.
+     */
+    GZIP,
+    /**
+     * The Zstandard format, which is detected but can't be decompressed.
+     */
+    ZSTD;
+
+    private static final byte[] GZIP_MAGIC = {(byte) 0x1f, (byte) 0x8b};
+    private static final byte[] ZSTD_MAGIC = {(byte) 0x28, (byte) 0xb5, (byte) 0x2f, (byte) 0xfd};
+    private static final int MAGIC_LENGTH = 4;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Detects the compression format of the file.
+     *
+     * @param path the path of the file.
+     * @return the compression format of the file, {@link #NONE} if it isn't compressed.
+     * @throws IOException if an I/O error occurs.
+     */
+    public static Compression detect(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            return detect(in.readNBytes(MAGIC_LENGTH));
+        }
+    }
+
+    /**
+     * Opens the file for reading its decompressed content.
+     *
+     * @param path the path of the file.
+     * @return a stream decompressing the file if it is compressed, a stream reading the file otherwise.
+     * @throws IOException if an I/O error occurs or the file is compressed in an unsupported format.
+     */
+    public static InputStream open(Path path) throws IOException {
+        InputStream in = Files.newInputStream(path);
+        try {
+            return decompress(in);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Wraps the stream into a stream that decompresses it if it is compressed.
+     * Concatenated gzip members are decompressed one after another.
+     *
+     * @param in the stream to be wrapped.
+     * @return a stream decompressing the stream if it is compressed, a buffered stream reading it otherwise.
+     * @throws IOException if an I/O error occurs or the stream is compressed in an unsupported format.
+     */
+    public static InputStream decompress(InputStream in) throws IOException {
+        BufferedInputStream buffered = new BufferedInputStream(in, BUFFER_SIZE);
+        buffered.mark(MAGIC_LENGTH);
+        byte[] magic = buffered.readNBytes(MAGIC_LENGTH);
+        buffered.reset();
+        return switch (detect(magic)) {
+            case NONE -> buffered;
+            case GZIP -> new GZIPInputStream(buffered, BUFFER_SIZE);
+            case ZSTD -> throw new IOException("Zstandard-compressed logs aren't supported, decompress them first.");
+        };
+    }
+
+    /**
+     * Detects the compression format of the data by its first bytes.
+     *
+     * @param magic the first bytes of the data, at least 4 bytes unless the data is shorter.
+     * @return the compression format of the data, {@link #NONE} if it isn't compressed.
+     */
+    public static Compression detect(byte[] magic) {
+        if (startsWith(magic, GZIP_MAGIC)) {
+            return GZIP;
+        }
+        return startsWith(magic, ZSTD_MAGIC) ? ZSTD : NONE;
+    }
+
+    private static boolean startsWith(byte[] bytes, byte[] prefix) {
+        return bytes.length >= prefix.length && Arrays.equals(bytes, 0, prefix.length, prefix, 0, prefix.length);
+    }
+}
@@ -0,0 +1,19 @@
+package analyzer.io;
+
+/**
+ * A region of a file that starts at the beginning of a line and ends right after the end of a line.
+ *
+ * @param start the position of the first byte of the chunk (inclusive).
+ * @param end   the position of the last byte of the chunk (exclusive).
+ */
+public record FileChunk(long start, long end) {
+
+    /**
+     * Returns the number of bytes in the chunk.
+     *
+     * @return the number of bytes in the chunk.
+     */
+    public long length() {
+        return end - start;
+    }
+}
@@ -0,0 +1,194 @@
+package analyzer.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.ObjLongConsumer;
+import lombok.experimental.UtilityClass;
+
+/**
+ * A class that allows to split files into newline-aligned chunks and to read lines
+ * of the chunks through memory mapping. The lines are passed as ranges of reused arrays of bytes.
+ */
+@UtilityClass
+public class FileChunks {
+
+    private static final byte LINE_FEED = '\n';
+
+    private static final long MIN_CHUNK_SIZE = 1L << 20;
+    private static final long MAX_CHUNK_SIZE = 1L << 28;
+    private static final int ALIGNMENT_BUFFER_SIZE = 1 << 13;
+    private static final int WINDOW_SIZE = 1 << 20;
+
+    /**
+     * Splits the file into approximately equal chunks, each of which starts at the beginning
+     * of a line and ends right after the end of a line.
+     * The chunks are never larger than 256 MiB (plus the tail of the last line) and never smaller
+     * than 1 MiB (except for the last one), so the actual number of chunks may differ from the requested one.
+     *
+     * @param channel      the channel of the file to be split.
+     * @param chunksNumber the desired number of chunks.
+     * @return the list of chunks covering the whole file in the order of their positions.
+     * @throws IOException if an I/O error occurs.
+     */
+    public static List<FileChunk> split(FileChannel channel, int chunksNumber) throws IOException {
+        return split(channel, new FileChunk(0, channel.size()), chunksNumber);
+    }
+
+    /**
+     * Splits the region of the file into approximately equal chunks like {@link #split(FileChannel, int)}.
+     *
+     * @param channel      the channel of the file to be split.
+     * @param region       the region of the file to be split, starting at the beginning of a line and ending right
+     *                     after the end of a line.
+     * @param chunksNumber the desired number of chunks.
+     * @return the list of chunks covering the whole region in the order of their positions.
+     * @throws IOException if an I/O error occurs.
+     */
+    public static List<FileChunk> split(FileChannel channel, FileChunk region, int chunksNumber) throws IOException {
+        long size = region.end();
+        long chunkSize = Math.clamp(
+            Math.ceilDiv(region.length(), Math.max(chunksNumber, 1)),
+            MIN_CHUNK_SIZE,
+            MAX_CHUNK_SIZE
+        );
+        List<FileChunk> chunks = new ArrayList<>();
+        long start = region.start();
+        while (start < size) {
+            long end = alignToLineEnd(channel, Math.min(start + chunkSize, size), size);
+            chunks.add(new FileChunk(start, end));
+            start = end;
+        }
+        return chunks;
+    }
+
+    /**
+     * Maps the chunk into memory and passes each of its lines to the consumer. Both {@code \n} and
+     * {@code \r\n} are treated as line terminators.
+     *
+     * @param channel  the channel of the file containing the chunk.
+     * @param chunk    the chunk to be read.
+     * @param consumer the operation to be performed on each line.
+     * @throws IOException if an I/O error occurs.
+     */
+    public static void forEachLine(FileChannel channel, FileChunk chunk, LineConsumer consumer) throws IOException {
+        forEachBlock(channel, chunk, block -> block.forEachLine(consumer));
+    }
+
+    /**
+     * Maps the chunk into memory and passes each of its lines with its position in the file to the consumer.
+     * Both {@code \n} and {@code \r\n} are treated as line terminators.
+     *
+     * @param channel  the channel of the file containing the chunk.
+     * @param chunk    the chunk to be read.
+     * @param consumer the operation to be performed on each line.
+     * @throws IOException if an I/O error occurs.
+     */
+    public static void forEachLine(FileChannel channel, FileChunk chunk, PositionedLineConsumer consumer)
+        throws IOException {
+        forEachBlock(channel, chunk, (block, position) -> block.forEachLine((buffer, from, to) ->
+            consumer.accept(buffer, from, to, position + from)));
+    }
+
+    /**
+     * Maps the chunk into memory and passes it to the consumer as blocks of complete lines. The mapped bytes are
+     * copied into a reused window of about {@value #WINDOW_SIZE} bytes at a time, and each block refers to the lines
+     * of the window as they are, so neither single lines are copied nor bytes are decoded. A window is larger only
+     * if it contains a longer line.
+     * <p>The array of a block is overwritten by the next block, so a block is valid only until the consumer
+     * returns.</p>
+     *
+     * @param channel  the channel of the file containing the chunk.
+     * @param chunk    the chunk to be read.
+     * @param consumer the operation to be performed on each block.
+     * @throws IOException if an I/O error occurs.
+     */
+    public static void forEachBlock(FileChannel channel, FileChunk chunk, Consumer<LineBlock> consumer)
+        throws IOException {
+        forEachBlock(channel, chunk, (block, position) -> consumer.accept(block));
+    }
+
+    /**
+     * Passes the blocks of the chunk to the consumer like {@link #forEachBlock(FileChannel, FileChunk, Consumer)}
+     * together with the position in the file of the first byte of the array of each block.
+     */
+    private static void forEachBlock(FileChannel channel, FileChunk chunk, ObjLongConsumer<LineBlock> consumer)
+        throws IOException {
+        if (chunk.length() == 0) {
+            return;
+        }
+        MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, chunk.start(), chunk.length());
+        int limit = buffer.limit();
+        byte[] window = new byte[Math.min(WINDOW_SIZE, limit)];
+        int offset = 0;
+        int length = 0;
+        while (offset + length < limit) {
+            if (length == window.length) {
+                window = Arrays.copyOf(window, window.length * 2);
+            }
+            int scanned = length;
+            int read = Math.min(window.length - length, limit - offset - length);
+            buffer.get(offset + length, window, length, read);
+            length += read;
+            int end = offset + length == limit ? length : LineFeeds.lastIndexOf(window, scanned, length) + 1;
+            if (end > 0) {
+                consumer.accept(new LineBlock(window, 0, end), chunk.start() + offset);
+                System.arraycopy(window, end, window, 0, length - end);
+                offset += end;
+                length -= end;
+            }
+        }
+    }
+
+    /**
+     * Finds the end of the last complete line of the file.
+     *
+     * @param channel the channel of the file.
+     * @param size    the size of the part of the file to be searched.
+     * @return the position right after the last {@code \n} before the given size, 0 if there is none.
+     * @throws IOException if an I/O error occurs.
+     */
+    public static long findLastLineEnd(FileChannel channel, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(ALIGNMENT_BUFFER_SIZE);
+        long end = size;
+        while (end > 0) {
+            long start = Math.max(0, end - buffer.capacity());
+            buffer.clear().limit((int) (end - start));
+            channel.read(buffer, start);
+            for (int i = buffer.position() - 1; i >= 0; i--) {
+                if (buffer.get(i) == LINE_FEED) {
+                    return start + i + 1;
+                }
+            }
+            end = start;
+        }
+        return 0;
+    }
+
+    private static long alignToLineEnd(FileChannel channel, long position, long size) throws IOException {
+        if (position >= size) {
+            return size;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(ALIGNMENT_BUFFER_SIZE);
+        long offset = position - 1;
+        while (offset < size) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == LINE_FEED) {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return size;
+    }
+}
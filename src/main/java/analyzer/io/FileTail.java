@@ -0,0 +1,127 @@
+package analyzer.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Objects;
+
+/**
+ * A class that follows a file like {@code tail -F} and reads the lines appended to the file since the previous read.
+ * <p>A line is read only when its {@code \n} terminator has been written, {@code \r\n} is treated as
+ * a line terminator too. If the file is truncated, it is read again from the beginning. If the file is replaced
+ * by another file (its file key, the inode on Unix, changes), the rest of the replaced file is read first, and then
+ * the new file is read from the beginning. If the file doesn't exist, it is waited for.</p>
+ */
+public final class FileTail implements Closeable {
+
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    private static final int INITIAL_BUFFER_SIZE = 1 << 16;
+
+    private final Path path;
+    private boolean fromEnd;
+
+    private FileChannel channel;
+    private Object fileKey;
+    private long position;
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_BUFFER_SIZE);
+
+    /**
+     * Creates a tail of the file. The file is opened by the first read.
+     *
+     * @param path    the path of the file to be followed.
+     * @param fromEnd whether the lines the file contains when it is read for the first time should be skipped,
+     *                a file that doesn't exist by then is read from the beginning once it is created.
+     */
+    public FileTail(Path path, boolean fromEnd) {
+        this.path = path;
+        this.fromEnd = fromEnd;
+    }
+
+    /**
+     * Passes each line appended to the file since the previous read to the consumer.
+     *
+     * @param consumer the operation to be performed on each line.
+     * @throws IOException if an I/O error occurs.
+     */
+    public void read(LineConsumer consumer) throws IOException {
+        if (channel == null && !open()) {
+            return;
+        }
+        BasicFileAttributes attributes = readAttributes();
+        readAppendedLines(consumer);
+        if (attributes != null && !Objects.equals(attributes.fileKey(), fileKey)) {
+            close();
+            if (open()) {
+                readAppendedLines(consumer);
+            }
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    private boolean open() throws IOException {
+        boolean skipExistingLines = fromEnd;
+        fromEnd = false;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+        BasicFileAttributes attributes = readAttributes();
+        fileKey = attributes == null ? null : attributes.fileKey();
+        position = skipExistingLines ? FileChunks.findLastLineEnd(channel, channel.size()) : 0;
+        return true;
+    }
+
+    private BasicFileAttributes readAttributes() throws IOException {
+        try {
+            return Files.readAttributes(path, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            return null;
+        }
+    }
+
+    private void readAppendedLines(LineConsumer consumer) throws IOException {
+        long size = channel.size();
+        if (size < position) {
+            position = 0;
+        }
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                return;
+            }
+            byte[] bytes = buffer.array();
+            int lineStart = 0;
+            for (int i = 0; i < read; i++) {
+                if (bytes[i] == LINE_FEED) {
+                    int end = i > lineStart && bytes[i - 1] == CARRIAGE_RETURN ? i - 1 : i;
+                    consumer.accept(bytes, lineStart, end);
+                    lineStart = i + 1;
+                }
+            }
+            if (lineStart == 0) {
+                if (read < buffer.capacity()) {
+                    return;
+                }
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+            }
+            position += lineStart;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package analyzer.io;
+
+/**
+ * A block of complete lines stored in the given range of the array.
+ *
+ * @param bytes the array containing the lines.
+ * @param from  the index of the first byte of the block (inclusive).
+ * @param to    the index of the last byte of the block (exclusive), right after a {@code \n} unless the block is
+ *              the last one of its source.
+ */
+public record LineBlock(byte[] bytes, int from, int to) {
+
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    /**
+     * Passes each line of the block to the consumer. Both {@code \n} and {@code \r\n} are treated as
+     * line terminators, and the bytes after the last terminator are passed as the last line. The lines are passed
+     * as ranges of the array of the block, without being copied or decoded.
+     *
+     * @param consumer the operation to be performed on each line.
+     */
+    public void forEachLine(LineConsumer consumer) {
+        int lineStart = from;
+        for (int i = LineFeeds.indexOf(bytes, from, to); i >= 0; i = LineFeeds.indexOf(bytes, i + 1, to)) {
+            consumer.accept(bytes, lineStart, i > lineStart && bytes[i - 1] == CARRIAGE_RETURN ? i - 1 : i);
+            lineStart = i + 1;
+        }
+        if (lineStart < to) {
+            consumer.accept(bytes, lineStart, bytes[to - 1] == CARRIAGE_RETURN ? to - 1 : to);
+        }
+    }
+}
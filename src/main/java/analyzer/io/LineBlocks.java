@@ -0,0 +1,218 @@
+package analyzer.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A class that reads a stream into blocks of complete lines on a background thread, so that reading
+ * (and decompressing) the stream is pipelined with processing of the lines. The blocks may be taken
+ * by several consumers concurrently.
+ * <p>At most {@value #QUEUE_CAPACITY} blocks of about {@value #BLOCK_SIZE} bytes are read ahead, a block being larger
+ * only if it contains a longer line. The reader waits while the queue is full, so a slow consumer holds back
+ * the reading instead of making the blocks pile up. The arrays of the blocks passed to {@link #release} are reused
+ * for reading the next blocks.</p>
+ * <p>The time each stage spends working and waiting is measured, see {@link #metrics()}.</p>
+ */
+public final class LineBlocks implements Closeable {
+
+    private static final int BLOCK_SIZE = 1 << 20;
+    private static final int QUEUE_CAPACITY = 8;
+
+    private static final LineBlock END = new LineBlock(new byte[0], 0, 0);
+
+    private final InputStream in;
+    private final BlockingQueue<LineBlock> queue = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final BlockingQueue<byte[]> freeBuffers = new ArrayBlockingQueue<>(QUEUE_CAPACITY);
+    private final Thread reader;
+    private volatile Throwable failure;
+
+    private final long started = System.nanoTime();
+    private final LongAdder bytesRead = new LongAdder();
+    private final LongAdder blocksRead = new LongAdder();
+    private final LongAdder readingNanos = new LongAdder();
+    private final LongAdder readerWaitingNanos = new LongAdder();
+    private final LongAdder processingNanos = new LongAdder();
+    private final LongAdder workersWaitingNanos = new LongAdder();
+    private final LongAdder takes = new LongAdder();
+    private final LongAdder queueDepths = new LongAdder();
+    private final LongAdder reusedBuffers = new LongAdder();
+
+    /**
+     * Starts reading the stream on a background thread.
+     *
+     * @param in      the stream to be read, which is closed by {@link #close()}.
+     * @param builder the builder of the background thread, e.g. of a virtual thread if the stream is read from
+     *                the network.
+     */
+    public LineBlocks(InputStream in, Thread.Builder builder) {
+        this.in = in;
+        reader = builder.start(this::read);
+    }
+
+    /**
+     * Takes the next block of lines, waiting for it to be read if necessary.
+     *
+     * @return the next block of lines, {@code null} if the whole stream has been taken.
+     * @throws IOException if an I/O error occurs while reading the stream or the waiting is interrupted.
+     */
+    public LineBlock take() throws IOException {
+        LineBlock block;
+        long start = System.nanoTime();
+        try {
+            int depth = queue.size();
+            block = queue.take();
+            if (block == END) {
+                queue.put(END);
+            } else {
+                takes.increment();
+                queueDepths.add(depth);
+                workersWaitingNanos.add(System.nanoTime() - start);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Waiting for the next block of lines was interrupted.");
+        }
+        if (block != END) {
+            return block;
+        }
+        if (failure != null) {
+            throw new IOException(failure.getMessage(), failure);
+        }
+        return null;
+    }
+
+    /**
+     * Returns a processed block, so that its array is reused for reading, and records the time the block
+     * was processed. The block must not be used after it's released.
+     *
+     * @param block the block taken by {@link #take()}.
+     * @param nanos the number of nanoseconds it took to process the block.
+     */
+    public void release(LineBlock block, long nanos) {
+        processingNanos.add(nanos);
+        if (block.bytes().length >= BLOCK_SIZE) {
+            freeBuffers.offer(block.bytes());
+        }
+    }
+
+    /**
+     * Returns the metrics of reading the stream and processing the blocks measured so far.
+     *
+     * @return the metrics of the pipeline.
+     */
+    public PipelineMetrics metrics() {
+        long blocksTaken = takes.sum();
+        return new PipelineMetrics(
+            bytesRead.sum(),
+            blocksRead.sum(),
+            Duration.ofNanos(System.nanoTime() - started),
+            Duration.ofNanos(readingNanos.sum()),
+            Duration.ofNanos(readerWaitingNanos.sum()),
+            Duration.ofNanos(processingNanos.sum()),
+            Duration.ofNanos(workersWaitingNanos.sum()),
+            blocksTaken == 0 ? 0 : (double) queueDepths.sum() / blocksTaken,
+            QUEUE_CAPACITY,
+            reusedBuffers.sum()
+        );
+    }
+
+    /**
+     * Stops reading the stream and closes it.
+     *
+     * @throws IOException if an I/O error occurs while closing the stream.
+     */
+    @Override
+    public void close() throws IOException {
+        reader.interrupt();
+        try {
+            reader.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        in.close();
+    }
+
+    /**
+     * Reads the stream into blocks until its end or a failure of any kind, which is rethrown to the consumers as
+     * an {@link IOException}. The end is always enqueued, so that the consumers don't wait forever, unless
+     * the reading is stopped by {@link #close()}.
+     */
+    private void read() {
+        boolean interrupted = false;
+        try {
+            byte[] block = newBuffer(0);
+            int length = 0;
+            for (int read = read(block, 0); read >= 0; read = read(block, length)) {
+                length += read;
+                if (length < block.length) {
+                    continue;
+                }
+                int end = LineFeeds.lastIndexOf(block, 0, length) + 1;
+                if (end == 0) {
+                    block = Arrays.copyOf(block, block.length * 2);
+                    continue;
+                }
+                byte[] next = newBuffer(length - end);
+                System.arraycopy(block, end, next, 0, length - end);
+                put(new LineBlock(block, 0, end));
+                block = next;
+                length -= end;
+            }
+            if (length > 0) {
+                put(new LineBlock(block, 0, length));
+            }
+        } catch (InterruptedException e) {
+            interrupted = true;
+        } catch (Throwable e) {
+            failure = e;
+        } finally {
+            if (!interrupted) {
+                putEnd();
+            }
+        }
+    }
+
+    private void putEnd() {
+        try {
+            queue.put(END);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int read(byte[] block, int from) throws IOException {
+        long start = System.nanoTime();
+        try {
+            return in.read(block, from, block.length - from);
+        } finally {
+            readingNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    private void put(LineBlock block) throws InterruptedException {
+        long start = System.nanoTime();
+        queue.put(block);
+        readerWaitingNanos.add(System.nanoTime() - start);
+        blocksRead.increment();
+        bytesRead.add(block.to() - block.from());
+    }
+
+    /**
+     * Returns a released array if there is one large enough, a new array otherwise.
+     */
+    private byte[] newBuffer(int minLength) {
+        byte[] buffer = freeBuffers.poll();
+        if (buffer != null && buffer.length >= minLength) {
+            reusedBuffers.increment();
+            return buffer;
+        }
+        return new byte[Math.max(BLOCK_SIZE, minLength)];
+    }
+}
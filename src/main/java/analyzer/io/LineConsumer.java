@@ -0,0 +1,18 @@
+package analyzer.io;
+
+/**
+ * An operation that accepts a line stored in the given range of the array.
+ * The array may be reused after the operation returns.
+ */
+@FunctionalInterface
+public interface LineConsumer {
+
+    /**
+     * Performs this operation on the given line.
+     *
+     * @param buffer an array containing the line without the line terminator.
+     * @param from   the index of the first byte of the line (inclusive).
+     * @param to     the index of the last byte of the line (exclusive).
+     */
+    void accept(byte[] buffer, int from, int to);
+}
@@ -0,0 +1,83 @@
+package analyzer.io;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.util.Objects;
+import lombok.experimental.UtilityClass;
+
+/**
+ * A class that finds line feeds in arrays of bytes eight bytes at a time: each word of the array is read as
+ * a {@code long} and checked for a line feed by a few bitwise operations instead of comparing its bytes one by one.
+ * The bytes of a line feed can't be a part of a multibyte UTF-8 character, so lines are split without decoding.
+ */
+@UtilityClass
+public class LineFeeds {
+
+    private static final byte LINE_FEED = '\n';
+
+    private static final VarHandle WORDS = MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+    private static final long LINE_FEED_BYTES = 0x0A0A0A0A0A0A0A0AL;
+    private static final long LOW_SEVEN_BITS = 0x7F7F7F7F7F7F7F7FL;
+
+    /**
+     * Returns the index of the first line feed in the range of the array.
+     *
+     * @param bytes the array to be searched.
+     * @param from  the index of the first byte to be searched (inclusive).
+     * @param to    the index of the last byte to be searched (exclusive).
+     * @return the index of the first line feed, -1 if there is none.
+     * @throws IndexOutOfBoundsException if the range is out of the bounds of the array.
+     */
+    public static int indexOf(byte[] bytes, int from, int to) {
+        Objects.checkFromToIndex(from, to, bytes.length);
+        int i = from;
+        for (; i <= to - Long.BYTES; i += Long.BYTES) {
+            long found = findLineFeeds((long) WORDS.get(bytes, i));
+            if (found != 0) {
+                return i + Long.numberOfTrailingZeros(found) / Byte.SIZE;
+            }
+        }
+        for (; i < to; i++) {
+            if (bytes[i] == LINE_FEED) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the index of the last line feed in the range of the array.
+     *
+     * @param bytes the array to be searched.
+     * @param from  the index of the first byte to be searched (inclusive).
+     * @param to    the index of the last byte to be searched (exclusive).
+     * @return the index of the last line feed, -1 if there is none.
+     * @throws IndexOutOfBoundsException if the range is out of the bounds of the array.
+     */
+    public static int lastIndexOf(byte[] bytes, int from, int to) {
+        Objects.checkFromToIndex(from, to, bytes.length);
+        int i = to - Long.BYTES;
+        for (; i >= from; i -= Long.BYTES) {
+            long found = findLineFeeds((long) WORDS.get(bytes, i));
+            if (found != 0) {
+                return i + Long.BYTES - 1 - Long.numberOfLeadingZeros(found) / Byte.SIZE;
+            }
+        }
+        for (int j = i + Long.BYTES - 1; j >= from; j--) {
+            if (bytes[j] == LINE_FEED) {
+                return j;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Returns a word in which the highest bit of each byte is set if and only if the byte of the given word
+     * at the same position is a line feed.
+     */
+    private static long findLineFeeds(long word) {
+        long zeros = word ^ LINE_FEED_BYTES;
+        return ~(((zeros & LOW_SEVEN_BITS) + LOW_SEVEN_BITS) | zeros | LOW_SEVEN_BITS);
+    }
+}
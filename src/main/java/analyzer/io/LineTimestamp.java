@@ -0,0 +1,18 @@
+package analyzer.io;
+
+/**
+ * A function that extracts the timestamp of a line stored in the given range of the array.
+ */
+@FunctionalInterface
+public interface LineTimestamp {
+
+    /**
+     * Returns the timestamp of the given line.
+     *
+     * @param buffer an array containing the line without the line terminator.
+     * @param from   the index of the first byte of the line (inclusive).
+     * @param to     the index of the last byte of the line (exclusive).
+     * @return the timestamp of the line in milliseconds from the epoch.
+     */
+    long applyAsLong(byte[] buffer, int from, int to);
+}
@@ -0,0 +1,77 @@
+package analyzer.io;
+
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * The metrics of a pipeline in which a reader fills blocks of lines and workers process them, which show
+ * the stage that limits the throughput: the reader is the bottleneck if the workers wait for blocks, the workers
+ * are the bottleneck if the reader waits for free space in the queue.
+ *
+ * @param bytes              the number of bytes read.
+ * @param blocks             the number of blocks read.
+ * @param elapsed            the time since the reading started.
+ * @param reading            the time the reader spent reading the source.
+ * @param readerWaiting      the time the reader spent waiting for free space in the queue.
+ * @param processing         the total time the workers spent processing blocks.
+ * @param workersWaiting     the total time the workers spent waiting for blocks.
+ * @param averageQueueDepth  the average number of blocks in the queue when a worker takes a block.
+ * @param queueCapacity      the maximum number of blocks in the queue.
+ * @param reusedBuffers      the number of blocks read into arrays of processed blocks instead of new arrays.
+ */
+public record PipelineMetrics(
+    long bytes,
+    long blocks,
+    Duration elapsed,
+    Duration reading,
+    Duration readerWaiting,
+    Duration processing,
+    Duration workersWaiting,
+    double averageQueueDepth,
+    int queueCapacity,
+    long reusedBuffers
+) {
+
+    private static final double BYTES_PER_MEGABYTE = 1 << 20;
+    private static final double NANOS_PER_SECOND = 1e9;
+
+    /**
+     * Returns the number of megabytes read per second.
+     *
+     * @return the throughput of the pipeline, zero if no time has elapsed.
+     */
+    public double throughput() {
+        long nanos = elapsed.toNanos();
+        return nanos == 0 ? 0 : bytes / BYTES_PER_MEGABYTE / (nanos / NANOS_PER_SECOND);
+    }
+
+    /**
+     * Returns the name of the stage that limits the throughput of the pipeline.
+     *
+     * @return {@code reader} if the workers waited for blocks longer than the reader waited for free space,
+     *     {@code workers} otherwise.
+     */
+    public String bottleneck() {
+        return workersWaiting.compareTo(readerWaiting) > 0 ? "reader" : "workers";
+    }
+
+    @Override
+    public String toString() {
+        return String.format(
+            Locale.ROOT,
+            "%d bytes in %d blocks, %.1f MB/s; reader: reading %d ms, waiting %d ms; workers: processing %d ms,"
+                + " waiting %d ms; queue depth %.1f of %d; reused buffers %d; bottleneck: %s",
+            bytes,
+            blocks,
+            throughput(),
+            reading.toMillis(),
+            readerWaiting.toMillis(),
+            processing.toMillis(),
+            workersWaiting.toMillis(),
+            averageQueueDepth,
+            queueCapacity,
+            reusedBuffers,
+            bottleneck()
+        );
+    }
+}
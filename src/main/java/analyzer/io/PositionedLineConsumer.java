@@ -0,0 +1,19 @@
+package analyzer.io;
+
+/**
+ * An operation that accepts a line stored in the given range of the array together with its position in the file.
+ * The array may be reused after the operation returns.
+ */
+@FunctionalInterface
+public interface PositionedLineConsumer {
+
+    /**
+     * Performs this operation on the given line.
+     *
+     * @param buffer   an array containing the line without the line terminator.
+     * @param from     the index of the first byte of the line (inclusive).
+     * @param to       the index of the last byte of the line (exclusive).
+     * @param position the position of the first byte of the line in the file.
+     */
+    void accept(byte[] buffer, int from, int to, long position);
+}
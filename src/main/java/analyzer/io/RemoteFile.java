@@ -0,0 +1,315 @@
+package analyzer.io;
+
+import java.io.EOFException;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLConnection;
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A class that allows to read a resource located by a URL as a whole or by byte ranges, with timeouts and retries.
+ * <p>A failed request is retried with a growing delay. If the connection breaks in the middle of the content,
+ * the reading is resumed from the last byte received: a range request is sent, so the bytes already read aren't
+ * downloaded again if the server supports range requests, and skipped otherwise. Client errors (HTTP status 4xx)
+ * aren't retried.</p>
+ */
+public final class RemoteFile {
+
+    private static final int HTTP_OK = 200;
+    private static final int HTTP_PARTIAL_CONTENT = 206;
+    private static final int HTTP_RANGE_NOT_SATISFIABLE = 416;
+    private static final int HTTP_CLIENT_ERROR = 400;
+    private static final int HTTP_SERVER_ERROR = 500;
+
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+|\\*)");
+
+    private static final long RETRY_DELAY_MILLIS = 500;
+
+    private static final int BYTE_MASK = 0xff;
+
+    /**
+     * The number of bytes requested to check whether the server supports range requests.
+     */
+    private static final int PROBE_LENGTH = 4;
+
+    private final URL url;
+    private final Duration connectTimeout;
+    private final Duration readTimeout;
+    private final int retries;
+    private boolean rangesSupported;
+    private long length = -1;
+
+    /**
+     * Creates a remote file. No request is sent until the file is {@linkplain #probe() probed} or read.
+     *
+     * @param url            the URL of the resource.
+     * @param connectTimeout the timeout of establishing a connection.
+     * @param readTimeout    the timeout of waiting for the next bytes of a response.
+     * @param retries        the number of times a failed request is retried.
+     */
+    public RemoteFile(URL url, Duration connectTimeout, Duration readTimeout, int retries) {
+        this.url = url;
+        this.connectTimeout = connectTimeout;
+        this.readTimeout = readTimeout;
+        this.retries = Math.max(retries, 0);
+    }
+
+    /**
+     * Requests the first bytes of the resource to find out whether the server supports range requests
+     * and the length of the content.
+     *
+     * @return the first bytes of the content (fewer if the content is shorter), empty if the server doesn't support
+     *     range requests.
+     * @throws IOException if an I/O error occurs.
+     */
+    public byte[] probe() throws IOException {
+        for (int attempt = 0;; attempt++) {
+            try {
+                return probeOnce();
+            } catch (FileNotFoundException e) {
+                throw e;
+            } catch (IOException e) {
+                if (attempt >= retries) {
+                    throw e;
+                }
+                waitBeforeRetry(attempt);
+            }
+        }
+    }
+
+    /**
+     * Returns whether the server supports range requests, as found out by {@link #probe()}.
+     *
+     * @return {@code true} if the resource has been probed and the server supports range requests.
+     */
+    public boolean rangesSupported() {
+        return rangesSupported;
+    }
+
+    /**
+     * Returns the length of the content, as found out by {@link #probe()}.
+     *
+     * @return the length of the content in bytes, -1 if it is unknown.
+     */
+    public long length() {
+        return length;
+    }
+
+    /**
+     * Opens a stream reading the whole content of the resource, which resumes reading after failures.
+     * If the length of the content is known, a connection closed before the end of the content is a failure too.
+     *
+     * @return the stream reading the content, which connects on the first read.
+     */
+    public InputStream openStream() {
+        return openStream(0, length);
+    }
+
+    /**
+     * Reads the range of the content.
+     *
+     * @param range the range of the content, which must lie within the content.
+     * @return the bytes of the range.
+     * @throws IOException if an I/O error occurs or the content ends before the end of the range.
+     */
+    public byte[] read(FileChunk range) throws IOException {
+        try (InputStream in = openStream(range.start(), range.end())) {
+            byte[] bytes = in.readNBytes(Math.toIntExact(range.length()));
+            if (bytes.length < range.length()) {
+                throw new IOException("Unexpected end of the content of \"" + url + "\".");
+            }
+            return bytes;
+        }
+    }
+
+    private InputStream openStream(long from, long to) {
+        return new ResumingStream(from, to);
+    }
+
+    private byte[] probeOnce() throws IOException {
+        URLConnection connection = openConnection();
+        if (!(connection instanceof HttpURLConnection http)) {
+            length = connection.getContentLengthLong();
+            connection.getInputStream().close();
+            return new byte[0];
+        }
+        http.setRequestProperty("Range", "bytes=0-" + (PROBE_LENGTH - 1));
+        try {
+            if (http.getResponseCode() == HTTP_RANGE_NOT_SATISFIABLE) {
+                length = 0;
+                return new byte[0];
+            }
+            int status = checkStatus(http);
+            rangesSupported = status == HTTP_PARTIAL_CONTENT;
+            if (!rangesSupported) {
+                length = http.getContentLengthLong();
+                return new byte[0];
+            }
+            Matcher contentRange = CONTENT_RANGE.matcher(String.valueOf(http.getHeaderField("Content-Range")));
+            rangesSupported = contentRange.matches() && !"*".equals(contentRange.group(3));
+            length = rangesSupported ? Long.parseLong(contentRange.group(3)) : -1;
+            try (InputStream in = http.getInputStream()) {
+                return in.readNBytes(PROBE_LENGTH);
+            }
+        } finally {
+            http.disconnect();
+        }
+    }
+
+    /**
+     * Opens a stream reading the content from the given position.
+     */
+    private InputStream connect(long from, long to) throws IOException {
+        URLConnection connection = openConnection();
+        if (!(connection instanceof HttpURLConnection http)) {
+            InputStream in = connection.getInputStream();
+            in.skipNBytes(from);
+            return in;
+        }
+        if (from > 0 || to >= 0) {
+            http.setRequestProperty("Range", "bytes=" + from + "-" + (to >= 0 ? String.valueOf(to - 1) : ""));
+        }
+        int status = checkStatus(http);
+        InputStream in = http.getInputStream();
+        if (status == HTTP_PARTIAL_CONTENT) {
+            Matcher contentRange = CONTENT_RANGE.matcher(String.valueOf(http.getHeaderField("Content-Range")));
+            if (!contentRange.matches() || Long.parseLong(contentRange.group(1)) != from) {
+                in.close();
+                throw new IOException("Server returned an unexpected range of \"" + url + "\".");
+            }
+        } else {
+            in.skipNBytes(from);
+        }
+        return in;
+    }
+
+    private URLConnection openConnection() throws IOException {
+        URLConnection connection = url.openConnection();
+        connection.setConnectTimeout(Math.toIntExact(connectTimeout.toMillis()));
+        connection.setReadTimeout(Math.toIntExact(readTimeout.toMillis()));
+        return connection;
+    }
+
+    private int checkStatus(HttpURLConnection http) throws IOException {
+        int status = http.getResponseCode();
+        if (status == HTTP_OK || status == HTTP_PARTIAL_CONTENT) {
+            return status;
+        }
+        http.disconnect();
+        String message = "Server returned HTTP status " + status + " for \"" + url + "\".";
+        if (status >= HTTP_CLIENT_ERROR && status < HTTP_SERVER_ERROR) {
+            throw new FileNotFoundException(message);
+        }
+        throw new IOException(message);
+    }
+
+    private static void waitBeforeRetry(int attempt) throws InterruptedIOException {
+        try {
+            Thread.sleep(RETRY_DELAY_MILLIS * (attempt + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Waiting for a retry was interrupted.");
+        }
+    }
+
+    /**
+     * A stream reading the content from the given position up to the given end, which connects on the first read
+     * and reconnects from the last byte read if the reading fails.
+     */
+    private final class ResumingStream extends InputStream {
+
+        private final long end;
+        private long position;
+        private int failures;
+        private InputStream in;
+
+        private ResumingStream(long from, long to) {
+            position = from;
+            end = to;
+        }
+
+        @Override
+        public int read() throws IOException {
+            byte[] bytes = new byte[1];
+            return read(bytes, 0, 1) < 0 ? -1 : bytes[0] & BYTE_MASK;
+        }
+
+        @Override
+        public int read(byte[] bytes, int offset, int count) throws IOException {
+            if (count == 0) {
+                return 0;
+            }
+            int limit = end < 0 ? count : (int) Math.min(count, end - position);
+            if (limit <= 0) {
+                return -1;
+            }
+            if (in == null) {
+                reconnect(null);
+            }
+            while (true) {
+                try {
+                    int read = in.read(bytes, offset, limit);
+                    if (read < 0 && end >= 0) {
+                        throw new EOFException("Connection closed before the end of the content of \"" + url + "\".");
+                    }
+                    if (read > 0) {
+                        position += read;
+                    }
+                    return read;
+                } catch (IOException e) {
+                    reconnect(e);
+                }
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (in != null) {
+                in.close();
+            }
+        }
+
+        /**
+         * Connects at the current position, retrying failed attempts.
+         *
+         * @param failure the failure of the previous connection, null if it is the first connection.
+         */
+        private void reconnect(IOException failure) throws IOException {
+            IOException lastFailure = failure;
+            if (in != null) {
+                closeQuietly(in);
+                in = null;
+            }
+            while (true) {
+                if (lastFailure != null) {
+                    if (failures >= retries) {
+                        throw lastFailure;
+                    }
+                    waitBeforeRetry(failures++);
+                }
+                try {
+                    in = connect(position, end);
+                    return;
+                } catch (FileNotFoundException e) {
+                    throw e;
+                } catch (IOException e) {
+                    lastFailure = e;
+                }
+            }
+        }
+
+        @SuppressWarnings({"CatchParameterName", "IllegalIdentifierName"})
+        private static void closeQuietly(InputStream in) {
+            try {
+                in.close();
+            } catch (IOException _) {
+            }
+        }
+    }
+}
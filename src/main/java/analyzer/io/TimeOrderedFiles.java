@@ -0,0 +1,221 @@
+package analyzer.io;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+import java.util.TreeMap;
+import lombok.experimental.UtilityClass;
+
+/**
+ * A class that allows to find the region of a file whose lines are ordered by time and fall into a time range,
+ * without reading the whole file.
+ * <p>The lines are expected to be nearly ordered: a line may be earlier than a preceding line by no more than
+ * the given tolerance. Under this assumption any line at least {@code tolerance} earlier than the range precedes
+ * every line of the range, and any line at least {@code tolerance} later than the range follows every line of
+ * the range, so the region is found by binary search over byte positions, each probe being resynchronized to
+ * the beginning of the next line.</p>
+ */
+@UtilityClass
+public class TimeOrderedFiles {
+
+    private static final byte LINE_FEED = '\n';
+    private static final byte CARRIAGE_RETURN = '\r';
+
+    private static final int READ_BUFFER_SIZE = 1 << 13;
+
+    /**
+     * Finds the region of the file containing every line whose timestamp is after {@code after} and before
+     * {@code before}. The region may contain other lines as well.
+     * <p>The timestamps of the probed lines are checked to be ordered within the tolerance, if they aren't,
+     * the file is considered not ordered by time.</p>
+     *
+     * @param channel   the channel of the file to be searched.
+     * @param timestamp the function that extracts the timestamp of a line.
+     * @param after     the lower bound of the range in milliseconds from the epoch (exclusive),
+     *                  {@link Long#MIN_VALUE} if the range isn't bounded below.
+     * @param before    the upper bound of the range in milliseconds from the epoch (exclusive),
+     *                  {@link Long#MAX_VALUE} if the range isn't bounded above.
+     * @param tolerance the maximum number of milliseconds by which a line may be earlier than a preceding line.
+     * @return the region of the file starting at the beginning of a line and ending right after the end of a line,
+     *     {@code null} if the file turned out not to be ordered by time.
+     * @throws IOException if an I/O error occurs.
+     */
+    public static FileChunk seek(
+        FileChannel channel,
+        LineTimestamp timestamp,
+        long after,
+        long before,
+        long tolerance
+    ) throws IOException {
+        Map<Long, Long> probes = new TreeMap<>();
+        long size = channel.size();
+        long start = after == Long.MIN_VALUE
+            ? 0
+            : findLastLineNotAfter(channel, timestamp, saturatedSubtract(after, tolerance), size, probes);
+        long end = before == Long.MAX_VALUE
+            ? size
+            : findFirstLineNotBefore(channel, timestamp, saturatedAdd(before, tolerance), start, size, probes);
+        if (!isOrdered(probes, tolerance)) {
+            return null;
+        }
+        return new FileChunk(start, Math.max(start, end));
+    }
+
+    private static long findLastLineNotAfter(
+        FileChannel channel,
+        LineTimestamp timestamp,
+        long bound,
+        long size,
+        Map<Long, Long> probes
+    ) throws IOException {
+        long result = 0;
+        long low = 0;
+        long high = size;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            Line line = readLine(channel, middle, high);
+            if (line == null) {
+                high = middle;
+            } else if (probe(line, timestamp, probes) <= bound) {
+                result = line.start();
+                low = line.end();
+            } else {
+                high = middle;
+            }
+        }
+        return result;
+    }
+
+    private static long findFirstLineNotBefore(
+        FileChannel channel,
+        LineTimestamp timestamp,
+        long bound,
+        long from,
+        long size,
+        Map<Long, Long> probes
+    ) throws IOException {
+        long result = size;
+        long low = from;
+        long high = size;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            Line line = readLine(channel, middle, high);
+            if (line == null) {
+                high = middle;
+            } else if (probe(line, timestamp, probes) >= bound) {
+                result = line.start();
+                high = middle;
+            } else {
+                low = line.end();
+            }
+        }
+        return result;
+    }
+
+    private static long probe(Line line, LineTimestamp timestamp, Map<Long, Long> probes) {
+        long value = timestamp.applyAsLong(line.bytes(), 0, line.length());
+        probes.put(line.start(), value);
+        return value;
+    }
+
+    private static boolean isOrdered(Map<Long, Long> probes, long tolerance) {
+        long latest = Long.MIN_VALUE;
+        for (long value : probes.values()) {
+            if (value < saturatedSubtract(latest, tolerance)) {
+                return false;
+            }
+            latest = Math.max(latest, value);
+        }
+        return true;
+    }
+
+    /**
+     * Reads the first non-empty line starting at or after the position and before the limit.
+     *
+     * @return the line, {@code null} if there is no such line.
+     */
+    private static Line readLine(FileChannel channel, long position, long limit) throws IOException {
+        long start = position == 0 ? 0 : skipLine(channel, position - 1);
+        while (start < limit) {
+            Line line = readLineAt(channel, start);
+            if (line.length() > 0) {
+                return line;
+            }
+            start = line.end();
+        }
+        return null;
+    }
+
+    private static long skipLine(FileChannel channel, long position) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        long offset = position;
+        while (true) {
+            buffer.clear();
+            int read = channel.read(buffer, offset);
+            if (read <= 0) {
+                return offset;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == LINE_FEED) {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+    }
+
+    private static Line readLineAt(FileChannel channel, long start) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+        while (true) {
+            int read = channel.read(buffer, start + buffer.position());
+            int lineFeed = indexOf(buffer, LINE_FEED);
+            if (lineFeed >= 0 || read <= 0) {
+                int length = lineFeed >= 0 ? lineFeed : buffer.position();
+                long end = start + (lineFeed >= 0 ? lineFeed + 1 : length);
+                if (length > 0 && buffer.get(length - 1) == CARRIAGE_RETURN) {
+                    length--;
+                }
+                byte[] bytes = new byte[length];
+                buffer.get(0, bytes);
+                return new Line(bytes, start, end);
+            }
+            if (!buffer.hasRemaining()) {
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2).put(buffer.flip());
+            }
+        }
+    }
+
+    private static int indexOf(ByteBuffer buffer, byte value) {
+        for (int i = 0; i < buffer.position(); i++) {
+            if (buffer.get(i) == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static long saturatedAdd(long value, long delta) {
+        long sum = value + delta;
+        return ((value ^ sum) & (delta ^ sum)) < 0 ? Long.MAX_VALUE : sum;
+    }
+
+    private static long saturatedSubtract(long value, long delta) {
+        long difference = value - delta;
+        return ((value ^ delta) & (value ^ difference)) < 0 ? Long.MIN_VALUE : difference;
+    }
+
+    /**
+     * A line of the file.
+     *
+     * @param bytes the bytes of the line without the line terminator.
+     * @param start the position of the first byte of the line (inclusive).
+     * @param end   the position right after the line terminator (exclusive).
+     */
+    private record Line(byte[] bytes, long start, long end) {
+
+        int length() {
+            return bytes.length;
+        }
+    }
+}
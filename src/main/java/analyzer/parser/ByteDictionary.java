@@ -0,0 +1,238 @@
+package analyzer.parser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * A dictionary assigning dense {@code int} ids, starting from zero, to UTF-8 encoded values.
+ * <p>Values are looked up by their bytes, which are hashed directly, so looking up a slice of a log line
+ * that is already in the dictionary neither decodes nor allocates. The bytes of the values are kept in
+ * one growing array, and a value is decoded only when it's requested by {@link #get(int)}.
+ * ASCII strings are looked up by their characters without being encoded.</p>
+ * <p>The dictionary isn't thread-safe, it's meant to be owned by the structure that counts the values.</p>
+ */
+public final class ByteDictionary {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int INITIAL_BYTES = 256;
+    private static final int GOLDEN_RATIO = 0x9E3779B9;
+    private static final int MAX_ASCII = 0x7F;
+
+    private byte[] bytes = new byte[INITIAL_BYTES];
+    private int length;
+
+    /**
+     * The start of each value in {@link #bytes}, the end of a value is the start of the next one.
+     */
+    private int[] offsets = new int[INITIAL_CAPACITY + 1];
+    private int[] hashes = new int[INITIAL_CAPACITY];
+    private String[] values = new String[INITIAL_CAPACITY];
+
+    /**
+     * The open addressing table of ids shifted by one, so that zero marks an empty slot.
+     */
+    private int[] slots = new int[INITIAL_CAPACITY * 2];
+    private int shift = Integer.SIZE - Integer.numberOfTrailingZeros(INITIAL_CAPACITY * 2);
+
+    private int size;
+
+    /**
+     * Returns the id of the value stored in the range of the array, adding the value if it's new.
+     *
+     * @param array the array containing the UTF-8 encoded value.
+     * @param from  the index of the first byte of the value, inclusive.
+     * @param to    the index of the last byte of the value, exclusive.
+     * @return the id of the value.
+     */
+    public int add(byte[] array, int from, int to) {
+        int hash = hash(array, from, to);
+        int slot = find(hash, array, from, to);
+        return slots[slot] != 0 ? slots[slot] - 1 : insert(slot, hash, array, from, to, null);
+    }
+
+    /**
+     * Returns the id of the value, adding the value if it's new.
+     *
+     * @param value the value whose id is expected.
+     * @return the id of the value.
+     */
+    public int add(String value) {
+        int hash = hashAscii(value);
+        if (hash == 0 && !isAscii(value)) {
+            byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            int id = add(encoded, 0, encoded.length);
+            values[id] = value;
+            return id;
+        }
+        int slot = findAscii(hash, value);
+        if (slots[slot] != 0) {
+            return slots[slot] - 1;
+        }
+        byte[] encoded = value.getBytes(StandardCharsets.US_ASCII);
+        return insert(slot, hash, encoded, 0, encoded.length, value);
+    }
+
+    /**
+     * Returns the id of a value of another dictionary in this one, adding the value if it's new.
+     * The hash of the value is reused, so merging dictionaries doesn't hash the values again.
+     *
+     * @param other the dictionary containing the value.
+     * @param id    the id of the value in {@code other}.
+     * @return the id of the value in this dictionary.
+     */
+    public int add(ByteDictionary other, int id) {
+        int hash = other.hashes[id];
+        int from = other.offsets[id];
+        int to = other.offsets[id + 1];
+        int slot = find(hash, other.bytes, from, to);
+        return slots[slot] != 0 ? slots[slot] - 1 : insert(slot, hash, other.bytes, from, to, other.values[id]);
+    }
+
+    /**
+     * Returns the id of the value without adding it.
+     *
+     * @param value the value whose id is expected.
+     * @return the id of the value, -1 if the value isn't in the dictionary.
+     */
+    public int indexOf(String value) {
+        int hash = hashAscii(value);
+        int slot;
+        if (hash == 0 && !isAscii(value)) {
+            byte[] encoded = value.getBytes(StandardCharsets.UTF_8);
+            slot = find(hash(encoded, 0, encoded.length), encoded, 0, encoded.length);
+        } else {
+            slot = findAscii(hash, value);
+        }
+        return slots[slot] - 1;
+    }
+
+    /**
+     * Returns the value with the id, decoding it on the first request.
+     *
+     * @param id the id of the value.
+     * @return the value with the id.
+     * @throws IndexOutOfBoundsException if there is no value with the id.
+     */
+    public String get(int id) {
+        String value = values[Objects.checkIndex(id, size)];
+        if (value == null) {
+            value = new String(bytes, offsets[id], offsets[id + 1] - offsets[id], StandardCharsets.UTF_8);
+            values[id] = value;
+        }
+        return value;
+    }
+
+    /**
+     * Returns the number of values in the dictionary, which is also the id the next new value gets.
+     *
+     * @return the number of values.
+     */
+    public int size() {
+        return size;
+    }
+
+    @SuppressWarnings("MagicNumber")
+    private static int hash(byte[] array, int from, int to) {
+        int hash = 1;
+        for (int i = from; i < to; i++) {
+            hash = 31 * hash + array[i];
+        }
+        return hash;
+    }
+
+    /**
+     * Hashes the characters of the string as if they were its ASCII bytes.
+     *
+     * @return the hash equal to the hash of the ASCII bytes, zero if the string isn't ASCII.
+     */
+    @SuppressWarnings("MagicNumber")
+    private static int hashAscii(String value) {
+        int hash = 1;
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c > MAX_ASCII) {
+                return 0;
+            }
+            hash = 31 * hash + c;
+        }
+        return hash;
+    }
+
+    private static boolean isAscii(String value) {
+        return value.chars().allMatch(c -> c <= MAX_ASCII);
+    }
+
+    private int find(int hash, byte[] array, int from, int to) {
+        int slot = (hash * GOLDEN_RATIO) >>> shift;
+        while (slots[slot] != 0) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash
+                && Arrays.equals(bytes, offsets[id], offsets[id + 1], array, from, to)) {
+                break;
+            }
+            slot = (slot + 1) & (slots.length - 1);
+        }
+        return slot;
+    }
+
+    private int findAscii(int hash, String value) {
+        int slot = (hash * GOLDEN_RATIO) >>> shift;
+        while (slots[slot] != 0) {
+            int id = slots[slot] - 1;
+            if (hashes[id] == hash && equalsAscii(id, value)) {
+                break;
+            }
+            slot = (slot + 1) & (slots.length - 1);
+        }
+        return slot;
+    }
+
+    private boolean equalsAscii(int id, String value) {
+        int from = offsets[id];
+        if (offsets[id + 1] - from != value.length()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (bytes[from + i] != value.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int insert(int slot, int hash, byte[] array, int from, int to, String value) {
+        int id = size++;
+        if (size == hashes.length) {
+            offsets = Arrays.copyOf(offsets, size * 2 + 1);
+            hashes = Arrays.copyOf(hashes, size * 2);
+            values = Arrays.copyOf(values, size * 2);
+        }
+        int valueLength = to - from;
+        if (length + valueLength > bytes.length) {
+            bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, length + valueLength));
+        }
+        System.arraycopy(array, from, bytes, length, valueLength);
+        length += valueLength;
+        offsets[id + 1] = length;
+        hashes[id] = hash;
+        values[id] = value;
+        slots[slot] = id + 1;
+        if (size * 2 > slots.length) {
+            rehash();
+        }
+        return id;
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        shift--;
+        for (int id = 0; id < size; id++) {
+            int slot = (hashes[id] * GOLDEN_RATIO) >>> shift;
+            while (slots[slot] != 0) {
+                slot = (slot + 1) & (slots.length - 1);
+            }
+            slots[slot] = id + 1;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package analyzer.parser;
+
+import analyzer.error.InvalidLogFormatException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+
+/**
+ * A decoder of the {@code $time_local} field in format {@code dd/MMM/yyyy:HH:mm:ss Z}.
+ * <p>Consecutive logs almost always fall in the same minute, so each thread remembers the last decoded
+ * minute and, while the logs stay in it, only the seconds are decoded. The last decoded second is reused
+ * as is. Other values are decoded by {@link DateTimeFormatter} with the same result as before.</p>
+ */
+final class DateTimeDecoder {
+
+    private static final DateTimeFormatter INPUT_DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z");
+
+    private static final ThreadLocal<DateTimeDecoder> DECODERS = ThreadLocal.withInitial(DateTimeDecoder::new);
+
+    private static final int LENGTH = "00/AAA/0000:00:00:00 +0000".length();
+    private static final int HOUR_POSITION = 12;
+    private static final int SECONDS_POSITION = 18;
+    private static final int MAX_SECONDS = 59;
+    private static final int MILLIS_PER_SECOND = 1000;
+    private static final int TWO_DIGITS = 10;
+
+    /**
+     * The last decoded minute, the characters at the positions of the seconds are not compared.
+     */
+    private final char[] minute = new char[LENGTH];
+    private boolean hasMinute;
+    private String minutePrefix;
+    private String offset;
+    private long minuteEpochMillis;
+
+    private int lastSeconds = -1;
+    private LogDateTime last;
+
+    private DateTimeDecoder() {
+    }
+
+    /**
+     * Decodes the value of the {@code $time_local} field.
+     *
+     * @param dateTime the value of the {@code $time_local} field.
+     * @return the decoded date and time.
+     * @throws InvalidLogFormatException if {@code dateTime} isn't a valid date.
+     */
+    static LogDateTime decode(CharSequence dateTime) {
+        return DECODERS.get().decodeCached(dateTime);
+    }
+
+    /**
+     * Decodes the value of the {@code $time_local} field stored in the given range of the array as ASCII.
+     *
+     * @param line an array containing the value of the {@code $time_local} field.
+     * @param from the index of the first byte of the value (inclusive).
+     * @param to   the index of the last byte of the value (exclusive).
+     * @return the decoded date and time.
+     * @throws InvalidLogFormatException if the value isn't a valid date.
+     */
+    static LogDateTime decode(byte[] line, int from, int to) {
+        DateTimeDecoder decoder = DECODERS.get();
+        if (decoder.isSameMinute(line, from, to)) {
+            int seconds = parseSeconds(line[from + SECONDS_POSITION], line[from + SECONDS_POSITION + 1]);
+            if (seconds <= MAX_SECONDS) {
+                return decoder.ofSeconds(seconds);
+            }
+        }
+        return decoder.decodeFully(new String(line, from, to - from, StandardCharsets.US_ASCII));
+    }
+
+    private LogDateTime decodeCached(CharSequence dateTime) {
+        if (isSameMinute(dateTime)) {
+            int seconds = parseSeconds(dateTime.charAt(SECONDS_POSITION), dateTime.charAt(SECONDS_POSITION + 1));
+            if (seconds <= MAX_SECONDS) {
+                return ofSeconds(seconds);
+            }
+        }
+        return decodeFully(dateTime);
+    }
+
+    private boolean isSameMinute(CharSequence dateTime) {
+        if (!hasMinute || dateTime.length() != LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < LENGTH; i++) {
+            if (dateTime.charAt(i) != minute[i] && !isSecondsPosition(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean isSameMinute(byte[] line, int from, int to) {
+        if (!hasMinute || to - from != LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < LENGTH; i++) {
+            if (line[from + i] != minute[i] && !isSecondsPosition(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private LogDateTime ofSeconds(int seconds) {
+        if (seconds != lastSeconds) {
+            String iso = seconds == 0
+                ? minutePrefix + offset
+                : minutePrefix + (seconds < TWO_DIGITS ? ":0" : ":") + seconds + offset;
+            last = new LogDateTime(iso, minuteEpochMillis + (long) seconds * MILLIS_PER_SECOND);
+            lastSeconds = seconds;
+        }
+        return last;
+    }
+
+    private LogDateTime decodeFully(CharSequence dateTime) {
+        OffsetDateTime parsed;
+        try {
+            parsed = OffsetDateTime.parse(dateTime, INPUT_DATE_FORMATTER);
+        } catch (DateTimeParseException e) {
+            throw new InvalidLogFormatException("Attempt to parse log with invalid date: \"" + dateTime + "\".");
+        }
+        boolean isEndOfDay = dateTime.charAt(HOUR_POSITION) == '2' && dateTime.charAt(HOUR_POSITION + 1) == '4';
+        if (isEndOfDay) {
+            // 24:00:00 is resolved to the next day, while 24:00:01 is invalid, so the minute can't be reused
+            hasMinute = false;
+            return new LogDateTime(parsed.toString(), parsed.toInstant().toEpochMilli());
+        }
+        OffsetDateTime minuteStart = parsed.withSecond(0);
+        for (int i = 0; i < LENGTH; i++) {
+            minute[i] = dateTime.charAt(i);
+        }
+        hasMinute = true;
+        minutePrefix = minuteStart.toLocalDateTime().toString();
+        offset = minuteStart.getOffset().toString();
+        minuteEpochMillis = minuteStart.toEpochSecond() * MILLIS_PER_SECOND;
+        lastSeconds = -1;
+        return ofSeconds(parsed.getSecond());
+    }
+
+    private static boolean isSecondsPosition(int position) {
+        return position == SECONDS_POSITION || position == SECONDS_POSITION + 1;
+    }
+
+    private static int parseSeconds(int tens, int units) {
+        return (tens - '0') * TWO_DIGITS + units - '0';
+    }
+}
@@ -0,0 +1,19 @@
+package analyzer.parser;
+
+/**
+ * A strategy of finding the delimiters that end the fields of variable length of a log.
+ */
+@FunctionalInterface
+interface DelimiterFinder {
+
+    /**
+     * Returns the index of the first occurrence of the delimiter in the range of the line.
+     *
+     * @param line      an array containing UTF-8 encoded log.
+     * @param from      the index of the first byte to be searched (inclusive).
+     * @param to        the index of the last byte to be searched (exclusive).
+     * @param delimiter the delimiter to be found, a space or a quote.
+     * @return the index of the delimiter, -1 if there is none.
+     */
+    int find(byte[] line, int from, int to, byte delimiter);
+}
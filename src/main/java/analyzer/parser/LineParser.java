@@ -0,0 +1,53 @@
+package analyzer.parser;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * An engine that converts string representation of the NGINX log to the Log object.
+ */
+@FunctionalInterface
+public interface LineParser {
+
+    /**
+     * Returns Log object that contains data from string representation of given log.
+     *
+     * @param log the log, the Log object representation of which is expected.
+     * @return a Log object, contains data from {@code log}.
+     * @throws analyzer.error.InvalidLogFormatException if {@code log} isn't matches format:
+     *                                                  <p>'$remote_addr - $remote_user [$time_local]' '"$request"
+     *                                                  $status $body_bytes_sent ' '"$http_referer"
+     *                                                  "$http_user_agent"'</p>
+     */
+    Log parse(String log);
+
+    /**
+     * Returns Log object that contains data from UTF-8 encoded log stored in the given range of the array.
+     * By default, the log is decoded to a string and passed to {@link #parse(String)}.
+     *
+     * @param line an array containing UTF-8 encoded log.
+     * @param from the index of the first byte of the log (inclusive).
+     * @param to   the index of the last byte of the log (exclusive).
+     * @return a Log object, contains data from the log.
+     * @throws analyzer.error.InvalidLogFormatException if the log isn't matches the format.
+     */
+    default Log parse(byte[] line, int from, int to) {
+        return parse(new String(line, from, to - from, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Returns the fields of UTF-8 encoded log stored in the given range of the array. Engines that can
+     * decode the fields on demand fill the given view and return it, so the result is valid only while the array
+     * isn't modified and until the view is filled again. By default, the log is parsed by
+     * {@link #parse(byte[], int, int)} and the view isn't used.
+     *
+     * @param line an array containing UTF-8 encoded log.
+     * @param from the index of the first byte of the log (inclusive).
+     * @param to   the index of the last byte of the log (exclusive).
+     * @param view the view that may be filled with the log.
+     * @return the fields of the log.
+     * @throws analyzer.error.InvalidLogFormatException if the log isn't matches the format.
+     */
+    default LogFields parse(byte[] line, int from, int to, LogView view) {
+        return parse(line, from, to);
+    }
+}
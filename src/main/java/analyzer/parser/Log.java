@@ -1,11 +1,17 @@
 package analyzer.parser;
 
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
 import java.util.Map;
 import java.util.function.Function;
 
 /**
  * A class representing an object model of the NGINX log.
+ *
+ * @param epochMillis the date and time of the log as the number of milliseconds from the epoch of
+ *                    1970-01-01T00:00:00Z, {@link Long#MIN_VALUE} if {@code dateTime} isn't an ISO8601 date.
  */
+@SuppressWarnings("RecordComponentNumber")
 public record Log(
     String remoteAddress,
     String remoteUser,
@@ -14,7 +20,13 @@ public record Log(
     String httpStatus,
     String bodyBytesSent,
     String httpReferer,
-    String httpUserAgent) {
+    String httpUserAgent,
+    long epochMillis) implements LogFields {
+
+    /**
+     * Value of {@link #epochMillis()} of logs whose date and time isn't an ISO8601 date.
+     */
+    public static final long UNKNOWN_EPOCH_MILLIS = Long.MIN_VALUE;
 
     private static final Map<String, Function<Log, String>> GETTERS_BY_NAME_MAPPER = Map.of(
         "remoteAddress", Log::remoteAddress,
@@ -27,6 +39,31 @@ public record Log(
         "httpUserAgent", Log::httpUserAgent
     );
 
+    /**
+     * Creates a log whose {@link #epochMillis()} is computed from {@code dateTime} in the ISO8601 format.
+     */
+    @SuppressWarnings("ParameterNumber")
+    public Log(
+        String remoteAddress,
+        String remoteUser,
+        String dateTime,
+        String httpRequest,
+        String httpStatus,
+        String bodyBytesSent,
+        String httpReferer,
+        String httpUserAgent) {
+        this(remoteAddress, remoteUser, dateTime, httpRequest, httpStatus, bodyBytesSent, httpReferer, httpUserAgent,
+            getEpochMillis(dateTime));
+    }
+
+    private static long getEpochMillis(String dateTime) {
+        try {
+            return OffsetDateTime.parse(dateTime).toInstant().toEpochMilli();
+        } catch (DateTimeParseException | ArithmeticException e) {
+            return UNKNOWN_EPOCH_MILLIS;
+        }
+    }
+
     /**
      * Checks whether NGINX log contains specified field.
      *
@@ -37,21 +74,14 @@ public record Log(
         return GETTERS_BY_NAME_MAPPER.containsKey(field);
     }
 
-    /**
-     * The method that returns the body of the HTTP request contained in the log.
-     *
-     * @return the body of the HTTP request contained in the log.
-     */
+    @Override
     public String getHttpRequestBody() {
-        return httpRequest.split(" ")[1];
+        int bodyStart = httpRequest.indexOf(' ') + 1;
+        int bodyEnd = httpRequest.indexOf(' ', bodyStart);
+        return httpRequest.substring(bodyStart, bodyEnd < 0 ? httpRequest.length() : bodyEnd);
     }
 
-    /**
-     * Accepts the name of the field and returns its value if such a field exists, null otherwise.
-     *
-     * @param fieldName the name of the field whose value is expected.
-     * @return {@code fieldName}'s value if such field exists, null otherwise.
-     */
+    @Override
     public String getFieldByName(String fieldName) {
         if (!GETTERS_BY_NAME_MAPPER.containsKey(fieldName)) {
             return null;
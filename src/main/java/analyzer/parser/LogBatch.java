@@ -0,0 +1,267 @@
+package analyzer.parser;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * A reusable batch of parsed logs stored by columns, so that the logs can be aggregated by tight loops over
+ * the columns instead of one log at a time.
+ * <p>The status of the response, the number of bytes sent and the date and time of each log are decoded into
+ * primitive arrays when the log is added. The other fields of a log parsed into a {@link LogView} are kept
+ * as boundaries in the array of the line, so they're looked up in dictionaries by their bytes and decoded only
+ * if requested. Logs parsed into {@link Log} objects by engines that don't fill views are kept as they are.</p>
+ * <p>The batch refers to the arrays of the lines of its logs, so it's valid only while the arrays aren't
+ * modified: it has to be consumed and cleared before the arrays are reused. The batch isn't thread-safe.</p>
+ */
+public final class LogBatch {
+
+    /**
+     * The default number of logs in a batch, small enough for the columns to stay in the CPU cache.
+     */
+    public static final int DEFAULT_CAPACITY = 1024;
+
+    private static final int BOUNDARIES_NUMBER = 2 * LogView.FIELDS_NUMBER;
+
+    private final LogView view = new LogView();
+    private final LogView row = new LogView();
+
+    private final byte[][] lines;
+    private final int[] boundaries;
+    private final LogDateTime[] dateTimes;
+    private final Log[] logs;
+    private final int[] httpStatuses;
+    private final long[] bodyBytesSent;
+    private final long[] epochMillis;
+    private int size;
+
+    /**
+     * Creates an empty batch of {@value #DEFAULT_CAPACITY} logs.
+     */
+    public LogBatch() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Creates an empty batch.
+     *
+     * @param capacity the maximum number of logs in the batch.
+     * @throws IllegalArgumentException if the capacity isn't positive.
+     */
+    public LogBatch(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity of a batch must be positive.");
+        }
+        lines = new byte[capacity][];
+        boundaries = new int[capacity * BOUNDARIES_NUMBER];
+        dateTimes = new LogDateTime[capacity];
+        logs = new Log[capacity];
+        httpStatuses = new int[capacity];
+        bodyBytesSent = new long[capacity];
+        epochMillis = new long[capacity];
+    }
+
+    /**
+     * Returns the view the next log should be parsed into, e.g. by
+     * {@link LineParser#parse(byte[], int, int, LogView)}, before it's added to the batch.
+     *
+     * @return the view owned by the batch.
+     */
+    public LogView view() {
+        return view;
+    }
+
+    /**
+     * Adds the log to the batch. The fields of a view are copied as boundaries, so the view may be filled
+     * with the next log afterward.
+     *
+     * @param log the parsed log.
+     * @return {@code true} if the batch is full after the log is added, {@code false} otherwise.
+     * @throws IllegalStateException if the batch is already full.
+     */
+    public boolean add(LogFields log) {
+        if (isFull()) {
+            throw new IllegalStateException("The batch is full.");
+        }
+        if (log instanceof LogView logView) {
+            lines[size] = logView.line();
+            dateTimes[size] = logView.logDateTime();
+            logView.copyBoundaries(boundaries, size * BOUNDARIES_NUMBER);
+            logs[size] = null;
+            httpStatuses[size] = logView.httpStatusCode();
+        } else {
+            Log decoded = log instanceof Log record ? record : toLog(log);
+            lines[size] = null;
+            dateTimes[size] = null;
+            logs[size] = decoded;
+            httpStatuses[size] = parseHttpStatus(decoded.httpStatus());
+        }
+        bodyBytesSent[size] = log.bodyBytesSentAsLong();
+        epochMillis[size] = log.epochMillis();
+        size++;
+        return isFull();
+    }
+
+    /**
+     * Removes all logs from the batch, so that it can be filled again.
+     */
+    public void clear() {
+        Arrays.fill(lines, 0, size, null);
+        Arrays.fill(dateTimes, 0, size, null);
+        Arrays.fill(logs, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Returns the number of logs in the batch.
+     *
+     * @return the number of logs in the batch.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks whether no more logs can be added to the batch.
+     *
+     * @return {@code true} if the batch is full, {@code false} otherwise.
+     */
+    public boolean isFull() {
+        return size == lines.length;
+    }
+
+    /**
+     * Returns the status of the response of the log.
+     *
+     * @param index the index of the log in the batch.
+     * @return the status of the response, -1 if it isn't a number of three digits.
+     */
+    public int httpStatus(int index) {
+        return httpStatuses[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Returns the number of bytes sent to the client of the log.
+     *
+     * @param index the index of the log in the batch.
+     * @return the number of bytes sent to the client, -1 if it isn't a number of {@code long} range.
+     */
+    public long bodyBytesSent(int index) {
+        return bodyBytesSent[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Returns the date and time of the log.
+     *
+     * @param index the index of the log in the batch.
+     * @return the date and time of the log in milliseconds from the epoch.
+     */
+    public long epochMillis(int index) {
+        return epochMillis[Objects.checkIndex(index, size)];
+    }
+
+    /**
+     * Returns the id of the value of the field of the log in the dictionary, adding the value if it's new.
+     * The value of a log parsed into a view is looked up by its bytes without being decoded.
+     *
+     * @param index      the index of the log in the batch.
+     * @param column     the field whose value is looked up.
+     * @param dictionary the dictionary of the values of the field.
+     * @return the id of the value.
+     */
+    public int id(int index, Column column, ByteDictionary dictionary) {
+        Objects.checkIndex(index, size);
+        if (logs[index] != null) {
+            return dictionary.add(column.accessor.apply(logs[index]));
+        }
+        int offset = index * BOUNDARIES_NUMBER + 2 * column.field;
+        return dictionary.add(lines[index], boundaries[offset], boundaries[offset + 1]);
+    }
+
+    /**
+     * Returns the value of the field of the log.
+     *
+     * @param index  the index of the log in the batch.
+     * @param column the field whose value is expected.
+     * @return the value of the field.
+     */
+    public String value(int index, Column column) {
+        return column.accessor.apply(get(index));
+    }
+
+    /**
+     * Returns all fields of the log. A log parsed into a view is returned as a view owned by the batch,
+     * which is valid until this method is called again.
+     *
+     * @param index the index of the log in the batch.
+     * @return the fields of the log.
+     */
+    public LogFields get(int index) {
+        Objects.checkIndex(index, size);
+        if (logs[index] != null) {
+            return logs[index];
+        }
+        row.fill(lines[index], dateTimes[index], boundaries, index * BOUNDARIES_NUMBER);
+        return row;
+    }
+
+    @SuppressWarnings("MagicNumber")
+    private static int parseHttpStatus(String status) {
+        if (status.length() != 3) {
+            return -1;
+        }
+        int result = 0;
+        for (int i = 0; i < status.length(); i++) {
+            int digit = status.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    private static Log toLog(LogFields log) {
+        return new Log(
+            log.remoteAddress(),
+            log.remoteUser(),
+            log.dateTime(),
+            log.httpRequest(),
+            log.httpStatus(),
+            log.bodyBytesSent(),
+            log.httpReferer(),
+            log.httpUserAgent(),
+            log.epochMillis()
+        );
+    }
+
+    /**
+     * The fields of the logs that are counted by their values.
+     */
+    public enum Column {
+        /**
+         * The address of the client.
+         */
+        REMOTE_ADDRESS(LogView.REMOTE_ADDRESS, LogFields::remoteAddress),
+        /**
+         * The status of the response.
+         */
+        HTTP_STATUS(LogView.HTTP_STATUS, LogFields::httpStatus),
+        /**
+         * The referer.
+         */
+        HTTP_REFERER(LogView.HTTP_REFERER, LogFields::httpReferer),
+        /**
+         * The body of the HTTP request.
+         */
+        HTTP_REQUEST_BODY(LogView.HTTP_REQUEST_BODY, LogFields::getHttpRequestBody);
+
+        private final int field;
+        private final Function<LogFields, String> accessor;
+
+        Column(int field, Function<LogFields, String> accessor) {
+            this.field = field;
+            this.accessor = accessor;
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package analyzer.parser;
+
+/**
+ * A class representing the decoded value of the {@code $time_local} field.
+ *
+ * @param iso         the ISO8601 representation of the date and time, as produced by
+ *                    {@link java.time.OffsetDateTime#toString()}.
+ * @param epochMillis the number of milliseconds from the epoch of 1970-01-01T00:00:00Z.
+ */
+record LogDateTime(String iso, long epochMillis) {
+}
@@ -0,0 +1,154 @@
+package analyzer.parser;
+
+/**
+ * The fields of the NGINX log in format:
+ * <p>'$remote_addr - $remote_user [$time_local]' '"$request" $status $body_bytes_sent
+ * ' '"$http_referer" "$http_user_agent"'</p>
+ * Implemented both by the {@link Log} record, whose fields are all decoded when the log is parsed,
+ * and by {@link LogView}, whose fields are decoded when they are requested.
+ */
+public interface LogFields {
+
+    /**
+     * Returns the address of the client.
+     *
+     * @return the value of the {@code $remote_addr} field.
+     */
+    String remoteAddress();
+
+    /**
+     * Returns the name of the user.
+     *
+     * @return the value of the {@code $remote_user} field.
+     */
+    String remoteUser();
+
+    /**
+     * Returns the date and time of the log in the ISO8601 format.
+     *
+     * @return the value of the {@code $time_local} field in the ISO8601 format.
+     */
+    String dateTime();
+
+    /**
+     * Returns the request line.
+     *
+     * @return the value of the {@code $request} field.
+     */
+    String httpRequest();
+
+    /**
+     * Returns the status of the response.
+     *
+     * @return the value of the {@code $status} field.
+     */
+    String httpStatus();
+
+    /**
+     * Returns the number of bytes sent to the client.
+     *
+     * @return the value of the {@code $body_bytes_sent} field.
+     */
+    String bodyBytesSent();
+
+    /**
+     * Returns the referer.
+     *
+     * @return the value of the {@code $http_referer} field.
+     */
+    String httpReferer();
+
+    /**
+     * Returns the user agent of the client.
+     *
+     * @return the value of the {@code $http_user_agent} field.
+     */
+    String httpUserAgent();
+
+    /**
+     * Returns the date and time of the log as the number of milliseconds from the epoch of 1970-01-01T00:00:00Z.
+     *
+     * @return the date and time of the log in milliseconds from the epoch.
+     */
+    long epochMillis();
+
+    /**
+     * The method that returns the body of the HTTP request contained in the log.
+     *
+     * @return the body of the HTTP request contained in the log.
+     */
+    String getHttpRequestBody();
+
+    /**
+     * Accepts the name of the field and returns its value if such a field exists, null otherwise.
+     *
+     * @param fieldName the name of the field whose value is expected.
+     * @return {@code fieldName}'s value if such field exists, null otherwise.
+     */
+    String getFieldByName(String fieldName);
+
+    /**
+     * Returns the number of bytes sent to the client as a number.
+     *
+     * @return the value of the {@code $body_bytes_sent} field, -1 if it isn't a number of {@code long} range.
+     */
+    default long bodyBytesSentAsLong() {
+        return parseNonNegativeLong(bodyBytesSent());
+    }
+
+    /**
+     * Returns the id of the address of the client in the dictionary, adding the address if it's new.
+     *
+     * @param dictionary the dictionary of the addresses.
+     * @return the id of the value of the {@code $remote_addr} field.
+     */
+    default int remoteAddressId(ByteDictionary dictionary) {
+        return dictionary.add(remoteAddress());
+    }
+
+    /**
+     * Returns the id of the status of the response in the dictionary, adding the status if it's new.
+     *
+     * @param dictionary the dictionary of the statuses.
+     * @return the id of the value of the {@code $status} field.
+     */
+    default int httpStatusId(ByteDictionary dictionary) {
+        return dictionary.add(httpStatus());
+    }
+
+    /**
+     * Returns the id of the referer in the dictionary, adding the referer if it's new.
+     *
+     * @param dictionary the dictionary of the referers.
+     * @return the id of the value of the {@code $http_referer} field.
+     */
+    default int httpRefererId(ByteDictionary dictionary) {
+        return dictionary.add(httpReferer());
+    }
+
+    /**
+     * Returns the id of the body of the HTTP request in the dictionary, adding the body if it's new.
+     *
+     * @param dictionary the dictionary of the bodies of the HTTP requests.
+     * @return the id of the body of the HTTP request contained in the log.
+     */
+    default int httpRequestBodyId(ByteDictionary dictionary) {
+        return dictionary.add(getHttpRequestBody());
+    }
+
+    @SuppressWarnings("MagicNumber")
+    private static long parseNonNegativeLong(String value) {
+        if (value.isEmpty()) {
+            return -1;
+        }
+        long result = 0;
+        for (int i = 0; i < value.length(); i++) {
+            int digit = value.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || result > (Long.MAX_VALUE - digit) / 10) {
+                return -1;
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+}
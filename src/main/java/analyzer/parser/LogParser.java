@@ -1,8 +1,6 @@
 package analyzer.parser;
 
 import analyzer.error.InvalidLogFormatException;
-import java.time.OffsetDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import lombok.experimental.UtilityClass;
@@ -15,8 +13,6 @@ import lombok.experimental.UtilityClass;
 @UtilityClass
 public final class LogParser {
 
-    private static final DateTimeFormatter INPUT_DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z");
-
     private static final String IPV4_REGEX = "(((|[1-9]|1\\d|2[0-4])\\d|25[0-5])\\.?\\b){4}";
     private static final String IPV6_REGEX = "((^|:)([0-9a-fA-F]{0,4})){1,8}";
     private static final String HTTP_REQUEST_REGEX =
@@ -50,19 +46,17 @@ public final class LogParser {
         if (!logMatcher.matches()) {
             throw new InvalidLogFormatException("Attempt to parse log in invalid format.");
         }
+        LogDateTime dateTime = DateTimeDecoder.decode(logMatcher.group("dateTime"));
         return new Log(
             logMatcher.group("remoteAddress"),
             logMatcher.group("remoteUser"),
-            getISODateTime(logMatcher.group("dateTime")),
+            dateTime.iso(),
             logMatcher.group("httpRequest"),
             logMatcher.group("httpStatus"),
             logMatcher.group("bodyBytesSent"),
             logMatcher.group("httpReferer"),
-            logMatcher.group("httpUserAgent")
+            logMatcher.group("httpUserAgent"),
+            dateTime.epochMillis()
         );
     }
-
-    private static String getISODateTime(String dateTime) {
-        return OffsetDateTime.parse(dateTime, INPUT_DATE_FORMATTER).toString();
-    }
 }
@@ -0,0 +1,341 @@
+package analyzer.parser;
+
+import analyzer.error.InvalidLogFormatException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import lombok.experimental.UtilityClass;
+
+/**
+ * A class that allows to parse NGINX-logs in format:
+ * <p>'$remote_addr - $remote_user [$time_local]' '"$request" $status $body_bytes_sent
+ * ' '"$http_referer" "$http_user_agent"'</p>
+ * Unlike {@link LogParser}, the log is checked by a hand-written scanner that walks the UTF-8
+ * bytes of the line once from left to right and never backtracks. The accepted grammar is
+ * the same as the grammar of {@link LogParser}.
+ */
+@UtilityClass
+public final class LogScanner {
+
+    private static final byte SPACE = ' ';
+    private static final byte QUOTE = '"';
+    private static final byte DOT = '.';
+    private static final byte COLON = ':';
+    private static final byte SLASH = '/';
+
+    private static final byte[] USER_SEPARATOR = " - ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DATE_TIME_START = "[".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] DATE_TIME_END = "] \"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HTTP_VERSION_PREFIX = "HTTP/".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HTTP_REQUEST_END = "\" ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] QUOTED_FIELDS_SEPARATOR = "\" \"".getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Template of the {@code $time_local} field: {@code 0} is a digit, {@code A} is a letter,
+     * {@code +} is a sign of the offset, other characters must match as is.
+     */
+    private static final byte[] DATE_TIME_TEMPLATE =
+        "00/AAA/0000:00:00:00 +0000".getBytes(StandardCharsets.US_ASCII);
+
+    private static final byte[][] HTTP_METHODS = {
+        "GET".getBytes(StandardCharsets.US_ASCII),
+        "POST".getBytes(StandardCharsets.US_ASCII),
+        "PUT".getBytes(StandardCharsets.US_ASCII),
+        "DELETE".getBytes(StandardCharsets.US_ASCII),
+        "HEAD".getBytes(StandardCharsets.US_ASCII),
+        "OPTIONS".getBytes(StandardCharsets.US_ASCII),
+        "PATCH".getBytes(StandardCharsets.US_ASCII)
+    };
+    private static final byte[][] HTTP_VERSIONS = {
+        "1.0".getBytes(StandardCharsets.US_ASCII),
+        "1.1".getBytes(StandardCharsets.US_ASCII),
+        "2.0".getBytes(StandardCharsets.US_ASCII)
+    };
+
+    private static final int IPV4_OCTETS = 4;
+    private static final int IPV4_MAX_OCTET = 255;
+    private static final int IPV4_MAX_OCTET_LENGTH = 3;
+    private static final int IPV6_MAX_GROUP_LENGTH = 4;
+    private static final int IPV6_MAX_COLONS = 7;
+    private static final int IPV6_MAX_LEADING_COLONS = 8;
+    private static final int HTTP_STATUS_LENGTH = 3;
+
+    /**
+     * Returns Log object that contains data from string representation of given log.
+     *
+     * @param log the log, the Log object representation of which is expected.
+     * @return a Log object, contains data from {@code log}.
+     * @throws InvalidLogFormatException if {@code log} isn't matches format:
+     *                                   <p>'$remote_addr - $remote_user [$time_local]' '"$request"
+     *                                   $status $body_bytes_sent ' '"$http_referer" "$http_user_agent"'</p>
+     */
+    public static Log parse(String log) {
+        byte[] line = log.getBytes(StandardCharsets.UTF_8);
+        return parse(line, 0, line.length);
+    }
+
+    /**
+     * Returns Log object that contains data from UTF-8 encoded log stored in the given range of the array.
+     *
+     * @param line an array containing UTF-8 encoded log.
+     * @param from the index of the first byte of the log (inclusive).
+     * @param to   the index of the last byte of the log (exclusive).
+     * @return a Log object, contains data from the log.
+     * @throws InvalidLogFormatException if the log isn't matches format:
+     *                                   <p>'$remote_addr - $remote_user [$time_local]' '"$request"
+     *                                   $status $body_bytes_sent ' '"$http_referer" "$http_user_agent"'</p>
+     */
+    public static Log parse(byte[] line, int from, int to) {
+        LogView view = new LogView();
+        scan(line, from, to, view);
+        return view.toLog();
+    }
+
+    /**
+     * Checks UTF-8 encoded log stored in the given range of the array and fills the view with the boundaries
+     * of its fields, without decoding them.
+     *
+     * @param line an array containing UTF-8 encoded log.
+     * @param from the index of the first byte of the log (inclusive).
+     * @param to   the index of the last byte of the log (exclusive).
+     * @param view the view to be filled, the previous content of the view is discarded.
+     * @return {@code view}.
+     * @throws InvalidLogFormatException if the log isn't matches format:
+     *                                   <p>'$remote_addr - $remote_user [$time_local]' '"$request"
+     *                                   $status $body_bytes_sent ' '"$http_referer" "$http_user_agent"'</p>
+     */
+    public static LogView scan(byte[] line, int from, int to, LogView view) {
+        return scan(line, from, to, view, LogScanner::find);
+    }
+
+    /**
+     * Checks the log like {@link #scan(byte[], int, int, LogView)}, finding the spaces and quotes that end
+     * the fields of variable length by the given finder.
+     *
+     * @param line       an array containing UTF-8 encoded log.
+     * @param from       the index of the first byte of the log (inclusive).
+     * @param to         the index of the last byte of the log (exclusive).
+     * @param view       the view to be filled, the previous content of the view is discarded.
+     * @param delimiters the finder of spaces and quotes in the log.
+     * @return {@code view}.
+     * @throws InvalidLogFormatException if the log isn't matches the format.
+     */
+    static LogView scan(byte[] line, int from, int to, LogView view, DelimiterFinder delimiters) {
+        int addressEnd = indexOf(delimiters, line, from, to, SPACE);
+        if (!isIpv4(line, from, addressEnd) && !isIpv6(line, from, addressEnd)) {
+            throw invalidFormat("remote address");
+        }
+        int userStart = expect(line, addressEnd, to, USER_SEPARATOR);
+        int userEnd = skipNonWhitespaces(line, userStart, to);
+        int dateTimeStart = expect(line, expect(line, userEnd, to, SPACE), to, DATE_TIME_START);
+        int dateTimeEnd = checkDateTime(line, dateTimeStart, to);
+        int requestStart = expect(line, dateTimeEnd, to, DATE_TIME_END);
+        int pathStart = checkHttpMethod(delimiters, line, requestStart, to);
+        int pathEnd = indexOf(delimiters, line, pathStart, to, SPACE);
+        int requestEnd = checkHttpVersion(line, pathEnd, to);
+        int statusStart = expect(line, requestEnd, to, HTTP_REQUEST_END);
+        int statusEnd = checkHttpStatus(line, statusStart, to);
+        int bytesStart = expect(line, statusEnd, to, SPACE);
+        int bytesEnd = skipDigits(line, bytesStart, to);
+        if (bytesEnd == bytesStart) {
+            throw invalidFormat("body bytes sent");
+        }
+        int refererStart = expect(line, expect(line, bytesEnd, to, SPACE), to, QUOTE);
+        int refererEnd = indexOf(delimiters, line, refererStart, to, QUOTE);
+        int userAgentStart = expect(line, refererEnd, to, QUOTED_FIELDS_SEPARATOR);
+        int userAgentEnd = to - 1;
+        if (userAgentEnd <= userAgentStart || line[userAgentEnd] != QUOTE
+            || delimiters.find(line, userAgentStart, userAgentEnd, QUOTE) >= 0) {
+            throw invalidFormat("HTTP user agent");
+        }
+        view.reset(line, DateTimeDecoder.decode(line, dateTimeStart, dateTimeEnd));
+        view.setRemoteAddress(from, addressEnd);
+        view.setRemoteUser(userStart, userEnd);
+        view.setHttpRequest(requestStart, requestEnd, pathStart, pathEnd);
+        view.setHttpStatus(statusStart, statusEnd);
+        view.setBodyBytesSent(bytesStart, bytesEnd);
+        view.setHttpReferer(refererStart, refererEnd);
+        view.setHttpUserAgent(userAgentStart, userAgentEnd);
+        return view;
+    }
+
+    private static boolean isIpv4(byte[] line, int from, int to) {
+        int position = from;
+        for (int octet = 0; octet < IPV4_OCTETS; octet++) {
+            if (octet > 0) {
+                if (position >= to || line[position] != DOT) {
+                    return false;
+                }
+                position++;
+            }
+            int octetEnd = skipDigits(line, position, Math.min(to, position + IPV4_MAX_OCTET_LENGTH));
+            boolean hasLeadingZero = octetEnd - position > 1 && line[position] == '0';
+            if (octetEnd == position || hasLeadingZero || parseInt(line, position, octetEnd) > IPV4_MAX_OCTET) {
+                return false;
+            }
+            position = octetEnd;
+        }
+        return position == to;
+    }
+
+    /**
+     * Checks the address against the IPv6 part of the {@link LogParser} grammar: groups of up to four
+     * hexadecimal digits separated by at most seven colons, or exactly eight colons if the address
+     * starts with a colon.
+     */
+    private static boolean isIpv6(byte[] line, int from, int to) {
+        int colons = 0;
+        int groupLength = 0;
+        for (int i = from; i < to; i++) {
+            if (line[i] == COLON) {
+                colons++;
+                groupLength = 0;
+            } else if (!isHexDigit(line[i]) || ++groupLength > IPV6_MAX_GROUP_LENGTH) {
+                return false;
+            }
+        }
+        return colons <= IPV6_MAX_COLONS || colons == IPV6_MAX_LEADING_COLONS && line[from] == COLON;
+    }
+
+    private static int checkDateTime(byte[] line, int from, int to) {
+        if (to - from < DATE_TIME_TEMPLATE.length) {
+            throw invalidFormat("date time");
+        }
+        for (int i = 0; i < DATE_TIME_TEMPLATE.length; i++) {
+            byte actual = line[from + i];
+            boolean matches = switch (DATE_TIME_TEMPLATE[i]) {
+                case '0' -> isDigit(actual);
+                case 'A' -> actual >= 'A' && actual <= 'Z' || actual >= 'a' && actual <= 'z';
+                case '+' -> actual == '+' || actual == '-';
+                default -> actual == DATE_TIME_TEMPLATE[i];
+            };
+            if (!matches) {
+                throw invalidFormat("date time");
+            }
+        }
+        return from + DATE_TIME_TEMPLATE.length;
+    }
+
+    /**
+     * Checks the HTTP method and returns the position of the body of the HTTP request.
+     */
+    private static int checkHttpMethod(DelimiterFinder delimiters, byte[] line, int from, int to) {
+        int methodEnd = indexOf(delimiters, line, from, to, SPACE);
+        if (indexOf(HTTP_METHODS, line, from, methodEnd) < 0) {
+            throw invalidFormat("HTTP method");
+        }
+        int pathStart = methodEnd + 1;
+        if (pathStart >= to || line[pathStart] != SLASH) {
+            throw invalidFormat("HTTP request body");
+        }
+        return pathStart;
+    }
+
+    /**
+     * Checks the HTTP version following the body of the HTTP request and returns the end of the HTTP request.
+     */
+    private static int checkHttpVersion(byte[] line, int pathEnd, int to) {
+        int versionStart = expect(line, pathEnd + 1, to, HTTP_VERSION_PREFIX);
+        int versionEnd = versionStart + HTTP_VERSIONS[0].length;
+        if (versionEnd > to || indexOf(HTTP_VERSIONS, line, versionStart, versionEnd) < 0) {
+            throw invalidFormat("HTTP version");
+        }
+        return versionEnd;
+    }
+
+    private static int checkHttpStatus(byte[] line, int from, int to) {
+        int end = from + HTTP_STATUS_LENGTH;
+        if (end > to || line[from] < '1' || line[from] > '5' || skipDigits(line, from, end) != end) {
+            throw invalidFormat("HTTP status");
+        }
+        return end;
+    }
+
+    private static int expect(byte[] line, int from, int to, byte[] expected) {
+        if (to - from < expected.length) {
+            throw invalidFormat("separator");
+        }
+        for (int i = 0; i < expected.length; i++) {
+            if (line[from + i] != expected[i]) {
+                throw invalidFormat("separator");
+            }
+        }
+        return from + expected.length;
+    }
+
+    private static int expect(byte[] line, int from, int to, byte expected) {
+        if (from >= to || line[from] != expected) {
+            throw invalidFormat("separator");
+        }
+        return from + 1;
+    }
+
+    private static int indexOf(DelimiterFinder delimiters, byte[] line, int from, int to, byte value) {
+        int index = delimiters.find(line, from, to, value);
+        if (index < 0) {
+            throw invalidFormat("separator");
+        }
+        return index;
+    }
+
+    private static int find(byte[] line, int from, int to, byte value) {
+        for (int i = from; i < to; i++) {
+            if (line[i] == value) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int indexOf(byte[][] values, byte[] line, int from, int to) {
+        for (int i = 0; i < values.length; i++) {
+            if (Arrays.equals(values[i], 0, values[i].length, line, from, to)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int skipDigits(byte[] line, int from, int to) {
+        int position = from;
+        while (position < to && isDigit(line[position])) {
+            position++;
+        }
+        return position;
+    }
+
+    private static int skipNonWhitespaces(byte[] line, int from, int to) {
+        int position = from;
+        while (position < to && !isWhitespace(line[position])) {
+            position++;
+        }
+        return position;
+    }
+
+    private static boolean isDigit(byte value) {
+        return value >= '0' && value <= '9';
+    }
+
+    private static boolean isHexDigit(byte value) {
+        return isDigit(value) || value >= 'a' && value <= 'f' || value >= 'A' && value <= 'F';
+    }
+
+    /**
+     * Checks whether the byte is a whitespace in terms of the {@code \s} regular expression class.
+     */
+    private static boolean isWhitespace(byte value) {
+        return value == ' ' || value >= '\t' && value <= '\r';
+    }
+
+    @SuppressWarnings("MagicNumber")
+    private static int parseInt(byte[] line, int from, int to) {
+        int value = 0;
+        for (int i = from; i < to; i++) {
+            value = value * 10 + line[i] - '0';
+        }
+        return value;
+    }
+
+    private static InvalidLogFormatException invalidFormat(String field) {
+        return new InvalidLogFormatException("Attempt to parse log in invalid format: invalid " + field + ".");
+    }
+}
@@ -0,0 +1,298 @@
+package analyzer.parser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+/**
+ * A view of the NGINX log stored in an array as UTF-8, which keeps the boundaries of the fields and decodes
+ * a field only when it is requested. Decoded fields are cached until the view is filled with another log.
+ * <p>The view is a flyweight: it's filled again for each log by {@link LogScanner#scan(byte[], int, int, LogView)}
+ * and refers to the array of the log, so it's valid only while the array isn't modified and until the view is
+ * filled again. Use {@link #toLog()} to keep the log.</p>
+ */
+public final class LogView implements LogFields {
+
+    static final int REMOTE_ADDRESS = 0;
+    static final int REMOTE_USER = 1;
+    static final int HTTP_REQUEST = 2;
+    static final int HTTP_STATUS = 3;
+    static final int BODY_BYTES_SENT = 4;
+    static final int HTTP_REFERER = 5;
+    static final int HTTP_USER_AGENT = 6;
+    static final int HTTP_REQUEST_BODY = 7;
+    static final int FIELDS_NUMBER = 8;
+
+    private static final Map<String, Integer> FIELDS_BY_NAME = Map.of(
+        "remoteAddress", REMOTE_ADDRESS,
+        "remoteUser", REMOTE_USER,
+        "httpRequest", HTTP_REQUEST,
+        "httpStatus", HTTP_STATUS,
+        "bodyBytesSent", BODY_BYTES_SENT,
+        "httpReferer", HTTP_REFERER,
+        "httpUserAgent", HTTP_USER_AGENT
+    );
+
+    private static final int MIN_HTTP_STATUS = 100;
+    private static final int MAX_HTTP_STATUS = 599;
+    private static final int HTTP_STATUS_LENGTH = 3;
+
+    /**
+     * The statuses are shared by all views, since the grammar allows only five hundred of them.
+     */
+    private static final String[] HTTP_STATUSES = IntStream
+        .rangeClosed(MIN_HTTP_STATUS, MAX_HTTP_STATUS)
+        .mapToObj(String::valueOf)
+        .toArray(String[]::new);
+
+    private byte[] line;
+    private final int[] starts = new int[FIELDS_NUMBER];
+    private final int[] ends = new int[FIELDS_NUMBER];
+    private final String[] decoded = new String[FIELDS_NUMBER];
+    private LogDateTime dateTime;
+
+    /**
+     * Fills the view with the log stored in the array, the boundaries are set separately by the setters.
+     */
+    void reset(byte[] line, LogDateTime dateTime) {
+        this.line = line;
+        this.dateTime = dateTime;
+        Arrays.fill(decoded, null);
+    }
+
+    void setRemoteAddress(int start, int end) {
+        setBoundaries(REMOTE_ADDRESS, start, end);
+    }
+
+    void setRemoteUser(int start, int end) {
+        setBoundaries(REMOTE_USER, start, end);
+    }
+
+    void setHttpRequest(int start, int end, int bodyStart, int bodyEnd) {
+        setBoundaries(HTTP_REQUEST, start, end);
+        setBoundaries(HTTP_REQUEST_BODY, bodyStart, bodyEnd);
+    }
+
+    void setHttpStatus(int start, int end) {
+        setBoundaries(HTTP_STATUS, start, end);
+    }
+
+    void setBodyBytesSent(int start, int end) {
+        setBoundaries(BODY_BYTES_SENT, start, end);
+    }
+
+    void setHttpReferer(int start, int end) {
+        setBoundaries(HTTP_REFERER, start, end);
+    }
+
+    void setHttpUserAgent(int start, int end) {
+        setBoundaries(HTTP_USER_AGENT, start, end);
+    }
+
+    private void setBoundaries(int field, int start, int end) {
+        starts[field] = start;
+        ends[field] = end;
+    }
+
+    /**
+     * Copies the boundaries of the fields to the array, the start and the end of each field in turn.
+     */
+    void copyBoundaries(int[] target, int offset) {
+        for (int field = 0; field < FIELDS_NUMBER; field++) {
+            target[offset + 2 * field] = starts[field];
+            target[offset + 2 * field + 1] = ends[field];
+        }
+    }
+
+    /**
+     * Fills the view with the log stored in the array and the boundaries copied by {@link #copyBoundaries}.
+     */
+    void fill(byte[] array, LogDateTime logDateTime, int[] source, int offset) {
+        reset(array, logDateTime);
+        for (int field = 0; field < FIELDS_NUMBER; field++) {
+            setBoundaries(field, source[offset + 2 * field], source[offset + 2 * field + 1]);
+        }
+    }
+
+    byte[] line() {
+        return line;
+    }
+
+    LogDateTime logDateTime() {
+        return dateTime;
+    }
+
+    /**
+     * Returns the status of the response as a number.
+     *
+     * @return the status of the response, -1 if the field isn't a number of three digits.
+     */
+    @SuppressWarnings("MagicNumber")
+    int httpStatusCode() {
+        int start = starts[HTTP_STATUS];
+        if (ends[HTTP_STATUS] - start != HTTP_STATUS_LENGTH) {
+            return -1;
+        }
+        int status = 0;
+        for (int i = start; i < start + HTTP_STATUS_LENGTH; i++) {
+            int digit = line[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            status = status * 10 + digit;
+        }
+        return status;
+    }
+
+    private String get(int field) {
+        String value = decoded[field];
+        if (value == null) {
+            value = new String(line, starts[field], ends[field] - starts[field], StandardCharsets.UTF_8);
+            decoded[field] = value;
+        }
+        return value;
+    }
+
+    @Override
+    public String remoteAddress() {
+        return get(REMOTE_ADDRESS);
+    }
+
+    @Override
+    public String remoteUser() {
+        return get(REMOTE_USER);
+    }
+
+    @Override
+    public String dateTime() {
+        return dateTime.iso();
+    }
+
+    @Override
+    public String httpRequest() {
+        return get(HTTP_REQUEST);
+    }
+
+    @Override
+    @SuppressWarnings("MagicNumber")
+    public String httpStatus() {
+        int start = starts[HTTP_STATUS];
+        if (ends[HTTP_STATUS] - start != HTTP_STATUS_LENGTH) {
+            return get(HTTP_STATUS);
+        }
+        int status = (line[start] - '0') * 100 + (line[start + 1] - '0') * 10 + line[start + 2] - '0';
+        return HTTP_STATUSES[status - MIN_HTTP_STATUS];
+    }
+
+    @Override
+    public String bodyBytesSent() {
+        return get(BODY_BYTES_SENT);
+    }
+
+    @Override
+    public String httpReferer() {
+        return get(HTTP_REFERER);
+    }
+
+    @Override
+    public String httpUserAgent() {
+        return get(HTTP_USER_AGENT);
+    }
+
+    @Override
+    public long epochMillis() {
+        return dateTime.epochMillis();
+    }
+
+    @Override
+    public String getHttpRequestBody() {
+        return get(HTTP_REQUEST_BODY);
+    }
+
+    @Override
+    public String getFieldByName(String fieldName) {
+        if ("dateTime".equals(fieldName)) {
+            return dateTime();
+        }
+        Integer field = FIELDS_BY_NAME.get(fieldName);
+        return field == null ? null : get(field);
+    }
+
+    /**
+     * Looks the address up by its bytes in the array, without decoding it.
+     */
+    @Override
+    public int remoteAddressId(ByteDictionary dictionary) {
+        return getId(REMOTE_ADDRESS, dictionary);
+    }
+
+    /**
+     * Looks the status up by its bytes in the array, without decoding it.
+     */
+    @Override
+    public int httpStatusId(ByteDictionary dictionary) {
+        return getId(HTTP_STATUS, dictionary);
+    }
+
+    /**
+     * Looks the referer up by its bytes in the array, without decoding it.
+     */
+    @Override
+    public int httpRefererId(ByteDictionary dictionary) {
+        return getId(HTTP_REFERER, dictionary);
+    }
+
+    /**
+     * Looks the body of the HTTP request up by its bytes in the array, without decoding it.
+     */
+    @Override
+    public int httpRequestBodyId(ByteDictionary dictionary) {
+        return getId(HTTP_REQUEST_BODY, dictionary);
+    }
+
+    private int getId(int field, ByteDictionary dictionary) {
+        return dictionary.add(line, starts[field], ends[field]);
+    }
+
+    /**
+     * Reads the number of bytes sent to the client directly from the array.
+     */
+    @Override
+    @SuppressWarnings("MagicNumber")
+    public long bodyBytesSentAsLong() {
+        int start = starts[BODY_BYTES_SENT];
+        int end = ends[BODY_BYTES_SENT];
+        if (start == end) {
+            return -1;
+        }
+        long result = 0;
+        for (int i = start; i < end; i++) {
+            int digit = line[i] - '0';
+            if (digit < 0 || digit > 9 || result > (Long.MAX_VALUE - digit) / 10) {
+                return -1;
+            }
+            result = result * 10 + digit;
+        }
+        return result;
+    }
+
+    /**
+     * Decodes all fields of the view.
+     *
+     * @return a Log object, contains data from the view.
+     */
+    public Log toLog() {
+        return new Log(
+            remoteAddress(),
+            remoteUser(),
+            dateTime(),
+            httpRequest(),
+            httpStatus(),
+            bodyBytesSent(),
+            httpReferer(),
+            httpUserAgent(),
+            epochMillis()
+        );
+    }
+}
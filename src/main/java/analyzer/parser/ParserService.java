@@ -0,0 +1,92 @@
+package analyzer.parser;
+
+import java.util.Map;
+import lombok.experimental.UtilityClass;
+
+/**
+ * A class that allows to get parsing engines,
+ * depending on the name of engine.
+ */
+@UtilityClass
+public class ParserService {
+
+    private static final Map<String, LineParser> PARSERS = Map.of(
+        "regex", LogParser::parse,
+        "scanner", new ScannerParser(),
+        "simd", new SimdScannerParser()
+    );
+
+    /**
+     * Returns the parsing engine used when no engine is specified.
+     *
+     * @return the regular expression based parsing engine.
+     */
+    public static LineParser getDefaultParser() {
+        return PARSERS.get("regex");
+    }
+
+    /**
+     * Checks whether a parsing engine with the specified name exists.
+     *
+     * @param engine name of the engine.
+     * @return {@code true} if parsing engine with the specified {@code engine} name exists,
+     *     {@code false} otherwise.
+     */
+    public static boolean isParserExists(String engine) {
+        return PARSERS.containsKey(engine.strip().toLowerCase());
+    }
+
+    /**
+     * Returns the parsing engine with the specified name, if one exists, {@code null} otherwise.
+     *
+     * @param engine name of the engine.
+     * @return the parsing engine with the specified name, if one exists, {@code null} otherwise.
+     */
+    public static LineParser getParser(String engine) {
+        return PARSERS.get(engine.strip().toLowerCase());
+    }
+
+    /**
+     * The scanner engine, which parses UTF-8 encoded logs without decoding them to strings first
+     * and decodes the fields of a view only when they are requested.
+     */
+    private static final class ScannerParser implements LineParser {
+
+        @Override
+        public Log parse(String log) {
+            return LogScanner.parse(log);
+        }
+
+        @Override
+        public Log parse(byte[] line, int from, int to) {
+            return LogScanner.parse(line, from, to);
+        }
+
+        @Override
+        public LogFields parse(byte[] line, int from, int to, LogView view) {
+            return LogScanner.scan(line, from, to, view);
+        }
+    }
+
+    /**
+     * The SIMD engine, which parses logs like the scanner engine, but finds their delimiters by the Vector API
+     * if it's enabled.
+     */
+    private static final class SimdScannerParser implements LineParser {
+
+        @Override
+        public Log parse(String log) {
+            return SimdLogScanner.parse(log);
+        }
+
+        @Override
+        public Log parse(byte[] line, int from, int to) {
+            return SimdLogScanner.parse(line, from, to);
+        }
+
+        @Override
+        public LogFields parse(byte[] line, int from, int to, LogView view) {
+            return SimdLogScanner.scan(line, from, to, view);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package analyzer.parser;
+
+import analyzer.error.InvalidLogFormatException;
+import java.nio.charset.StandardCharsets;
+import lombok.experimental.UtilityClass;
+
+/**
+ * A class that allows to parse NGINX-logs in format:
+ * <p>'$remote_addr - $remote_user [$time_local]' '"$request" $status $body_bytes_sent
+ * ' '"$http_referer" "$http_user_agent"'</p>
+ * The log is checked by the grammar of {@link LogScanner}, but the spaces and quotes ending the remote address,
+ * the HTTP method, the body of the HTTP request and the referer, and the quotes of the user agent, are found
+ * in bitmasks marked by the Vector API for the whole log at once instead of comparing bytes one by one.
+ * <p>The Vector API is used only if the JVM is started with {@code --add-modules jdk.incubator.vector}.
+ * Otherwise, the delimiters are found by comparing bytes one by one like {@link LogScanner} does, because marking
+ * every delimiter of a log without vector instructions costs more than finding the few ones needed.</p>
+ */
+@UtilityClass
+public final class SimdLogScanner {
+
+    private static final boolean VECTORIZED = ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent();
+
+    /**
+     * The index of each thread, which is created on the first use, so that the classes of the Vector API
+     * aren't loaded without the module.
+     */
+    private static final ThreadLocal<StructuralIndex> INDEXES = ThreadLocal.withInitial(StructuralIndex::new);
+
+    /**
+     * Checks whether the delimiters are found by vector instructions.
+     *
+     * @return {@code true} if the module of the Vector API is enabled, {@code false} if the scalar fallback is used.
+     */
+    public static boolean isVectorized() {
+        return VECTORIZED;
+    }
+
+    /**
+     * Returns Log object that contains data from string representation of given log.
+     *
+     * @param log the log, the Log object representation of which is expected.
+     * @return a Log object, contains data from {@code log}.
+     * @throws InvalidLogFormatException if {@code log} isn't matches format:
+     *                                   <p>'$remote_addr - $remote_user [$time_local]' '"$request"
+     *                                   $status $body_bytes_sent ' '"$http_referer" "$http_user_agent"'</p>
+     */
+    public static Log parse(String log) {
+        byte[] line = log.getBytes(StandardCharsets.UTF_8);
+        return parse(line, 0, line.length);
+    }
+
+    /**
+     * Returns Log object that contains data from UTF-8 encoded log stored in the given range of the array.
+     *
+     * @param line an array containing UTF-8 encoded log.
+     * @param from the index of the first byte of the log (inclusive).
+     * @param to   the index of the last byte of the log (exclusive).
+     * @return a Log object, contains data from the log.
+     * @throws InvalidLogFormatException if the log isn't matches format:
+     *                                   <p>'$remote_addr - $remote_user [$time_local]' '"$request"
+     *                                   $status $body_bytes_sent ' '"$http_referer" "$http_user_agent"'</p>
+     */
+    public static Log parse(byte[] line, int from, int to) {
+        return scan(line, from, to, new LogView()).toLog();
+    }
+
+    /**
+     * Checks UTF-8 encoded log stored in the given range of the array and fills the view with the boundaries
+     * of its fields, without decoding them.
+     *
+     * @param line an array containing UTF-8 encoded log.
+     * @param from the index of the first byte of the log (inclusive).
+     * @param to   the index of the last byte of the log (exclusive).
+     * @param view the view to be filled, the previous content of the view is discarded.
+     * @return {@code view}.
+     * @throws InvalidLogFormatException if the log isn't matches format:
+     *                                   <p>'$remote_addr - $remote_user [$time_local]' '"$request"
+     *                                   $status $body_bytes_sent ' '"$http_referer" "$http_user_agent"'</p>
+     */
+    public static LogView scan(byte[] line, int from, int to, LogView view) {
+        return VECTORIZED
+            ? LogScanner.scan(line, from, to, view, INDEXES.get().index(line, from, to))
+            : LogScanner.scan(line, from, to, view);
+    }
+}
@@ -0,0 +1,82 @@
+package analyzer.parser;
+
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * The positions of the spaces and quotes of a log, marked in bitmasks by {@link VectorDelimiterMasks} in a single
+ * pass over the log. The delimiters are then found by the trailing zeros of the masks instead of comparing
+ * the bytes again, 64 positions at a time.
+ * <p>An index is reused for the next log, so it isn't thread-safe. It must be created only if the Vector API
+ * is available.</p>
+ */
+final class StructuralIndex implements DelimiterFinder {
+
+    private static final byte SPACE = ' ';
+    private static final byte QUOTE = '"';
+
+    private static final int INITIAL_WORDS = 4;
+
+    private long[] spaces = new long[INITIAL_WORDS];
+    private long[] quotes = new long[INITIAL_WORDS];
+    private int start;
+    private int end;
+
+    /**
+     * Marks the delimiters of the log, discarding the previous one.
+     *
+     * @param line an array containing UTF-8 encoded log.
+     * @param from the index of the first byte of the log (inclusive).
+     * @param to   the index of the last byte of the log (exclusive).
+     * @return this index.
+     */
+    StructuralIndex index(byte[] line, int from, int to) {
+        Objects.checkFromToIndex(from, to, line.length);
+        int words = Math.ceilDiv(to - from, Long.SIZE);
+        if (words > spaces.length) {
+            spaces = new long[Math.max(words, spaces.length * 2)];
+            quotes = new long[spaces.length];
+        } else {
+            Arrays.fill(spaces, 0, words, 0);
+            Arrays.fill(quotes, 0, words, 0);
+        }
+        VectorDelimiterMasks.mark(line, from, to, spaces, quotes);
+        start = from;
+        end = to;
+        return this;
+    }
+
+    /**
+     * Returns the index of the first delimiter in the range of the indexed log.
+     *
+     * @param line      the indexed line, whose bytes aren't read again.
+     * @param from      the index of the first byte to be searched (inclusive).
+     * @param to        the index of the last byte to be searched (exclusive).
+     * @param delimiter a space or a quote.
+     * @return the index of the delimiter, -1 if there is none.
+     * @throws IndexOutOfBoundsException if the range is out of the indexed log.
+     * @throws IllegalArgumentException  if the delimiter isn't a space or a quote.
+     */
+    @Override
+    public int find(byte[] line, int from, int to, byte delimiter) {
+        Objects.checkFromToIndex(from - start, to - start, end - start);
+        long[] mask = switch (delimiter) {
+            case SPACE -> spaces;
+            case QUOTE -> quotes;
+            default -> throw new IllegalArgumentException("Only spaces and quotes are indexed.");
+        };
+        if (from == to) {
+            return -1;
+        }
+        int offset = from - start;
+        int word = offset / Long.SIZE;
+        int lastWord = (to - start - 1) / Long.SIZE;
+        long bits = mask[word] & (-1L << (offset % Long.SIZE));
+        while (bits == 0 && word < lastWord) {
+            word++;
+            bits = mask[word];
+        }
+        int index = start + word * Long.SIZE + Long.numberOfTrailingZeros(bits);
+        return bits != 0 && index < to ? index : -1;
+    }
+}
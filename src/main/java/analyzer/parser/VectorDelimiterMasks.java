@@ -0,0 +1,52 @@
+package analyzer.parser;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorSpecies;
+import lombok.experimental.UtilityClass;
+
+/**
+ * A class that marks the spaces and quotes of a log in bitmasks by the Vector API: bit {@code i % 64} of word
+ * {@code i / 64} of a mask is set if and only if the byte at offset {@code i} from the start of the log is
+ * the delimiter. A block of 16, 32 or 64 bytes of the log, depending on the preferred width of the vectors
+ * of the CPU, is loaded into a vector and compared with a space and a quote at once, and the resulting masks
+ * of lanes are stored as bits of the words of the masks.
+ * <p>The class must be loaded only if the JVM is started with {@code --add-modules jdk.incubator.vector},
+ * see {@link SimdLogScanner#isVectorized()}.</p>
+ */
+@UtilityClass
+class VectorDelimiterMasks {
+
+    private static final byte SPACE = ' ';
+    private static final byte QUOTE = '"';
+
+    /**
+     * The preferred species, unless its lanes don't fit into a word of a mask.
+     */
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED.length() <= Long.SIZE
+        ? ByteVector.SPECIES_PREFERRED
+        : ByteVector.SPECIES_512;
+
+    /**
+     * Sets the bits of the spaces and quotes of the range of the line in the masks. The last block of the log is
+     * loaded together with the bytes that follow it, if the array has enough of them, and the lanes beyond the log
+     * are discarded.
+     *
+     * @param line   an array containing UTF-8 encoded log.
+     * @param from   the index of the first byte of the log (inclusive).
+     * @param to     the index of the last byte of the log (exclusive).
+     * @param spaces the mask of the spaces, whose words covering the log are cleared.
+     * @param quotes the mask of the quotes, whose words covering the log are cleared.
+     */
+    static void mark(byte[] line, int from, int to, long[] spaces, long[] quotes) {
+        for (int i = from; i < to; i += SPECIES.length()) {
+            ByteVector bytes = i + SPECIES.length() <= line.length
+                ? ByteVector.fromArray(SPECIES, line, i)
+                : ByteVector.fromArray(SPECIES, line, i, SPECIES.indexInRange(i, line.length));
+            int offset = i - from;
+            long lanes = to - i >= Long.SIZE ? -1L : (1L << (to - i)) - 1;
+            // a block never crosses a word, because the number of lanes divides the size of a word
+            spaces[offset / Long.SIZE] |= (bytes.eq(SPACE).toLong() & lanes) << (offset % Long.SIZE);
+            quotes[offset / Long.SIZE] |= (bytes.eq(QUOTE).toLong() & lanes) << (offset % Long.SIZE);
+        }
+    }
+}
@@ -1,17 +1,23 @@
 package analyzer.render;
 
+import analyzer.statistics.Frequency;
+import analyzer.statistics.Group;
+import analyzer.statistics.GroupedStatistics;
 import analyzer.statistics.LogStatistics;
-import java.math.BigInteger;
-import java.util.Collection;
-import java.util.LinkedHashMap;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
-import org.apache.commons.math3.util.Pair;
+import java.util.function.Function;
 
 /**
  * An abstract class that allows to get a string formatted
  * representation of the statistics.
+ * <p>The tables are written directly to an {@link Appendable}: the widths of the columns are computed
+ * from the cells first, and then the rows are written, so that no table is built as a string.</p>
  */
 @SuppressWarnings("MultipleStringLiterals")
 public abstract class AbstractRenderer {
@@ -22,151 +28,172 @@ public abstract class AbstractRenderer {
      * @return a string containing a formatted representation of the given statistics.
      */
     public String render(LogStatistics statistics) {
+        StringBuilder output = new StringBuilder();
+        try {
+            render(statistics, output);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return output.toString();
+    }
+
+    /**
+     * Writes string formatted representation of the given statistics.
+     *
+     * @param statistics statistics, the string formatted representation of which is to be written.
+     * @param out        the output to write to.
+     * @throws IOException if an I/O error occurs.
+     */
+    public void render(LogStatistics statistics, Appendable out) throws IOException {
         if (statistics == null) {
-            return "";
+            return;
         }
-        return getGeneralInformation(statistics)
-            + getRequestedResources(statistics)
-            + getResponsesCodes(statistics)
-            + getRemoteAddresses(statistics)
-            + getHttpReferer(statistics);
+        writeGeneralInformation(out, statistics);
+        writeFrequencies(out, "Requested resources", "Resource", "Requests", statistics.topRequestedResources());
+        writeFrequencies(out, "Responses codes", "Code", "Count", statistics.topResponseCodes());
+        writeFrequencies(out, "Remote addresses", "Address", "Count", statistics.topRemoteAddresses());
+        writeFrequencies(out, "Http referers", "Referer", "Count", statistics.topHttpReferrers());
+        writeGroups(out, statistics.groups());
     }
 
     protected abstract String getFormatedHeader(String name);
 
-    private String getGeneralInformation(LogStatistics statistics) {
-        Map<String, String> generalInformation = new LinkedHashMap<>();
-        generalInformation.put("File(-s)", "`" + statistics.pathToFile() + "`");
-        generalInformation.put(
+    private void writeGeneralInformation(Appendable out, LogStatistics statistics) throws IOException {
+        List<Map.Entry<String, String>> metrics = new ArrayList<>();
+        metrics.add(Map.entry("File(-s)", "`" + statistics.pathToFile() + "`"));
+        metrics.add(Map.entry(
             "Starting date",
             Objects.requireNonNullElse(statistics.fromDateTime(), '-').toString()
-        );
-        generalInformation.put(
+        ));
+        metrics.add(Map.entry(
             "Ending date",
             Objects.requireNonNullElse(statistics.toDateTime(), '-').toString()
-        );
-        generalInformation.put("Number of requests", statistics.numberOfRequests().toString());
-        generalInformation.put("AverageResponseSize", statistics.averageServerResponseSize().toString());
-        generalInformation.put("95p response's size's", statistics.responseSizePercentile().toString());
-        return getTable(
-            generalInformation,
-            "General information",
-            "Metric",
-            "Value"
-        );
-    }
-
-    private String getRequestedResources(LogStatistics statistics) {
-        return getTable(
-            getLinkedHashMap(statistics.theMostFrequentlyRequestedResources()),
-            "Requested resources",
-            "Resource",
-            "Requests"
-        );
-    }
-
-    private String getResponsesCodes(LogStatistics statistics) {
-        return getTable(
-            getLinkedHashMap(statistics.theMostCommonResponseCodes()),
-            "Responses codes",
-            "Code",
-            "Count"
-        );
+        ));
+        metrics.add(Map.entry("Number of requests", statistics.numberOfRequests().toString()));
+        metrics.add(Map.entry("AverageResponseSize", statistics.averageServerResponseSize().toString()));
+        if (statistics.percentiles().isEmpty()) {
+            metrics.add(Map.entry("95p response's size's", statistics.responseSizePercentile().toString()));
+        }
+        for (var percentile : statistics.percentiles()) {
+            metrics.add(Map.entry(
+                BigDecimal.valueOf(percentile).stripTrailingZeros().toPlainString() + "p response's size's",
+                statistics.responseSizePercentile(percentile).toString()
+            ));
+        }
+        writeTable(out, "General information", List.of(
+            new Column<>("Metric", Map.Entry::getKey),
+            new Column<>("Value", Map.Entry::getValue)
+        ), metrics);
     }
 
-    private String getRemoteAddresses(LogStatistics statistics) {
-        return getTable(
-            getLinkedHashMap(statistics.theMostFrequentRemoteAddresses()),
-            "Remote addresses",
-            "Address",
-            "Count"
-        );
+    private void writeFrequencies(
+        Appendable out,
+        String statisticsName,
+        String valueColumnName,
+        String countColumnName,
+        List<Frequency> frequencies
+    ) throws IOException {
+        writeTable(out, statisticsName, List.of(
+            new Column<>(valueColumnName, frequency -> "`" + frequency.value() + "`"),
+            new Column<>(countColumnName, AbstractRenderer::getCount)
+        ), frequencies);
     }
 
-    private String getHttpReferer(LogStatistics statistics) {
-        return getTable(
-            getLinkedHashMap(statistics.theMostFrequentHttpReferer()),
-            "Http referers",
-            "Referer",
-            "Count"
-        );
+    /**
+     * Writes the table of the statistics of the groups: a column for the time bucket and for each field the logs
+     * are grouped by, followed by the number of requests, the total, the average and the percentiles of the server
+     * response size of each group.
+     */
+    private void writeGroups(Appendable out, GroupedStatistics groups) throws IOException {
+        if (groups == null) {
+            return;
+        }
+        List<Column<Group>> columns = new ArrayList<>();
+        if (groups.timeBucket() != null) {
+            columns.add(new Column<>(capitalize(groups.timeBucket().bucketName()), group -> group.bucket().toString()));
+        }
+        for (int i = 0; i < groups.fields().size(); i++) {
+            int field = i;
+            columns.add(new Column<>(groups.fields().get(i).fieldName(), group -> "`" + group.key().get(field) + "`"));
+        }
+        columns.add(new Column<>("Requests", group -> String.valueOf(group.count())));
+        columns.add(new Column<>("Total size", group -> group.sum().toString()));
+        columns.add(new Column<>("Average size", group -> group.average().toString()));
+        for (int i = 0; i < groups.percentiles().size(); i++) {
+            int percentile = i;
+            columns.add(new Column<>(
+                BigDecimal.valueOf(groups.percentiles().get(i)).stripTrailingZeros().toPlainString() + "p size",
+                group -> group.percentiles().get(percentile).toString()
+            ));
+        }
+        writeTable(out, "Groups", columns, groups.groups());
     }
 
-    private String getTable(
-        Map<String, String> metrics,
+    private <T> void writeTable(
+        Appendable out,
         String statisticsName,
-        String firstColumnName,
-        String secondColumnName
-    ) {
-        int metricsFieldsWidth = Math.max(getMaxColumnSize(metrics.keySet()), firstColumnName.length() + 2);
-        int metricsValuesWidth = Math.max(getMaxColumnSize(metrics.values()), secondColumnName.length() + 2);
-        StringBuilder table = new StringBuilder();
-        table.append(getFormatedHeader(statisticsName)).append(System.lineSeparator().repeat(2));
-        getTableHead(table, metricsFieldsWidth, metricsValuesWidth, firstColumnName, secondColumnName);
-        getTableBody(table, metricsFieldsWidth, metricsValuesWidth, metrics);
-        table.append(System.lineSeparator());
-        return table.toString();
+        List<Column<T>> columns,
+        List<T> rows
+    ) throws IOException {
+        int[] widths = new int[columns.size()];
+        for (int i = 0; i < widths.length; i++) {
+            int width = columns.get(i).name().length();
+            for (var row : rows) {
+                width = Math.max(width, columns.get(i).cell().apply(row).length());
+            }
+            widths[i] = width + 2;
+        }
+        String lineSeparator = System.lineSeparator();
+        out.append(getFormatedHeader(statisticsName)).append(lineSeparator).append(lineSeparator);
+        for (int i = 0; i < widths.length; i++) {
+            writeCell(out, widths[i], columns.get(i).name());
+        }
+        out.append('|').append(lineSeparator);
+        for (var width : widths) {
+            out.append("|:");
+            writeRepeated(out, '-', width - 2);
+            out.append(':');
+        }
+        out.append('|').append(lineSeparator);
+        for (var row : rows) {
+            for (int i = 0; i < widths.length; i++) {
+                writeCell(out, widths[i], columns.get(i).cell().apply(row));
+            }
+            out.append('|').append(lineSeparator);
+        }
+        out.append(lineSeparator);
     }
 
-    private static void getTableHead(
-        StringBuilder table,
-        int metricsFieldsWidth,
-        int metricsValuesWidth,
-        String firstTitle,
-        String secondTitle
-    ) {
-        getRow(table, metricsFieldsWidth, metricsValuesWidth, firstTitle, secondTitle);
-        table
-            .append("|:")
-            .append("-".repeat(metricsFieldsWidth - 2))
-            .append(":|:")
-            .append("-".repeat(metricsValuesWidth - 2))
-            .append(":|")
-            .append(System.lineSeparator());
+    private static void writeCell(Appendable out, int width, String cell) throws IOException {
+        out.append("| ").append(cell);
+        writeRepeated(out, ' ', width - 1 - cell.length());
     }
 
-    private static void getTableBody(
-        StringBuilder table,
-        int metricsFieldsWidth,
-        int metricsValuesWidth,
-        Map<String, String> metrics
-    ) {
-        for (var pair : metrics.entrySet()) {
-            getRow(table, metricsFieldsWidth, metricsValuesWidth, pair.getKey(), pair.getValue());
+    private static void writeRepeated(Appendable out, char character, int count) throws IOException {
+        for (int i = 0; i < count; i++) {
+            out.append(character);
         }
     }
 
-    private static void getRow(
-        StringBuilder table,
-        int metricsFieldsWidth,
-        int metricsValuesWidth,
-        String field,
-        String value
-    ) {
-        table
-            .append("| ")
-            .append(field)
-            .append(" ".repeat(metricsFieldsWidth - 1 - field.length()))
-            .append("| ")
-            .append(value)
-            .append(" ".repeat(metricsValuesWidth - 1 - value.length()))
-            .append("|")
-            .append(System.lineSeparator());
+    private static String capitalize(String name) {
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
     }
 
-    private static int getMaxColumnSize(Collection<String> columnFields) {
-        return columnFields
-            .stream()
-            .map(String::length)
-            .max(Integer::compareTo)
-            .orElse(0) + 2;
+    private static String getCount(Frequency frequency) {
+        String count = frequency.count().toString();
+        if (frequency.error().signum() > 0) {
+            count += " (error <= " + frequency.error() + ")";
+        }
+        return count;
     }
 
-    private static Map<String, String> getLinkedHashMap(List<Pair<String, BigInteger>> list) {
-        Map<String, String> map = new LinkedHashMap<>();
-        for (var pair : list) {
-            map.put("`" + pair.getKey() + "`", pair.getValue().toString());
-        }
-        return map;
+    /**
+     * A column of a table.
+     *
+     * @param name the name of the column.
+     * @param cell the function returning the cell of the column in a row.
+     * @param <T>  the type of the rows.
+     */
+    private record Column<T>(String name, Function<T, String> cell) {
     }
 }
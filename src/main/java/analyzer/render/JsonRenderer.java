@@ -0,0 +1,33 @@
+package analyzer.render;
+
+import analyzer.statistics.LogStatistics;
+import analyzer.statistics.StatisticsSnapshots;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+
+/**
+ * A class that allows to get statistics in JSON format.
+ * <p>The document is written by {@link StatisticsSnapshots#writeJson(LogStatistics, Writer)}, so besides
+ * the reported values it contains the complete state of the statistics and can be loaded and merged later.</p>
+ */
+public class JsonRenderer extends AbstractRenderer {
+    @Override
+    public void render(LogStatistics statistics, Appendable out) throws IOException {
+        if (statistics == null) {
+            return;
+        }
+        if (out instanceof Writer writer) {
+            StatisticsSnapshots.writeJson(statistics, writer);
+            return;
+        }
+        StringWriter writer = new StringWriter();
+        StatisticsSnapshots.writeJson(statistics, writer);
+        out.append(writer.getBuffer());
+    }
+
+    @Override
+    protected String getFormatedHeader(String name) {
+        return name;
+    }
+}
@@ -12,7 +12,8 @@ public class RendererService {
 
     private static final Map<String, AbstractRenderer> RENDERERS = Map.of(
         "markdown", new MarkdownRenderer(),
-        "adoc", new AdocRenderer()
+        "adoc", new AdocRenderer(),
+        "json", new JsonRenderer()
     );
 
     /**
@@ -0,0 +1,161 @@
+package analyzer.statistics;
+
+import analyzer.filter.FilterExpression;
+import analyzer.filter.FilterField;
+import analyzer.parser.LineParser;
+import analyzer.parser.ParserService;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import lombok.Builder;
+
+/**
+ * A class containing the settings that control how logs are parsed, filtered and aggregated.
+ *
+ * @param from            date and time for analyzing records starting from the front time
+ *                        (not including the transmitted time), null if the date and time does not matter.
+ * @param to              date and time for analyzing records up to (not including the transmitted time), null if the
+ *                        date and time does not matter.
+ * @param filterParams    the parameters by which the values will be filtered
+ *                        (the key is the name of the log field, the value is the value for filtering), empty map, if
+ *                        there are no filter parameters.
+ * @param filter          the filter expression the logs have to match in addition to the filter parameters,
+ *                        null if there is none.
+ * @param parser          the engine used to parse logs, the default engine if null.
+ * @param memoryMapped    whether local files should be memory-mapped and processed in parallel chunks.
+ * @param parallel        whether the lines of each source should be processed by a parallel stream.
+ * @param seek            whether only the region of local files that may contain logs within the date and time
+ *                        range should be read, the files being expected to be ordered by time.
+ * @param indexed         whether local files should be analyzed using persistent indexes of pre-aggregated statistics.
+ * @param indexDirectory  the directory of the indexes, null if the index of a file is written next to the file.
+ * @param threads         the number of worker threads, the number of available processors if not positive.
+ * @param percentileError the relative error of percentiles of the server response size, if positive,
+ *                        percentiles are estimated by a bounded-memory sketch, otherwise they are computed exactly.
+ * @param percentiles     the percentiles of the server response size to be reported without duplicates,
+ *                        empty if only the default 95% percentile is to be reported.
+ * @param topK            the number of the most frequent values to be reported for each field, 3 if not positive.
+ * @param topKCapacity    the number of values tracked for each high-cardinality field, if positive, the most
+ *                        frequent values are estimated by the Space-Saving algorithm, otherwise they are counted
+ *                        exactly.
+ * @param connectTimeout  the timeout of establishing a connection to a server, 10 seconds if null.
+ * @param readTimeout     the timeout of waiting for the next bytes of a response of a server, 30 seconds if null.
+ * @param retries         the number of times a failed request to a server is retried, no retries if not positive.
+ * @param groupBy         the fields the statistics of the server response size are grouped by,
+ *                        empty if they're grouped only by the time bucket or aren't grouped.
+ * @param timeBucket      the period of time the statistics of the server response size are grouped by,
+ *                        null if they aren't grouped by time.
+ * @param groupLimit      the number of the largest groups reported for each time bucket, all if not positive.
+ * @param pipelineMetrics whether the metrics of the pipelines reading and parsing sources should be logged.
+ */
+@Builder(toBuilder = true)
+public record AnalyzerSettings(
+    OffsetDateTime from,
+    OffsetDateTime to,
+    Map<String, String> filterParams,
+    FilterExpression filter,
+    LineParser parser,
+    boolean memoryMapped,
+    boolean parallel,
+    boolean seek,
+    boolean indexed,
+    Path indexDirectory,
+    int threads,
+    double percentileError,
+    List<Double> percentiles,
+    int topK,
+    int topKCapacity,
+    Duration connectTimeout,
+    Duration readTimeout,
+    int retries,
+    List<FilterField> groupBy,
+    TimeBucket timeBucket,
+    int groupLimit,
+    boolean pipelineMetrics) {
+
+    private static final int DEFAULT_TOP_K = 3;
+    private static final Duration DEFAULT_CONNECT_TIMEOUT = Duration.ofSeconds(10);
+    private static final Duration DEFAULT_READ_TIMEOUT = Duration.ofSeconds(30);
+
+    private static final int MILLIS_PER_SECOND = 1000;
+    private static final int NANOS_PER_MILLI = 1_000_000;
+
+    public AnalyzerSettings {
+        filterParams = Objects.requireNonNullElse(filterParams, Map.of());
+        parser = Objects.requireNonNullElse(parser, ParserService.getDefaultParser());
+        percentiles = Objects.requireNonNullElse(percentiles, List.<Double>of()).stream().distinct().toList();
+        groupBy = List.copyOf(Objects.requireNonNullElse(groupBy, List.of()));
+        connectTimeout = Objects.requireNonNullElse(connectTimeout, DEFAULT_CONNECT_TIMEOUT);
+        readTimeout = Objects.requireNonNullElse(readTimeout, DEFAULT_READ_TIMEOUT);
+        if (topK <= 0) {
+            topK = DEFAULT_TOP_K;
+        }
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+    }
+
+    /**
+     * Checks whether the statistics of the server response size are grouped.
+     *
+     * @return {@code true} if there are fields or a time bucket to group the logs by, {@code false} otherwise.
+     */
+    public boolean isGrouped() {
+        return !groupBy.isEmpty() || timeBucket != null;
+    }
+
+    /**
+     * Creates an empty estimator of percentiles of the server response size.
+     *
+     * @return a bounded-memory sketch if the percentile error is positive, an exact estimator otherwise.
+     */
+    public QuantileEstimator newQuantileEstimator() {
+        return percentileError > 0 ? new QuantileSketch(percentileError) : new ExactQuantileEstimator();
+    }
+
+    /**
+     * Creates an empty estimator of the most frequent values of a high-cardinality field.
+     *
+     * @return a Space-Saving counter if the top K capacity is positive, an exact counter otherwise.
+     */
+    FrequencyEstimator newFrequencyEstimator() {
+        return topKCapacity > 0 ? new SpaceSavingCounter(topKCapacity) : new CounterMap();
+    }
+
+    /**
+     * Returns the lower bound of the date and time range in milliseconds from the epoch, rounded down, so that
+     * a log with a whole number of milliseconds is after {@link #from()} if and only if its milliseconds are
+     * greater than the returned value.
+     *
+     * @return the lower bound in milliseconds from the epoch, {@link Long#MIN_VALUE} if {@link #from()} is null.
+     */
+    long fromEpochMillis() {
+        return from == null ? Long.MIN_VALUE : toEpochMillis(from, false);
+    }
+
+    /**
+     * Returns the upper bound of the date and time range in milliseconds from the epoch, rounded up, so that
+     * a log with a whole number of milliseconds is before {@link #to()} if and only if its milliseconds are
+     * less than the returned value.
+     *
+     * @return the upper bound in milliseconds from the epoch, {@link Long#MAX_VALUE} if {@link #to()} is null.
+     */
+    long toEpochMillis() {
+        return to == null ? Long.MAX_VALUE : toEpochMillis(to, true);
+    }
+
+    private static long toEpochMillis(OffsetDateTime dateTime, boolean roundUp) {
+        long seconds = dateTime.toEpochSecond();
+        if (seconds >= Long.MAX_VALUE / MILLIS_PER_SECOND) {
+            return Long.MAX_VALUE;
+        }
+        if (seconds <= Long.MIN_VALUE / MILLIS_PER_SECOND) {
+            return Long.MIN_VALUE;
+        }
+        int nanos = dateTime.getNano();
+        long millis = seconds * MILLIS_PER_SECOND + nanos / NANOS_PER_MILLI;
+        return roundUp && nanos % NANOS_PER_MILLI != 0 ? millis + 1 : millis;
+    }
+}
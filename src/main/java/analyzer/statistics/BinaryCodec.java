@@ -0,0 +1,82 @@
+package analyzer.statistics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import lombok.experimental.UtilityClass;
+
+/**
+ * A class that allows to write values that {@link DataOutput} doesn't support and to read them back.
+ */
+@UtilityClass
+class BinaryCodec {
+
+    /**
+     * Writes the string as its length followed by its UTF-8 bytes, so that strings of any length are supported.
+     *
+     * @param out   the output to write to.
+     * @param value the string to be written.
+     * @throws IOException if an I/O error occurs.
+     */
+    static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads the string written by {@link #writeString(DataOutput, String)}.
+     *
+     * @param in the input to read from.
+     * @return the string.
+     * @throws IOException if an I/O error occurs.
+     */
+    static String readString(DataInput in) throws IOException {
+        byte[] bytes = new byte[readLength(in)];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Writes the number as its two's-complement bytes prefixed with their number.
+     *
+     * @param out   the output to write to.
+     * @param value the number to be written.
+     * @throws IOException if an I/O error occurs.
+     */
+    static void writeBigInteger(DataOutput out, BigInteger value) throws IOException {
+        byte[] bytes = value.toByteArray();
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads the number written by {@link #writeBigInteger(DataOutput, BigInteger)}.
+     *
+     * @param in the input to read from.
+     * @return the number.
+     * @throws IOException if an I/O error occurs.
+     */
+    static BigInteger readBigInteger(DataInput in) throws IOException {
+        byte[] bytes = new byte[readLength(in)];
+        in.readFully(bytes);
+        return new BigInteger(bytes);
+    }
+
+    /**
+     * Reads the number of elements that follow and checks that it isn't negative.
+     *
+     * @param in the input to read from.
+     * @return the number of elements.
+     * @throws IOException if an I/O error occurs or the number is negative.
+     */
+    static int readLength(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Corrupted data: negative length " + length + ".");
+        }
+        return length;
+    }
+}
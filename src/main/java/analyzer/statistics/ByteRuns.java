@@ -0,0 +1,110 @@
+package analyzer.statistics;
+
+import analyzer.io.LineBlock;
+import analyzer.io.LineFeeds;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.experimental.UtilityClass;
+
+/**
+ * A class that allows to collect statistics from a source split into consecutive runs of bytes that can be
+ * read independently, e.g. runs of BGZF members or byte ranges of a remote file.
+ * <p>The runs are read and parsed by {@link AnalyzerSettings#threads()} workers in parallel. The lines crossing
+ * the boundaries of the runs are put together and parsed at the end.</p>
+ */
+@UtilityClass
+class ByteRuns {
+
+    /**
+     * Reads a run of bytes.
+     */
+    @FunctionalInterface
+    interface RunReader {
+
+        /**
+         * Reads the run.
+         *
+         * @param run the index of the run.
+         * @return the bytes of the run.
+         * @throws IOException if an I/O error occurs.
+         */
+        byte[] read(int run) throws IOException;
+    }
+
+    /**
+     * Collects statistics from the runs.
+     *
+     * @param source   the source of the logs.
+     * @param runs     the number of runs.
+     * @param reader   the reader of the runs, which may be called by several workers concurrently.
+     * @param settings the settings that control how logs are parsed, filtered and aggregated.
+     * @return the statistics of the source.
+     * @throws IOException if an I/O error occurs.
+     */
+    static LogStatistics getStatistics(String source, int runs, RunReader reader, AnalyzerSettings settings)
+        throws IOException {
+        RunEdges[] edges = new RunEdges[runs];
+        AtomicInteger nextRun = new AtomicInteger();
+        LogStatistics statistics = LogAnalyzer.collectInParallel(
+            source,
+            settings,
+            Math.min(settings.threads(), runs),
+            () -> getStatistics(source, reader, nextRun, edges, settings)
+        );
+        StatisticsUpdater updater = new StatisticsUpdater(statistics, settings);
+        ByteArrayOutputStream line = new ByteArrayOutputStream();
+        for (var runEdges : edges) {
+            line.writeBytes(runEdges.head());
+            if (runEdges.hasLineFeed()) {
+                updater.update(line.toByteArray());
+                line.reset();
+                line.writeBytes(runEdges.tail());
+            }
+        }
+        updater.update(line.toByteArray());
+        return statistics;
+    }
+
+    private static LogStatistics getStatistics(
+        String source,
+        RunReader reader,
+        AtomicInteger nextRun,
+        RunEdges[] edges,
+        AnalyzerSettings settings
+    ) throws IOException {
+        LogStatistics statistics = new LogStatistics(source, settings);
+        StatisticsUpdater updater = new StatisticsUpdater(statistics, settings);
+        for (int i = nextRun.getAndIncrement(); i < edges.length; i = nextRun.getAndIncrement()) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Reading of \"" + source + "\" was interrupted.");
+            }
+            byte[] bytes = reader.read(i);
+            int first = LineFeeds.indexOf(bytes, 0, bytes.length);
+            if (first < 0) {
+                edges[i] = new RunEdges(bytes, new byte[0], false);
+                continue;
+            }
+            int last = LineFeeds.lastIndexOf(bytes, 0, bytes.length);
+            updater.update(new LineBlock(bytes, first + 1, last + 1));
+            edges[i] = new RunEdges(
+                Arrays.copyOfRange(bytes, 0, first),
+                Arrays.copyOfRange(bytes, last + 1, bytes.length),
+                true
+            );
+        }
+        return statistics;
+    }
+
+    /**
+     * The bytes of a run before its first line feed and after its last line feed.
+     *
+     * @param head        the bytes before the first line feed, the whole run if there is none.
+     * @param tail        the bytes after the last line feed.
+     * @param hasLineFeed whether the run contains a line feed.
+     */
+    private record RunEdges(byte[] head, byte[] tail, boolean hasLineFeed) {
+    }
+}
@@ -0,0 +1,56 @@
+package analyzer.statistics;
+
+import analyzer.io.BgzfFiles;
+import analyzer.io.Compression;
+import analyzer.io.FileChunk;
+import analyzer.io.LineBlocks;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import lombok.experimental.UtilityClass;
+
+/**
+ * A class that allows to collect statistics from compressed local files.
+ * <p>BGZF files are split into runs of members, which are decompressed and parsed by
+ * {@link AnalyzerSettings#threads()} workers in parallel. The lines crossing the boundaries of the runs are
+ * put together and parsed at the end. Other files are decompressed on a background thread into blocks of lines,
+ * which are parsed by the workers in parallel, so that the workers don't wait for decompression as long as they
+ * parse slower than the file is decompressed.</p>
+ */
+@UtilityClass
+class CompressedFiles {
+
+    private static final long BGZF_RUN_SIZE = 1L << 20;
+
+    /**
+     * Collects statistics from the compressed file.
+     *
+     * @param path        the path of the file.
+     * @param compression the compression format of the file.
+     * @param settings    the settings that control how logs are parsed, filtered and aggregated.
+     * @return the statistics of the file.
+     * @throws IOException if an I/O error occurs or the file is compressed in an unsupported format.
+     */
+    static LogStatistics getStatistics(Path path, Compression compression, AnalyzerSettings settings)
+        throws IOException {
+        if (compression == Compression.GZIP) {
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                List<FileChunk> runs = BgzfFiles.split(channel, BGZF_RUN_SIZE);
+                if (runs != null) {
+                    return ByteRuns.getStatistics(
+                        path.toString(),
+                        runs.size(),
+                        run -> BgzfFiles.inflate(channel, runs.get(run)),
+                        settings
+                    );
+                }
+            }
+        }
+        Thread.Builder decompressor = Thread.ofPlatform().name("decompressor-" + path.getFileName()).daemon();
+        try (LineBlocks blocks = new LineBlocks(Compression.open(path), decompressor)) {
+            return LogAnalyzer.getStatisticsFromBlocks(path.toString(), blocks, settings);
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package analyzer.statistics;
+
+import analyzer.parser.ByteDictionary;
+import analyzer.parser.LogBatch;
+import analyzer.parser.LogFields;
+import it.unimi.dsi.fastutil.ints.Int2ObjectMaps;
+import it.unimi.dsi.fastutil.ints.Int2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.ints.IntHeapPriorityQueue;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * A map counting the occurrences of string keys exactly.
+ * <p>Keys are interned in a {@link ByteDictionary} and counted by their ids in an array, so counting a key
+ * of a {@code LogView} that was already seen neither decodes nor allocates. The most frequent keys are selected
+ * by their counts in a bounded heap, so only those keys and the ones with tied counts are decoded. Merging maps
+ * looks the keys of the other map up by their bytes.</p>
+ * <p>Counts are kept in primitive {@code long}s. If the count of a key would overflow, the
+ * accumulated part is moved to a {@link BigInteger} and counting continues in the {@code long} from zero,
+ * so that the count of the key is always the sum of both parts.</p>
+ */
+final class CounterMap implements FrequencyEstimator {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final ByteDictionary keys = new ByteDictionary();
+
+    private long[] counts = new long[INITIAL_CAPACITY];
+
+    private final Int2ObjectOpenHashMap<BigInteger> overflows = new Int2ObjectOpenHashMap<>();
+
+    @Override
+    public void increment(String key) {
+        add(keys.add(key), 1);
+    }
+
+    @Override
+    public void increment(
+        LogFields log,
+        Function<LogFields, String> accessor,
+        ToIntBiFunction<LogFields, ByteDictionary> encoder
+    ) {
+        add(encoder.applyAsInt(log, keys), 1);
+    }
+
+    @Override
+    public void incrementAll(LogBatch batch, LogBatch.Column column) {
+        for (int i = 0; i < batch.size(); i++) {
+            add(batch.id(i, column, keys), 1);
+        }
+    }
+
+    /**
+     * Adds the value to the count of the key.
+     *
+     * @param key   the key whose count is to be increased.
+     * @param delta the value to be added to the count.
+     */
+    void add(String key, long delta) {
+        add(keys.add(key), delta);
+    }
+
+    private void add(int id, long delta) {
+        if (id >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(counts.length * 2, id + 1));
+        }
+        long previous = counts[id];
+        counts[id] = previous + delta;
+        if (WideCounter.isOverflow(previous, delta, previous + delta)) {
+            counts[id] = 0;
+            overflows.merge(id, BigInteger.valueOf(previous).add(BigInteger.valueOf(delta)), BigInteger::add);
+        }
+    }
+
+    @Override
+    public void add(Frequency frequency) {
+        int id = keys.add(frequency.value());
+        if (frequency.count().bitLength() < Long.SIZE) {
+            add(id, frequency.count().longValue());
+        } else {
+            add(id, 0);
+            overflows.merge(id, frequency.count(), BigInteger::add);
+        }
+    }
+
+    @Override
+    public void addAll(FrequencyEstimator other) {
+        if (!(other instanceof CounterMap map)) {
+            throw new IllegalArgumentException("Only exact counters can be merged into an exact counter.");
+        }
+        for (int id = 0; id < map.keys.size(); id++) {
+            int ownId = keys.add(map.keys, id);
+            add(ownId, map.counts[id]);
+            BigInteger overflow = map.overflows.get(id);
+            if (overflow != null) {
+                overflows.merge(ownId, overflow, BigInteger::add);
+            }
+        }
+    }
+
+    /**
+     * Returns the count of the key.
+     *
+     * @param key the key whose count is expected.
+     * @return the count of the key, zero if the key was never counted.
+     */
+    BigInteger get(String key) {
+        int id = keys.indexOf(key);
+        return id < 0 ? BigInteger.ZERO : get(id);
+    }
+
+    private BigInteger get(int id) {
+        BigInteger count = BigInteger.valueOf(count(id));
+        return overflows.isEmpty() ? count : count.add(overflows.getOrDefault(id, BigInteger.ZERO));
+    }
+
+    @Override
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(keys.size());
+        for (int id = 0; id < keys.size(); id++) {
+            BinaryCodec.writeString(out, keys.get(id));
+            out.writeLong(counts[id]);
+        }
+        out.writeInt(overflows.size());
+        for (var entry : Int2ObjectMaps.fastIterable(overflows)) {
+            BinaryCodec.writeString(out, keys.get(entry.getIntKey()));
+            BinaryCodec.writeBigInteger(out, entry.getValue());
+        }
+    }
+
+    @Override
+    public void readFrom(DataInput in) throws IOException {
+        int size = BinaryCodec.readLength(in);
+        for (int i = 0; i < size; i++) {
+            add(BinaryCodec.readString(in), in.readLong());
+        }
+        int overflowsSize = BinaryCodec.readLength(in);
+        for (int i = 0; i < overflowsSize; i++) {
+            overflows.merge(keys.add(BinaryCodec.readString(in)), BinaryCodec.readBigInteger(in), BigInteger::add);
+        }
+    }
+
+    @Override
+    public List<Frequency> top(long limit) {
+        int size = (int) Math.min(Math.max(limit, 0), keys.size());
+        if (size == 0) {
+            return List.of();
+        }
+        IntHeapPriorityQueue heap = new IntHeapPriorityQueue(size, (first, second) -> compare(second, first));
+        for (int id = 0; id < keys.size(); id++) {
+            if (heap.size() < size) {
+                heap.enqueue(id);
+            } else if (compare(id, heap.firstInt()) < 0) {
+                heap.dequeueInt();
+                heap.enqueue(id);
+            }
+        }
+        int[] ids = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            ids[i] = heap.dequeueInt();
+        }
+        return Arrays.stream(ids).mapToObj(id -> new Frequency(keys.get(id), get(id), BigInteger.ZERO)).toList();
+    }
+
+    /**
+     * Compares the keys with the ids in the {@link FrequencyEstimator#ORDER} of their frequencies, decoding the keys
+     * only if their counts are equal.
+     */
+    private int compare(int first, int second) {
+        int byCount = overflows.isEmpty()
+            ? Long.compare(count(second), count(first))
+            : get(second).compareTo(get(first));
+        return byCount != 0 ? byCount : keys.get(first).compareTo(keys.get(second));
+    }
+
+    private long count(int id) {
+        return id < counts.length ? counts[id] : 0;
+    }
+}
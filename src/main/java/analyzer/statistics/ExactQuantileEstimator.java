@@ -0,0 +1,160 @@
+package analyzer.statistics;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An estimator that stores every value and therefore answers queries exactly.
+ * <p>Values that fit into {@code long} are stored in a primitive list, only larger ones are stored
+ * as {@link BigInteger}s. The memory grows linearly with the number of values.</p>
+ * <p>The values are sorted in place by the first query after they are added, so that consecutive queries, e.g. of
+ * several percentiles, don't sort them again.</p>
+ */
+public final class ExactQuantileEstimator implements QuantileEstimator {
+
+    private final LongArrayList values = new LongArrayList();
+
+    private final List<BigInteger> wideValues = new ArrayList<>();
+
+    private boolean isSorted = true;
+    private int negativeWideValues;
+
+    @Override
+    public void add(long value) {
+        values.add(value);
+        isSorted = false;
+    }
+
+    @Override
+    public void add(BigInteger value) {
+        if (value.bitLength() < Long.SIZE) {
+            values.add(value.longValue());
+        } else {
+            wideValues.add(value);
+        }
+        isSorted = false;
+    }
+
+    @Override
+    public void addAll(QuantileEstimator other) {
+        if (!(other instanceof ExactQuantileEstimator exact)) {
+            throw new IllegalArgumentException("Only exact estimators can be merged into an exact estimator.");
+        }
+        values.addAll(exact.values);
+        wideValues.addAll(exact.wideValues);
+        isSorted = false;
+    }
+
+    /**
+     * Writes the stored values.
+     *
+     * @param out the output to write to.
+     * @throws IOException if an I/O error occurs.
+     */
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(values.size());
+        for (int i = 0; i < values.size(); i++) {
+            out.writeLong(values.getLong(i));
+        }
+        out.writeInt(wideValues.size());
+        for (var value : wideValues) {
+            BinaryCodec.writeBigInteger(out, value);
+        }
+    }
+
+    /**
+     * Reads the values written by {@link #writeTo(DataOutput)} and adds them to the estimator.
+     *
+     * @param in the input to read from.
+     * @throws IOException if an I/O error occurs.
+     */
+    void readFrom(DataInput in) throws IOException {
+        int size = BinaryCodec.readLength(in);
+        values.ensureCapacity(values.size() + size);
+        for (int i = 0; i < size; i++) {
+            values.add(in.readLong());
+        }
+        int wideSize = BinaryCodec.readLength(in);
+        for (int i = 0; i < wideSize; i++) {
+            wideValues.add(BinaryCodec.readBigInteger(in));
+        }
+        isSorted = false;
+    }
+
+    /**
+     * Writes the stored values as a JSON object with the histogram of the values that fit into {@code long}
+     * and the list of larger values.
+     *
+     * @param out the generator to write to.
+     * @throws IOException if an I/O error occurs.
+     */
+    void writeJson(JsonGenerator out) throws IOException {
+        sort();
+        out.writeStartObject();
+        out.writeFieldName("values");
+        JsonCodec.writeHistogram(out, values.toLongArray());
+        out.writeArrayFieldStart("wideValues");
+        for (var value : wideValues) {
+            out.writeNumber(value);
+        }
+        out.writeEndArray();
+        out.writeEndObject();
+    }
+
+    /**
+     * Reads the values written by {@link #writeJson(JsonGenerator)} and adds them to the estimator.
+     *
+     * @param node the object of the values.
+     * @throws IOException if the object is corrupted.
+     */
+    void readJson(JsonNode node) throws IOException {
+        JsonCodec.readHistogram(JsonCodec.getArray(node, "values"), (value, count) -> {
+            if (value.bitLength() >= Long.SIZE) {
+                throw new IOException("Corrupted data: " + value + " doesn't fit into long.");
+            }
+            for (long i = 0; i < count; i++) {
+                values.add(value.longValue());
+            }
+        });
+        for (var value : JsonCodec.getArray(node, "wideValues")) {
+            wideValues.add(JsonCodec.toBigInteger(value));
+        }
+        isSorted = false;
+    }
+
+    @Override
+    public long count() {
+        return values.size() + wideValues.size();
+    }
+
+    @Override
+    public BigInteger valueAtRank(long rank) {
+        sort();
+        if (rank < negativeWideValues) {
+            return wideValues.get((int) rank);
+        }
+        int index = (int) rank - negativeWideValues;
+        if (index < values.size()) {
+            return BigInteger.valueOf(values.getLong(index));
+        }
+        return wideValues.get(index - values.size() + negativeWideValues);
+    }
+
+    private void sort() {
+        if (!isSorted) {
+            Arrays.sort(values.elements(), 0, values.size());
+            Collections.sort(wideValues);
+            negativeWideValues = (int) wideValues.stream().filter(value -> value.signum() < 0).count();
+            isSorted = true;
+        }
+    }
+}
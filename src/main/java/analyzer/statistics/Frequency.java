@@ -0,0 +1,14 @@
+package analyzer.statistics;
+
+import java.math.BigInteger;
+
+/**
+ * A class representing how many times a value occurred in the logs.
+ *
+ * @param value the value of the log field.
+ * @param count the (estimated) number of occurrences of the value.
+ * @param error the maximum overestimation of the count: the actual number of occurrences is between
+ *              {@code count - error} and {@code count}, zero if the count is exact.
+ */
+public record Frequency(String value, BigInteger count, BigInteger error) {
+}
@@ -0,0 +1,154 @@
+package analyzer.statistics;
+
+import analyzer.parser.ByteDictionary;
+import analyzer.parser.LogBatch;
+import analyzer.parser.LogFields;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.ToIntBiFunction;
+
+/**
+ * An interface of a structure that counts occurrences of string values and reports the most frequent ones.
+ * <p>Estimators of the same kind and configuration can be merged, which allows them to be collected
+ * over parts of the logs in parallel.</p>
+ */
+interface FrequencyEstimator {
+
+    /**
+     * The order of the most frequent values: descending by count, then ascending by value.
+     */
+    Comparator<Frequency> ORDER = Comparator.comparing(Frequency::count).reversed().thenComparing(Frequency::value);
+
+    /**
+     * Takes one occurrence of the value into account.
+     *
+     * @param value the value that occurred.
+     */
+    void increment(String value);
+
+    /**
+     * Takes one occurrence of the value of a field of the log into account.
+     * <p>By default the value is decoded by the accessor. Estimators that keep a dictionary of the values
+     * look the value up by the encoder instead, which doesn't decode the fields of a {@code LogView}.</p>
+     *
+     * @param log      the log whose field occurred.
+     * @param accessor the function returning the value of the field.
+     * @param encoder  the function returning the id of the value of the field in a dictionary.
+     */
+    default void increment(
+        LogFields log,
+        Function<LogFields, String> accessor,
+        ToIntBiFunction<LogFields, ByteDictionary> encoder
+    ) {
+        increment(accessor.apply(log));
+    }
+
+    /**
+     * Takes one occurrence of the value of the field of each log of the batch into account.
+     * <p>By default the values are decoded. Estimators that keep a dictionary of the values look them up
+     * by {@link LogBatch#id(int, LogBatch.Column, ByteDictionary)} instead.</p>
+     *
+     * @param batch  the logs whose fields occurred.
+     * @param column the field whose values occurred.
+     */
+    default void incrementAll(LogBatch batch, LogBatch.Column column) {
+        for (int i = 0; i < batch.size(); i++) {
+            increment(batch.value(i, column));
+        }
+    }
+
+    /**
+     * Takes the occurrences of a value reported by {@link #top(long)} of an estimator of the same kind
+     * and configuration into account.
+     *
+     * @param frequency the value, its count and the error of the count.
+     * @throws ArithmeticException if the count or the error exceeds the range supported by the estimator.
+     */
+    void add(Frequency frequency);
+
+    /**
+     * Adds all occurrences counted by another estimator to this one.
+     *
+     * @param other the estimator whose occurrences are to be added.
+     * @throws IllegalArgumentException if {@code other} is of another kind or configuration than this estimator.
+     */
+    void addAll(FrequencyEstimator other);
+
+    /**
+     * Returns the most frequent values.
+     *
+     * @param limit the maximum number of values to be returned.
+     * @return the list of frequencies sorted in descending order of the count and then in ascending order
+     *     of the value.
+     */
+    List<Frequency> top(long limit);
+
+    /**
+     * Writes the counted occurrences.
+     *
+     * @param out the output to write to.
+     * @throws IOException if an I/O error occurs.
+     */
+    void writeTo(DataOutput out) throws IOException;
+
+    /**
+     * Reads the occurrences written by {@link #writeTo(DataOutput)} of an estimator of the same kind
+     * and configuration into this empty estimator.
+     *
+     * @param in the input to read from.
+     * @throws IOException if an I/O error occurs or the occurrences were written by another kind of estimator.
+     */
+    void readFrom(DataInput in) throws IOException;
+
+    /**
+     * Writes all counted values as a JSON array of objects with the value, its count and the error of the count.
+     *
+     * @param out the generator to write to.
+     * @throws IOException if an I/O error occurs.
+     */
+    default void writeJson(JsonGenerator out) throws IOException {
+        out.writeStartArray();
+        for (var frequency : top(Long.MAX_VALUE)) {
+            out.writeStartObject();
+            out.writeStringField("value", frequency.value());
+            out.writeNumberField("count", frequency.count());
+            out.writeNumberField("error", frequency.error());
+            out.writeEndObject();
+        }
+        out.writeEndArray();
+    }
+
+    /**
+     * Reads the values written by {@link #writeJson(JsonGenerator)} of an estimator of the same kind
+     * and configuration into this empty estimator.
+     *
+     * @param node the array of the values.
+     * @throws IOException if the array is corrupted.
+     */
+    default void readJson(JsonNode node) throws IOException {
+        if (!node.isArray()) {
+            throw new IOException("Corrupted data: the frequencies aren't an array.");
+        }
+        for (var frequency : node) {
+            String value = JsonCodec.getString(frequency, "value");
+            if (value == null) {
+                throw new IOException("Corrupted data: null value.");
+            }
+            try {
+                add(new Frequency(
+                    value,
+                    JsonCodec.getBigInteger(frequency, "count"),
+                    JsonCodec.getBigInteger(frequency, "error")
+                ));
+            } catch (ArithmeticException e) {
+                throw new IOException("Corrupted data: invalid count of \"" + value + "\".", e);
+            }
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package analyzer.statistics;
+
+import java.math.BigInteger;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+/**
+ * A class representing the statistics of a group of logs.
+ *
+ * @param bucket      the start of the time bucket of the group, null if the logs aren't grouped by time.
+ * @param key         the values of the fields the logs are grouped by, in the order of the fields.
+ * @param count       the number of logs in the group.
+ * @param sum         the total size of the server responses of the group in bytes.
+ * @param average     the average size of the server responses of the group in bytes.
+ * @param percentiles the (estimated) percentiles of the server response size of the group, in the order of
+ *                    the reported percentiles.
+ */
+public record Group(
+    OffsetDateTime bucket,
+    List<String> key,
+    long count,
+    BigInteger sum,
+    BigInteger average,
+    List<BigInteger> percentiles) {
+}
@@ -0,0 +1,671 @@
+package analyzer.statistics;
+
+import analyzer.filter.FilterField;
+import analyzer.parser.LogFields;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import it.unimi.dsi.fastutil.HashCommon;
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.ints.IntArrays;
+import it.unimi.dsi.fastutil.longs.Long2IntOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * An aggregation engine collecting the statistics of the server response size by groups of logs, the groups being
+ * defined by the values of fields and, optionally, by a time bucket.
+ * <p>The values of each grouping dimension are dictionary-encoded: each distinct value is stored once and
+ * replaced by its dense integer id. A group is a tuple of ids, found by an open-addressing hash table over
+ * the key columns, and its state is kept in primitive arrays indexed by the group id, so that taking a log into
+ * account allocates nothing for groups and values seen before.</p>
+ * <p>Exact percentiles are computed from the sizes of all logs, which are stored in two primitive columns
+ * (the group and the size of each log) and sorted by group when the groups are requested. If the percentile
+ * error of the settings is positive, a {@link QuantileSketch} is kept for each group instead. Sizes exceeding
+ * {@link Long#MAX_VALUE} are summed exactly, but are counted as {@link Long#MAX_VALUE} in percentiles.</p>
+ */
+public final class GroupedStatistics {
+
+    private static final int INITIAL_CAPACITY = 16;
+    private static final int LOAD_FACTOR_NUMERATOR = 3;
+    private static final int LOAD_FACTOR_DENOMINATOR = 4;
+    private static final double DEFAULT_PERCENTILE = 95;
+    private static final double PERCENT = 100;
+
+    private final TimeBucket timeBucket;
+    private final List<FilterField> fields;
+    private final Dimension[] dimensions;
+    private final int limit;
+    private final List<Double> percentiles;
+    private final double percentileError;
+
+    private final int[] probe;
+    private int[][] keys;
+    private int[] slots;
+    private int size;
+
+    private long[] counts;
+    private long[] sums;
+    private BigInteger[] overflowSums;
+    private QuantileSketch[] sketches;
+    private final IntArrayList rowGroups;
+    private final LongArrayList rowSizes;
+
+    /**
+     * Creates empty statistics grouped as configured by the settings.
+     *
+     * @param settings the settings containing the fields and the time bucket the logs are grouped by.
+     */
+    public GroupedStatistics(AnalyzerSettings settings) {
+        timeBucket = settings.timeBucket();
+        fields = List.copyOf(settings.groupBy());
+        List<Dimension> dimensionList = new ArrayList<>();
+        if (timeBucket != null) {
+            dimensionList.add(new TimeDimension(timeBucket));
+        }
+        fields.forEach(field -> dimensionList.add(new FieldDimension(field)));
+        dimensions = dimensionList.toArray(Dimension[]::new);
+        limit = settings.groupLimit() > 0 ? settings.groupLimit() : Integer.MAX_VALUE;
+        percentiles = settings.percentiles().isEmpty() ? List.of(DEFAULT_PERCENTILE) : settings.percentiles();
+        percentileError = settings.percentileError();
+        probe = new int[dimensions.length];
+        keys = new int[dimensions.length][INITIAL_CAPACITY];
+        slots = dimensions.length != 1 ? new int[INITIAL_CAPACITY * 2] : null;
+        counts = new long[INITIAL_CAPACITY];
+        sums = new long[INITIAL_CAPACITY];
+        sketches = percentileError > 0 ? new QuantileSketch[INITIAL_CAPACITY] : null;
+        rowGroups = sketches == null ? new IntArrayList() : null;
+        rowSizes = sketches == null ? new LongArrayList() : null;
+    }
+
+    /**
+     * Returns the time bucket the logs are grouped by.
+     *
+     * @return the time bucket, null if the logs aren't grouped by time.
+     */
+    public TimeBucket timeBucket() {
+        return timeBucket;
+    }
+
+    /**
+     * Returns the fields the logs are grouped by.
+     *
+     * @return the fields in the order of the values of the keys of the groups.
+     */
+    public List<FilterField> fields() {
+        return fields;
+    }
+
+    /**
+     * Returns the percentiles of the server response size reported for each group.
+     *
+     * @return the percentiles, the 95% percentile if the settings don't specify any.
+     */
+    public List<Double> percentiles() {
+        return percentiles;
+    }
+
+    /**
+     * Returns the number of groups.
+     *
+     * @return the number of distinct keys of the logs taken into account.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Takes the log into account in the statistics of its group.
+     *
+     * @param log the log to be taken into account.
+     */
+    public void update(LogFields log) {
+        for (int i = 0; i < dimensions.length; i++) {
+            probe[i] = dimensions[i].encode(log);
+        }
+        int group = groupOf(probe);
+        counts[group]++;
+        long responseSize = log.bodyBytesSentAsLong();
+        if (responseSize >= 0) {
+            addSum(group, responseSize);
+            addSize(group, responseSize);
+        } else {
+            addOverflowSum(group, new BigInteger(log.bodyBytesSent()));
+            addSize(group, Long.MAX_VALUE);
+        }
+    }
+
+    /**
+     * Adds the statistics of the groups of another statistics to this one.
+     *
+     * @param other the statistics collected over another part of the logs.
+     * @throws IllegalArgumentException if the statistics are grouped or estimate percentiles in different ways.
+     */
+    public void addAll(GroupedStatistics other) {
+        if (timeBucket != other.timeBucket || !fields.equals(other.fields)
+            || percentileError != other.percentileError) {
+            throw new IllegalArgumentException("Only statistics grouped in the same way can be merged.");
+        }
+        int[] groups = new int[other.size];
+        for (int group = 0; group < other.size; group++) {
+            for (int i = 0; i < dimensions.length; i++) {
+                probe[i] = dimensions[i].encode(other.dimensions[i], other.keys[i][group]);
+            }
+            int mapped = groupOf(probe);
+            groups[group] = mapped;
+            counts[mapped] += other.counts[group];
+            addSum(mapped, other.sums[group]);
+            if (other.overflowSums != null && other.overflowSums[group] != null) {
+                addOverflowSum(mapped, other.overflowSums[group]);
+            }
+            if (sketches != null) {
+                sketches[mapped].addAll(other.sketches[group]);
+            }
+        }
+        if (rowGroups != null) {
+            rowGroups.ensureCapacity(rowGroups.size() + other.rowGroups.size());
+            for (int i = 0; i < other.rowGroups.size(); i++) {
+                rowGroups.add(groups[other.rowGroups.getInt(i)]);
+            }
+            rowSizes.addAll(other.rowSizes);
+        }
+    }
+
+    /**
+     * Returns the statistics of the groups. The groups are ordered by the time bucket, then by the number of logs
+     * in descending order, and the group limit of the settings is applied to each time bucket.
+     *
+     * @return the list of the statistics of the groups.
+     */
+    public List<Group> groups() {
+        int[] order = new int[size];
+        Arrays.setAll(order, group -> group);
+        IntArrays.quickSort(order, this::compareGroups);
+        long[] sortedSizes = rowGroups != null ? sortSizesByGroup() : null;
+        long[] offsets = sortedSizes != null ? getOffsets() : null;
+        List<Group> result = new ArrayList<>();
+        int inBucket = 0;
+        for (int i = 0; i < order.length; i++) {
+            int group = order[i];
+            boolean newBucket = i == 0 || timeBucket != null && keys[0][group] != keys[0][order[i - 1]];
+            inBucket = newBucket ? 0 : inBucket + 1;
+            if (inBucket < limit) {
+                result.add(toGroup(group, sortedSizes, offsets));
+            }
+        }
+        return result;
+    }
+
+    private Group toGroup(int group, long[] sortedSizes, long[] offsets) {
+        List<String> key = getKey(group);
+        OffsetDateTime bucket = timeBucket != null ? timeBucket.start(getBucket(group)) : null;
+        BigInteger sum = getSum(group);
+        List<BigInteger> groupPercentiles = new ArrayList<>();
+        if (sortedSizes != null) {
+            int from = (int) offsets[group];
+            int to = (int) offsets[group + 1];
+            Arrays.sort(sortedSizes, from, to);
+            for (var percentile : percentiles) {
+                long rank = Math.clamp((long) Math.ceil(percentile / PERCENT * (to - from)), 1, to - from);
+                groupPercentiles.add(BigInteger.valueOf(sortedSizes[from + (int) rank - 1]));
+            }
+        } else {
+            percentiles.forEach(percentile -> groupPercentiles.add(sketches[group].percentile(percentile)));
+        }
+        return new Group(
+            bucket,
+            List.copyOf(key),
+            counts[group],
+            sum,
+            sum.divide(BigInteger.valueOf(counts[group])),
+            List.copyOf(groupPercentiles)
+        );
+    }
+
+    /**
+     * Writes the groups, the sizes of their logs or their sketches.
+     *
+     * @param out the output to write to.
+     * @throws IOException if an I/O error occurs.
+     */
+    void writeTo(DataOutput out) throws IOException {
+        out.writeInt(size);
+        for (int group = 0; group < size; group++) {
+            if (timeBucket != null) {
+                out.writeLong(getBucket(group));
+            }
+            for (var value : getKey(group)) {
+                BinaryCodec.writeString(out, value);
+            }
+            out.writeLong(counts[group]);
+            out.writeLong(sums[group]);
+            BinaryCodec.writeBigInteger(
+                out,
+                overflowSums != null && overflowSums[group] != null ? overflowSums[group] : BigInteger.ZERO
+            );
+            if (sketches != null) {
+                sketches[group].writeTo(out);
+            }
+        }
+        if (rowGroups != null) {
+            out.writeInt(rowGroups.size());
+            for (int i = 0; i < rowGroups.size(); i++) {
+                out.writeInt(rowGroups.getInt(i));
+                out.writeLong(rowSizes.getLong(i));
+            }
+        }
+    }
+
+    /**
+     * Reads the groups written by {@link #writeTo(DataOutput)} of statistics grouped in the same way
+     * and adds them to this statistics.
+     *
+     * @param in the input to read from.
+     * @throws IOException if an I/O error occurs or the data is corrupted.
+     */
+    void readFrom(DataInput in) throws IOException {
+        int[] groups = new int[BinaryCodec.readLength(in)];
+        long[] readCounts = new long[groups.length];
+        for (int i = 0; i < groups.length; i++) {
+            long bucket = timeBucket != null ? in.readLong() : 0;
+            List<String> key = new ArrayList<>();
+            for (int j = 0; j < fields.size(); j++) {
+                key.add(BinaryCodec.readString(in));
+            }
+            int group = groupOf(bucket, key);
+            groups[i] = group;
+            readCounts[i] = in.readLong();
+            counts[group] += readCounts[i];
+            addSum(group, in.readLong());
+            BigInteger overflowSum = BinaryCodec.readBigInteger(in);
+            if (overflowSum.signum() != 0) {
+                addOverflowSum(group, overflowSum);
+            }
+            if (sketches != null) {
+                sketches[group].readFrom(in);
+            }
+        }
+        if (rowGroups != null) {
+            int rows = BinaryCodec.readLength(in);
+            for (int i = 0; i < rows; i++) {
+                int group = in.readInt();
+                if (group < 0 || group >= groups.length) {
+                    throw new IOException("Corrupted data: invalid group " + group + ".");
+                }
+                readCounts[group]--;
+                rowGroups.add(groups[group]);
+                rowSizes.add(in.readLong());
+            }
+            if (Arrays.stream(readCounts).anyMatch(count -> count != 0)) {
+                throw new IOException("Corrupted data: the number of sizes doesn't match the count of a group.");
+            }
+        }
+    }
+
+    /**
+     * Writes the groups as a JSON array of objects with the start of the time bucket, the values of the fields,
+     * the number of logs, the total size and either the histogram of the sizes or the sketch of each group.
+     *
+     * @param out the generator to write to.
+     * @throws IOException if an I/O error occurs.
+     */
+    void writeJson(JsonGenerator out) throws IOException {
+        long[] sortedSizes = rowGroups != null ? sortSizesByGroup() : null;
+        long[] offsets = sortedSizes != null ? getOffsets() : null;
+        out.writeStartArray();
+        for (int group = 0; group < size; group++) {
+            out.writeStartObject();
+            if (timeBucket != null) {
+                out.writeStringField("bucket", timeBucket.start(getBucket(group)).toString());
+            }
+            out.writeArrayFieldStart("key");
+            for (var value : getKey(group)) {
+                out.writeString(value);
+            }
+            out.writeEndArray();
+            out.writeNumberField("count", counts[group]);
+            out.writeNumberField("sum", getSum(group));
+            out.writeFieldName("sizes");
+            if (sortedSizes != null) {
+                long[] groupSizes = Arrays.copyOfRange(sortedSizes, (int) offsets[group], (int) offsets[group + 1]);
+                Arrays.sort(groupSizes);
+                JsonCodec.writeHistogram(out, groupSizes);
+            } else {
+                sketches[group].writeJson(out);
+            }
+            out.writeEndObject();
+        }
+        out.writeEndArray();
+    }
+
+    /**
+     * Reads the groups written by {@link #writeJson(JsonGenerator)} of statistics grouped in the same way
+     * and adds them to this statistics.
+     *
+     * @param node the array of the groups.
+     * @throws IOException if the array is corrupted.
+     */
+    void readJson(JsonNode node) throws IOException {
+        if (!node.isArray()) {
+            throw new IOException("Corrupted data: the groups aren't an array.");
+        }
+        for (var groupNode : node) {
+            long bucket = timeBucket != null ? readBucket(groupNode) : 0;
+            List<String> key = new ArrayList<>();
+            for (var value : JsonCodec.getArray(groupNode, "key")) {
+                key.add(value.asText());
+            }
+            if (key.size() != fields.size()) {
+                throw new IOException("Corrupted data: the key " + key + " doesn't match the fields " + fields + ".");
+            }
+            int group = groupOf(bucket, key);
+            long count = JsonCodec.getLong(groupNode, "count");
+            counts[group] += count;
+            BigInteger sum = JsonCodec.getBigInteger(groupNode, "sum");
+            if (sum.bitLength() < Long.SIZE) {
+                addSum(group, sum.longValue());
+            } else {
+                addOverflowSum(group, sum);
+            }
+            JsonNode sizes = JsonCodec.get(groupNode, "sizes");
+            if (sketches != null) {
+                sketches[group].readJson(sizes);
+            } else {
+                int before = rowSizes.size();
+                JsonCodec.readHistogram(sizes, (value, sizeCount) -> {
+                    if (value.signum() < 0 || value.bitLength() >= Long.SIZE) {
+                        throw new IOException("Corrupted data: invalid size " + value + ".");
+                    }
+                    for (long i = 0; i < sizeCount; i++) {
+                        addSize(group, value.longValue());
+                    }
+                });
+                if (rowSizes.size() - before != count) {
+                    throw new IOException("Corrupted data: the number of sizes doesn't match the count of a group.");
+                }
+            }
+        }
+    }
+
+    private long readBucket(JsonNode groupNode) throws IOException {
+        String bucket = JsonCodec.getString(groupNode, "bucket");
+        if (bucket == null) {
+            throw new IOException("Corrupted data: missing time bucket.");
+        }
+        try {
+            return timeBucket.bucketNumber(OffsetDateTime.parse(bucket).toInstant().toEpochMilli());
+        } catch (DateTimeParseException e) {
+            throw new IOException("Corrupted data: invalid time bucket " + bucket + ".", e);
+        }
+    }
+
+    private long getBucket(int group) {
+        return ((TimeDimension) dimensions[0]).buckets.getLong(keys[0][group]);
+    }
+
+    private List<String> getKey(int group) {
+        List<String> key = new ArrayList<>();
+        for (int i = timeBucket != null ? 1 : 0; i < dimensions.length; i++) {
+            key.add(((FieldDimension) dimensions[i]).values.get(keys[i][group]));
+        }
+        return key;
+    }
+
+    /**
+     * Returns the group with the time bucket and the values of the fields, adding a new group if there is
+     * no such group.
+     */
+    private int groupOf(long bucket, List<String> key) {
+        int first = timeBucket != null ? 1 : 0;
+        if (timeBucket != null) {
+            probe[0] = ((TimeDimension) dimensions[0]).encode(bucket);
+        }
+        for (int i = 0; i < key.size(); i++) {
+            probe[first + i] = ((FieldDimension) dimensions[first + i]).encode(key.get(i));
+        }
+        return groupOf(probe);
+    }
+
+    private int compareGroups(int first, int second) {
+        if (timeBucket != null) {
+            LongArrayList buckets = ((TimeDimension) dimensions[0]).buckets;
+            int byBucket = Long.compare(buckets.getLong(keys[0][first]), buckets.getLong(keys[0][second]));
+            if (byBucket != 0) {
+                return byBucket;
+            }
+        }
+        int byCount = Long.compare(counts[second], counts[first]);
+        for (int i = timeBucket != null ? 1 : 0; byCount == 0 && i < dimensions.length; i++) {
+            List<String> values = ((FieldDimension) dimensions[i]).values;
+            byCount = values.get(keys[i][first]).compareTo(values.get(keys[i][second]));
+        }
+        return byCount;
+    }
+
+    /**
+     * Returns the index of the first size of each group in the sizes sorted by group, followed by the number
+     * of sizes. The sizes of a group are the sizes of its logs, so their number is the count of the group.
+     */
+    private long[] getOffsets() {
+        long[] offsets = new long[size + 1];
+        for (int group = 0; group < size; group++) {
+            offsets[group + 1] = offsets[group] + counts[group];
+        }
+        return offsets;
+    }
+
+    private long[] sortSizesByGroup() {
+        long[] offsets = getOffsets();
+        long[] sorted = new long[rowSizes.size()];
+        for (int i = 0; i < rowGroups.size(); i++) {
+            sorted[(int) offsets[rowGroups.getInt(i)]++] = rowSizes.getLong(i);
+        }
+        return sorted;
+    }
+
+    private BigInteger getSum(int group) {
+        BigInteger sum = BigInteger.valueOf(sums[group]);
+        return overflowSums != null && overflowSums[group] != null ? sum.add(overflowSums[group]) : sum;
+    }
+
+    private void addSum(int group, long value) {
+        long sum = sums[group] + value;
+        if (WideCounter.isOverflow(sums[group], value, sum)) {
+            addOverflowSum(group, BigInteger.valueOf(sums[group]).add(BigInteger.valueOf(value)));
+            sums[group] = 0;
+        } else {
+            sums[group] = sum;
+        }
+    }
+
+    private void addOverflowSum(int group, BigInteger value) {
+        if (overflowSums == null) {
+            overflowSums = new BigInteger[counts.length];
+        }
+        overflowSums[group] = overflowSums[group] == null ? value : overflowSums[group].add(value);
+    }
+
+    private void addSize(int group, long responseSize) {
+        if (sketches != null) {
+            sketches[group].add(responseSize);
+        } else {
+            rowGroups.add(group);
+            rowSizes.add(responseSize);
+        }
+    }
+
+    /**
+     * Returns the group of the key, adding a new group if there is no such group. The value of a single dimension
+     * is the id of the group itself, since the groups are added in the same order as the values of the dimension.
+     */
+    private int groupOf(int[] key) {
+        if (slots == null) {
+            return key[0] < size ? key[0] : addGroup(key);
+        }
+        int mask = slots.length - 1;
+        for (int slot = HashCommon.mix(hash(key)) & mask; ; slot = slot + 1 & mask) {
+            int group = slots[slot] - 1;
+            if (group < 0) {
+                group = addGroup(key);
+                slots[slot] = group + 1;
+                if (size * LOAD_FACTOR_DENOMINATOR > slots.length * LOAD_FACTOR_NUMERATOR) {
+                    rehash();
+                }
+                return group;
+            }
+            if (hasKey(group, key)) {
+                return group;
+            }
+        }
+    }
+
+    private int addGroup(int[] key) {
+        if (size == counts.length) {
+            int capacity = counts.length * 2;
+            for (int i = 0; i < keys.length; i++) {
+                keys[i] = Arrays.copyOf(keys[i], capacity);
+            }
+            counts = Arrays.copyOf(counts, capacity);
+            sums = Arrays.copyOf(sums, capacity);
+            overflowSums = overflowSums != null ? Arrays.copyOf(overflowSums, capacity) : null;
+            sketches = sketches != null ? Arrays.copyOf(sketches, capacity) : null;
+        }
+        for (int i = 0; i < key.length; i++) {
+            keys[i][size] = key[i];
+        }
+        if (sketches != null) {
+            sketches[size] = new QuantileSketch(percentileError);
+        }
+        return size++;
+    }
+
+    private void rehash() {
+        slots = new int[slots.length * 2];
+        int mask = slots.length - 1;
+        int[] key = new int[keys.length];
+        for (int group = 0; group < size; group++) {
+            for (int i = 0; i < keys.length; i++) {
+                key[i] = keys[i][group];
+            }
+            int slot = HashCommon.mix(hash(key)) & mask;
+            while (slots[slot] != 0) {
+                slot = slot + 1 & mask;
+            }
+            slots[slot] = group + 1;
+        }
+    }
+
+    private static int hash(int[] key) {
+        return Arrays.hashCode(key);
+    }
+
+    private boolean hasKey(int group, int[] key) {
+        for (int i = 0; i < key.length; i++) {
+            if (keys[i][group] != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A grouping dimension, which encodes the values of the logs by dense ids.
+     */
+    private abstract static class Dimension {
+
+        /**
+         * Returns the id of the value of the log, adding the value if it's new.
+         */
+        abstract int encode(LogFields log);
+
+        /**
+         * Returns the id of the value of another dimension of the same kind, adding the value if it's new.
+         */
+        abstract int encode(Dimension other, int otherId);
+    }
+
+    private static final class FieldDimension extends Dimension {
+
+        private final FilterField field;
+        private final Object2IntOpenHashMap<String> ids = new Object2IntOpenHashMap<>();
+        private final List<String> values = new ObjectArrayList<>();
+
+        private FieldDimension(FilterField field) {
+            this.field = field;
+            ids.defaultReturnValue(-1);
+        }
+
+        @Override
+        int encode(LogFields log) {
+            return encode(field.get(log));
+        }
+
+        @Override
+        int encode(Dimension other, int otherId) {
+            return encode(((FieldDimension) other).values.get(otherId));
+        }
+
+        private int encode(String value) {
+            int id = ids.getInt(value);
+            if (id < 0) {
+                id = values.size();
+                ids.put(value, id);
+                values.add(value);
+            }
+            return id;
+        }
+    }
+
+    private static final class TimeDimension extends Dimension {
+
+        private final TimeBucket timeBucket;
+        private final Long2IntOpenHashMap ids = new Long2IntOpenHashMap();
+        private final LongArrayList buckets = new LongArrayList();
+        private long lastBucket;
+        private int lastId = -1;
+
+        private TimeDimension(TimeBucket timeBucket) {
+            this.timeBucket = Objects.requireNonNull(timeBucket);
+            ids.defaultReturnValue(-1);
+        }
+
+        @Override
+        int encode(LogFields log) {
+            return encode(timeBucket.bucketNumber(log.epochMillis()));
+        }
+
+        @Override
+        int encode(Dimension other, int otherId) {
+            return encode(((TimeDimension) other).buckets.getLong(otherId));
+        }
+
+        /**
+         * Returns the id of the bucket, the id of the last bucket being reused, since consecutive logs usually
+         * fall into the same bucket.
+         */
+        private int encode(long bucket) {
+            if (lastId >= 0 && bucket == lastBucket) {
+                return lastId;
+            }
+            int id = ids.get(bucket);
+            if (id < 0) {
+                id = buckets.size();
+                ids.put(bucket, id);
+                buckets.add(bucket);
+            }
+            lastBucket = bucket;
+            lastId = id;
+            return id;
+        }
+    }
+}
@@ -0,0 +1,194 @@
+package analyzer.statistics;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.IOException;
+import java.math.BigInteger;
+import lombok.experimental.UtilityClass;
+
+/**
+ * A class that allows to write the histograms of values as JSON and to read the fields of JSON objects,
+ * checking that they are present and have the expected type.
+ */
+@UtilityClass
+class JsonCodec {
+
+    /**
+     * Returns the field of the object.
+     *
+     * @param node  the object.
+     * @param field the name of the field.
+     * @return the value of the field.
+     * @throws IOException if the object has no such field.
+     */
+    static JsonNode get(JsonNode node, String field) throws IOException {
+        JsonNode value = node.get(field);
+        if (value == null) {
+            throw new IOException("Corrupted data: missing field \"" + field + "\".");
+        }
+        return value;
+    }
+
+    /**
+     * Returns the integer field of the object.
+     *
+     * @param node  the object.
+     * @param field the name of the field.
+     * @return the value of the field.
+     * @throws IOException if the object has no such field or its value isn't an integer.
+     */
+    static BigInteger getBigInteger(JsonNode node, String field) throws IOException {
+        return toBigInteger(get(node, field));
+    }
+
+    /**
+     * Returns the integer field of the object that has to fit into {@code long}.
+     *
+     * @param node  the object.
+     * @param field the name of the field.
+     * @return the value of the field.
+     * @throws IOException if the object has no such field or its value isn't an integer of {@code long} range.
+     */
+    static long getLong(JsonNode node, String field) throws IOException {
+        return toLong(get(node, field));
+    }
+
+    /**
+     * Returns the integer field of the object that has to fit into {@code int}.
+     *
+     * @param node  the object.
+     * @param field the name of the field.
+     * @return the value of the field.
+     * @throws IOException if the object has no such field or its value isn't an integer of {@code int} range.
+     */
+    static int getInt(JsonNode node, String field) throws IOException {
+        JsonNode value = get(node, field);
+        if (!value.canConvertToInt() || !value.isIntegralNumber()) {
+            throw new IOException("Corrupted data: " + value + " isn't an integer of int range.");
+        }
+        return value.intValue();
+    }
+
+    /**
+     * Returns the string field of the object.
+     *
+     * @param node  the object.
+     * @param field the name of the field.
+     * @return the value of the field, null if the value is null.
+     * @throws IOException if the object has no such field or its value is neither a string nor null.
+     */
+    static String getString(JsonNode node, String field) throws IOException {
+        JsonNode value = get(node, field);
+        if (!value.isTextual() && !value.isNull()) {
+            throw new IOException("Corrupted data: \"" + field + "\" isn't a string.");
+        }
+        return value.isNull() ? null : value.textValue();
+    }
+
+    /**
+     * Returns the array field of the object.
+     *
+     * @param node  the object.
+     * @param field the name of the field.
+     * @return the value of the field.
+     * @throws IOException if the object has no such field or its value isn't an array.
+     */
+    static JsonNode getArray(JsonNode node, String field) throws IOException {
+        JsonNode value = get(node, field);
+        if (!value.isArray()) {
+            throw new IOException("Corrupted data: \"" + field + "\" isn't an array.");
+        }
+        return value;
+    }
+
+    /**
+     * Converts the integer node.
+     *
+     * @param node the node.
+     * @return the value of the node.
+     * @throws IOException if the node isn't an integer.
+     */
+    static BigInteger toBigInteger(JsonNode node) throws IOException {
+        if (!node.isIntegralNumber()) {
+            throw new IOException("Corrupted data: " + node + " isn't an integer.");
+        }
+        return node.bigIntegerValue();
+    }
+
+    /**
+     * Converts the integer node that has to fit into {@code long}.
+     *
+     * @param node the node.
+     * @return the value of the node.
+     * @throws IOException if the node isn't an integer of {@code long} range.
+     */
+    static long toLong(JsonNode node) throws IOException {
+        if (!node.canConvertToLong() || !node.isIntegralNumber()) {
+            throw new IOException("Corrupted data: " + node + " isn't an integer of long range.");
+        }
+        return node.longValue();
+    }
+
+    /**
+     * Writes the sorted values as an array of {@code [value, count]} pairs of the distinct values.
+     *
+     * @param out    the generator to write to.
+     * @param values the values sorted in ascending order.
+     * @throws IOException if an I/O error occurs.
+     */
+    static void writeHistogram(JsonGenerator out, long[] values) throws IOException {
+        out.writeStartArray();
+        int start = 0;
+        while (start < values.length) {
+            int end = start + 1;
+            while (end < values.length && values[end] == values[start]) {
+                end++;
+            }
+            out.writeStartArray();
+            out.writeNumber(values[start]);
+            out.writeNumber(end - start);
+            out.writeEndArray();
+            start = end;
+        }
+        out.writeEndArray();
+    }
+
+    /**
+     * Reads the pairs written by {@link #writeHistogram(JsonGenerator, long[])}.
+     *
+     * @param node     the array of the pairs.
+     * @param consumer the consumer of each value and the number of its occurrences.
+     * @throws IOException if the array isn't an array of pairs of integers.
+     */
+    static void readHistogram(JsonNode node, HistogramConsumer consumer) throws IOException {
+        if (!node.isArray()) {
+            throw new IOException("Corrupted data: the histogram isn't an array.");
+        }
+        for (var pair : node) {
+            if (!pair.isArray() || pair.size() != 2) {
+                throw new IOException("Corrupted data: " + pair + " isn't a pair of a value and a count.");
+            }
+            long count = toLong(pair.get(1));
+            if (count < 0) {
+                throw new IOException("Corrupted data: negative count " + count + ".");
+            }
+            consumer.accept(toBigInteger(pair.get(0)), count);
+        }
+    }
+
+    /**
+     * A consumer of the values of a histogram.
+     */
+    @FunctionalInterface
+    interface HistogramConsumer {
+
+        /**
+         * Takes the occurrences of the value.
+         *
+         * @param value the value.
+         * @param count the number of occurrences of the value.
+         * @throws IOException if the value can't be taken.
+         */
+        void accept(BigInteger value, long count) throws IOException;
+    }
+}
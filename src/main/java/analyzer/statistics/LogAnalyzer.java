@@ -1,17 +1,36 @@
 package analyzer.statistics;
 
 import analyzer.error.InvalidLogFormatException;
-import analyzer.parser.Log;
-import analyzer.parser.LogParser;
-import java.io.BufferedReader;
+import analyzer.error.UnorderedLogsException;
+import analyzer.io.Compression;
+import analyzer.io.FileChunk;
+import analyzer.io.FileChunks;
+import analyzer.io.LineBlock;
+import analyzer.io.LineBlocks;
+import analyzer.io.TimeOrderedFiles;
+import analyzer.parser.LineParser;
+import analyzer.parser.LogFields;
+import analyzer.parser.LogView;
 import java.io.IOException;
-import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
 import java.net.URL;
+import java.nio.channels.FileChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
-import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 import java.util.stream.Stream;
 import lombok.experimental.UtilityClass;
 import lombok.extern.log4j.Log4j2;
@@ -26,6 +45,14 @@ import lombok.extern.log4j.Log4j2;
 @Log4j2
 public class LogAnalyzer {
 
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * The maximum number of milliseconds by which a log of a file ordered by time may be earlier than
+     * a preceding log.
+     */
+    private static final long SEEK_TOLERANCE_MILLIS = 60_000;
+
     /**
      * A method that allows you to collect statistics from NGINX logs from local files in format:
      * <p>'$remote_addr - $remote_user [$time_local] ' '"$request" $status
@@ -49,9 +76,65 @@ public class LogAnalyzer {
         OffsetDateTime to,
         Map<String, String> filterParams
     ) {
-        try (Stream<String> stream = Files.lines(path)) {
-            LogStatistics statistics = new LogStatistics(from, to, path.toString());
-            return getStatisticsFromStream(stream, statistics, filterParams);
+        return getStatisticsFromFile(
+            path,
+            AnalyzerSettings.builder().from(from).to(to).filterParams(filterParams).build()
+        );
+    }
+
+    /**
+     * A method that allows you to collect statistics from NGINX logs from local files in format:
+     * <p>'$remote_addr - $remote_user [$time_local] ' '"$request" $status
+     * $body_bytes_sent ' '"$http_referer" "$http_user_agent"'</p>
+     * If {@link AnalyzerSettings#memoryMapped()} is set, the file is memory-mapped, split into newline-aligned
+     * chunks that are parsed and aggregated by {@link AnalyzerSettings#threads()} workers, and the partial
+     * statistics of the workers are merged. Otherwise, if {@link AnalyzerSettings#parallel()} is set, the lines
+     * of the file are processed by a parallel stream. Otherwise, the file is read into blocks of lines by a reader
+     * thread, and the blocks are parsed and aggregated by {@link AnalyzerSettings#threads()} workers, so that
+     * reading the file doesn't stall parsing. The result is the same as the result of the sequential reading.
+     * <p>If {@link AnalyzerSettings#seek()} is set and the date and time range is bounded, the file is expected to be
+     * ordered by time (a log may be earlier than a preceding log by no more than a minute): the region of the file
+     * that may contain logs within the range is found by binary search, and only this region is memory-mapped and
+     * processed. If the file turns out not to be ordered, it is read entirely. Logs outside the region aren't parsed,
+     * so they aren't checked for the format either.</p>
+     * <p>If {@link AnalyzerSettings#indexed()} is set, the statistics are merged from the statistics pre-aggregated
+     * by minutes in the persistent index of the file, and only the minutes at the edges of the date and time range
+     * and the lines appended after the index was built are parsed. The index is built or extended first if needed.
+     * If the index can't be written, the file is read as usual. Indexes aren't used for grouped statistics.</p>
+     * <p>Files compressed by gzip are detected by their magic bytes and decompressed on the fly, concatenated
+     * members being decompressed one after another. The members of BGZF files are decompressed in parallel,
+     * members of other files are decompressed on a background thread while the workers parse the decompressed
+     * lines. Memory mapping, seeking and indexes aren't used for compressed files.</p>
+     * <p>The filter parameters and the filter expression are compiled into a {@link LogFilter}, the conjuncts
+     * referring only to the fields that can be found in the unparsed line being checked before the line is parsed,
+     * so lines rejected by them aren't checked for the format.</p>
+     * <p>Statistics snapshots written by {@link StatisticsSnapshots#write} are detected by their magic bytes and
+     * loaded as they are: the date and time range and the filters aren't applied to them again. A snapshot
+     * is loaded only if it was collected with the same percentile, frequency and grouping settings.</p>
+     *
+     * @param path     path to the local resources, containing logs (local template paths).
+     * @param settings the settings that control how logs are parsed, filtered and aggregated.
+     * @return LogStatistics objects, containing all collected information from sources with logs, if path is valid
+     *     local path template and contains logs in the specified format, {@code null} otherwise.
+     */
+    public static LogStatistics getStatisticsFromFile(Path path, AnalyzerSettings settings) {
+        try {
+            if (StatisticsSnapshots.isSnapshot(path)) {
+                return StatisticsSnapshots.load(path, settings);
+            }
+            Compression compression = Compression.detect(path);
+            if (compression != Compression.NONE) {
+                return CompressedFiles.getStatistics(path, compression, settings);
+            }
+            LogStatistics statistics = settings.indexed() && !settings.isGrouped()
+                ? StatisticsIndex.getStatistics(path, settings)
+                : null;
+            if (statistics != null) {
+                return statistics;
+            }
+            return settings.seek() && (settings.from() != null || settings.to() != null)
+                ? getStatisticsFromTimeRange(path, settings)
+                : getStatisticsFromWholeFile(path, settings);
         } catch (IOException e) {
             log.error("Error occurred while reading from file: \"{}\"", path, e);
         } catch (InvalidLogFormatException e) {
@@ -83,10 +166,30 @@ public class LogAnalyzer {
         OffsetDateTime to,
         Map<String, String> filterParams
     ) {
-        try (BufferedReader reader = new BufferedReader(new InputStreamReader(url.openStream()));
-             Stream<String> stream = reader.lines()) {
-            LogStatistics statistics = new LogStatistics(from, to, url.toString());
-            return getStatisticsFromStream(stream, statistics, filterParams);
+        return getStatisticsFromURL(
+            url,
+            AnalyzerSettings.builder().from(from).to(to).filterParams(filterParams).build()
+        );
+    }
+
+    /**
+     * A method that allows you to collect statistics from NGINX logs from URL in format:
+     * <p>'$remote_addr - $remote_user [$time_local] ' '"$request" $status
+     * $body_bytes_sent ' '"$http_referer" "$http_user_agent"'</p>
+     * The resource is downloaded on virtual threads and its lines are parsed and aggregated by
+     * {@link AnalyzerSettings#threads()} workers in parallel. If the server supports range requests and the resource
+     * is large, its ranges are downloaded in parallel. The resource is decompressed on the fly if it is compressed by
+     * gzip. Failed requests are retried up to {@link AnalyzerSettings#retries()} times, an interrupted download being
+     * resumed from the last byte received.
+     *
+     * @param url      a string containing the URL leading to the resource, containing logs.
+     * @param settings the settings that control how logs are parsed, filtered and aggregated.
+     * @return LogStatistics objects, containing all collected information from sources with logs, if path is valid
+     *     URL and contains logs in the specified format, {@code null} otherwise.
+     */
+    public static LogStatistics getStatisticsFromURL(URL url, AnalyzerSettings settings) {
+        try {
+            return RemoteFiles.getStatistics(url, settings);
         } catch (IOException e) {
             log.error("Error occurred while reading from URL: \"{}\".", url.toString(), e);
         } catch (InvalidLogFormatException e) {
@@ -95,36 +198,259 @@ public class LogAnalyzer {
         return null;
     }
 
-    private static LogStatistics getStatisticsFromStream(
-        Stream<String> logsStream,
-        LogStatistics statistics,
-        Map<String, String> filterParams
-    ) {
-        logsStream
-            .filter(log -> !log.isEmpty())
-            .map(LogParser::parse)
-            .filter(log -> matchesDates(log, statistics.fromDateTime(), statistics.toDateTime())
-                && matchesFieldValue(log, filterParams))
-            .forEach(statistics::update);
+    private static LogStatistics getStatisticsFromWholeFile(Path path, AnalyzerSettings settings) throws IOException {
+        return settings.memoryMapped()
+            ? getStatisticsFromMappedFile(path, settings)
+            : getStatisticsFromLines(path, settings);
+    }
+
+    private static LogStatistics getStatisticsFromTimeRange(Path path, AnalyzerSettings settings) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            LineParser parser = settings.parser();
+            FileChunk region = TimeOrderedFiles.seek(
+                channel,
+                (buffer, from, to) -> parser.parse(buffer, from, to).epochMillis(),
+                settings.from() == null ? Long.MIN_VALUE : settings.fromEpochMillis(),
+                settings.to() == null ? Long.MAX_VALUE : settings.toEpochMillis(),
+                SEEK_TOLERANCE_MILLIS
+            );
+            if (region != null) {
+                return getStatisticsFromMappedRegion(path, channel, region, settings, true);
+            }
+            log.warn("File \"{}\" isn't ordered by time, it will be read entirely.", path);
+        } catch (UnorderedLogsException e) {
+            log.warn("File \"{}\" isn't ordered by time, it will be read entirely: {}", path, e.getMessage());
+        }
+        return getStatisticsFromWholeFile(path, settings);
+    }
+
+    private static LogStatistics getStatisticsFromLines(Path path, AnalyzerSettings settings) throws IOException {
+        if (settings.parallel()) {
+            try (Stream<String> stream = Files.lines(path)) {
+                return getStatisticsFromStream(stream, path.toString(), settings);
+            }
+        }
+        Thread.Builder reader = Thread.ofPlatform().name("reader-" + path.getFileName()).daemon();
+        try (LineBlocks blocks = new LineBlocks(Files.newInputStream(path), reader)) {
+            return getStatisticsFromBlocks(path.toString(), blocks, settings);
+        }
+    }
+
+    private static LogStatistics getStatisticsFromMappedFile(Path path, AnalyzerSettings settings)
+        throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return getStatisticsFromMappedRegion(path, channel, new FileChunk(0, channel.size()), settings, false);
+        }
+    }
+
+    private static LogStatistics getStatisticsFromMappedRegion(
+        Path path,
+        FileChannel channel,
+        FileChunk region,
+        AnalyzerSettings settings,
+        boolean checkOrder
+    ) throws IOException {
+        List<FileChunk> chunks = FileChunks.split(channel, region, settings.threads() * CHUNKS_PER_THREAD);
+        AtomicInteger nextChunk = new AtomicInteger();
+        return collectInParallel(
+            path.toString(),
+            settings,
+            Math.min(settings.threads(), chunks.size()),
+            () -> getStatisticsFromChunks(path, channel, chunks, nextChunk, settings, checkOrder)
+        );
+    }
+
+    /**
+     * Runs the workers on a pool of threads and merges the partial statistics they return.
+     * If a worker fails, the others are cancelled.
+     * <p>If the method is called from a task of a {@link ForkJoinPool}, the workers are forked into this pool
+     * instead of a pool of their own, so that the idle threads of the pool that analyzes several sources
+     * concurrently help with the chunks of a large source.</p>
+     *
+     * @param source   the source of the logs.
+     * @param settings the settings the logs are analyzed with.
+     * @param workers  the number of workers.
+     * @param worker   the worker that collects partial statistics.
+     * @return the merged statistics of the workers.
+     * @throws IOException if a worker throws an I/O error or the waiting is interrupted.
+     */
+    static LogStatistics collectInParallel(
+        String source,
+        AnalyzerSettings settings,
+        int workers,
+        Callable<LogStatistics> worker
+    ) throws IOException {
+        if (ForkJoinTask.inForkJoinPool()) {
+            return collectInParallel(source, settings, workers, () -> ForkJoinTask.adaptInterruptible(worker).fork());
+        }
+        try (ExecutorService executor = Executors.newFixedThreadPool(settings.threads())) {
+            return collectInParallel(source, settings, workers, () -> executor.submit(worker));
+        }
+    }
+
+    private static LogStatistics collectInParallel(
+        String source,
+        AnalyzerSettings settings,
+        int workers,
+        Supplier<Future<LogStatistics>> submitter
+    ) throws IOException {
+        List<Future<LogStatistics>> partialStatistics = new ArrayList<>();
+        for (int i = 0; i < workers; i++) {
+            partialStatistics.add(submitter.get());
+        }
+        LogStatistics statistics = new LogStatistics(source, settings);
+        try {
+            for (var partial : partialStatistics) {
+                statistics.combine(getResult(partial));
+            }
+        } finally {
+            partialStatistics.forEach(partial -> partial.cancel(true));
+        }
         return statistics;
     }
 
-    private static boolean matchesDates(Log log, OffsetDateTime from, OffsetDateTime to) {
-        OffsetDateTime date = OffsetDateTime.parse(log.dateTime());
-        return (from == null || date.isAfter(from)) && (to == null || date.isBefore(to));
+    /**
+     * Collects statistics from the blocks of lines, which are parsed by {@link AnalyzerSettings#threads()} workers
+     * in parallel. Each worker aggregates the logs it parses into statistics of its own, and the statistics
+     * of the workers are merged at the end. The processed blocks are released to be reused by the reader.
+     * If {@link AnalyzerSettings#pipelineMetrics()} is set, the metrics of the pipeline are logged.
+     *
+     * @param source   the source of the logs.
+     * @param blocks   the blocks of lines of the source.
+     * @param settings the settings that control how logs are parsed, filtered and aggregated.
+     * @return the statistics of the source.
+     * @throws IOException if an I/O error occurs while reading the blocks.
+     */
+    static LogStatistics getStatisticsFromBlocks(String source, LineBlocks blocks, AnalyzerSettings settings)
+        throws IOException {
+        LogStatistics statistics = collectInParallel(source, settings, settings.threads(), () -> {
+            LogStatistics partial = new LogStatistics(source, settings);
+            StatisticsUpdater updater = new StatisticsUpdater(partial, settings);
+            for (LineBlock block = blocks.take(); block != null; block = blocks.take()) {
+                long start = System.nanoTime();
+                updater.update(block);
+                blocks.release(block, System.nanoTime() - start);
+            }
+            return partial;
+        });
+        if (settings.pipelineMetrics()) {
+            log.info("Pipeline of \"{}\": {}", source, blocks.metrics());
+        }
+        return statistics;
     }
 
-    private static boolean matchesFieldValue(Log log, Map<String, String> filterParameters) {
-        for (var filterParameter : filterParameters.entrySet()) {
-            String fieldName = filterParameter.getKey();
-            String field = Objects.requireNonNull(
-                log.getFieldByName(fieldName),
-                "log doesn't contain field \"" + fieldName + "\""
-            );
-            if (!field.startsWith(filterParameter.getValue())) {
-                return false;
+    private static LogStatistics getStatisticsFromChunks(
+        Path path,
+        FileChannel channel,
+        List<FileChunk> chunks,
+        AtomicInteger nextChunk,
+        AnalyzerSettings settings,
+        boolean checkOrder
+    ) throws IOException {
+        LogStatistics statistics = new LogStatistics(path.toString(), settings);
+        LineParser parser = settings.parser();
+        LogFilter filter = LogFilter.compile(settings);
+        LogView view = new LogView();
+        StatisticsUpdater updater = new StatisticsUpdater(statistics, settings);
+        for (int i = nextChunk.getAndIncrement(); i < chunks.size(); i = nextChunk.getAndIncrement()) {
+            if (Thread.currentThread().isInterrupted()) {
+                throw new InterruptedIOException("Reading of the file \"" + path + "\" was interrupted.");
+            }
+            if (!checkOrder) {
+                FileChunks.forEachBlock(channel, chunks.get(i), updater::update);
+                continue;
             }
+            long[] latestEpochMillis = {Long.MIN_VALUE};
+            FileChunks.forEachLine(channel, chunks.get(i), (buffer, from, to) -> {
+                // every line of an ordered region is parsed, so that its order is checked
+                if (from < to) {
+                    LogFields log = parser.parse(buffer, from, to, view);
+                    latestEpochMillis[0] = checkOrder(log, latestEpochMillis[0]);
+                    if (filter.matches(log)) {
+                        statistics.update(log);
+                    }
+                }
+            });
         }
-        return true;
+        return statistics;
+    }
+
+    private static long checkOrder(LogFields log, long latestEpochMillis) {
+        if (latestEpochMillis != Long.MIN_VALUE && log.epochMillis() < latestEpochMillis - SEEK_TOLERANCE_MILLIS) {
+            throw new UnorderedLogsException("Log at " + log.dateTime() + " follows a later log.");
+        }
+        return Math.max(latestEpochMillis, log.epochMillis());
+    }
+
+    private static LogStatistics getResult(Future<LogStatistics> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Waiting for the partial statistics was interrupted.");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException cause) {
+                throw cause;
+            } else if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private static LogStatistics getStatisticsFromStream(
+        Stream<String> logsStream,
+        String source,
+        AnalyzerSettings settings
+    ) {
+        if (!settings.parallel()) {
+            return collectStatistics(logsStream, source, settings);
+        }
+        if (ForkJoinTask.inForkJoinPool()) {
+            return collectStatistics(logsStream.parallel(), source, settings);
+        }
+        try (ForkJoinPool pool = new ForkJoinPool(settings.threads())) {
+            return pool.submit(() -> collectStatistics(logsStream.parallel(), source, settings)).join();
+        }
+    }
+
+    private static LogStatistics collectStatistics(
+        Stream<String> logsStream,
+        String source,
+        AnalyzerSettings settings
+    ) {
+        LogFilter filter = LogFilter.compile(settings);
+        return logsStream
+            .filter(log -> !log.isEmpty() && filter.mayMatch(log))
+            .map(settings.parser()::parse)
+            .filter(filter::matchesParsed)
+            .collect(LogStatistics.collector(() -> new LogStatistics(source, settings)));
+    }
+
+    /**
+     * Checks whether the file is a persistent index written by the analysis with {@link AnalyzerSettings#indexed()},
+     * which is stored next to the log file unless {@link AnalyzerSettings#indexDirectory()} is set, so expanding
+     * the paths of logs should skip it.
+     *
+     * @param path the path of the file.
+     * @return {@code true} if the file is an index, {@code false} otherwise or if the file can't be read.
+     */
+    public static boolean isIndex(Path path) {
+        return StatisticsIndex.isIndex(path);
+    }
+
+    /**
+     * Checks whether the log is within the date and time range and matches the filter parameters and the filter
+     * expression of the settings.
+     * The filter is compiled for each call, so a {@link LogFilter} compiled once should be used to check many logs.
+     *
+     * @param log      the log to be checked.
+     * @param settings the settings containing the date and time range, the filter parameters and
+     *                 the filter expression.
+     * @return {@code true} if the log should be taken into account in the statistics, {@code false} otherwise.
+     * @throws IllegalArgumentException if a filter parameter refers to a field the log doesn't contain.
+     */
+    public static boolean matches(LogFields log, AnalyzerSettings settings) {
+        return LogFilter.compile(settings).matches(log);
     }
 }
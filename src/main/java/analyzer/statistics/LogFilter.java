@@ -0,0 +1,143 @@
+package analyzer.statistics;
+
+import analyzer.filter.FilterExpression;
+import analyzer.filter.FilterExpression.And;
+import analyzer.filter.FilterExpression.Condition;
+import analyzer.filter.FilterField;
+import analyzer.filter.FilterField.LinePart;
+import analyzer.filter.LineFields;
+import analyzer.filter.ValueMatchers;
+import analyzer.parser.LogFields;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * A filter of logs compiled once from the date and time range, the filter parameters and the filter expression of
+ * the settings.
+ * <p>The filter parameters are turned into prefix conditions, empty prefixes, which match any log, are dropped,
+ * and the conditions are joined with the filter expression into a single conjunction, whose operands are ordered
+ * so that the cheapest checks come first.</p>
+ * <p>The operands referring only to the fields that can be found in the unparsed line (the remote address,
+ * the method and the path of the request, the status, the number of bytes sent, the referer and the user agent)
+ * are pushed down: they're checked by {@link #mayMatch(byte[], int, int)} before the line is parsed, so that
+ * the lines they reject aren't parsed. Such lines aren't checked for the format either.</p>
+ * <p>A filter is immutable and may be shared by threads.</p>
+ */
+public final class LogFilter {
+
+    private final long fromEpochMillis;
+    private final long toEpochMillis;
+    private final boolean fromBounded;
+    private final boolean toBounded;
+    private final FilterExpression expression;
+    private final FilterExpression lineExpression;
+    private final FilterExpression parsedExpression;
+    private final Set<LinePart> lineParts;
+
+    private LogFilter(AnalyzerSettings settings) {
+        fromBounded = settings.from() != null;
+        toBounded = settings.to() != null;
+        fromEpochMillis = settings.fromEpochMillis();
+        toEpochMillis = settings.toEpochMillis();
+        List<FilterExpression> operands = new ArrayList<>();
+        settings.filterParams().forEach((name, prefix) -> {
+            FilterField field = getField(name);
+            if (!prefix.isEmpty()) {
+                operands.add(new Condition(field, ValueMatchers.prefix(prefix)));
+            }
+        });
+        if (settings.filter() != null) {
+            operands.add(settings.filter());
+        }
+        And conjunction = new And(operands).ordered();
+        expression = conjunction;
+        lineExpression = new And(conjunction.operands().stream().filter(FilterExpression::isFoundInLine).toList());
+        parsedExpression = new And(
+            conjunction.operands().stream().filter(operand -> !operand.isFoundInLine()).toList()
+        );
+        lineParts = lineExpression.fields()
+            .map(FilterField::part)
+            .collect(Collectors.toCollection(() -> EnumSet.noneOf(LinePart.class)));
+    }
+
+    /**
+     * Compiles the filter of the settings.
+     *
+     * @param settings the settings containing the date and time range, the filter parameters and
+     *                 the filter expression.
+     * @return the filter of the logs that should be taken into account in the statistics.
+     * @throws IllegalArgumentException if a filter parameter refers to a field the log doesn't contain.
+     */
+    public static LogFilter compile(AnalyzerSettings settings) {
+        return new LogFilter(settings);
+    }
+
+    private static FilterField getField(String name) {
+        FilterField field = FilterField.of(name);
+        if (field == null) {
+            throw new IllegalArgumentException("log doesn't contain field \"" + name + "\"");
+        }
+        return field;
+    }
+
+    /**
+     * Checks whether the log is within the date and time range and matches the filter parameters and
+     * the filter expression.
+     *
+     * @param log the log to be checked.
+     * @return {@code true} if the log should be taken into account in the statistics, {@code false} otherwise.
+     */
+    public boolean matches(LogFields log) {
+        return matchesDates(log) && expression.matches(log);
+    }
+
+    /**
+     * Checks the log that has been accepted by {@link #mayMatch(byte[], int, int)} or {@link #mayMatch(String)},
+     * skipping the checks already done on its line.
+     *
+     * @param log the parsed log of the accepted line.
+     * @return {@code true} if the log should be taken into account in the statistics, {@code false} otherwise.
+     */
+    public boolean matchesParsed(LogFields log) {
+        return matchesDates(log) && parsedExpression.matches(log);
+    }
+
+    private boolean matchesDates(LogFields log) {
+        return (!fromBounded || log.epochMillis() > fromEpochMillis)
+            && (!toBounded || log.epochMillis() < toEpochMillis);
+    }
+
+    /**
+     * Checks the fields that can be found in the unparsed UTF-8 encoded line. The result is exact for lines
+     * in the valid format, a line whose fields can't be found is accepted, so that the parser reports it.
+     *
+     * @param line an array containing UTF-8 encoded log.
+     * @param from the index of the first byte of the log (inclusive).
+     * @param to   the index of the last byte of the log (exclusive).
+     * @return {@code false} if the log would be rejected by the filter, {@code true} otherwise.
+     */
+    public boolean mayMatch(byte[] line, int from, int to) {
+        if (lineParts.isEmpty()) {
+            return true;
+        }
+        LineFields fields = LineFields.locate(line, from, to, lineParts);
+        return fields == null || lineExpression.matches(fields);
+    }
+
+    /**
+     * Checks the fields that can be found in the unparsed line, as {@link #mayMatch(byte[], int, int)} does.
+     *
+     * @param line the log.
+     * @return {@code false} if the log would be rejected by the filter, {@code true} otherwise.
+     */
+    public boolean mayMatch(String line) {
+        if (lineParts.isEmpty()) {
+            return true;
+        }
+        LineFields fields = LineFields.locate(line, lineParts);
+        return fields == null || lineExpression.matches(fields);
+    }
+}
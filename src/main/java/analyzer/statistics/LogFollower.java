@@ -0,0 +1,128 @@
+package analyzer.statistics;
+
+import analyzer.error.InvalidLogFormatException;
+import analyzer.io.FileTail;
+import analyzer.parser.LineParser;
+import analyzer.parser.LogFields;
+import analyzer.parser.LogView;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Arrays;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * A class that follows a local file containing NGINX logs and keeps the statistics of the logs appended to the file
+ * during a sliding time window.
+ * <p>The window is divided into {@value #WINDOW_BUCKETS} buckets by the time the logs were read, each of which keeps
+ * its own statistics. The statistics of the window are merged from the buckets, and a bucket is discarded as soon as
+ * it leaves the window. Percentiles are always estimated by a sketch and the most frequent values by the Space-Saving
+ * algorithm (with the default relative error and capacity if the settings don't set them), so the memory used
+ * doesn't depend on the number of logs or on how long the file is followed.</p>
+ * <p>The logs the file contains when it is polled for the first time are skipped. Rotation and truncation of
+ * the file are handled as described in {@link FileTail}. Logs in invalid format are skipped with a warning.</p>
+ */
+@Log4j2
+public final class LogFollower implements Closeable {
+
+    /**
+     * The relative error of percentiles used if the settings don't set it.
+     */
+    static final double DEFAULT_PERCENTILE_ERROR = 0.01;
+
+    /**
+     * The capacity of the Space-Saving counters used if the settings don't set it.
+     */
+    static final int DEFAULT_TOP_K_CAPACITY = 1000;
+
+    private static final int WINDOW_BUCKETS = 60;
+
+    private final Path path;
+    private final AnalyzerSettings settings;
+    private final LogFilter filter;
+    private final Clock clock;
+    private final FileTail tail;
+    private final LogView view = new LogView();
+
+    private final long bucketMillis;
+    private final LogStatistics[] buckets = new LogStatistics[WINDOW_BUCKETS];
+    private final long[] bucketNumbers = new long[WINDOW_BUCKETS];
+
+    /**
+     * Creates a follower of the file. The file is opened by the first {@link #poll()}.
+     *
+     * @param path     the path of the file to be followed.
+     * @param settings the settings that control how logs are parsed, filtered and aggregated.
+     * @param window   the duration of the window the statistics are kept for.
+     * @param clock    the clock that determines the bucket of the logs being read.
+     */
+    public LogFollower(Path path, AnalyzerSettings settings, Duration window, Clock clock) {
+        this.path = path;
+        this.settings = settings.toBuilder()
+            .percentileError(settings.percentileError() > 0 ? settings.percentileError() : DEFAULT_PERCENTILE_ERROR)
+            .topKCapacity(settings.topKCapacity() > 0 ? settings.topKCapacity() : DEFAULT_TOP_K_CAPACITY)
+            .build();
+        filter = LogFilter.compile(settings);
+        this.clock = clock;
+        tail = new FileTail(path, true);
+        bucketMillis = Math.max(1, window.toMillis() / WINDOW_BUCKETS);
+        Arrays.fill(bucketNumbers, Long.MIN_VALUE);
+    }
+
+    /**
+     * Reads the logs appended to the file since the previous poll into the current bucket of the window.
+     * An I/O error is logged, and the file is read again by the next poll.
+     */
+    public void poll() {
+        LogStatistics bucket = getBucket(Math.floorDiv(clock.millis(), bucketMillis));
+        LineParser parser = settings.parser();
+        try {
+            tail.read((buffer, from, to) -> {
+                if (from < to && filter.mayMatch(buffer, from, to)) {
+                    try {
+                        LogFields log = parser.parse(buffer, from, to, view);
+                        if (filter.matchesParsed(log)) {
+                            bucket.update(log);
+                        }
+                    } catch (InvalidLogFormatException e) {
+                        log.warn("File \"{}\" contains a log in invalid format, it is skipped.", path);
+                    }
+                }
+            });
+        } catch (IOException e) {
+            log.error("Error occurred while following file: \"{}\"", path, e);
+        }
+    }
+
+    /**
+     * Merges the statistics of the logs read during the window that ends now.
+     *
+     * @return the statistics of the window.
+     */
+    public LogStatistics statistics() {
+        long bucketNumber = Math.floorDiv(clock.millis(), bucketMillis);
+        LogStatistics statistics = new LogStatistics(path.toString(), settings);
+        for (int i = 0; i < WINDOW_BUCKETS; i++) {
+            if (buckets[i] != null && bucketNumbers[i] > bucketNumber - WINDOW_BUCKETS) {
+                statistics.combine(buckets[i]);
+            }
+        }
+        return statistics;
+    }
+
+    @Override
+    public void close() throws IOException {
+        tail.close();
+    }
+
+    private LogStatistics getBucket(long bucketNumber) {
+        int slot = (int) Math.floorMod(bucketNumber, WINDOW_BUCKETS);
+        if (bucketNumbers[slot] != bucketNumber) {
+            buckets[slot] = new LogStatistics(path.toString(), settings);
+            bucketNumbers[slot] = bucketNumber;
+        }
+        return buckets[slot];
+    }
+}
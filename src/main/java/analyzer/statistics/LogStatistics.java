@@ -1,45 +1,148 @@
 package analyzer.statistics;
 
 import analyzer.parser.Log;
+import analyzer.parser.LogBatch;
+import analyzer.parser.LogFields;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigDecimal;
 import java.math.BigInteger;
 import java.time.OffsetDateTime;
-import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
-import java.util.Objects;
+import java.util.Set;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
 import lombok.Getter;
 import org.apache.commons.math3.util.Pair;
 
 /**
  * A class representing statistics compiled based on various logs.
+ * <p>Counters are kept in primitive {@code long}s and switch to {@link BigInteger} arithmetic only
+ * on overflow, so that taking a log into account does not allocate numbers. Exact frequencies are counted by
+ * the ids of the values in dictionaries, so the counted fields of a {@code LogView} aren't decoded.</p>
  */
 public final class LogStatistics {
-    @Getter
-    private BigInteger numberOfRequests = BigInteger.ZERO;
+    private final WideCounter numberOfRequests = new WideCounter();
+
+    private final FrequencyEstimator requestsToResources;
+    private final FrequencyEstimator responsesCodes = new CounterMap();
+    private final FrequencyEstimator remoteAddresses;
+    private final FrequencyEstimator httpReferrers;
 
-    private final Map<String, BigInteger> requestsToResources = new HashMap<>();
-    private final Map<String, BigInteger> responsesCodes = new HashMap<>();
-    private final Map<String, BigInteger> remoteAddresses = new HashMap<>();
-    private final Map<String, BigInteger> httpReferrers = new HashMap<>();
+    private final int topK;
 
     @Getter
     private final OffsetDateTime fromDateTime;
     @Getter
     private final OffsetDateTime toDateTime;
+
+    private final Set<String> sources = new LinkedHashSet<>();
+
+    private final QuantileEstimator serverResponsesSizes;
+    private final WideCounter serverResponsesSizesSum = new WideCounter();
+
+    /**
+     * The percentiles of the server response size to be reported, empty if only the default 95% percentile
+     * is to be reported.
+     */
     @Getter
-    private final String pathToFile;
+    private final List<Double> percentiles;
 
-    private final List<BigInteger> serverResponsesSizes = new ArrayList<>();
+    /**
+     * The statistics of the server response size by groups of logs, null if the logs aren't grouped.
+     */
+    @Getter
+    private final GroupedStatistics groups;
+
+    /**
+     * The settings the statistics were created with, which determine how the data is estimated and reported.
+     */
+    private final AnalyzerSettings settings;
 
     public LogStatistics(OffsetDateTime from, OffsetDateTime to, String file) {
-        fromDateTime = from;
-        toDateTime = to;
-        pathToFile = file;
+        this(file, AnalyzerSettings.builder().from(from).to(to).build());
+    }
+
+    /**
+     * Creates empty statistics that estimate percentiles and frequencies as configured by the settings.
+     *
+     * @param file     the source of the logs.
+     * @param settings the settings the logs are analyzed with.
+     */
+    public LogStatistics(String file, AnalyzerSettings settings) {
+        fromDateTime = settings.from();
+        toDateTime = settings.to();
+        sources.add(file);
+        serverResponsesSizes = settings.newQuantileEstimator();
+        percentiles = List.copyOf(settings.percentiles());
+        requestsToResources = settings.newFrequencyEstimator();
+        remoteAddresses = settings.newFrequencyEstimator();
+        httpReferrers = settings.newFrequencyEstimator();
+        topK = settings.topK();
+        groups = settings.isGrouped() ? new GroupedStatistics(settings) : null;
+        this.settings = settings;
+    }
+
+    /**
+     * Returns a collector that accumulates logs into the statistics. The collector may be used
+     * on parallel streams: partial statistics of the substreams are merged with {@link #combine(LogStatistics)}.
+     *
+     * @param from date and time starting from which logs were analyzed, null if the date and time does not matter.
+     * @param to   date and time up to which logs were analyzed, null if the date and time does not matter.
+     * @param file the source of the logs.
+     * @return a collector that accumulates logs into the statistics.
+     */
+    public static Collector<Log, LogStatistics, LogStatistics> collector(
+        OffsetDateTime from,
+        OffsetDateTime to,
+        String file
+    ) {
+        return collector(() -> new LogStatistics(from, to, file));
+    }
+
+    /**
+     * Returns a collector that accumulates logs into the statistics created by the supplier.
+     * The collector may be used on parallel streams: partial statistics of the substreams are merged
+     * with {@link #combine(LogStatistics)}.
+     *
+     * @param supplier the supplier of empty statistics.
+     * @return a collector that accumulates logs into the statistics.
+     */
+    public static Collector<Log, LogStatistics, LogStatistics> collector(Supplier<LogStatistics> supplier) {
+        return Collector.of(
+            supplier,
+            LogStatistics::update,
+            LogStatistics::combine,
+            Collector.Characteristics.UNORDERED,
+            Collector.Characteristics.IDENTITY_FINISH
+        );
+    }
+
+    /**
+     * Returns the number of logs taken into account in the statistics.
+     *
+     * @return the number of logs taken into account in the statistics.
+     */
+    public BigInteger numberOfRequests() {
+        return numberOfRequests.get();
     }
 
     /**
-     * A method that returns top 3 most frequently requested resources and number of their requests.
+     * Returns the sources the statistics were collected from.
+     *
+     * @return the comma separated sources the statistics were collected from, in the order they were added.
+     */
+    public String pathToFile() {
+        return String.join(", ", sources);
+    }
+
+    /**
+     * A method that returns top K (3 by default) most frequently requested resources and number of their requests.
      *
      * @return the list contains pairs of the form (resource_name, number_of_requests),
      *     sorted in descending order of the number of requests.
@@ -49,7 +152,7 @@ public final class LogStatistics {
     }
 
     /**
-     * A method that returns top 3 most common response codes and their numbers.
+     * A method that returns top K (3 by default) most common response codes and their numbers.
      *
      * @return the list contains pairs of the form (response_code, quantity),
      *     sorted in descending order of the quantity.
@@ -64,13 +167,11 @@ public final class LogStatistics {
      * @return the average size of the server response in bytes.
      */
     public BigInteger averageServerResponseSize() {
-        if (Objects.equals(numberOfRequests, BigInteger.ZERO)) {
+        BigInteger requests = numberOfRequests();
+        if (requests.signum() == 0) {
             return BigInteger.ZERO;
         }
-        return serverResponsesSizes
-            .stream()
-            .reduce(BigInteger.ZERO, BigInteger::add)
-            .divide(numberOfRequests);
+        return serverResponsesSizesSum.get().divide(requests);
     }
 
     /**
@@ -80,18 +181,27 @@ public final class LogStatistics {
      */
     @SuppressWarnings("MagicNumber")
     public BigInteger responseSizePercentile() {
-        int elementsToSkipNum = serverResponsesSizes.size() / 100 * 95;
+        long elementsToSkipNum = serverResponsesSizes.count() / 100 * 95;
         elementsToSkipNum += elementsToSkipNum > 0 ? elementsToSkipNum - 1 : 0;
-        return serverResponsesSizes
-            .stream()
-            .sorted()
-            .skip(elementsToSkipNum)
-            .findFirst()
-            .orElse(BigInteger.ZERO);
+        if (elementsToSkipNum >= serverResponsesSizes.count()) {
+            return BigInteger.ZERO;
+        }
+        return serverResponsesSizes.valueAtRank(elementsToSkipNum);
     }
 
     /**
-     * A method that returns top 3 most common remote addresses and their numbers.
+     * Calculates the given percentile of the server response size by the nearest-rank method.
+     * The result is exact or estimated depending on the estimator the statistics were created with.
+     *
+     * @param percentile the percentile, from 0 exclusive to 100 inclusive.
+     * @return the percentile of the server response size, zero if there are no logs.
+     */
+    public BigInteger responseSizePercentile(double percentile) {
+        return serverResponsesSizes.percentile(percentile);
+    }
+
+    /**
+     * A method that returns top K (3 by default) most common remote addresses and their numbers.
      *
      * @return the list contains pairs of the form (remote_address, quantity),
      *     sorted in descending order of the quantity.
@@ -101,7 +211,7 @@ public final class LogStatistics {
     }
 
     /**
-     * A method that returns top 3 most common HTTP referrers and their numbers.
+     * A method that returns top K (3 by default) most common HTTP referrers and their numbers.
      *
      * @return the list contains pairs of the form (remote_address, quantity),
      *     sorted in descending order of the quantity.
@@ -110,13 +220,46 @@ public final class LogStatistics {
         return getSortedList(httpReferrers);
     }
 
-    @SuppressWarnings("MagicNumber")
-    private static List<Pair<String, BigInteger>> getSortedList(Map<String, BigInteger> map) {
-        return map.entrySet()
+    /**
+     * Returns top K (3 by default) most frequently requested resources with the error bounds of their counts.
+     *
+     * @return the list of frequencies sorted in descending order of the number of requests.
+     */
+    public List<Frequency> topRequestedResources() {
+        return requestsToResources.top(topK);
+    }
+
+    /**
+     * Returns top K (3 by default) most common response codes with the error bounds of their counts.
+     *
+     * @return the list of frequencies sorted in descending order of the quantity.
+     */
+    public List<Frequency> topResponseCodes() {
+        return responsesCodes.top(topK);
+    }
+
+    /**
+     * Returns top K (3 by default) most common remote addresses with the error bounds of their counts.
+     *
+     * @return the list of frequencies sorted in descending order of the quantity.
+     */
+    public List<Frequency> topRemoteAddresses() {
+        return remoteAddresses.top(topK);
+    }
+
+    /**
+     * Returns top K (3 by default) most common HTTP referrers with the error bounds of their counts.
+     *
+     * @return the list of frequencies sorted in descending order of the quantity.
+     */
+    public List<Frequency> topHttpReferrers() {
+        return httpReferrers.top(topK);
+    }
+
+    private List<Pair<String, BigInteger>> getSortedList(FrequencyEstimator estimator) {
+        return estimator.top(topK)
             .stream()
-            .sorted((firstEntry, secondEntry) -> secondEntry.getValue().compareTo(firstEntry.getValue()))
-            .limit(3)
-            .map(entry -> Pair.create(entry.getKey(), entry.getValue()))
+            .map(frequency -> Pair.create(frequency.value(), frequency.count()))
             .toList();
     }
 
@@ -125,24 +268,229 @@ public final class LogStatistics {
      *
      * @param log the log to be taken into account in the statistics.
      */
-    public void update(Log log) {
-        numberOfRequests = numberOfRequests.add(BigInteger.ONE);
-        requestsToResources.put(
-            log.getHttpRequestBody(),
-            requestsToResources.getOrDefault(log.getHttpRequestBody(), BigInteger.ZERO).add(BigInteger.ONE)
-        );
-        responsesCodes.put(
-            log.httpStatus(),
-            responsesCodes.getOrDefault(log.httpStatus(), BigInteger.ZERO).add(BigInteger.ONE)
-        );
-        remoteAddresses.put(
-            log.remoteAddress(),
-            remoteAddresses.getOrDefault(log.remoteAddress(), BigInteger.ZERO).add(BigInteger.ONE)
-        );
-        httpReferrers.put(
-            log.httpReferer(),
-            httpReferrers.getOrDefault(log.httpReferer(), BigInteger.ZERO).add(BigInteger.ONE)
-        );
-        serverResponsesSizes.add(new BigInteger(log.bodyBytesSent()));
+    public void update(LogFields log) {
+        numberOfRequests.add(1);
+        requestsToResources.increment(log, LogFields::getHttpRequestBody, LogFields::httpRequestBodyId);
+        responsesCodes.increment(log, LogFields::httpStatus, LogFields::httpStatusId);
+        remoteAddresses.increment(log, LogFields::remoteAddress, LogFields::remoteAddressId);
+        httpReferrers.increment(log, LogFields::httpReferer, LogFields::httpRefererId);
+        addServerResponseSize(log);
+        if (groups != null) {
+            groups.update(log);
+        }
+    }
+
+    /**
+     * Takes all logs of the batch into account. The result is the same as the result of passing each log
+     * to {@link #update(LogFields)}, but each field is aggregated by a loop over the whole batch.
+     *
+     * @param batch the logs to be taken into account.
+     */
+    public void updateBatch(LogBatch batch) {
+        int size = batch.size();
+        numberOfRequests.add(size);
+        requestsToResources.incrementAll(batch, LogBatch.Column.HTTP_REQUEST_BODY);
+        responsesCodes.incrementAll(batch, LogBatch.Column.HTTP_STATUS);
+        remoteAddresses.incrementAll(batch, LogBatch.Column.REMOTE_ADDRESS);
+        httpReferrers.incrementAll(batch, LogBatch.Column.HTTP_REFERER);
+        for (int i = 0; i < size; i++) {
+            long value = batch.bodyBytesSent(i);
+            if (value >= 0) {
+                serverResponsesSizes.add(value);
+                serverResponsesSizesSum.add(value);
+            } else {
+                addServerResponseSize(batch.get(i));
+            }
+        }
+        if (groups != null) {
+            for (int i = 0; i < size; i++) {
+                groups.update(batch.get(i));
+            }
+        }
+    }
+
+    private void addServerResponseSize(LogFields log) {
+        long value = log.bodyBytesSentAsLong();
+        if (value >= 0) {
+            serverResponsesSizes.add(value);
+            serverResponsesSizesSum.add(value);
+        } else {
+            BigInteger wideValue = new BigInteger(log.bodyBytesSent());
+            serverResponsesSizes.add(wideValue);
+            serverResponsesSizesSum.add(wideValue);
+        }
+    }
+
+    /**
+     * Returns the settings the statistics were created with.
+     *
+     * @return the settings the statistics were created with.
+     */
+    AnalyzerSettings settings() {
+        return settings;
+    }
+
+    /**
+     * Returns the sources the statistics were collected from.
+     *
+     * @return the sources in the order they were added.
+     */
+    List<String> sources() {
+        return List.copyOf(sources);
+    }
+
+    /**
+     * Appends the sources the statistics were collected from.
+     *
+     * @param files the sources to be appended.
+     */
+    void addSources(Collection<String> files) {
+        sources.addAll(files);
+    }
+
+    /**
+     * Writes the collected data, except for the sources and the settings, which are known to the reader.
+     * The groups are written only if the statistics are grouped, so the data of statistics that aren't grouped,
+     * which are the only ones stored in indexes, doesn't depend on grouping.
+     *
+     * @param out the output to write to.
+     * @throws IOException if an I/O error occurs.
+     */
+    void writeTo(DataOutput out) throws IOException {
+        numberOfRequests.writeTo(out);
+        requestsToResources.writeTo(out);
+        responsesCodes.writeTo(out);
+        remoteAddresses.writeTo(out);
+        httpReferrers.writeTo(out);
+        switch (serverResponsesSizes) {
+            case ExactQuantileEstimator exact -> exact.writeTo(out);
+            case QuantileSketch sketch -> sketch.writeTo(out);
+            default -> throw new IllegalStateException("Unknown percentile estimator.");
+        }
+        serverResponsesSizesSum.writeTo(out);
+        if (groups != null) {
+            groups.writeTo(out);
+        }
+    }
+
+    /**
+     * Reads the data written by {@link #writeTo(DataOutput)} of statistics created with the same settings
+     * into this empty statistics.
+     *
+     * @param in the input to read from.
+     * @throws IOException if an I/O error occurs or the data was written with other settings.
+     */
+    void readFrom(DataInput in) throws IOException {
+        numberOfRequests.readFrom(in);
+        requestsToResources.readFrom(in);
+        responsesCodes.readFrom(in);
+        remoteAddresses.readFrom(in);
+        httpReferrers.readFrom(in);
+        switch (serverResponsesSizes) {
+            case ExactQuantileEstimator exact -> exact.readFrom(in);
+            case QuantileSketch sketch -> sketch.readFrom(in);
+            default -> throw new IllegalStateException("Unknown percentile estimator.");
+        }
+        serverResponsesSizesSum.readFrom(in);
+        if (groups != null) {
+            groups.readFrom(in);
+        }
+    }
+
+    /**
+     * Writes the collected data as fields of the current JSON object, except for the sources and the settings.
+     * Besides the complete state, the reported values are written for the readers that don't need to merge
+     * the statistics.
+     *
+     * @param out the generator to write to.
+     * @throws IOException if an I/O error occurs.
+     */
+    void writeJson(JsonGenerator out) throws IOException {
+        out.writeNumberField("numberOfRequests", numberOfRequests());
+        out.writeNumberField("responseSizeSum", serverResponsesSizesSum.get());
+        out.writeNumberField("averageResponseSize", averageServerResponseSize());
+        out.writeObjectFieldStart("responseSizePercentiles");
+        if (percentiles.isEmpty()) {
+            out.writeNumberField("95", responseSizePercentile());
+        }
+        for (var percentile : percentiles) {
+            out.writeNumberField(
+                BigDecimal.valueOf(percentile).stripTrailingZeros().toPlainString(),
+                responseSizePercentile(percentile)
+            );
+        }
+        out.writeEndObject();
+        out.writeFieldName("requestedResources");
+        requestsToResources.writeJson(out);
+        out.writeFieldName("responseCodes");
+        responsesCodes.writeJson(out);
+        out.writeFieldName("remoteAddresses");
+        remoteAddresses.writeJson(out);
+        out.writeFieldName("httpReferers");
+        httpReferrers.writeJson(out);
+        out.writeFieldName("responseSizes");
+        switch (serverResponsesSizes) {
+            case ExactQuantileEstimator exact -> exact.writeJson(out);
+            case QuantileSketch sketch -> sketch.writeJson(out);
+            default -> throw new IllegalStateException("Unknown percentile estimator.");
+        }
+        if (groups != null) {
+            out.writeFieldName("groups");
+            groups.writeJson(out);
+        }
+    }
+
+    /**
+     * Reads the data written by {@link #writeJson(JsonGenerator)} of statistics created with the same settings
+     * into this empty statistics.
+     *
+     * @param node the object containing the data.
+     * @throws IOException if the object is corrupted or the data was written with other settings.
+     */
+    void readJson(JsonNode node) throws IOException {
+        numberOfRequests.add(JsonCodec.getBigInteger(node, "numberOfRequests"));
+        serverResponsesSizesSum.add(JsonCodec.getBigInteger(node, "responseSizeSum"));
+        requestsToResources.readJson(JsonCodec.get(node, "requestedResources"));
+        responsesCodes.readJson(JsonCodec.get(node, "responseCodes"));
+        remoteAddresses.readJson(JsonCodec.get(node, "remoteAddresses"));
+        httpReferrers.readJson(JsonCodec.get(node, "httpReferers"));
+        switch (serverResponsesSizes) {
+            case ExactQuantileEstimator exact -> exact.readJson(JsonCodec.get(node, "responseSizes"));
+            case QuantileSketch sketch -> sketch.readJson(JsonCodec.get(node, "responseSizes"));
+            default -> throw new IllegalStateException("Unknown percentile estimator.");
+        }
+        if (groups != null) {
+            groups.readJson(JsonCodec.get(node, "groups"));
+        }
+    }
+
+    /**
+     * Adds the data collected by another statistics to this one. The operation is associative and
+     * commutative with respect to the collected data: combining partial statistics in any grouping
+     * and order gives the same result as collecting all logs into a single statistics.
+     * Approximate percentiles and frequencies may depend on the grouping, but stay within their error bounds.
+     * The sources of {@code other} are appended to the sources of this statistics.
+     *
+     * @param other the statistics collected over another part of the logs.
+     * @return this statistics.
+     * @throws IllegalArgumentException if the statistics estimate percentiles or frequencies or group logs
+     *                                  in different ways.
+     */
+    public LogStatistics combine(LogStatistics other) {
+        numberOfRequests.add(other.numberOfRequests);
+        requestsToResources.addAll(other.requestsToResources);
+        responsesCodes.addAll(other.responsesCodes);
+        remoteAddresses.addAll(other.remoteAddresses);
+        httpReferrers.addAll(other.httpReferrers);
+        serverResponsesSizes.addAll(other.serverResponsesSizes);
+        serverResponsesSizesSum.add(other.serverResponsesSizesSum);
+        if (groups != null || other.groups != null) {
+            if (groups == null || other.groups == null) {
+                throw new IllegalArgumentException("Grouped statistics can be merged only with grouped statistics.");
+            }
+            groups.addAll(other.groups);
+        }
+        sources.addAll(other.sources);
+        return this;
     }
 }
@@ -0,0 +1,64 @@
+package analyzer.statistics;
+
+import java.math.BigInteger;
+
+/**
+ * An interface of a structure that accumulates integer values and answers rank and percentile queries over them.
+ * <p>Estimators of the same kind and configuration can be merged, which allows them to be collected
+ * over parts of the logs in parallel.</p>
+ */
+public interface QuantileEstimator {
+
+    /**
+     * Takes the value into account.
+     *
+     * @param value the value to be added.
+     */
+    void add(long value);
+
+    /**
+     * Takes the value into account.
+     *
+     * @param value the value to be added.
+     */
+    void add(BigInteger value);
+
+    /**
+     * Adds all values accumulated by another estimator to this one.
+     *
+     * @param other the estimator whose values are to be added.
+     * @throws IllegalArgumentException if {@code other} is of another kind or configuration than this estimator.
+     */
+    void addAll(QuantileEstimator other);
+
+    /**
+     * Returns the number of values taken into account.
+     *
+     * @return the number of values taken into account.
+     */
+    long count();
+
+    /**
+     * Returns the value that would be at the given index if all values were sorted in ascending order.
+     *
+     * @param rank the index of the value in the sorted order, from zero inclusive to {@link #count()} exclusive.
+     * @return the (estimated) value at the given index of the sorted order.
+     */
+    BigInteger valueAtRank(long rank);
+
+    /**
+     * Returns the percentile of the values computed by the nearest-rank method.
+     *
+     * @param percentile the percentile, from 0 exclusive to 100 inclusive.
+     * @return the (estimated) percentile of the values, zero if there are no values.
+     */
+    @SuppressWarnings("MagicNumber")
+    default BigInteger percentile(double percentile) {
+        long count = count();
+        if (count == 0) {
+            return BigInteger.ZERO;
+        }
+        long rank = (long) Math.ceil(percentile / 100 * count);
+        return valueAtRank(Math.clamp(rank - 1, 0, count - 1));
+    }
+}
@@ -0,0 +1,252 @@
+package analyzer.statistics;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Arrays;
+
+/**
+ * A mergeable estimator with bounded memory and a bounded relative error.
+ * <p>Positive values are counted in buckets whose bounds grow geometrically with the ratio
+ * {@code (1 + e) / (1 - e)}, where {@code e} is the relative error, so any estimated value
+ * differs from the actual one by at most {@code e} of it (plus rounding to an integer).
+ * The number of buckets depends only on the relative error, e.g. about 2200 buckets
+ * for the error of 1% cover the whole {@code long} range. The error can't be less than
+ * {@value #MIN_RELATIVE_ERROR}, which needs about 220000 buckets (1.7 MB), so that the memory stays bounded.</p>
+ * <p>The sketch is meant for non-negative values: negative values are counted as zero and values
+ * exceeding {@link Long#MAX_VALUE} are counted as {@link Long#MAX_VALUE}. The minimum and the maximum
+ * are tracked exactly and bound every estimate.</p>
+ */
+public final class QuantileSketch implements QuantileEstimator {
+
+    /**
+     * The minimum relative error of a sketch.
+     */
+    public static final double MIN_RELATIVE_ERROR = 1e-4;
+
+    private static final long[] EMPTY = {};
+
+    private final double relativeError;
+    private final double gamma;
+    private final double logGamma;
+
+    private long[] buckets = EMPTY;
+    private long zeroCount;
+    private long count;
+    private long min = Long.MAX_VALUE;
+    private long max = Long.MIN_VALUE;
+
+    /**
+     * Creates an empty sketch.
+     *
+     * @param relativeError the relative error of the estimates, from {@value #MIN_RELATIVE_ERROR} inclusive
+     *                      to 1 exclusive.
+     * @throws IllegalArgumentException if {@code relativeError} is out of the range.
+     */
+    public QuantileSketch(double relativeError) {
+        if (!(relativeError >= MIN_RELATIVE_ERROR && relativeError < 1)) {
+            throw new IllegalArgumentException(
+                "The relative error must be at least " + MIN_RELATIVE_ERROR + " and less than 1."
+            );
+        }
+        this.relativeError = relativeError;
+        this.gamma = (1 + relativeError) / (1 - relativeError);
+        this.logGamma = Math.log(gamma);
+    }
+
+    @Override
+    public void add(long value) {
+        long clampedValue = Math.max(value, 0);
+        count++;
+        min = Math.min(min, clampedValue);
+        max = Math.max(max, clampedValue);
+        if (clampedValue == 0) {
+            zeroCount++;
+            return;
+        }
+        int index = getIndex(clampedValue);
+        if (index >= buckets.length) {
+            buckets = Arrays.copyOf(buckets, Math.max(index + 1, buckets.length * 2));
+        }
+        buckets[index]++;
+    }
+
+    private int getIndex(long value) {
+        return (int) Math.ceil(Math.log(value) / logGamma);
+    }
+
+    /**
+     * Returns the number of buckets that covers every positive {@code long}.
+     */
+    private int getMaxLength() {
+        return getIndex(Long.MAX_VALUE) + 1;
+    }
+
+    @Override
+    public void add(BigInteger value) {
+        add(value.bitLength() < Long.SIZE ? value.longValue() : value.signum() * Long.MAX_VALUE);
+    }
+
+    @Override
+    public void addAll(QuantileEstimator other) {
+        if (!(other instanceof QuantileSketch sketch) || sketch.relativeError != relativeError) {
+            throw new IllegalArgumentException("Only sketches with the same relative error can be merged.");
+        }
+        if (sketch.buckets.length > buckets.length) {
+            buckets = Arrays.copyOf(buckets, sketch.buckets.length);
+        }
+        for (int i = 0; i < sketch.buckets.length; i++) {
+            buckets[i] += sketch.buckets[i];
+        }
+        zeroCount += sketch.zeroCount;
+        count += sketch.count;
+        min = Math.min(min, sketch.min);
+        max = Math.max(max, sketch.max);
+    }
+
+    /**
+     * Writes the non-empty buckets of the sketch.
+     *
+     * @param out the output to write to.
+     * @throws IOException if an I/O error occurs.
+     */
+    void writeTo(DataOutput out) throws IOException {
+        out.writeDouble(relativeError);
+        out.writeLong(count);
+        out.writeLong(zeroCount);
+        out.writeLong(min);
+        out.writeLong(max);
+        out.writeInt(buckets.length);
+        int nonEmpty = 0;
+        for (long bucket : buckets) {
+            nonEmpty += bucket == 0 ? 0 : 1;
+        }
+        out.writeInt(nonEmpty);
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] != 0) {
+                out.writeInt(i);
+                out.writeLong(buckets[i]);
+            }
+        }
+    }
+
+    /**
+     * Reads the buckets written by {@link #writeTo(DataOutput)} of a sketch with the same relative error
+     * and merges them into this sketch. The sketch is changed only if the whole input is valid.
+     *
+     * @param in the input to read from.
+     * @throws IOException if an I/O error occurs, the input is corrupted or the sketch had another relative error.
+     */
+    void readFrom(DataInput in) throws IOException {
+        if (in.readDouble() != relativeError) {
+            throw new IOException("Only a sketch with the same relative error can be read.");
+        }
+        QuantileSketch read = new QuantileSketch(relativeError);
+        read.count = in.readLong();
+        read.zeroCount = in.readLong();
+        read.min = in.readLong();
+        read.max = in.readLong();
+        int length = BinaryCodec.readLength(in);
+        if (length > getMaxLength()) {
+            throw new IOException("Corrupted data: " + length + " buckets exceed the range of long.");
+        }
+        read.buckets = new long[length];
+        int nonEmpty = BinaryCodec.readLength(in);
+        if (nonEmpty > length) {
+            throw new IOException("Corrupted data: " + nonEmpty + " non-empty buckets of " + length + ".");
+        }
+        for (int i = 0; i < nonEmpty; i++) {
+            int index = in.readInt();
+            if (index < 0 || index >= length) {
+                throw new IOException("Corrupted data: invalid bucket index " + index + ".");
+            }
+            long bucketCount = in.readLong();
+            if (bucketCount < 0) {
+                throw new IOException("Corrupted data: negative count " + bucketCount + ".");
+            }
+            read.buckets[index] += bucketCount;
+        }
+        addAll(read);
+    }
+
+    /**
+     * Writes the sketch as a JSON object with the non-empty buckets as {@code [index, count]} pairs.
+     *
+     * @param out the generator to write to.
+     * @throws IOException if an I/O error occurs.
+     */
+    void writeJson(JsonGenerator out) throws IOException {
+        out.writeStartObject();
+        out.writeNumberField("relativeError", relativeError);
+        out.writeNumberField("count", count);
+        out.writeNumberField("zeroCount", zeroCount);
+        out.writeNumberField("min", min);
+        out.writeNumberField("max", max);
+        out.writeArrayFieldStart("buckets");
+        for (int i = 0; i < buckets.length; i++) {
+            if (buckets[i] != 0) {
+                out.writeStartArray();
+                out.writeNumber(i);
+                out.writeNumber(buckets[i]);
+                out.writeEndArray();
+            }
+        }
+        out.writeEndArray();
+        out.writeEndObject();
+    }
+
+    /**
+     * Reads the sketch written by {@link #writeJson(JsonGenerator)} of a sketch with the same relative error
+     * and merges it into this sketch. The sketch is changed only if the whole object is valid.
+     *
+     * @param node the object of the sketch.
+     * @throws IOException if the object is corrupted or the sketch had another relative error.
+     */
+    void readJson(JsonNode node) throws IOException {
+        if (JsonCodec.get(node, "relativeError").doubleValue() != relativeError) {
+            throw new IOException("Only a sketch with the same relative error can be read.");
+        }
+        QuantileSketch read = new QuantileSketch(relativeError);
+        read.count = JsonCodec.getLong(node, "count");
+        read.zeroCount = JsonCodec.getLong(node, "zeroCount");
+        read.min = JsonCodec.getLong(node, "min");
+        read.max = JsonCodec.getLong(node, "max");
+        JsonCodec.readHistogram(JsonCodec.getArray(node, "buckets"), (index, bucketCount) -> {
+            if (index.signum() < 0 || index.compareTo(BigInteger.valueOf(getMaxLength())) >= 0) {
+                throw new IOException("Corrupted data: invalid bucket index " + index + ".");
+            }
+            if (index.intValue() >= read.buckets.length) {
+                read.buckets = Arrays.copyOf(read.buckets, index.intValue() + 1);
+            }
+            read.buckets[index.intValue()] += bucketCount;
+        });
+        addAll(read);
+    }
+
+    @Override
+    public long count() {
+        return count;
+    }
+
+    @Override
+    public BigInteger valueAtRank(long rank) {
+        long seen = zeroCount;
+        if (rank < seen) {
+            return BigInteger.valueOf(bound(0));
+        }
+        for (int i = 0; i < buckets.length; i++) {
+            seen += buckets[i];
+            if (rank < seen) {
+                return BigInteger.valueOf(bound(Math.round(2 * Math.pow(gamma, i) / (gamma + 1))));
+            }
+        }
+        return BigInteger.valueOf(max);
+    }
+
+    private long bound(long estimate) {
+        return Math.clamp(estimate, min, max);
+    }
+}
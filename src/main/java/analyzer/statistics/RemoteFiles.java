@@ -0,0 +1,129 @@
+package analyzer.statistics;
+
+import analyzer.io.Compression;
+import analyzer.io.FileChunk;
+import analyzer.io.LineBlocks;
+import analyzer.io.RemoteFile;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.experimental.UtilityClass;
+
+/**
+ * A class that allows to collect statistics from resources located by URLs.
+ * <p>If the server supports range requests and the resource is large and not compressed, the resource is split
+ * into ranges, which are downloaded on virtual threads, a few ranges ahead of the workers, and parsed by
+ * {@link AnalyzerSettings#threads()} workers in parallel. Otherwise the resource is downloaded (and decompressed)
+ * on a virtual thread into blocks of lines, which are parsed by the workers in parallel.</p>
+ */
+@UtilityClass
+class RemoteFiles {
+
+    private static final long RANGE_SIZE = 4L << 20;
+
+    /**
+     * The number of ranges downloaded concurrently ahead of the range being parsed.
+     */
+    private static final int PREFETCHED_RANGES = 8;
+
+    /**
+     * Collects statistics from the resource.
+     *
+     * @param url      the URL of the resource.
+     * @param settings the settings that control how logs are parsed, filtered and aggregated and how the resource
+     *                 is downloaded.
+     * @return the statistics of the resource.
+     * @throws IOException if an I/O error occurs or the resource is compressed in an unsupported format.
+     */
+    static LogStatistics getStatistics(URL url, AnalyzerSettings settings) throws IOException {
+        RemoteFile file = new RemoteFile(url, settings.connectTimeout(), settings.readTimeout(), settings.retries());
+        byte[] head = file.probe();
+        if (file.rangesSupported() && file.length() > RANGE_SIZE && Compression.detect(head) == Compression.NONE) {
+            return getStatisticsFromRanges(url.toString(), file, settings);
+        }
+        InputStream in = file.openStream();
+        try {
+            in = Compression.decompress(in);
+        } catch (IOException e) {
+            in.close();
+            throw e;
+        }
+        try (LineBlocks blocks = new LineBlocks(in, Thread.ofVirtual().name("downloader-" + url))) {
+            return LogAnalyzer.getStatisticsFromBlocks(url.toString(), blocks, settings);
+        }
+    }
+
+    private static LogStatistics getStatisticsFromRanges(String source, RemoteFile file, AnalyzerSettings settings)
+        throws IOException {
+        List<FileChunk> ranges = new ArrayList<>();
+        for (long start = 0; start < file.length(); start += RANGE_SIZE) {
+            ranges.add(new FileChunk(start, Math.min(file.length(), start + RANGE_SIZE)));
+        }
+        try (RangeDownloads downloads = new RangeDownloads(file, ranges)) {
+            return ByteRuns.getStatistics(source, ranges.size(), downloads::take, settings);
+        }
+    }
+
+    /**
+     * The downloads of the ranges of a remote file, which are started on virtual threads as the ranges are taken.
+     */
+    private static final class RangeDownloads implements Closeable {
+
+        private final RemoteFile file;
+        private final List<FileChunk> ranges;
+        private final List<Future<byte[]>> downloads;
+        private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+        private RangeDownloads(RemoteFile file, List<FileChunk> ranges) {
+            this.file = file;
+            this.ranges = ranges;
+            downloads = new ArrayList<>(ranges.size());
+        }
+
+        /**
+         * Takes the range, waiting for it to be downloaded if necessary, and starts the downloads of the next ranges.
+         *
+         * @param range the index of the range, each range may be taken once.
+         * @return the bytes of the range.
+         * @throws IOException if an I/O error occurs while downloading the range or the waiting is interrupted.
+         */
+        private byte[] take(int range) throws IOException {
+            Future<byte[]> download;
+            synchronized (this) {
+                while (downloads.size() < Math.min(ranges.size(), range + PREFETCHED_RANGES)) {
+                    FileChunk next = ranges.get(downloads.size());
+                    downloads.add(executor.submit(() -> file.read(next)));
+                }
+                download = downloads.set(range, null);
+            }
+            try {
+                return download.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Waiting for the download of a range was interrupted.");
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException cause) {
+                    throw cause;
+                }
+                throw new IllegalStateException(e.getCause());
+            }
+        }
+
+        /**
+         * Cancels the downloads that are still in progress.
+         */
+        @Override
+        public void close() {
+            executor.shutdownNow();
+            executor.close();
+        }
+    }
+}
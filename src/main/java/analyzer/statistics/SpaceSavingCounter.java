@@ -0,0 +1,228 @@
+package analyzer.statistics;
+
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A counter of the most frequent values with bounded memory based on the Space-Saving algorithm.
+ * <p>At most {@code capacity} values are tracked. When a new value arrives and all slots are taken,
+ * the value with the smallest count is evicted and the new value inherits its count as the error,
+ * so counts are never underestimated and are overestimated by at most the reported error.
+ * Any value that occurred more than {@code n / capacity} times among {@code n} values is guaranteed
+ * to be tracked.</p>
+ * <p>The slots are kept in an indexed binary min-heap by count, so each update takes
+ * {@code O(log capacity)} time and does not allocate once the value is tracked.</p>
+ */
+final class SpaceSavingCounter implements FrequencyEstimator {
+
+    private final int capacity;
+
+    private final Object2IntOpenHashMap<String> slots;
+    private final String[] values;
+    private final long[] counts;
+    private final long[] errors;
+
+    /**
+     * The heap of slots ordered by count, the slot with the smallest count is at the top.
+     */
+    private final int[] heap;
+    /**
+     * The position of each slot in the heap.
+     */
+    private final int[] positions;
+
+    private int size;
+
+    /**
+     * Creates an empty counter.
+     *
+     * @param capacity the maximum number of tracked values.
+     * @throws IllegalArgumentException if {@code capacity} isn't positive.
+     */
+    SpaceSavingCounter(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("The capacity must be positive.");
+        }
+        this.capacity = capacity;
+        slots = new Object2IntOpenHashMap<>(capacity);
+        slots.defaultReturnValue(-1);
+        values = new String[capacity];
+        counts = new long[capacity];
+        errors = new long[capacity];
+        heap = new int[capacity];
+        positions = new int[capacity];
+    }
+
+    @Override
+    public void increment(String value) {
+        add(value, 1, 0);
+    }
+
+    @Override
+    public void add(Frequency frequency) {
+        add(frequency.value(), frequency.count().longValueExact(), frequency.error().longValueExact());
+    }
+
+    private void add(String value, long count, long error) {
+        int slot = slots.getInt(value);
+        if (slot >= 0) {
+            counts[slot] += count;
+            errors[slot] += error;
+            siftDown(positions[slot]);
+        } else if (size < capacity) {
+            slot = size++;
+            slots.put(value, slot);
+            values[slot] = value;
+            counts[slot] = count;
+            errors[slot] = error;
+            heap[slot] = slot;
+            positions[slot] = slot;
+            siftUp(slot);
+        } else {
+            slot = heap[0];
+            slots.removeInt(values[slot]);
+            slots.put(value, slot);
+            values[slot] = value;
+            errors[slot] = counts[slot] + error;
+            counts[slot] += count;
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Adds the values counted by another counter to this one. A value missing in one of the counters
+     * might have occurred there up to that counter's smallest count times, so the smallest count is added
+     * both to the count and to the error of such values. Then only the {@code capacity} values with the
+     * largest counts are kept.
+     */
+    @Override
+    public void addAll(FrequencyEstimator other) {
+        if (!(other instanceof SpaceSavingCounter counter) || counter.capacity != capacity) {
+            throw new IllegalArgumentException("Only Space-Saving counters with the same capacity can be merged.");
+        }
+        long minCount = minCount();
+        long otherMinCount = counter.minCount();
+        Map<String, Frequency> merged = new HashMap<>();
+        for (int slot = 0; slot < size; slot++) {
+            int otherSlot = counter.slots.getInt(values[slot]);
+            merged.put(values[slot], new Frequency(
+                values[slot],
+                BigInteger.valueOf(counts[slot] + (otherSlot >= 0 ? counter.counts[otherSlot] : otherMinCount)),
+                BigInteger.valueOf(errors[slot] + (otherSlot >= 0 ? counter.errors[otherSlot] : otherMinCount))
+            ));
+        }
+        for (int slot = 0; slot < counter.size; slot++) {
+            if (!slots.containsKey(counter.values[slot])) {
+                merged.put(counter.values[slot], new Frequency(
+                    counter.values[slot],
+                    BigInteger.valueOf(counter.counts[slot] + minCount),
+                    BigInteger.valueOf(counter.errors[slot] + minCount)
+                ));
+            }
+        }
+        clear();
+        merged.values()
+            .stream()
+            .sorted(ORDER)
+            .limit(capacity)
+            .forEach(frequency -> add(
+                frequency.value(),
+                frequency.count().longValueExact(),
+                frequency.error().longValueExact()
+            ));
+    }
+
+    @Override
+    public List<Frequency> top(long limit) {
+        List<Frequency> frequencies = new ArrayList<>(size);
+        for (int slot = 0; slot < size; slot++) {
+            frequencies.add(new Frequency(
+                values[slot],
+                BigInteger.valueOf(counts[slot]),
+                BigInteger.valueOf(errors[slot])
+            ));
+        }
+        return frequencies.stream().sorted(ORDER).limit(limit).toList();
+    }
+
+    @Override
+    public void writeTo(DataOutput out) throws IOException {
+        out.writeInt(capacity);
+        out.writeInt(size);
+        for (int slot = 0; slot < size; slot++) {
+            BinaryCodec.writeString(out, values[slot]);
+            out.writeLong(counts[slot]);
+            out.writeLong(errors[slot]);
+        }
+    }
+
+    @Override
+    public void readFrom(DataInput in) throws IOException {
+        int readCapacity = in.readInt();
+        int readSize = BinaryCodec.readLength(in);
+        if (readCapacity != capacity || readSize > capacity || size > 0) {
+            throw new IOException("Only an empty Space-Saving counter with the same capacity can be read.");
+        }
+        for (int i = 0; i < readSize; i++) {
+            add(BinaryCodec.readString(in), in.readLong(), in.readLong());
+        }
+    }
+
+    /**
+     * Returns the smallest count a value could have without being tracked.
+     */
+    private long minCount() {
+        return size < capacity ? 0 : counts[heap[0]];
+    }
+
+    private void clear() {
+        slots.clear();
+        Arrays.fill(values, 0, size, null);
+        size = 0;
+    }
+
+    private void siftUp(int position) {
+        int current = position;
+        while (current > 0) {
+            int parent = (current - 1) / 2;
+            if (counts[heap[parent]] <= counts[heap[current]]) {
+                return;
+            }
+            swap(current, parent);
+            current = parent;
+        }
+    }
+
+    private void siftDown(int position) {
+        int current = position;
+        while (true) {
+            int smallest = current;
+            for (int child = 2 * current + 1; child <= 2 * current + 2 && child < size; child++) {
+                if (counts[heap[child]] < counts[heap[smallest]]) {
+                    smallest = child;
+                }
+            }
+            if (smallest == current) {
+                return;
+            }
+            swap(current, smallest);
+            current = smallest;
+        }
+    }
+
+    private void swap(int first, int second) {
+        int slot = heap[first];
+        heap[first] = heap[second];
+        heap[second] = slot;
+        positions[heap[first]] = first;
+        positions[heap[second]] = second;
+    }
+}
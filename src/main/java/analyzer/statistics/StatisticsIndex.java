@@ -0,0 +1,428 @@
+package analyzer.statistics;
+
+import analyzer.io.FileChunk;
+import analyzer.io.FileChunks;
+import analyzer.parser.LineParser;
+import analyzer.parser.LogFields;
+import analyzer.parser.LogView;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.CRC32C;
+import lombok.extern.log4j.Log4j2;
+
+/**
+ * A persistent index of a local file containing NGINX logs, which stores the statistics of the logs pre-aggregated
+ * by segments, so that the statistics of a date and time range can be computed without parsing most of the file.
+ * <p>A segment is a run of consecutive lines whose dates fall into the same minute. The index stores
+ * the minute, the byte range and the statistics of each segment. Segments whose minute is entirely within the range
+ * are merged from the index, segments whose minute only intersects the range (the edges) are parsed again, and
+ * the rest of the file is skipped. Segments are parsed again when there are filter parameters too, since the stored
+ * statistics aren't filtered.</p>
+ * <p>The index is written next to the file or to the given directory and is valid for the file as long as
+ * the size and the modification time of the file are the same. If the file has grown, and the first and
+ * the last {@value #HASHED_BYTES} bytes of its indexed part are the same, only the appended lines are indexed.
+ * Otherwise, the index is built again. An index is bound to the way the statistics estimate percentiles and
+ * frequencies, so these settings are a part of its name.</p>
+ */
+@Log4j2
+final class StatisticsIndex {
+
+    private static final int MAGIC = 0x4C504958;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 2 * Integer.BYTES + 5 * Long.BYTES + Double.BYTES + Integer.BYTES;
+
+    private static final long BUCKET_MILLIS = 60_000;
+    private static final int HASHED_BYTES = 1 << 16;
+    private static final long MAX_EDGE_LENGTH = 1L << 28;
+
+    private static final String INDEX_SUFFIX = ".idx";
+
+    private final Path file;
+    private final Path indexFile;
+    private final AnalyzerSettings settings;
+
+    private StatisticsIndex(Path file, Path indexFile, AnalyzerSettings settings) {
+        this.file = file;
+        this.indexFile = indexFile;
+        this.settings = settings;
+    }
+
+    /**
+     * Collects statistics from the file using its index, which is built or extended first if needed.
+     *
+     * @param file     the file containing logs.
+     * @param settings the settings that control how logs are parsed, filtered and aggregated.
+     * @return the statistics of the file, the same as the statistics collected by reading the whole file
+     *     (up to the reported error of the most frequent values estimated by the Space-Saving algorithm,
+     *     which are merged from the segments), {@code null} if the index can't be updated.
+     * @throws IOException if an I/O error occurs while reading the file or the index.
+     */
+    static LogStatistics getStatistics(Path file, AnalyzerSettings settings) throws IOException {
+        StatisticsIndex index = new StatisticsIndex(file, getIndexFile(file, settings), settings);
+        Header header;
+        try {
+            header = index.update();
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Index of the file \"{}\" can't be updated in \"{}\".", file, index.indexFile, e);
+            return null;
+        }
+        return index.query(header);
+    }
+
+    /**
+     * Checks whether the file is an index, so that the indexes written next to log files aren't analyzed as logs.
+     *
+     * @param path the path of the file.
+     * @return {@code true} if the name of the file has the suffix of indexes and the file starts with the magic bytes
+     *     of indexes, {@code false} otherwise or if the file can't be read.
+     */
+    @SuppressWarnings({"CatchParameterName", "IllegalIdentifierName"})
+    static boolean isIndex(Path path) {
+        if (!path.getFileName().toString().endsWith(INDEX_SUFFIX)) {
+            return false;
+        }
+        try (InputStream in = Files.newInputStream(path)) {
+            byte[] magic = in.readNBytes(Integer.BYTES);
+            return magic.length == Integer.BYTES && ByteBuffer.wrap(magic).getInt() == MAGIC;
+        } catch (IOException _) {
+            return false;
+        }
+    }
+
+    private static Path getIndexFile(Path file, AnalyzerSettings settings) {
+        String name = file.getFileName().toString();
+        StringBuilder indexName = new StringBuilder(name);
+        if (settings.indexDirectory() != null) {
+            indexName.append('-').append(Integer.toHexString(file.toAbsolutePath().normalize().hashCode()));
+        }
+        if (settings.percentileError() > 0) {
+            indexName.append(".e").append(settings.percentileError());
+        }
+        if (settings.topKCapacity() > 0) {
+            indexName.append(".k").append(settings.topKCapacity());
+        }
+        indexName.append(INDEX_SUFFIX);
+        Path directory = settings.indexDirectory() != null
+            ? settings.indexDirectory()
+            : file.toAbsolutePath().getParent();
+        return directory.resolve(indexName.toString());
+    }
+
+    /**
+     * Makes the index up to date with the file.
+     *
+     * @return the header of the up-to-date index.
+     */
+    private Header update() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long modified = Files.getLastModifiedTime(file).toMillis();
+            Header header = readHeader();
+            if (header != null && header.fileSize() == size && header.modified() == modified
+                && header.hasSameContent(channel)) {
+                return header;
+            }
+            boolean isAppended = header != null && size > header.fileSize() && header.hasSameContent(channel);
+            long indexedSize = FileChunks.findLastLineEnd(channel, size);
+            Header updated = new Header(
+                size,
+                modified,
+                indexedSize,
+                hash(channel, 0, indexedSize),
+                hash(channel, indexedSize - Math.min(indexedSize, HASHED_BYTES), indexedSize),
+                settings.percentileError(),
+                settings.topKCapacity()
+            );
+            write(channel, updated, isAppended ? header : null);
+            return updated;
+        }
+    }
+
+    private Header readHeader() {
+        if (!Files.isRegularFile(indexFile)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(Files.newInputStream(indexFile))) {
+            Header header = Header.read(in);
+            boolean isCompatible = header != null
+                && header.percentileError() == settings.percentileError()
+                && header.topKCapacity() == settings.topKCapacity();
+            return isCompatible ? header : null;
+        } catch (IOException e) {
+            log.warn("Index \"{}\" can't be read, it will be built again.", indexFile, e);
+            return null;
+        }
+    }
+
+    /**
+     * Writes the index to a temporary file, which then replaces the index. If the previous index is given,
+     * its segments are copied and only the lines after its indexed part are indexed.
+     */
+    private void write(FileChannel channel, Header header, Header previous) throws IOException {
+        Path directory = indexFile.toAbsolutePath().getParent();
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, indexFile.getFileName() + ".", ".tmp");
+        try {
+            try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                Files.newOutputStream(temporary)))) {
+                header.write(out);
+                long from = 0;
+                if (previous != null) {
+                    copySegments(out);
+                    from = previous.indexedSize();
+                }
+                writeSegments(channel, new FileChunk(from, header.indexedSize()), out);
+                out.writeBoolean(false);
+            }
+            Files.move(temporary, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temporary);
+            throw e;
+        }
+    }
+
+    private void copySegments(DataOutputStream out) throws IOException {
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(indexFile))) {
+            in.skipNBytes(HEADER_SIZE);
+            long segmentsSize = Files.size(indexFile) - HEADER_SIZE - 1;
+            byte[] buffer = new byte[HASHED_BYTES];
+            for (long copied = 0; copied < segmentsSize;) {
+                int read = in.read(buffer, 0, (int) Math.min(buffer.length, segmentsSize - copied));
+                if (read < 0) {
+                    throw new IOException("Index \"" + indexFile + "\" is truncated.");
+                }
+                out.write(buffer, 0, read);
+                copied += read;
+            }
+        }
+    }
+
+    private void writeSegments(FileChannel channel, FileChunk region, DataOutputStream out) throws IOException {
+        Segment segment = new Segment(out);
+        LineParser parser = settings.parser();
+        LogView view = new LogView();
+        for (var chunk : FileChunks.split(channel, region, 1)) {
+            FileChunks.forEachLine(channel, chunk, (buffer, from, to, position) -> {
+                if (from < to) {
+                    LogFields log = parser.parse(buffer, from, to, view);
+                    segment.add(log, Math.floorDiv(log.epochMillis(), BUCKET_MILLIS) * BUCKET_MILLIS, position);
+                }
+            });
+        }
+        segment.close(region.end());
+    }
+
+    /**
+     * Collects the statistics of the file from the segments of the index and the lines after the indexed part.
+     */
+    private LogStatistics query(Header header) throws IOException {
+        LogStatistics statistics = new LogStatistics(file.toString(), settings);
+        List<FileChunk> edges = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(indexFile)))) {
+            in.skipNBytes(HEADER_SIZE);
+            while (in.readBoolean()) {
+                long minute = in.readLong();
+                FileChunk chunk = new FileChunk(in.readLong(), in.readLong());
+                int length = BinaryCodec.readLength(in);
+                if (isWithinRange(minute)) {
+                    LogStatistics segmentStatistics = new LogStatistics(file.toString(), settings);
+                    segmentStatistics.readFrom(in);
+                    statistics.combine(segmentStatistics);
+                } else {
+                    in.skipNBytes(length);
+                    if (intersectsRange(minute)) {
+                        addEdge(edges, chunk);
+                    }
+                }
+            }
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            addEdge(edges, new FileChunk(header.indexedSize(), channel.size()));
+            LineParser parser = settings.parser();
+            LogFilter filter = LogFilter.compile(settings);
+            LogView view = new LogView();
+            for (var edge : splitEdges(channel, edges, MAX_EDGE_LENGTH)) {
+                FileChunks.forEachLine(channel, edge, (buffer, from, to) -> {
+                    if (from < to && filter.mayMatch(buffer, from, to)) {
+                        LogFields log = parser.parse(buffer, from, to, view);
+                        if (filter.matchesParsed(log)) {
+                            statistics.update(log);
+                        }
+                    }
+                });
+            }
+        }
+        return statistics;
+    }
+
+    /**
+     * Adds the chunk to the edges, joining it with the last edge if they are adjacent, so that consecutive
+     * segments are read as a single region.
+     */
+    private static void addEdge(List<FileChunk> edges, FileChunk chunk) {
+        int last = edges.size() - 1;
+        if (last >= 0 && edges.get(last).end() == chunk.start()) {
+            edges.set(last, new FileChunk(edges.get(last).start(), chunk.end()));
+        } else {
+            edges.add(chunk);
+        }
+    }
+
+    /**
+     * Splits the edges into newline-aligned chunks of at most about the given length, so that every chunk can be
+     * mapped into memory even if the edges cover the whole file, as they do when the logs are filtered.
+     *
+     * @param channel        the channel of the file.
+     * @param edges          the edges to be split, each starting at the beginning of a line.
+     * @param maxChunkLength the desired maximum length of a chunk, at least 1 MiB.
+     * @return the chunks covering the edges in their order.
+     * @throws IOException if an I/O error occurs.
+     */
+    static List<FileChunk> splitEdges(FileChannel channel, List<FileChunk> edges, long maxChunkLength)
+        throws IOException {
+        List<FileChunk> chunks = new ArrayList<>();
+        for (var edge : edges) {
+            chunks.addAll(FileChunks.split(channel, edge, (int) Math.ceilDiv(edge.length(), maxChunkLength)));
+        }
+        return chunks;
+    }
+
+    private boolean isWithinRange(long minute) {
+        return settings.filterParams().isEmpty()
+            && settings.filter() == null
+            && (settings.from() == null || minute > settings.fromEpochMillis())
+            && (settings.to() == null || minute + BUCKET_MILLIS - 1 < settings.toEpochMillis());
+    }
+
+    private boolean intersectsRange(long minute) {
+        return (settings.from() == null || minute + BUCKET_MILLIS - 1 > settings.fromEpochMillis())
+            && (settings.to() == null || minute < settings.toEpochMillis());
+    }
+
+    private static long hash(FileChannel channel, long from, long to) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(HASHED_BYTES, to - from));
+        int read = 0;
+        while (buffer.hasRemaining() && read >= 0) {
+            read = channel.read(buffer, from + buffer.position());
+        }
+        CRC32C crc = new CRC32C();
+        crc.update(buffer.flip());
+        return crc.getValue();
+    }
+
+    /**
+     * The header of the index.
+     *
+     * @param fileSize        the size of the file when it was indexed.
+     * @param modified        the modification time of the file when it was indexed.
+     * @param indexedSize     the size of the indexed part of the file, which ends right after the end of a line.
+     * @param headHash        the hash of the first bytes of the indexed part.
+     * @param tailHash        the hash of the last bytes of the indexed part.
+     * @param percentileError the percentile error of the statistics of the segments.
+     * @param topKCapacity    the top K capacity of the statistics of the segments.
+     */
+    private record Header(
+        long fileSize,
+        long modified,
+        long indexedSize,
+        long headHash,
+        long tailHash,
+        double percentileError,
+        int topKCapacity) {
+
+        static Header read(DataInputStream in) throws IOException {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                return null;
+            }
+            return new Header(
+                in.readLong(),
+                in.readLong(),
+                in.readLong(),
+                in.readLong(),
+                in.readLong(),
+                in.readDouble(),
+                in.readInt()
+            );
+        }
+
+        void write(DataOutputStream out) throws IOException {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(fileSize);
+            out.writeLong(modified);
+            out.writeLong(indexedSize);
+            out.writeLong(headHash);
+            out.writeLong(tailHash);
+            out.writeDouble(percentileError);
+            out.writeInt(topKCapacity);
+        }
+
+        boolean hasSameContent(FileChannel channel) throws IOException {
+            return channel.size() >= indexedSize
+                && hash(channel, 0, indexedSize) == headHash
+                && hash(channel, indexedSize - Math.min(indexedSize, HASHED_BYTES), indexedSize) == tailHash;
+        }
+    }
+
+    /**
+     * The segment being indexed, which is written as soon as a line of another minute follows.
+     */
+    private final class Segment {
+
+        private final DataOutputStream out;
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        private LogStatistics statistics;
+        private long minute;
+        private long start;
+
+        Segment(DataOutputStream out) {
+            this.out = out;
+        }
+
+        void add(LogFields log, long logMinute, long position) {
+            if (statistics != null && logMinute != minute) {
+                close(position);
+            }
+            if (statistics == null) {
+                statistics = new LogStatistics(file.toString(), settings);
+                minute = logMinute;
+                start = position;
+            }
+            statistics.update(log);
+        }
+
+        void close(long end) {
+            if (statistics == null) {
+                return;
+            }
+            try {
+                buffer.reset();
+                statistics.writeTo(new DataOutputStream(buffer));
+                out.writeBoolean(true);
+                out.writeLong(minute);
+                out.writeLong(start);
+                out.writeLong(end);
+                out.writeInt(buffer.size());
+                buffer.writeTo(out);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            statistics = null;
+        }
+    }
+}
@@ -0,0 +1,341 @@
+package analyzer.statistics;
+
+import analyzer.filter.FilterField;
+import analyzer.io.Compression;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+import lombok.experimental.UtilityClass;
+
+/**
+ * A class that allows to save the complete state of statistics and to load it later, for example to merge
+ * the statistics of logs analyzed on different machines or at different times.
+ * <p>Statistics are saved either as gzip-compressed binary snapshots, which are compact and start with
+ * magic bytes, so that they are recognized among logs, or as JSON documents, which also contain the reported
+ * values for other tools. Both formats contain the settings that determine how the data is estimated,
+ * so loaded statistics are merged only with statistics collected in the same way.</p>
+ */
+@UtilityClass
+public class StatisticsSnapshots {
+
+    private static final int MAGIC = 0x4C505354;
+    private static final int VERSION = 1;
+    private static final String FORMAT = "logparser-statistics";
+
+    private static final JsonFactory JSON_FACTORY = JsonFactory.builder()
+        .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+        .build();
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    /**
+     * Writes the statistics as a binary snapshot. The stream isn't closed.
+     *
+     * @param statistics the statistics to be written.
+     * @param out        the stream to write to.
+     * @throws IOException if an I/O error occurs.
+     */
+    public static void write(LogStatistics statistics, OutputStream out) throws IOException {
+        GZIPOutputStream compressed = new GZIPOutputStream(out);
+        DataOutputStream data = new DataOutputStream(new BufferedOutputStream(compressed));
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        writeSettings(statistics.settings(), data);
+        List<String> sources = statistics.sources();
+        data.writeInt(sources.size());
+        for (var source : sources) {
+            data.writeUTF(source);
+        }
+        statistics.writeTo(data);
+        data.flush();
+        compressed.finish();
+    }
+
+    /**
+     * Reads the statistics from a binary snapshot written by {@link #write(LogStatistics, OutputStream)}.
+     *
+     * @param in the stream to read from.
+     * @return the statistics with the settings they were collected with.
+     * @throws IOException if an I/O error occurs or the stream doesn't contain a valid snapshot.
+     */
+    public static LogStatistics read(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(new BufferedInputStream(Compression.decompress(in)));
+        if (data.readInt() != MAGIC) {
+            throw new IOException("Not a statistics snapshot.");
+        }
+        int version = data.readInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported version of the statistics snapshot: " + version + ".");
+        }
+        AnalyzerSettings settings = readSettings(data);
+        int size = data.readInt();
+        if (size <= 0) {
+            throw new IOException("Corrupted data: a snapshot without sources.");
+        }
+        List<String> sources = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            sources.add(data.readUTF());
+        }
+        LogStatistics statistics = newStatistics(sources, settings);
+        statistics.readFrom(data);
+        return statistics;
+    }
+
+    /**
+     * Writes the statistics as a JSON document. The writer isn't closed.
+     *
+     * @param statistics the statistics to be written.
+     * @param out        the writer to write to.
+     * @throws IOException if an I/O error occurs.
+     */
+    public static void writeJson(LogStatistics statistics, Writer out) throws IOException {
+        try (JsonGenerator json = JSON_FACTORY.createGenerator(out)) {
+            json.writeStartObject();
+            json.writeStringField("format", FORMAT);
+            json.writeNumberField("version", VERSION);
+            json.writeArrayFieldStart("sources");
+            for (var source : statistics.sources()) {
+                json.writeString(source);
+            }
+            json.writeEndArray();
+            json.writeFieldName("settings");
+            writeSettings(statistics.settings(), json);
+            statistics.writeJson(json);
+            json.writeEndObject();
+        }
+    }
+
+    /**
+     * Reads the statistics from a JSON document written by {@link #writeJson(LogStatistics, Writer)}.
+     *
+     * @param in the reader to read from.
+     * @return the statistics with the settings they were collected with.
+     * @throws IOException if an I/O error occurs or the reader doesn't contain a valid document.
+     */
+    public static LogStatistics readJson(Reader in) throws IOException {
+        JsonNode node = OBJECT_MAPPER.readTree(in);
+        if (node == null || !node.isObject() || !FORMAT.equals(node.path("format").textValue())) {
+            throw new IOException("Not a statistics document.");
+        }
+        long version = JsonCodec.getLong(node, "version");
+        if (version != VERSION) {
+            throw new IOException("Unsupported version of the statistics document: " + version + ".");
+        }
+        AnalyzerSettings settings = readSettings(JsonCodec.get(node, "settings"));
+        List<String> sources = new ArrayList<>();
+        for (var source : JsonCodec.getArray(node, "sources")) {
+            if (!source.isTextual()) {
+                throw new IOException("Corrupted data: " + source + " isn't a source.");
+            }
+            sources.add(source.textValue());
+        }
+        if (sources.isEmpty()) {
+            throw new IOException("Corrupted data: a document without sources.");
+        }
+        LogStatistics statistics = newStatistics(sources, settings);
+        statistics.readJson(node);
+        return statistics;
+    }
+
+    /**
+     * Checks whether the file is a binary snapshot written by {@link #write(LogStatistics, OutputStream)}.
+     *
+     * @param path the path of the file.
+     * @return {@code true} if the decompressed file starts with the magic bytes of snapshots,
+     *     {@code false} otherwise.
+     * @throws IOException if an I/O error occurs.
+     */
+    public static boolean isSnapshot(Path path) throws IOException {
+        if (Compression.detect(path) == Compression.ZSTD) {
+            return false;
+        }
+        try (InputStream in = Compression.open(path)) {
+            byte[] magic = in.readNBytes(Integer.BYTES);
+            return magic.length == Integer.BYTES && ByteBuffer.wrap(magic).getInt() == MAGIC;
+        }
+    }
+
+    /**
+     * Loads a binary snapshot into empty statistics created with the settings, so that the loaded statistics
+     * are reported and merged like the statistics of logs analyzed with these settings.
+     *
+     * @param path     the path of the snapshot.
+     * @param settings the settings of the analysis.
+     * @return the loaded statistics.
+     * @throws IOException if an I/O error occurs, the file isn't a valid snapshot or the snapshot was collected
+     *                     with settings that estimate percentiles or frequencies or group logs in other ways.
+     */
+    public static LogStatistics load(Path path, AnalyzerSettings settings) throws IOException {
+        LogStatistics snapshot;
+        try (InputStream in = Files.newInputStream(path)) {
+            snapshot = read(in);
+        }
+        LogStatistics statistics = new LogStatistics(snapshot.sources().getFirst(), settings);
+        try {
+            return statistics.combine(snapshot);
+        } catch (IllegalArgumentException e) {
+            throw new IOException("The snapshot \"" + path + "\" was collected with other settings: "
+                + e.getMessage(), e);
+        }
+    }
+
+    private static LogStatistics newStatistics(List<String> sources, AnalyzerSettings settings) {
+        LogStatistics statistics = new LogStatistics(sources.getFirst(), settings);
+        statistics.addSources(sources);
+        return statistics;
+    }
+
+    private static void writeSettings(AnalyzerSettings settings, DataOutput out) throws IOException {
+        writeNullable(out, settings.from() == null ? null : settings.from().toString());
+        writeNullable(out, settings.to() == null ? null : settings.to().toString());
+        out.writeInt(settings.topK());
+        out.writeInt(settings.topKCapacity());
+        out.writeDouble(settings.percentileError());
+        out.writeInt(settings.percentiles().size());
+        for (var percentile : settings.percentiles()) {
+            out.writeDouble(percentile);
+        }
+        out.writeInt(settings.groupBy().size());
+        for (var field : settings.groupBy()) {
+            out.writeUTF(field.fieldName());
+        }
+        writeNullable(out, settings.timeBucket() == null ? null : settings.timeBucket().bucketName());
+        out.writeInt(settings.groupLimit());
+    }
+
+    private static AnalyzerSettings readSettings(DataInput in) throws IOException {
+        AnalyzerSettings.AnalyzerSettingsBuilder builder = AnalyzerSettings.builder()
+            .from(toDateTime(readNullable(in)))
+            .to(toDateTime(readNullable(in)))
+            .topK(in.readInt())
+            .topKCapacity(in.readInt())
+            .percentileError(in.readDouble());
+        List<Double> percentiles = new ArrayList<>();
+        int size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            percentiles.add(in.readDouble());
+        }
+        List<FilterField> groupBy = new ArrayList<>();
+        size = in.readInt();
+        for (int i = 0; i < size; i++) {
+            groupBy.add(toField(in.readUTF()));
+        }
+        return builder.percentiles(percentiles)
+            .groupBy(groupBy)
+            .timeBucket(toTimeBucket(readNullable(in)))
+            .groupLimit(in.readInt())
+            .build();
+    }
+
+    private static void writeSettings(AnalyzerSettings settings, JsonGenerator out) throws IOException {
+        out.writeStartObject();
+        out.writeStringField("from", settings.from() == null ? null : settings.from().toString());
+        out.writeStringField("to", settings.to() == null ? null : settings.to().toString());
+        out.writeNumberField("topK", settings.topK());
+        out.writeNumberField("topKCapacity", settings.topKCapacity());
+        out.writeNumberField("percentileError", settings.percentileError());
+        out.writeArrayFieldStart("percentiles");
+        for (var percentile : settings.percentiles()) {
+            out.writeNumber(percentile);
+        }
+        out.writeEndArray();
+        out.writeArrayFieldStart("groupBy");
+        for (var field : settings.groupBy()) {
+            out.writeString(field.fieldName());
+        }
+        out.writeEndArray();
+        out.writeStringField("timeBucket", settings.timeBucket() == null ? null : settings.timeBucket().bucketName());
+        out.writeNumberField("groupLimit", settings.groupLimit());
+        out.writeEndObject();
+    }
+
+    private static AnalyzerSettings readSettings(JsonNode node) throws IOException {
+        List<Double> percentiles = new ArrayList<>();
+        for (var percentile : JsonCodec.getArray(node, "percentiles")) {
+            if (!percentile.isNumber()) {
+                throw new IOException("Corrupted data: " + percentile + " isn't a percentile.");
+            }
+            percentiles.add(percentile.doubleValue());
+        }
+        List<FilterField> groupBy = new ArrayList<>();
+        for (var field : JsonCodec.getArray(node, "groupBy")) {
+            groupBy.add(toField(field.asText()));
+        }
+        JsonNode percentileError = JsonCodec.get(node, "percentileError");
+        if (!percentileError.isNumber()) {
+            throw new IOException("Corrupted data: " + percentileError + " isn't a percentile error.");
+        }
+        return AnalyzerSettings.builder()
+            .from(toDateTime(JsonCodec.getString(node, "from")))
+            .to(toDateTime(JsonCodec.getString(node, "to")))
+            .topK(JsonCodec.getInt(node, "topK"))
+            .topKCapacity(JsonCodec.getInt(node, "topKCapacity"))
+            .percentileError(percentileError.doubleValue())
+            .percentiles(percentiles)
+            .groupBy(groupBy)
+            .timeBucket(toTimeBucket(JsonCodec.getString(node, "timeBucket")))
+            .groupLimit(JsonCodec.getInt(node, "groupLimit"))
+            .build();
+    }
+
+    private static void writeNullable(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeUTF(value);
+        }
+    }
+
+    private static String readNullable(DataInput in) throws IOException {
+        return in.readBoolean() ? in.readUTF() : null;
+    }
+
+    private static OffsetDateTime toDateTime(String value) throws IOException {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return OffsetDateTime.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new IOException("Corrupted data: \"" + value + "\" isn't a date and time.", e);
+        }
+    }
+
+    private static FilterField toField(String name) throws IOException {
+        FilterField field = FilterField.of(name);
+        if (field == null) {
+            throw new IOException("Corrupted data: unknown field \"" + name + "\".");
+        }
+        return field;
+    }
+
+    private static TimeBucket toTimeBucket(String name) throws IOException {
+        if (name == null) {
+            return null;
+        }
+        TimeBucket bucket = TimeBucket.of(name);
+        if (bucket == null) {
+            throw new IOException("Corrupted data: unknown time bucket \"" + name + "\".");
+        }
+        return bucket;
+    }
+}
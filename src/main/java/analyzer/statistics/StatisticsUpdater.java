@@ -0,0 +1,63 @@
+package analyzer.statistics;
+
+import analyzer.io.LineBlock;
+import analyzer.parser.LineParser;
+import analyzer.parser.LogBatch;
+import analyzer.parser.LogFields;
+
+/**
+ * Parses lines and takes those that match the settings into account in the statistics. Lines rejected by
+ * the filter parameters found in the unparsed line aren't parsed.
+ * <p>The matching logs are collected into a {@link LogBatch}, which is passed to
+ * {@link LogStatistics#updateBatch(LogBatch)} when it's full and at the end of each block of lines.</p>
+ * <p>An updater reuses a single batch, so it must be used by one thread at a time.</p>
+ */
+final class StatisticsUpdater {
+
+    private final LogStatistics statistics;
+    private final LogFilter filter;
+    private final LineParser parser;
+    private final LogBatch batch = new LogBatch();
+
+    StatisticsUpdater(LogStatistics statistics, AnalyzerSettings settings) {
+        this.statistics = statistics;
+        filter = LogFilter.compile(settings);
+        parser = settings.parser();
+    }
+
+    /**
+     * Takes the lines of the bytes into account, the bytes after the last line terminator being the last line.
+     *
+     * @param lines the bytes of the lines.
+     */
+    void update(byte[] lines) {
+        update(new LineBlock(lines, 0, lines.length));
+    }
+
+    /**
+     * Takes the lines of the block into account. All logs of the block are aggregated when the method returns,
+     * so the array of the block may be reused afterward.
+     *
+     * @param block the block of lines.
+     */
+    void update(LineBlock block) {
+        block.forEachLine(this::add);
+        flush();
+    }
+
+    private void add(byte[] buffer, int from, int to) {
+        if (from < to && filter.mayMatch(buffer, from, to)) {
+            LogFields log = parser.parse(buffer, from, to, batch.view());
+            if (filter.matchesParsed(log) && batch.add(log)) {
+                flush();
+            }
+        }
+    }
+
+    private void flush() {
+        if (batch.size() > 0) {
+            statistics.updateBatch(batch);
+            batch.clear();
+        }
+    }
+}
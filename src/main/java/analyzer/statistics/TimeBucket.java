@@ -0,0 +1,65 @@
+package analyzer.statistics;
+
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * The periods of time logs can be grouped by. Buckets are aligned to the epoch in UTC, so that the bucket
+ * of a log doesn't depend on the time zone offset it was written with.
+ */
+public enum TimeBucket {
+    MINUTE(60_000L),
+    HOUR(3_600_000L),
+    DAY(86_400_000L);
+
+    private final long millis;
+
+    TimeBucket(long millis) {
+        this.millis = millis;
+    }
+
+    /**
+     * Returns the bucket with the specified name.
+     *
+     * @param name the case-insensitive name of the bucket: {@code minute}, {@code hour} or {@code day}.
+     * @return the bucket with the specified name, {@code null} if there is no such bucket.
+     */
+    public static TimeBucket of(String name) {
+        return Arrays.stream(values())
+            .filter(bucket -> bucket.name().equalsIgnoreCase(name.strip()))
+            .findFirst()
+            .orElse(null);
+    }
+
+    /**
+     * Returns the name of the bucket used in the command line and in the reports.
+     *
+     * @return the lower-case name of the bucket.
+     */
+    public String bucketName() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns the number of the bucket containing the moment.
+     *
+     * @param epochMillis the moment in milliseconds from the epoch.
+     * @return the number of buckets between the epoch and the moment, rounded down.
+     */
+    public long bucketNumber(long epochMillis) {
+        return Math.floorDiv(epochMillis, millis);
+    }
+
+    /**
+     * Returns the start of the bucket with the specified number.
+     *
+     * @param bucketNumber the number of the bucket.
+     * @return the date and time the bucket starts at, in UTC.
+     */
+    public OffsetDateTime start(long bucketNumber) {
+        return OffsetDateTime.ofInstant(Instant.ofEpochMilli(bucketNumber * millis), ZoneOffset.UTC);
+    }
+}
@@ -0,0 +1,99 @@
+package analyzer.statistics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.math.BigInteger;
+
+/**
+ * A counter that accumulates values in a primitive {@code long} and spills into {@link BigInteger}
+ * only when the {@code long} would overflow, so that counting does not allocate in the common case.
+ */
+final class WideCounter {
+
+    private long value;
+
+    private BigInteger overflow = BigInteger.ZERO;
+
+    /**
+     * Checks whether {@code sum}, computed as {@code first + second} in {@code long} arithmetic, has overflowed.
+     *
+     * @param first  the first summand.
+     * @param second the second summand.
+     * @param sum    the result of the {@code long} addition of the summands.
+     * @return {@code true} if the addition has overflowed, {@code false} otherwise.
+     */
+    static boolean isOverflow(long first, long second, long sum) {
+        return ((first ^ sum) & (second ^ sum)) < 0;
+    }
+
+    /**
+     * Adds the value to the counter.
+     *
+     * @param delta the value to be added.
+     */
+    void add(long delta) {
+        long sum = value + delta;
+        if (isOverflow(value, delta, sum)) {
+            overflow = overflow.add(BigInteger.valueOf(value)).add(BigInteger.valueOf(delta));
+            value = 0;
+        } else {
+            value = sum;
+        }
+    }
+
+    /**
+     * Adds the value to the counter.
+     *
+     * @param delta the value to be added.
+     */
+    void add(BigInteger delta) {
+        overflow = overflow.add(delta);
+    }
+
+    /**
+     * Adds the value accumulated by another counter to this one.
+     *
+     * @param other the counter whose value is to be added.
+     */
+    void add(WideCounter other) {
+        add(other.value);
+        if (other.overflow.signum() != 0) {
+            add(other.overflow);
+        }
+    }
+
+    /**
+     * Returns the accumulated value.
+     *
+     * @return the accumulated value.
+     */
+    BigInteger get() {
+        return overflow.add(BigInteger.valueOf(value));
+    }
+
+    /**
+     * Writes the accumulated value.
+     *
+     * @param out the output to write to.
+     * @throws IOException if an I/O error occurs.
+     */
+    void writeTo(DataOutput out) throws IOException {
+        out.writeLong(value);
+        BinaryCodec.writeBigInteger(out, overflow);
+    }
+
+    /**
+     * Reads the value written by {@link #writeTo(DataOutput)} and adds it to the counter.
+     *
+     * @param in the input to read from.
+     * @throws IOException if an I/O error occurs.
+     */
+    void readFrom(DataInput in) throws IOException {
+        add(in.readLong());
+        BigInteger readOverflow = BinaryCodec.readBigInteger(in);
+        if (readOverflow.signum() != 0) {
+            add(readOverflow);
+        }
+    }
+}
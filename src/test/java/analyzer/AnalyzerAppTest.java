@@ -11,7 +11,9 @@ import java.net.URI;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Stream;
 import lombok.extern.log4j.Log4j2;
 import org.junit.jupiter.api.AfterAll;
@@ -20,6 +22,7 @@ import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -105,6 +108,12 @@ class AnalyzerAppTest {
         assertThat(output.toString()).isNotEmpty();
     }
 
+    private static String getOutput(String... args) {
+        OutputStream fileOutput = new ByteArrayOutputStream();
+        new AnalyzerApp(fileOutput).getStatistics(args);
+        return fileOutput.toString();
+    }
+
     @BeforeAll
     public static void prepareTestDirectoriesWithFiles() throws IOException {
         Files.createDirectory(TEST_FILES_ROOT_DIR);
@@ -142,6 +151,25 @@ class AnalyzerAppTest {
         assertDoesntThrowAndNotEmptyOutput(args);
     }
 
+    @Test
+    @DisplayName("Indexing a directory twice test.")
+    public void indexingDirectoryTwiceTest_ExpectSameReportsAndNoIndexesOfIndexes(@TempDir Path directory)
+        throws IOException {
+        Files.copy(
+            Objects.requireNonNull(AnalyzerAppTest.class.getResourceAsStream("/logs/logs.txt")),
+            directory.resolve("access.log")
+        );
+        String first = getOutput("--path", directory.toString(), "--index");
+        assertThat(directory.resolve("access.log.idx")).exists();
+        String second = getOutput("--path", directory.toString(), "--index");
+        assertThat(second).isNotEmpty().isEqualTo(first);
+        assertThat(getOutput("--path", directory + File.separator + "*", "--index")).isEqualTo(first);
+        try (Stream<Path> files = Files.list(directory)) {
+            assertThat(files.map(file -> file.getFileName().toString()))
+                .containsExactlyInAnyOrder("access.log", "access.log.idx");
+        }
+    }
+
     @Test
     @DisplayName("Invalid paths test.")
     public void invalidPathsTest_ExpectNoException() {
@@ -202,6 +230,122 @@ class AnalyzerAppTest {
         });
     }
 
+    @Test
+    @DisplayName("Valid parser test.")
+    public void validParserTest_ExpectNotEmptyOutput() {
+        assertDoesntThrowAndNotEmptyOutput(List.of(
+            "--path", TEST_FILES_ROOT_DIR + File.separator + "*.txt",
+            "--parser", "scanner"
+        ));
+    }
+
+    @Test
+    @DisplayName("Invalid parser test.")
+    public void invalidParserTest_ExpectNoException() {
+        assertDoesntThrowAndEmptyOutput(new String[] {
+            "--path", TEST_FILES_ROOT_DIR + File.separator + "*.txt",
+            "--parser", "unknown_parser"
+        });
+    }
+
+    @Test
+    @DisplayName("Valid percentiles test.")
+    public void validPercentilesTest_ExpectRequestedPercentiles() {
+        assertDoesntThrowAndNotEmptyOutput(List.of(
+            "--path", TEST_FILES_ROOT_DIR + File.separator + "*.txt",
+            "--percentiles", "50", "99.9",
+            "--percentile-error", "0.01"
+        ));
+        assertThat(output.toString())
+            .contains("50p response's size's", "99.9p response's size's")
+            .doesNotContain("95p response's size's");
+    }
+
+    @Test
+    @DisplayName("Invalid percentiles test.")
+    public void invalidPercentilesTest_ExpectNoException() {
+        assertDoesntThrowAndEmptyOutput(new String[] {
+            "--path", TEST_FILES_ROOT_DIR + File.separator + "*.txt",
+            "--percentiles", "101"
+        });
+    }
+
+    @Test
+    @DisplayName("Invalid percentile error test.")
+    public void invalidPercentileErrorTest_ExpectNoException() {
+        assertDoesntThrowAndEmptyOutput(new String[] {
+            "--path", TEST_FILES_ROOT_DIR + File.separator + "*.txt",
+            "--percentile-error", "1"
+        });
+        assertDoesntThrowAndEmptyOutput(new String[] {
+            "--path", TEST_FILES_ROOT_DIR + File.separator + "*.txt",
+            "--percentile-error", "0.00009"
+        });
+    }
+
+    @Test
+    @DisplayName("Approximate top-K test.")
+    public void approximateTopKTest_ExpectNotEmptyOutput() {
+        assertDoesntThrowAndNotEmptyOutput(List.of(
+            "--path", TEST_FILES_ROOT_DIR + File.separator + "*.txt",
+            "--top-k", "5",
+            "--top-k-capacity", "2"
+        ));
+        assertThat(output.toString()).contains("error <= ");
+    }
+
+    @Test
+    @DisplayName("Invalid top-K test.")
+    public void invalidTopKTest_ExpectNoException() {
+        assertDoesntThrowAndEmptyOutput(new String[] {
+            "--path", TEST_FILES_ROOT_DIR + File.separator + "*.txt",
+            "--top-k", "0"
+        });
+    }
+
+    @Test
+    @DisplayName("Aggregate report test.")
+    public void aggregateReportTest_ExpectSingleReportForAllFiles() {
+        assertDoesntThrowAndNotEmptyOutput(List.of(
+            "--path", TEST_FILES_ROOT_DIR + File.separator + "*.txt",
+            "--aggregate"
+        ));
+        assertThat(output.toString())
+            .containsOnlyOnce("General information")
+            .contains(TEST_FILES.getFirst().toString(), TEST_FILES.getLast().toString());
+    }
+
+    @Test
+    @DisplayName("Concurrent sources test.")
+    public void concurrentSourcesTest_ExpectReportsInOrderOfSources() {
+        List<String> args = new ArrayList<>(List.of("--path"));
+        StringBuilder expected = new StringBuilder();
+        for (var file : TEST_FILES.reversed()) {
+            args.add(file.toString());
+            expected.append(getOutput("--path", file.toString(), "--threads", "1"));
+        }
+        args.addAll(List.of("--threads", "2"));
+        assertDoesntThrowAndNotEmptyOutput(args);
+        assertThat(output.toString()).isEqualTo(expected.toString());
+    }
+
+    @Test
+    @DisplayName("Concurrent sources with invalid source test.")
+    public void concurrentSourcesWithInvalidSourceTest_ExpectReportsOfValidSources() throws IOException {
+        Path invalidFile = TEST_FILES_ROOT_DIR.resolve("invalidLogs.log");
+        Files.writeString(invalidFile, "invalid log" + System.lineSeparator());
+        try {
+            String expected = getOutput("--path", TEST_FILES.getFirst().toString());
+            assertDoesntThrowAndNotEmptyOutput(List.of(
+                "--path", invalidFile.toString(), TEST_FILES.getFirst().toString(),
+                "--threads", "2"
+            ));
+            assertThat(output.toString()).isEqualTo(System.lineSeparator() + expected);
+        } finally {
+            Files.delete(invalidFile);
+        }
+    }
+
     @ParameterizedTest
     @MethodSource("getValidLogFieldFilter")
     @DisplayName("Valid log field filter test.")
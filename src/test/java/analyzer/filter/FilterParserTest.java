@@ -0,0 +1,145 @@
+package analyzer.filter;
+
+import analyzer.error.InvalidFilterException;
+import analyzer.parser.Log;
+import analyzer.parser.LogParser;
+import java.nio.charset.StandardCharsets;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("FilterParser test.")
+class FilterParserTest {
+
+    private static final String LINE = "217.168.17.5 - - [17/May/2015:08:05:34 +0000] "
+        + "\"GET /downloads/product_2 HTTP/1.1\" 404 337 \"-\" \"Debian APT-HTTP/1.3 (0.8.10.3)\"";
+
+    private static final String IPV6_LINE = "2001:db8::1 - - [17/May/2015:08:05:34 +0000] "
+        + "\"HEAD /index.html HTTP/1.1\" 200 0 \"http://a.b/c d\" \"curl/7.1\"";
+
+    private static Stream<Arguments> getMatchingExpressions() {
+        return Stream.of(
+            Arguments.of("httpStatus = 404", true),
+            Arguments.of("httpStatus == \"404\"", true),
+            Arguments.of("httpStatus != 404", false),
+            Arguments.of("httpStatus >= 400 and httpStatus < 500", true),
+            Arguments.of("httpStatus > 404 || bodyBytesSent <= 337", true),
+            Arguments.of("httpStatus in 200..299", false),
+            Arguments.of("bodyBytesSent in 300..400", true),
+            Arguments.of("method in (HEAD, GET)", true),
+            Arguments.of("method in (POST)", false),
+            Arguments.of("remoteAddress in 217.168.0.0/16", true),
+            Arguments.of("remoteAddress in 217.169.0.0/16", false),
+            Arguments.of("remoteAddress in 0.0.0.0/0", true),
+            Arguments.of("remoteAddress in ::/0", false),
+            Arguments.of("remoteAddress ^= 217.", true),
+            Arguments.of("path glob /downloads/*", true),
+            Arguments.of("path glob /*", false),
+            Arguments.of("path glob \"/**/product_?\"", true),
+            Arguments.of("httpUserAgent ~ \"(?i)debian\"", true),
+            Arguments.of("httpUserAgent !~ APT", false),
+            Arguments.of("httpRequest ^= \"GET /downloads\" AND NOT httpReferer = \"-\"", false),
+            Arguments.of("not (httpStatus = 200 or method = POST) && remoteUser = \"-\"", true),
+            Arguments.of("!!(httpStatus = 404)", true),
+            Arguments.of("dateTime ^= 2015-05-17T08:05", true),
+            Arguments.of("httpStatus = 200 or httpStatus = 404 and method = POST", false),
+            Arguments.of("(httpStatus = 200 or httpStatus = 404) and method = GET", true)
+        );
+    }
+
+    private static Stream<Arguments> getIpv6Expressions() {
+        return Stream.of(
+            Arguments.of("remoteAddress in 2001:db8::/32", true),
+            Arguments.of("remoteAddress in 2001:db9::/32", false),
+            Arguments.of("remoteAddress in 0.0.0.0/0", false),
+            Arguments.of("httpReferer = \"http://a.b/c d\" and httpUserAgent ^= curl", true),
+            Arguments.of("bodyBytesSent < 1 and method = HEAD and path glob \"/*.html\"", true)
+        );
+    }
+
+    private static Stream<String> getInvalidExpressions() {
+        return Stream.of(
+            "",
+            "httpStatus",
+            "httpStatus =",
+            "unknown = 1",
+            "httpStatus = 404 and",
+            "httpStatus = 404 404",
+            "(httpStatus = 404",
+            "httpStatus = 404)",
+            "httpStatus ~ \"(\"",
+            "httpStatus in (200, 404",
+            "httpStatus in 200",
+            "httpStatus > abc",
+            "httpStatus > -1",
+            "httpStatus in 1..99999999999999999999",
+            "remoteAddress > 1",
+            "remoteAddress in 10.0.0.0/33",
+            "remoteAddress in 10.0.0/8",
+            "remoteAddress in example.com/8",
+            "httpReferer in a..b",
+            "httpUserAgent = \"unterminated",
+            "httpStatus like 404",
+            "httpStatus = 404 & method = GET"
+        );
+    }
+
+    private static void assertMatches(String line, String expression, boolean expected) {
+        FilterExpression filter = FilterParser.parse(expression);
+        Log log = LogParser.parse(line);
+        assertThat(filter.matches(log)).as(expression).isEqualTo(expected);
+        assertThat(filter.ordered().matches(log)).as(expression).isEqualTo(expected);
+        if (filter.isFoundInLine()) {
+            EnumSet<FilterField.LinePart> parts = EnumSet.allOf(FilterField.LinePart.class);
+            byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+            LineFields byteFields = LineFields.locate(bytes, 0, bytes.length, parts);
+            LineFields stringFields = LineFields.locate(line, parts);
+            assertThat(byteFields).isNotNull();
+            assertThat(stringFields).isNotNull();
+            assertThat(filter.matches(byteFields)).as(expression).isEqualTo(expected);
+            assertThat(filter.matches(stringFields)).as(expression).isEqualTo(expected);
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("getMatchingExpressions")
+    @DisplayName("Evaluating expressions test.")
+    public void evaluatingExpressionTest_ExpectExpectedResult(String expression, boolean expected) {
+        assertMatches(LINE, expression, expected);
+    }
+
+    @ParameterizedTest
+    @MethodSource("getIpv6Expressions")
+    @DisplayName("Evaluating expressions on log with IPv6 address test.")
+    public void evaluatingIpv6ExpressionTest_ExpectExpectedResult(String expression, boolean expected) {
+        assertMatches(IPV6_LINE, expression, expected);
+    }
+
+    @ParameterizedTest
+    @MethodSource("getInvalidExpressions")
+    @DisplayName("Parsing invalid expressions test.")
+    public void parsingInvalidExpressionTest_ExpectInvalidFilterException(String expression) {
+        Assertions.assertThrows(InvalidFilterException.class, () -> FilterParser.parse(expression));
+    }
+
+    @Test
+    @DisplayName("Ordering expression test.")
+    public void orderingExpressionTest_ExpectFlattenedOperandsOrderedByCost() {
+        FilterExpression ordered = FilterParser.parse(
+            "httpUserAgent ~ curl and (remoteAddress in 10.0.0.0/8 and httpStatus = 200) and not not method = GET"
+        ).ordered();
+        assertThat(ordered).isInstanceOf(FilterExpression.And.class);
+        assertThat(ordered.fields().toList()).isEqualTo(List.of(
+            FilterField.HTTP_STATUS, FilterField.HTTP_METHOD, FilterField.REMOTE_ADDRESS, FilterField.HTTP_USER_AGENT
+        ));
+        assertThat(((FilterExpression.And) ordered).operands())
+            .allMatch(operand -> operand instanceof FilterExpression.Condition);
+    }
+}
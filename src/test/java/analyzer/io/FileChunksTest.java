@@ -0,0 +1,108 @@
+package analyzer.io;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("FileChunks test.")
+class FileChunksTest {
+
+    private static final int LINES_NUMBER = 100_000;
+
+    @TempDir
+    private Path directory;
+
+    private static Stream<Integer> getChunksNumbers() {
+        return Stream.of(1, 2, 3, 8, 64);
+    }
+
+    private static List<String> getLines() {
+        return IntStream.range(0, LINES_NUMBER)
+            .mapToObj(i -> "line number " + i + " " + "x".repeat(i % 37))
+            .toList();
+    }
+
+    private Path writeFile(String content) throws IOException {
+        Path file = directory.resolve("chunks.txt");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        return file;
+    }
+
+    private static List<String> readLines(Path file, int chunksNumber) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<FileChunk> chunks = FileChunks.split(channel, chunksNumber);
+            for (var chunk : chunks) {
+                FileChunks.forEachLine(channel, chunk, (buffer, from, to) ->
+                    lines.add(new String(buffer, from, to - from, StandardCharsets.UTF_8)));
+            }
+        }
+        return lines;
+    }
+
+    @ParameterizedTest
+    @MethodSource("getChunksNumbers")
+    @DisplayName("Chunks cover the whole file and are aligned to lines test.")
+    public void splittingTest_ExpectNewlineAlignedChunks(int chunksNumber) throws IOException {
+        Path file = writeFile(String.join("\n", getLines()));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            List<FileChunk> chunks = FileChunks.split(channel, chunksNumber);
+            assertThat(chunks.getFirst().start()).isZero();
+            assertThat(chunks.getLast().end()).isEqualTo(channel.size());
+            byte[] content = Files.readAllBytes(file);
+            for (int i = 1; i < chunks.size(); i++) {
+                assertThat(chunks.get(i).start()).isEqualTo(chunks.get(i - 1).end());
+                assertThat(content[(int) chunks.get(i).start() - 1]).isEqualTo((byte) '\n');
+            }
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("getChunksNumbers")
+    @DisplayName("Reading lines of chunks test.")
+    public void readingLinesTest_ExpectAllLinesInOrder(int chunksNumber) throws IOException {
+        List<String> lines = getLines();
+        Path file = writeFile(String.join("\r\n", lines) + "\n");
+        assertThat(readLines(file, chunksNumber)).containsExactlyElementsOf(lines);
+    }
+
+    @Test
+    @DisplayName("Reading blocks with lines longer than a window test.")
+    public void readingBlocksTest_ExpectCompleteLinesInBlocks() throws IOException {
+        List<String> lines = IntStream.range(0, 5_000)
+            .mapToObj(i -> i % 1_000 == 0 ? "long line " + "y".repeat(3 << 20) : "line " + i + "x".repeat(i % 300))
+            .toList();
+        Path file = writeFile(String.join("\n", lines));
+        List<String> blockLines = new ArrayList<>();
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            for (var chunk : FileChunks.split(channel, 2)) {
+                FileChunks.forEachBlock(channel, chunk, block -> block.forEachLine((buffer, from, to) ->
+                    blockLines.add(new String(buffer, from, to - from, StandardCharsets.UTF_8))));
+            }
+        }
+        assertThat(blockLines).containsExactlyElementsOf(lines);
+        assertThat(readLines(file, 3)).containsExactlyElementsOf(lines);
+    }
+
+    @Test
+    @DisplayName("Empty file test.")
+    public void emptyFileTest_ExpectNoChunks() throws IOException {
+        Path file = writeFile("");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertThat(FileChunks.split(channel, 4)).isEmpty();
+        }
+    }
+}
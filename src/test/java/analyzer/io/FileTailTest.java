@@ -0,0 +1,73 @@
+package analyzer.io;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("FileTail test.")
+class FileTailTest {
+
+    @TempDir
+    private Path directory;
+
+    private static List<String> readLines(FileTail tail) throws IOException {
+        List<String> lines = new ArrayList<>();
+        tail.read((buffer, from, to) -> lines.add(new String(buffer, from, to - from, StandardCharsets.UTF_8)));
+        return lines;
+    }
+
+    private static void append(Path file, String content) throws IOException {
+        Files.writeString(file, content, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Test
+    @DisplayName("Reading appended lines test.")
+    public void readingAppendedLinesTest_ExpectOnlyCompleteNewLines() throws IOException {
+        Path file = directory.resolve("access.log");
+        append(file, "old 1\nold 2\nold");
+        try (FileTail tail = new FileTail(file, true)) {
+            assertThat(readLines(tail)).isEmpty();
+            append(file, " 3\r\nnew 1\nnew");
+            assertThat(readLines(tail)).containsExactly("old 3", "new 1");
+            assertThat(readLines(tail)).isEmpty();
+            append(file, " 2\n" + "x".repeat(1 << 17) + "\n");
+            assertThat(readLines(tail)).containsExactly("new 2", "x".repeat(1 << 17));
+        }
+    }
+
+    @Test
+    @DisplayName("Reading a truncated file test.")
+    public void readingTruncatedFileTest_ExpectLinesFromBeginning() throws IOException {
+        Path file = directory.resolve("access.log");
+        append(file, "old 1\nold 2\n");
+        try (FileTail tail = new FileTail(file, true)) {
+            readLines(tail);
+            Files.writeString(file, "new 1\n");
+            assertThat(readLines(tail)).containsExactly("new 1");
+        }
+    }
+
+    @Test
+    @DisplayName("Reading a rotated file test.")
+    public void readingRotatedFileTest_ExpectRestOfOldFileAndNewFile() throws IOException {
+        Path file = directory.resolve("access.log");
+        try (FileTail tail = new FileTail(file, true)) {
+            assertThat(readLines(tail)).isEmpty();
+            append(file, "old 1\n");
+            assertThat(readLines(tail)).containsExactly("old 1");
+            append(file, "old 2\n");
+            Files.move(file, directory.resolve("access.log.1"));
+            assertThat(readLines(tail)).containsExactly("old 2");
+            append(file, "new 1\nnew 2\n");
+            assertThat(readLines(tail)).containsExactly("new 1", "new 2");
+        }
+    }
+}
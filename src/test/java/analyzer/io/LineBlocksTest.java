@@ -0,0 +1,114 @@
+package analyzer.io;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("LineBlocks test.")
+class LineBlocksTest {
+
+    private static final int LINES_NUMBER = 400_000;
+
+    private static Stream<Integer> getConsumersNumbers() {
+        return Stream.of(1, 2, 4);
+    }
+
+    private static List<String> getLines() {
+        return IntStream.range(0, LINES_NUMBER)
+            .mapToObj(i -> i % 100_000 == 0 ? "long line " + "y".repeat(3 << 20) : "line " + i + "x".repeat(i % 53))
+            .toList();
+    }
+
+    private static List<String> consume(LineBlocks blocks) throws IOException {
+        List<String> lines = new ArrayList<>();
+        for (LineBlock block = blocks.take(); block != null; block = blocks.take()) {
+            block.forEachLine((buffer, from, to) ->
+                lines.add(new String(buffer, from, to - from, StandardCharsets.UTF_8)));
+            blocks.release(block, 0);
+        }
+        return lines;
+    }
+
+    @ParameterizedTest
+    @MethodSource("getConsumersNumbers")
+    @DisplayName("Taking blocks by several consumers test.")
+    public void takingBlocksTest_ExpectEveryLineOnce(int consumers)
+        throws IOException, InterruptedException, ExecutionException {
+        List<String> expected = getLines();
+        byte[] content = String.join("\n", expected).getBytes(StandardCharsets.UTF_8);
+        List<String> lines = new ArrayList<>();
+        try (LineBlocks blocks = new LineBlocks(new ByteArrayInputStream(content), Thread.ofPlatform());
+             ExecutorService executor = Executors.newFixedThreadPool(consumers)) {
+            List<Future<List<String>>> results = new ArrayList<>();
+            for (int i = 0; i < consumers; i++) {
+                results.add(executor.submit(() -> consume(blocks)));
+            }
+            for (var result : results) {
+                lines.addAll(result.get());
+            }
+            PipelineMetrics metrics = blocks.metrics();
+            assertThat(metrics.bytes()).isEqualTo(content.length);
+            assertThat(metrics.blocks()).isGreaterThan(1L);
+            assertThat(metrics.reusedBuffers()).isLessThan(metrics.blocks());
+            assertThat(metrics.averageQueueDepth()).isBetween(0.0, (double) metrics.queueCapacity());
+        }
+        List<String> sorted = new ArrayList<>(expected);
+        Collections.sort(sorted);
+        Collections.sort(lines);
+        assertThat(lines).isEqualTo(sorted);
+    }
+
+    @Test
+    @DisplayName("Taking blocks of a failing stream test.")
+    public void takingBlocksOfFailingStreamTest_ExpectIOException() throws IOException {
+        InputStream failing = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Broken stream.");
+            }
+        };
+        try (LineBlocks blocks = new LineBlocks(failing, Thread.ofPlatform())) {
+            assertThatThrownBy(blocks::take).isInstanceOf(IOException.class);
+        }
+    }
+
+    private static Stream<Throwable> getUnexpectedFailures() {
+        return Stream.of(new IllegalStateException("Broken decompressor."), new OutOfMemoryError("Huge line."));
+    }
+
+    @ParameterizedTest
+    @MethodSource("getUnexpectedFailures")
+    @DisplayName("Taking blocks of a stream failing unexpectedly test.")
+    public void takingBlocksOfUnexpectedlyFailingStreamTest_ExpectIOExceptionForEveryConsumer(Throwable failure)
+        throws IOException {
+        InputStream failing = new InputStream() {
+            @Override
+            public int read() {
+                if (failure instanceof Error error) {
+                    throw error;
+                }
+                throw (RuntimeException) failure;
+            }
+        };
+        try (LineBlocks blocks = new LineBlocks(failing, Thread.ofPlatform())) {
+            assertThatThrownBy(blocks::take).isInstanceOf(IOException.class).hasCause(failure);
+            assertThatThrownBy(blocks::take).isInstanceOf(IOException.class).hasCause(failure);
+        }
+    }
+}
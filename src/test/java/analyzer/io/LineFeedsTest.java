@@ -0,0 +1,80 @@
+package analyzer.io;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("LineFeeds test.")
+class LineFeedsTest {
+
+    private static Stream<Arguments> getRanges() {
+        return Stream.of(
+            Arguments.of("", 0, 0, -1, -1),
+            Arguments.of("\n", 0, 1, 0, 0),
+            Arguments.of("abc", 0, 3, -1, -1),
+            Arguments.of("abcdefgh\nijklmnop\nqrs", 0, 21, 8, 17),
+            Arguments.of("abcdefgh\nijklmnop\nqrs", 9, 17, -1, -1),
+            Arguments.of("abcdefgh\nijklmnop\nqrs", 9, 18, 17, 17),
+            Arguments.of("\n\u000B\u000B\u000B\u000B\u000B\u000B\u000B\u000B\u000B", 0, 10, 0, 0),
+            Arguments.of("ü€\n😀\u000B\n\r\n", 0, 14, 5, 13)
+        );
+    }
+
+    private static int naiveIndexOf(byte[] bytes, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (bytes[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static int naiveLastIndexOf(byte[] bytes, int from, int to) {
+        for (int i = to - 1; i >= from; i--) {
+            if (bytes[i] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @ParameterizedTest
+    @MethodSource("getRanges")
+    @DisplayName("Finding line feeds in ranges test.")
+    public void findingLineFeedsTest_ExpectFirstAndLastLineFeeds(String text, int from, int to, int first, int last) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        assertThat(LineFeeds.indexOf(bytes, from, to)).isEqualTo(first);
+        assertThat(LineFeeds.lastIndexOf(bytes, from, to)).isEqualTo(last);
+    }
+
+    @Test
+    @DisplayName("Finding line feeds in random bytes test.")
+    public void findingLineFeedsInRandomBytesTest_ExpectSameIndicesAsComparingBytes() {
+        Random random = new Random(42);
+        for (int attempt = 0; attempt < 10_000; attempt++) {
+            byte[] bytes = new byte[random.nextInt(64)];
+            for (int i = 0; i < bytes.length; i++) {
+                bytes[i] = random.nextInt(8) == 0 ? (byte) '\n' : (byte) random.nextInt(256);
+            }
+            int from = random.nextInt(bytes.length + 1);
+            int to = from + random.nextInt(bytes.length - from + 1);
+            assertThat(LineFeeds.indexOf(bytes, from, to)).isEqualTo(naiveIndexOf(bytes, from, to));
+            assertThat(LineFeeds.lastIndexOf(bytes, from, to)).isEqualTo(naiveLastIndexOf(bytes, from, to));
+        }
+    }
+
+    @Test
+    @DisplayName("Searching out of bounds test.")
+    public void searchingOutOfBoundsTest_ExpectIndexOutOfBoundsException() {
+        byte[] bytes = new byte[16];
+        assertThatThrownBy(() -> LineFeeds.indexOf(bytes, 0, 17)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> LineFeeds.lastIndexOf(bytes, 5, 4)).isInstanceOf(IndexOutOfBoundsException.class);
+    }
+}
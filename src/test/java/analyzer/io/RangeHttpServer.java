@@ -0,0 +1,107 @@
+package analyzer.io;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * An embedded HTTP server serving the content at {@code /logs}, which may support range requests and may close
+ * the connections of the first responses before the end of the content.
+ * <p>The requests are handled by platform threads, since the server writes responses while holding a monitor,
+ * which would pin the carriers of the virtual threads the clients download on.</p>
+ */
+public final class RangeHttpServer implements AutoCloseable {
+
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d*)");
+
+    private final byte[] content;
+    private final boolean rangesSupported;
+    private final int truncatedLength;
+    private final AtomicInteger truncations;
+    private final List<String> ranges = Collections.synchronizedList(new ArrayList<>());
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final HttpServer server;
+
+    /**
+     * Starts the server on a random port of the loopback address.
+     *
+     * @param content         the content to be served.
+     * @param rangesSupported whether range requests are supported.
+     * @param truncations     the number of the first responses to be truncated.
+     * @param truncatedLength the number of bytes sent in a truncated response.
+     */
+    public RangeHttpServer(byte[] content, boolean rangesSupported, int truncations, int truncatedLength)
+        throws IOException {
+        this.content = content;
+        this.rangesSupported = rangesSupported;
+        this.truncations = new AtomicInteger(truncations);
+        this.truncatedLength = truncatedLength;
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/logs", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public URL url() throws IOException {
+        return URI.create("http://127.0.0.1:" + server.getAddress().getPort() + "/logs").toURL();
+    }
+
+    /**
+     * Returns the {@code Range} headers of the requests received, empty for requests without the header.
+     */
+    public List<String> ranges() {
+        synchronized (ranges) {
+            return List.copyOf(ranges);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.close();
+    }
+
+    @SuppressWarnings({"CatchParameterName", "IllegalIdentifierName"})
+    private void handle(HttpExchange exchange) throws IOException {
+        String range = Objects.requireNonNullElse(exchange.getRequestHeaders().getFirst("Range"), "");
+        ranges.add(range);
+        Matcher matcher = RANGE.matcher(range);
+        int from = 0;
+        int to = content.length;
+        if (rangesSupported && matcher.matches()) {
+            from = Integer.parseInt(matcher.group(1));
+            if (!matcher.group(2).isEmpty()) {
+                to = Math.min(to, Integer.parseInt(matcher.group(2)) + 1);
+            }
+            if (from >= content.length) {
+                exchange.sendResponseHeaders(416, -1);
+                exchange.close();
+                return;
+            }
+            exchange.getResponseHeaders()
+                .add("Content-Range", "bytes " + from + "-" + (to - 1) + "/" + content.length);
+            exchange.sendResponseHeaders(206, to - from);
+        } else {
+            exchange.sendResponseHeaders(200, content.length == 0 ? -1 : content.length);
+        }
+        int length = truncations.getAndDecrement() > 0 ? Math.min(truncatedLength, to - from) : to - from;
+        try {
+            exchange.getResponseBody().write(content, from, length);
+        } catch (IOException _) {
+        }
+        exchange.close();
+    }
+}
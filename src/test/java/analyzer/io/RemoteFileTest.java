@@ -0,0 +1,113 @@
+package analyzer.io;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.SocketTimeoutException;
+import java.net.URI;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("RemoteFile test.")
+class RemoteFileTest {
+
+    private static final byte[] CONTENT = "0123456789".repeat(1_000).getBytes(StandardCharsets.UTF_8);
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    private static byte[] readAll(RemoteFile file) throws IOException {
+        try (InputStream in = file.openStream()) {
+            return in.readAllBytes();
+        }
+    }
+
+    @Test
+    @DisplayName("Reading ranges test.")
+    public void readingRangesTest_ExpectBytesOfRanges() throws IOException {
+        try (RangeHttpServer server = new RangeHttpServer(CONTENT, true, 0, 0)) {
+            RemoteFile file = new RemoteFile(server.url(), TIMEOUT, TIMEOUT, 0);
+            assertThat(file.probe()).isEqualTo("0123".getBytes(StandardCharsets.UTF_8));
+            assertThat(file.rangesSupported()).isTrue();
+            assertThat(file.length()).isEqualTo(CONTENT.length);
+            assertThat(file.read(new FileChunk(1_005, 1_012)))
+                .isEqualTo("5678901".getBytes(StandardCharsets.UTF_8));
+            assertThat(readAll(file)).isEqualTo(CONTENT);
+        }
+    }
+
+    @Test
+    @DisplayName("Reading from a server without range requests test.")
+    public void readingWithoutRangesTest_ExpectWholeContent() throws IOException {
+        try (RangeHttpServer server = new RangeHttpServer(CONTENT, false, 0, 0)) {
+            RemoteFile file = new RemoteFile(server.url(), TIMEOUT, TIMEOUT, 0);
+            assertThat(file.probe()).isEmpty();
+            assertThat(file.rangesSupported()).isFalse();
+            assertThat(file.length()).isEqualTo(CONTENT.length);
+            assertThat(readAll(file)).isEqualTo(CONTENT);
+        }
+    }
+
+    @Test
+    @DisplayName("Resuming truncated responses test.")
+    public void resumingTruncatedResponsesTest_ExpectWholeContent() throws IOException {
+        try (RangeHttpServer server = new RangeHttpServer(CONTENT, true, 3, 3_000)) {
+            RemoteFile file = new RemoteFile(server.url(), TIMEOUT, TIMEOUT, 2);
+            file.probe();
+            assertThat(readAll(file)).isEqualTo(CONTENT);
+            assertThat(server.ranges()).containsExactly(
+                "bytes=0-3",
+                "bytes=0-9999",
+                "bytes=3000-9999",
+                "bytes=6000-9999"
+            );
+        }
+    }
+
+    @Test
+    @DisplayName("Resuming truncated responses of a server without range requests test.")
+    public void resumingWithoutRangesTest_ExpectWholeContent() throws IOException {
+        try (RangeHttpServer server = new RangeHttpServer(CONTENT, false, 2, 3_000)) {
+            RemoteFile file = new RemoteFile(server.url(), TIMEOUT, TIMEOUT, 1);
+            file.probe();
+            assertThat(readAll(file)).isEqualTo(CONTENT);
+        }
+    }
+
+    @Test
+    @DisplayName("Exhausting retries test.")
+    public void exhaustingRetriesTest_ExpectException() throws IOException {
+        try (RangeHttpServer server = new RangeHttpServer(CONTENT, true, 3, 3_000)) {
+            RemoteFile file = new RemoteFile(server.url(), TIMEOUT, TIMEOUT, 1);
+            assertThatThrownBy(() -> file.read(new FileChunk(0, CONTENT.length))).isInstanceOf(IOException.class);
+            assertThat(server.ranges()).hasSize(2);
+        }
+    }
+
+    @Test
+    @DisplayName("Client error test.")
+    public void clientErrorTest_ExpectFileNotFoundException() throws IOException {
+        try (RangeHttpServer server = new RangeHttpServer(CONTENT, true, 0, 0)) {
+            URL url = URI.create(server.url().toString().replace("/logs", "/missing")).toURL();
+            RemoteFile file = new RemoteFile(url, TIMEOUT, TIMEOUT, 0);
+            assertThatThrownBy(file::probe).isInstanceOf(FileNotFoundException.class);
+            assertThatThrownBy(() -> readAll(file)).isInstanceOf(FileNotFoundException.class);
+        }
+    }
+
+    @Test
+    @DisplayName("Read timeout test.")
+    public void readTimeoutTest_ExpectException() throws IOException {
+        try (ServerSocket server = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            URL url = URI.create("http://127.0.0.1:" + server.getLocalPort() + "/logs").toURL();
+            RemoteFile file = new RemoteFile(url, TIMEOUT, Duration.ofMillis(200), 0);
+            assertThatThrownBy(file::probe).isInstanceOf(SocketTimeoutException.class);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package analyzer.io;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("TimeOrderedFiles test.")
+class TimeOrderedFilesTest {
+
+    private static final int LINES_NUMBER = 100_000;
+    private static final long TOLERANCE = 50;
+
+    private static final LineTimestamp TIMESTAMP = (buffer, from, to) ->
+        Long.parseLong(new String(buffer, from, to - from, StandardCharsets.US_ASCII).strip());
+
+    @TempDir
+    private Path directory;
+
+    private static Stream<Arguments> getRanges() {
+        return Stream.of(
+            Arguments.of(1_000L, 2_000L),
+            Arguments.of(Long.MIN_VALUE, 500L),
+            Arguments.of(99_000L, Long.MAX_VALUE),
+            Arguments.of(-100L, 0L),
+            Arguments.of(200_000L, 300_000L),
+            Arguments.of(Long.MIN_VALUE, Long.MAX_VALUE)
+        );
+    }
+
+    /**
+     * Returns timestamps from 0 to 99 999, every tenth of which is moved up to 30 positions back.
+     */
+    private static List<Long> getNearlyOrderedTimestamps() {
+        List<Long> timestamps = new ArrayList<>(LongStream.range(0, LINES_NUMBER).boxed().toList());
+        Random random = new Random(LINES_NUMBER);
+        for (int i = 30; i < LINES_NUMBER; i += 10) {
+            Collections.swap(timestamps, i, i - random.nextInt(30));
+        }
+        return timestamps;
+    }
+
+    private Path writeFile(List<Long> timestamps) throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < timestamps.size(); i++) {
+            content.append(timestamps.get(i)).append(i % 3 == 0 ? "\r\n" : "\n");
+            if (i % 1000 == 0) {
+                content.append('\n');
+            }
+        }
+        Path file = directory.resolve("ordered.txt");
+        Files.writeString(file, content, StandardCharsets.US_ASCII);
+        return file;
+    }
+
+    private static List<Long> readTimestamps(FileChannel channel, FileChunk region) throws IOException {
+        List<Long> timestamps = new ArrayList<>();
+        FileChunks.forEachLine(channel, region, (buffer, from, to) -> {
+            if (from < to) {
+                timestamps.add(TIMESTAMP.applyAsLong(buffer, from, to));
+            }
+        });
+        return timestamps;
+    }
+
+    @ParameterizedTest
+    @MethodSource("getRanges")
+    @DisplayName("Seeking a time range of a nearly ordered file test.")
+    public void seekingTimeRangeTest_ExpectRegionContainingAllLinesOfRange(long after, long before)
+        throws IOException {
+        List<Long> timestamps = getNearlyOrderedTimestamps();
+        Path file = writeFile(timestamps);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            FileChunk region = TimeOrderedFiles.seek(channel, TIMESTAMP, after, before, TOLERANCE);
+            assertThat(region).isNotNull();
+            List<Long> expected = timestamps.stream().filter(value -> value > after && value < before).toList();
+            List<Long> actual = readTimestamps(channel, region).stream()
+                .filter(value -> value > after && value < before)
+                .toList();
+            assertThat(actual).containsExactlyElementsOf(expected);
+            long outOfRange = readTimestamps(channel, region).size() - expected.size();
+            assertThat(outOfRange).isLessThanOrEqualTo(4 * TOLERANCE);
+        }
+    }
+
+    @Test
+    @DisplayName("Seeking a time range of a shuffled file test.")
+    public void seekingTimeRangeOfShuffledFileTest_ExpectNull() throws IOException {
+        List<Long> timestamps = new ArrayList<>(LongStream.range(0, LINES_NUMBER).boxed().toList());
+        Collections.shuffle(timestamps, new Random(LINES_NUMBER));
+        Path file = writeFile(timestamps);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            assertThat(TimeOrderedFiles.seek(channel, TIMESTAMP, 1_000, 2_000, TOLERANCE)).isNull();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package analyzer.parser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ByteDictionary test.")
+class ByteDictionaryTest {
+
+    private static final int VALUES_NUMBER = 10_000;
+
+    private static Stream<String> getValues() {
+        return Stream.of("", "/downloads/product_1", "-", "ü", "Debian APT-HTTP/1.3 (0.8.10.3)", "日本語");
+    }
+
+    @ParameterizedTest
+    @MethodSource("getValues")
+    @DisplayName("Adding value as string and as bytes test.")
+    public void addingValueTest_ExpectSameId(String value) {
+        ByteDictionary dictionary = new ByteDictionary();
+        dictionary.add("other");
+        byte[] line = ("[" + value + "]").getBytes(StandardCharsets.UTF_8);
+        int id = dictionary.add(line, 1, line.length - 1);
+        assertThat(id).isEqualTo(1);
+        assertThat(dictionary.add(value)).isEqualTo(id);
+        assertThat(dictionary.indexOf(value)).isEqualTo(id);
+        assertThat(dictionary.get(id)).isEqualTo(value);
+        assertThat(dictionary.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Adding many values test.")
+    public void addingManyValuesTest_ExpectDenseIds() {
+        Random random = new Random(VALUES_NUMBER);
+        List<String> values = new ArrayList<>();
+        ByteDictionary dictionary = new ByteDictionary();
+        for (int i = 0; i < VALUES_NUMBER; i++) {
+            String value = "/resource/" + random.nextInt(VALUES_NUMBER) + (i % 7 == 0 ? "ü" : "");
+            int id = dictionary.add(value);
+            if (id == values.size()) {
+                values.add(value);
+            }
+            assertThat(values.get(id)).isEqualTo(value);
+        }
+        assertThat(dictionary.size()).isEqualTo(values.size());
+        assertThat(dictionary.indexOf("/missing")).isEqualTo(-1);
+
+        ByteDictionary merged = new ByteDictionary();
+        merged.add(values.getLast());
+        for (int id = 0; id < dictionary.size(); id++) {
+            assertThat(merged.get(merged.add(dictionary, id))).isEqualTo(values.get(id));
+        }
+        assertThat(merged.size()).isEqualTo(values.size());
+    }
+}
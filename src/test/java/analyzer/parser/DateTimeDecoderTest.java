@@ -0,0 +1,83 @@
+package analyzer.parser;
+
+import analyzer.error.InvalidLogFormatException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("DateTimeDecoder test.")
+class DateTimeDecoderTest {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z");
+
+    private static Stream<String> getValidDateTimes() {
+        return Stream.of(
+            "17/May/2015:08:05:00 +0000",
+            "17/May/2015:08:05:09 +0000",
+            "17/May/2015:08:05:59 +0000",
+            "17/May/2015:08:06:00 -0130",
+            "31/Dec/1969:23:59:59 +0000",
+            "31/Feb/2015:12:00:30 +0300",
+            "29/Feb/2016:00:00:01 -1800",
+            "31/Dec/2015:24:00:00 +0000"
+        );
+    }
+
+    private static Stream<String> getInvalidDateTimes() {
+        return Stream.of(
+            "17/May/2015:08:05:60 +0000",
+            "17/May/2015:08:60:00 +0000",
+            "17/May/2015:24:00:01 +0000",
+            "17/MAY/2015:08:05:45 +0000",
+            "17/Foo/2015:08:05:45 +0000",
+            "32/May/2015:08:05:45 +0000"
+        );
+    }
+
+    private static LogDateTime getExpected(String dateTime) {
+        OffsetDateTime expected = OffsetDateTime.parse(dateTime, DATE_FORMATTER);
+        return new LogDateTime(expected.toString(), expected.toInstant().toEpochMilli());
+    }
+
+    @ParameterizedTest
+    @MethodSource("getValidDateTimes")
+    @DisplayName("Decoding valid date times test.")
+    public void decodingValidDateTimeTest_ExpectSameAsDateTimeFormatter(String dateTime) {
+        assertThat(DateTimeDecoder.decode(dateTime)).isEqualTo(getExpected(dateTime));
+    }
+
+    @ParameterizedTest
+    @MethodSource("getValidDateTimes")
+    @DisplayName("Decoding date times in the same minute test.")
+    public void decodingSameMinuteTest_ExpectSameAsDateTimeFormatter(String dateTime) {
+        for (int seconds = 0; seconds < 60; seconds++) {
+            String sameMinute = dateTime.substring(0, 18) + "%02d".formatted(seconds) + dateTime.substring(20);
+            if (sameMinute.contains(":24:00:") && seconds > 0) {
+                continue;
+            }
+            assertThat(DateTimeDecoder.decode(sameMinute)).as(sameMinute).isEqualTo(getExpected(sameMinute));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("getValidDateTimes")
+    @DisplayName("Decoding date times stored in bytes test.")
+    public void decodingBytesTest_ExpectSameAsDateTimeFormatter(String dateTime) {
+        byte[] line = ("[" + dateTime + "]").getBytes(StandardCharsets.US_ASCII);
+        assertThat(DateTimeDecoder.decode(line, 1, line.length - 1)).isEqualTo(getExpected(dateTime));
+    }
+
+    @ParameterizedTest
+    @MethodSource("getInvalidDateTimes")
+    @DisplayName("Decoding invalid date times test.")
+    public void decodingInvalidDateTimeTest_ExpectInvalidLogFormatException(String dateTime) {
+        DateTimeDecoder.decode("17/May/2015:08:05:00 +0000");
+        Assertions.assertThrows(InvalidLogFormatException.class, () -> DateTimeDecoder.decode(dateTime));
+    }
+}
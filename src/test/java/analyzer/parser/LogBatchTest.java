@@ -0,0 +1,71 @@
+package analyzer.parser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("LogBatch test.")
+class LogBatchTest {
+
+    private static final List<String> LINES = List.of(
+        "93.180.71.3 - - [17/May/2015:08:05:32 +0000] \"GET /downloads/product_1 HTTP/1.1\" 304 0 \"-\" \"agent\"",
+        "80.91.33.133 - - [17/May/2015:08:05:24 +0000] \"GET /downloads/product_2 HTTP/1.1\" 404 336 "
+            + "\"http://referer/ü\" \"agent\"",
+        "217.168.17.5 - - [17/May/2015:08:05:12 +0000] \"POST /downloads/product_2 HTTP/1.1\" 200 "
+            + "99999999999999999999 \"-\" \"agent\""
+    );
+
+    private static final LogBatch.Column[] COLUMNS = LogBatch.Column.values();
+
+    private static void assertSameFields(LogBatch batch, int index, Log log) {
+        assertThat(batch.httpStatus(index)).isEqualTo(Integer.parseInt(log.httpStatus()));
+        assertThat(batch.bodyBytesSent(index)).isEqualTo(log.bodyBytesSentAsLong());
+        assertThat(batch.epochMillis(index)).isEqualTo(log.epochMillis());
+        assertThat(batch.get(index).bodyBytesSent()).isEqualTo(log.bodyBytesSent());
+        assertThat(batch.get(index).httpUserAgent()).isEqualTo(log.httpUserAgent());
+        for (var column : COLUMNS) {
+            ByteDictionary dictionary = new ByteDictionary();
+            String value = batch.value(index, column);
+            assertThat(dictionary.get(batch.id(index, column, dictionary))).isEqualTo(value);
+            assertThat(dictionary.indexOf(value)).isEqualTo(0);
+        }
+        assertThat(batch.value(index, LogBatch.Column.REMOTE_ADDRESS)).isEqualTo(log.remoteAddress());
+        assertThat(batch.value(index, LogBatch.Column.HTTP_STATUS)).isEqualTo(log.httpStatus());
+        assertThat(batch.value(index, LogBatch.Column.HTTP_REFERER)).isEqualTo(log.httpReferer());
+        assertThat(batch.value(index, LogBatch.Column.HTTP_REQUEST_BODY)).isEqualTo(log.getHttpRequestBody());
+    }
+
+    @Test
+    @DisplayName("Adding views and decoded logs test.")
+    public void addingLogsTest_ExpectSameFieldsAsParsedLogs() {
+        LogBatch batch = new LogBatch(2 * LINES.size());
+        for (var line : LINES) {
+            byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+            batch.add(LogScanner.scan(bytes, 0, bytes.length, batch.view()));
+            batch.add(LogParser.parse(line));
+        }
+        assertThat(batch.size()).isEqualTo(2 * LINES.size());
+        assertThat(batch.isFull()).isTrue();
+        for (int i = 0; i < LINES.size(); i++) {
+            Log log = LogParser.parse(LINES.get(i));
+            assertSameFields(batch, 2 * i, log);
+            assertSameFields(batch, 2 * i + 1, log);
+        }
+    }
+
+    @Test
+    @DisplayName("Filling a batch test.")
+    public void fillingBatchTest_ExpectFullBatchAndEmptyAfterClearing() {
+        LogBatch batch = new LogBatch(2);
+        assertThat(batch.add(LogParser.parse(LINES.get(0)))).isFalse();
+        assertThat(batch.add(LogParser.parse(LINES.get(1)))).isTrue();
+        assertThatThrownBy(() -> batch.add(LogParser.parse(LINES.get(2)))).isInstanceOf(IllegalStateException.class);
+        batch.clear();
+        assertThat(batch.size()).isEqualTo(0);
+        assertThatThrownBy(() -> batch.httpStatus(0)).isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> new LogBatch(0)).isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,84 @@
+package analyzer.parser;
+
+import analyzer.error.InvalidLogFormatException;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Random;
+
+/**
+ * The logs of the test fixtures and their random mutations, used by the tests comparing parsing engines and filters
+ * with the regex parser.
+ */
+public final class LogFixtures {
+
+    private static final List<String> FIXTURES = List.of("/logs/logs.txt", "/logs/logs1.txt", "/logs/logs2.txt");
+
+    private static final String MUTATION_ALPHABET = " -[]\"/:.0123456789abcdefGHPTOSDLEAUyM\t+ü";
+
+    private LogFixtures() {
+    }
+
+    /**
+     * Reads the logs of all fixtures.
+     *
+     * @return a new modifiable list of the logs.
+     * @throws IOException if a fixture can't be read.
+     */
+    public static List<String> getLogs() throws IOException {
+        List<String> logs = new ArrayList<>();
+        for (var fixture : FIXTURES) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                Objects.requireNonNull(LogFixtures.class.getResourceAsStream(fixture)),
+                StandardCharsets.UTF_8
+            ))) {
+                reader.lines().forEach(logs::add);
+            }
+        }
+        return logs;
+    }
+
+    /**
+     * Inserts, deletes or replaces a few random symbols of the log. Half of the mutations change a run of symbols
+     * long enough to cross the vectors of the vectorized engine.
+     *
+     * @param log    the log to be mutated.
+     * @param random the source of the mutations.
+     * @return the mutated log.
+     */
+    public static String mutate(String log, Random random) {
+        StringBuilder mutated = new StringBuilder(log);
+        int mutations = 1 + random.nextInt(3);
+        for (int i = 0; i < mutations; i++) {
+            int position = mutated.isEmpty() ? 0 : random.nextInt(mutated.length());
+            char symbol = MUTATION_ALPHABET.charAt(random.nextInt(MUTATION_ALPHABET.length()));
+            int length = random.nextBoolean() ? 1 : 1 + random.nextInt(100);
+            int end = Math.min(mutated.length(), position + length);
+            switch (mutated.isEmpty() ? 0 : random.nextInt(3)) {
+                case 0 -> mutated.insert(position, String.valueOf(symbol).repeat(length));
+                case 1 -> mutated.delete(position, end);
+                default -> mutated.replace(position, end, String.valueOf(symbol).repeat(end - position));
+            }
+        }
+        return mutated.toString();
+    }
+
+    /**
+     * Parses the log by the engine.
+     *
+     * @param parser the engine parsing the log.
+     * @param log    the log to be parsed.
+     * @return the parsed log, {@code InvalidLogFormatException.class} if the log isn't valid.
+     */
+    public static Object parseOrInvalid(LineParser parser, String log) {
+        try {
+            return parser.parse(log);
+        } catch (InvalidLogFormatException e) {
+            return InvalidLogFormatException.class;
+        }
+    }
+}
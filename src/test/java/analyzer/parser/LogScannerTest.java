@@ -0,0 +1,111 @@
+package analyzer.parser;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("LogScanner test.")
+class LogScannerTest {
+
+    private static final List<String> ENGINES = List.of("scanner", "simd");
+
+    private static final int FUZZ_ITERATIONS = 100_000;
+
+    private static final List<String> FIELD_NAMES = List.of(
+        "remoteAddress", "remoteUser", "dateTime", "httpRequest",
+        "httpStatus", "bodyBytesSent", "httpReferer", "httpUserAgent"
+    );
+
+    private final LogView view = new LogView();
+
+    private static Stream<String> getEngines() {
+        return ENGINES.stream();
+    }
+
+    private static Stream<Arguments> getFixtureLogs() throws IOException {
+        List<String> logs = LogFixtures.getLogs();
+        return ENGINES.stream().flatMap(engine -> logs.stream().map(log -> Arguments.of(engine, log)));
+    }
+
+    private static Stream<Arguments> getEdgeCaseLogs() {
+        List<String> logs = List.of(
+            "1111:1111:1111:1111:1111:1111:1111:1111 - - [17/May/2015:08:05:45 +0000] "
+                + "\"GET /a HTTP/1.1\" 404 318 \"-\" \"agent\"",
+            ":1:2:3:4:5:6:7: - - [31/Feb/2015:24:00:00 +0300] \"PATCH /a\"b HTTP/2.0\" 599 0 \"a b\" \"ü\"",
+            "1:2:3:4:5:6:7:8:9 - - [17/May/2015:08:05:45 +0000] \"GET / HTTP/1.0\" 100 1 \"\" \"agent\"",
+            " - - [17/May/2015:08:05:45 +0000] \"GET / HTTP/1.0\" 100 1 \"\" \"agent\"",
+            "1.2.3.4. - - [17/May/2015:08:05:45 +0000] \"GET / HTTP/1.0\" 100 1 \"\" \"agent\"",
+            "01.2.3.4 - - [17/May/2015:08:05:45 +0000] \"GET / HTTP/1.0\" 100 1 \"\" \"agent\"",
+            "1.2.3.4 - - [17/Foo/2015:08:05:45 +0000] \"GET / HTTP/1.0\" 100 1 \"\" \"agent\"",
+            "1.2.3.4 - - [17/May/2015:08:05:45 +0000] \"GET / HTTP/1.0\" 100 1 \"\" \"\"",
+            "1.2.3.4 - \tuser [17/May/2015:08:05:45 +0000] \"GET / HTTP/1.0\" 100 1 \"\" \"agent\""
+        );
+        return ENGINES.stream().flatMap(engine -> logs.stream().map(log -> Arguments.of(engine, log)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("getFixtureLogs")
+    @DisplayName("Fixture logs are parsed like the regex parser test.")
+    public void fixtureLogsTest_ExpectSameLogAsRegexParser(String engine, String log) {
+        assertThat(ParserService.getParser(engine).parse(log)).isEqualTo(LogParser.parse(log));
+    }
+
+    @ParameterizedTest
+    @MethodSource("getEdgeCaseLogs")
+    @DisplayName("Edge case logs are handled like the regex parser test.")
+    public void edgeCaseLogsTest_ExpectSameResultAsRegexParser(String engine, String log) {
+        assertThat(LogFixtures.parseOrInvalid(ParserService.getParser(engine), log))
+            .isEqualTo(LogFixtures.parseOrInvalid(LogParser::parse, log));
+    }
+
+    @ParameterizedTest
+    @MethodSource("getEngines")
+    @DisplayName("Fuzzed logs are handled like the regex parser test.")
+    public void fuzzedLogsTest_ExpectSameResultAsRegexParser(String engine) throws IOException {
+        LineParser parser = ParserService.getParser(engine);
+        List<String> logs = LogFixtures.getLogs();
+        Random random = new Random(FUZZ_ITERATIONS);
+        for (int i = 0; i < FUZZ_ITERATIONS; i++) {
+            String log = LogFixtures.mutate(logs.get(random.nextInt(logs.size())), random);
+            assertThat(LogFixtures.parseOrInvalid(parser, log))
+                .as(log)
+                .isEqualTo(LogFixtures.parseOrInvalid(LogParser::parse, log));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("getEngines")
+    @DisplayName("Parsing a range of bytes test.")
+    public void parsingByteRangeTest_ExpectValidParsedLog(String engine) throws IOException {
+        String log = LogFixtures.getLogs().getFirst();
+        byte[] buffer = ("garbage \"\n" + log + "\n\" garbage").getBytes(StandardCharsets.UTF_8);
+        int from = "garbage \"\n".length();
+        int to = from + log.getBytes(StandardCharsets.UTF_8).length;
+        assertThat(ParserService.getParser(engine).parse(buffer, from, to)).isEqualTo(LogParser.parse(log));
+    }
+
+    @ParameterizedTest
+    @MethodSource("getFixtureLogs")
+    @DisplayName("Scanning logs into a reused view test.")
+    public void scanningIntoViewTest_ExpectSameFieldsAsRegexParser(String engine, String log) {
+        Log expected = LogParser.parse(log);
+        byte[] line = log.getBytes(StandardCharsets.UTF_8);
+        LogFields actual = ParserService.getParser(engine).parse(line, 0, line.length, view);
+        assertThat(actual).isSameAs(view);
+        for (var fieldName : FIELD_NAMES) {
+            assertThat(view.getFieldByName(fieldName)).isEqualTo(expected.getFieldByName(fieldName));
+        }
+        assertThat(view.getFieldByName("invalid name")).isNull();
+        assertThat(view.getHttpRequestBody()).isEqualTo(expected.getHttpRequestBody());
+        assertThat(view.bodyBytesSentAsLong()).isEqualTo(Long.parseLong(expected.bodyBytesSent()));
+        assertThat(view.epochMillis()).isEqualTo(expected.epochMillis());
+        assertThat(view.toLog()).isEqualTo(expected);
+    }
+}
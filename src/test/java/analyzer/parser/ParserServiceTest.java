@@ -0,0 +1,65 @@
+package analyzer.parser;
+
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ParserService test.")
+class ParserServiceTest {
+
+    private static Stream<String> getInvalidParsersNames() {
+        return Stream.of(
+            "typo",
+            "regexp",
+            "scaner"
+        );
+    }
+
+    private static Stream<String> getValidParsersNames() {
+        return Stream.of(
+            "ReGeX",
+            "SCANNER",
+            "regex",
+            "scanner",
+            "SiMd",
+            "simd"
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("getInvalidParsersNames")
+    @DisplayName("Non-existent parsers test.")
+    public void invalidParsersExistsTest_ExpectFalse(String engine) {
+        assertThat(ParserService.isParserExists(engine)).isFalse();
+    }
+
+    @ParameterizedTest
+    @MethodSource("getInvalidParsersNames")
+    @DisplayName("Getting non-existent parsers test.")
+    public void gettingInvalidParsersTest_ExpectNull(String engine) {
+        assertThat(ParserService.getParser(engine)).isNull();
+    }
+
+    @ParameterizedTest
+    @MethodSource("getValidParsersNames")
+    @DisplayName("Existing parsers test.")
+    public void validParsersExistsTest_ExpectTrue(String engine) {
+        assertThat(ParserService.isParserExists(engine)).isTrue();
+    }
+
+    @ParameterizedTest
+    @MethodSource("getValidParsersNames")
+    @DisplayName("Getting existing parsers test.")
+    public void gettingValidParsersTest_ExpectNotNull(String engine) {
+        assertThat(ParserService.getParser(engine)).isNotNull();
+    }
+
+    @Test
+    @DisplayName("Default parser test.")
+    public void defaultParserTest_ExpectNotNull() {
+        assertThat(ParserService.getDefaultParser()).isNotNull();
+    }
+}
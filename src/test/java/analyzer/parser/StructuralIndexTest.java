@@ -0,0 +1,58 @@
+package analyzer.parser;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("StructuralIndex test.")
+class StructuralIndexTest {
+
+    private static int find(byte[] line, int from, int to, byte delimiter) {
+        for (int i = from; i < to; i++) {
+            if (line[i] == delimiter) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    @Test
+    @DisplayName("Finding delimiters in random bytes test.")
+    public void findingDelimitersTest_ExpectSameIndicesAsComparingBytes() {
+        StructuralIndex index = new StructuralIndex();
+        Random random = new Random(42);
+        for (int attempt = 0; attempt < 10_000; attempt++) {
+            byte[] line = new byte[random.nextInt(300)];
+            for (int i = 0; i < line.length; i++) {
+                line[i] = switch (random.nextInt(8)) {
+                    case 0 -> (byte) ' ';
+                    case 1 -> (byte) '"';
+                    default -> (byte) random.nextInt(256);
+                };
+            }
+            int start = random.nextInt(line.length + 1);
+            int end = start + random.nextInt(line.length - start + 1);
+            index.index(line, start, end);
+            int from = start + random.nextInt(end - start + 1);
+            int to = from + random.nextInt(end - from + 1);
+            for (byte delimiter : new byte[] {' ', '"'}) {
+                assertThat(index.find(line, from, to, delimiter)).isEqualTo(find(line, from, to, delimiter));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Finding delimiters out of the indexed log test.")
+    public void findingOutOfIndexedLogTest_ExpectExceptions() {
+        byte[] line = "a b \"c\"".getBytes(StandardCharsets.UTF_8);
+        StructuralIndex index = new StructuralIndex().index(line, 2, line.length);
+        assertThat(index.find(line, 2, line.length, (byte) '"')).isEqualTo(4);
+        assertThatThrownBy(() -> index.find(line, 0, line.length, (byte) ' '))
+            .isInstanceOf(IndexOutOfBoundsException.class);
+        assertThatThrownBy(() -> index.find(line, 2, line.length, (byte) '['))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -1,11 +1,18 @@
 package analyzer.render;
 
+import analyzer.filter.FilterField;
+import analyzer.statistics.AnalyzerSettings;
 import analyzer.statistics.LogAnalyzer;
 import analyzer.statistics.LogStatistics;
+import java.io.IOException;
+import java.io.StringWriter;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.time.OffsetDateTime;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -20,6 +27,13 @@ abstract class AbstractRendererTest {
 
     protected abstract String expectedOutput();
 
+    private static final String LOGS = """
+        93.180.71.3 - - [17/May/2015:08:05:32 +0000] "GET /downloads/product_1 HTTP/1.1" 304 0 "-" "agent"
+        80.91.33.133 - - [17/May/2015:08:05:24 +0000] "GET /downloads/product_1 HTTP/1.1" 304 0 "-" "agent"
+        217.168.17.5 - - [17/May/2015:08:05:34 +0000] "GET /downloads/product_1 HTTP/1.1" 200 490 "-" "agent"
+        217.168.17.5 - - [17/May/2015:08:06:09 +0000] "GET /downloads/product_2 HTTP/1.1" 200 3316 "-" "agent"
+        """;
+
     private LogStatistics getStatistics() throws MalformedURLException {
         return LogAnalyzer.getStatisticsFromURL(
             TEST_URI.toURL(),
@@ -34,4 +48,19 @@ abstract class AbstractRendererTest {
         LogStatistics statistics = Assertions.assertDoesNotThrow(this::getStatistics);
         assertThat(renderer().render(statistics)).isEqualTo(expectedOutput());
     }
+
+    @Test
+    void streamingOutputTest_ExpectSameOutputAsString() throws IOException {
+        Path path = Files.createTempFile("logs", ".txt");
+        path.toFile().deleteOnExit();
+        Files.writeString(path, LOGS);
+        LogStatistics statistics = LogAnalyzer.getStatisticsFromFile(path, AnalyzerSettings.builder()
+            .groupBy(List.of(FilterField.HTTP_STATUS))
+            .percentiles(List.of(50.0, 99.0))
+            .build());
+        StringWriter output = new StringWriter();
+        renderer().render(statistics, output);
+        assertThat(output.toString()).isEqualTo(renderer().render(statistics));
+        assertThat(output.toString()).contains("| `200`");
+    }
 }
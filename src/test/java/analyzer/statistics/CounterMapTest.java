@@ -0,0 +1,126 @@
+package analyzer.statistics;
+
+import analyzer.parser.LogFields;
+import analyzer.parser.LogParser;
+import analyzer.parser.LogScanner;
+import analyzer.parser.LogView;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("CounterMap test.")
+class CounterMapTest {
+
+    private static final BigInteger LONG_MAX = BigInteger.valueOf(Long.MAX_VALUE);
+
+    private static final int LOGS_NUMBER = 5_000;
+
+    @Test
+    @DisplayName("Counting keys test.")
+    public void countingKeysTest_ExpectValidCounts() {
+        CounterMap map = new CounterMap();
+        map.increment("a");
+        map.increment("b");
+        map.increment("a");
+        assertThat(map.get("a")).isEqualTo(BigInteger.TWO);
+        assertThat(map.get("b")).isEqualTo(BigInteger.ONE);
+        assertThat(map.get("c")).isEqualTo(BigInteger.ZERO);
+    }
+
+    @Test
+    @DisplayName("Overflowing count test.")
+    public void overflowingCountTest_ExpectWideCount() {
+        CounterMap map = new CounterMap();
+        map.add("a", Long.MAX_VALUE);
+        map.increment("a");
+        map.add("a", Long.MAX_VALUE);
+        assertThat(map.get("a")).isEqualTo(LONG_MAX.add(BigInteger.ONE).add(LONG_MAX));
+    }
+
+    @Test
+    @DisplayName("Adding overflowing counts of another map test.")
+    public void addingOverflowingCountsTest_ExpectWideCounts() {
+        CounterMap first = new CounterMap();
+        first.add("a", Long.MAX_VALUE);
+        first.increment("b");
+        CounterMap second = new CounterMap();
+        second.add("a", Long.MAX_VALUE);
+        second.add("a", Long.MAX_VALUE);
+        first.addAll(second);
+        assertThat(first.get("a")).isEqualTo(LONG_MAX.multiply(BigInteger.valueOf(3)));
+        assertThat(first.get("b")).isEqualTo(BigInteger.ONE);
+    }
+
+    @Test
+    @DisplayName("Top keys with overflowing counts test.")
+    public void topKeysTest_ExpectSortedByCountAndKey() {
+        CounterMap map = new CounterMap();
+        map.increment("d");
+        map.add("c", Long.MAX_VALUE);
+        map.increment("c");
+        map.increment("b");
+        map.increment("a");
+        assertThat(map.top(3)).containsExactly(
+            new Frequency("c", LONG_MAX.add(BigInteger.ONE), BigInteger.ZERO),
+            new Frequency("a", BigInteger.ONE, BigInteger.ZERO),
+            new Frequency("b", BigInteger.ONE, BigInteger.ZERO)
+        );
+    }
+
+    @Test
+    @DisplayName("Top keys of many tied counts test.")
+    public void topKeysOfTiedCountsTest_ExpectFirstKeysOfSortedFrequencies() {
+        Random random = new Random(LOGS_NUMBER);
+        CounterMap map = new CounterMap();
+        for (int i = 0; i < LOGS_NUMBER; i++) {
+            map.increment("key_" + random.nextInt(1000) + (random.nextBoolean() ? "ü" : ""));
+        }
+        map.add("key_wide", Long.MAX_VALUE);
+        map.add("key_wide", Long.MAX_VALUE);
+        List<Frequency> sorted = map.top(Long.MAX_VALUE);
+        assertThat(sorted).isSortedAccordingTo(FrequencyEstimator.ORDER);
+        assertThat(sorted.getFirst().value()).isEqualTo("key_wide");
+        for (int limit : new int[] {0, 1, 2, 10, 100, sorted.size(), sorted.size() + 1}) {
+            assertThat(map.top(limit)).isEqualTo(sorted.subList(0, Math.min(limit, sorted.size())));
+        }
+        assertThat(new CounterMap().top(3)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Wide counter overflow test.")
+    public void wideCounterOverflowTest_ExpectWideValue() {
+        WideCounter counter = new WideCounter();
+        counter.add(Long.MAX_VALUE);
+        counter.add(Long.MAX_VALUE);
+        counter.add(BigInteger.TEN);
+        WideCounter other = new WideCounter();
+        other.add(Long.MAX_VALUE);
+        counter.add(other);
+        assertThat(counter.get()).isEqualTo(LONG_MAX.multiply(BigInteger.valueOf(3)).add(BigInteger.TEN));
+    }
+
+    @Test
+    @DisplayName("Counting fields of views test.")
+    public void countingFieldsOfViewsTest_ExpectSameCountsAsDecodedFields() {
+        Random random = new Random(LOGS_NUMBER);
+        LogView view = new LogView();
+        CounterMap decoded = new CounterMap();
+        CounterMap first = new CounterMap();
+        CounterMap second = new CounterMap();
+        for (int i = 0; i < LOGS_NUMBER; i++) {
+            String line = "10.0.0.1 - - [17/May/2015:08:05:34 +0000] \"GET /product_" + random.nextInt(200)
+                + (random.nextBoolean() ? "ü" : "") + " HTTP/1.1\" 200 1 \"-\" \"agent\"";
+            byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+            LogScanner.scan(bytes, 0, bytes.length, view);
+            decoded.increment(LogParser.parse(line).getHttpRequestBody());
+            (i % 2 == 0 ? first : second)
+                .increment(view, LogFields::getHttpRequestBody, LogFields::httpRequestBodyId);
+        }
+        first.addAll(second);
+        assertThat(first.top(Long.MAX_VALUE)).isEqualTo(decoded.top(Long.MAX_VALUE));
+    }
+}
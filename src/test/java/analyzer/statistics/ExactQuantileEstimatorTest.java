@@ -0,0 +1,74 @@
+package analyzer.statistics;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ExactQuantileEstimator test.")
+class ExactQuantileEstimatorTest {
+
+    private static final BigInteger WIDE_VALUE = BigInteger.valueOf(Long.MAX_VALUE).shiftLeft(1);
+
+    private static void assertRanks(ExactQuantileEstimator estimator, List<BigInteger> values) {
+        List<BigInteger> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        assertThat(estimator.count()).isEqualTo((long) sorted.size());
+        for (int rank = 0; rank < sorted.size(); rank++) {
+            assertThat(estimator.valueAtRank(rank)).isEqualTo(sorted.get(rank));
+        }
+    }
+
+    @Test
+    @DisplayName("Querying between additions test.")
+    public void queryingBetweenAdditionsTest_ExpectValuesOfAllAdditions() {
+        Random random = new Random(42);
+        ExactQuantileEstimator estimator = new ExactQuantileEstimator();
+        List<BigInteger> values = new ArrayList<>();
+        for (int round = 0; round < 10; round++) {
+            for (int i = 0; i < 100; i++) {
+                long value = random.nextLong(-1000, 1000);
+                estimator.add(value);
+                values.add(BigInteger.valueOf(value));
+            }
+            BigInteger wideValue = round % 2 == 0 ? WIDE_VALUE.add(BigInteger.valueOf(round)) : WIDE_VALUE.negate();
+            estimator.add(wideValue);
+            values.add(wideValue);
+            assertRanks(estimator, values);
+        }
+    }
+
+    @Test
+    @DisplayName("Merging and reading after querying test.")
+    public void mergingAndReadingAfterQueryingTest_ExpectValuesOfAllEstimators() throws IOException {
+        ExactQuantileEstimator first = new ExactQuantileEstimator();
+        ExactQuantileEstimator second = new ExactQuantileEstimator();
+        List<BigInteger> values = new ArrayList<>();
+        for (long value = 0; value < 100; value++) {
+            (value % 2 == 0 ? first : second).add(100 - value);
+            values.add(BigInteger.valueOf(100 - value));
+        }
+        first.add(WIDE_VALUE.negate());
+        values.add(WIDE_VALUE.negate());
+        assertThat(first.valueAtRank(0)).isEqualTo(WIDE_VALUE.negate());
+        first.addAll(second);
+        assertRanks(first, values);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        second.writeTo(new DataOutputStream(bytes));
+        first.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        for (long value = 1; value < 100; value += 2) {
+            values.add(BigInteger.valueOf(value));
+        }
+        assertRanks(first, values);
+    }
+}
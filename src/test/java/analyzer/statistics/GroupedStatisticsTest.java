@@ -0,0 +1,224 @@
+package analyzer.statistics;
+
+import analyzer.filter.FilterField;
+import analyzer.parser.Log;
+import analyzer.parser.LogParser;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("GroupedStatistics test.")
+class GroupedStatisticsTest {
+
+    private static final DateTimeFormatter DATE_FORMATTER =
+        DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.ENGLISH);
+
+    private static final List<String> METHODS = List.of("GET", "POST", "HEAD");
+
+    private static final List<String> STATUSES = List.of("200", "304", "404", "500");
+
+    private static final long START_SECONDS = 1_431_849_600L;
+
+    private static final int LOGS_NUMBER = 20_000;
+
+    private static final String HUGE_SIZE = "99999999999999999999";
+
+    private static List<String> getLines() {
+        Random random = new Random(LOGS_NUMBER);
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < LOGS_NUMBER; i++) {
+            Instant instant = Instant.ofEpochSecond(START_SECONDS + random.nextInt(3 * 24 * 3600));
+            ZoneOffset offset = ZoneOffset.ofHours(random.nextInt(5) - 2);
+            String size = random.nextInt(1000) == 0 ? HUGE_SIZE : String.valueOf(random.nextInt(5000));
+            lines.add(
+                "10.0." + random.nextInt(3) + "." + random.nextInt(100) + " - - ["
+                    + DATE_FORMATTER.format(OffsetDateTime.ofInstant(instant, offset)) + "] \""
+                    + METHODS.get(random.nextInt(METHODS.size())) + " /downloads/product_" + random.nextInt(500)
+                    + " HTTP/1.1\" " + STATUSES.get(random.nextInt(STATUSES.size())) + " " + size
+                    + " \"-\" \"agent\""
+            );
+        }
+        return lines;
+    }
+
+    private static List<Log> getLogs() {
+        return getLines().stream().map(LogParser::parse).toList();
+    }
+
+    private static Stream<Arguments> getGroupings() {
+        return Stream.of(
+            Arguments.of(List.of(FilterField.HTTP_STATUS), null, 1),
+            Arguments.of(List.of(FilterField.REMOTE_ADDRESS), null, 3),
+            Arguments.of(List.of(), TimeBucket.HOUR, 1),
+            Arguments.of(List.of(FilterField.HTTP_METHOD, FilterField.HTTP_STATUS), null, 2),
+            Arguments.of(List.of(FilterField.HTTP_PATH), TimeBucket.DAY, 4),
+            Arguments.of(List.of(FilterField.HTTP_STATUS, FilterField.REMOTE_ADDRESS), TimeBucket.MINUTE, 5)
+        );
+    }
+
+    private static AnalyzerSettings getSettings(List<FilterField> groupBy, TimeBucket timeBucket) {
+        return AnalyzerSettings.builder()
+            .groupBy(groupBy)
+            .timeBucket(timeBucket)
+            .percentiles(List.of(50.0, 95.0, 100.0))
+            .build();
+    }
+
+    private static List<String> getKey(Log log, List<FilterField> groupBy, TimeBucket timeBucket) {
+        List<String> key = new ArrayList<>();
+        if (timeBucket != null) {
+            key.add(timeBucket.start(timeBucket.bucketNumber(log.epochMillis())).toString());
+        }
+        groupBy.forEach(field -> key.add(field.get(log)));
+        return key;
+    }
+
+    private static List<String> getKey(Group group) {
+        List<String> key = new ArrayList<>();
+        if (group.bucket() != null) {
+            key.add(group.bucket().toString());
+        }
+        key.addAll(group.key());
+        return key;
+    }
+
+    @ParameterizedTest
+    @MethodSource("getGroupings")
+    @DisplayName("Grouping logs in parts test.")
+    public void groupingLogsTest_ExpectSameStatisticsAsComputedDirectly(
+        List<FilterField> groupBy,
+        TimeBucket timeBucket,
+        int parts
+    ) {
+        AnalyzerSettings settings = getSettings(groupBy, timeBucket);
+        List<Log> logs = getLogs();
+        List<GroupedStatistics> partialStatistics = new ArrayList<>();
+        Map<List<String>, List<BigInteger>> expectedSizes = new HashMap<>();
+        for (int part = 0; part < parts; part++) {
+            GroupedStatistics statistics = new GroupedStatistics(settings);
+            for (int i = part; i < logs.size(); i += parts) {
+                Log log = logs.get(i);
+                statistics.update(log);
+                expectedSizes.computeIfAbsent(getKey(log, groupBy, timeBucket), _ -> new ArrayList<>())
+                    .add(new BigInteger(log.bodyBytesSent()));
+            }
+            partialStatistics.add(statistics);
+        }
+        GroupedStatistics statistics = partialStatistics.getFirst();
+        partialStatistics.stream().skip(1).forEach(statistics::addAll);
+
+        List<Group> groups = statistics.groups();
+        assertThat(statistics.size()).isEqualTo(expectedSizes.size());
+        assertThat(groups).hasSize(expectedSizes.size());
+        for (var group : groups) {
+            List<BigInteger> sizes = expectedSizes.get(getKey(group));
+            assertThat(sizes).as(getKey(group).toString()).isNotNull();
+            BigInteger sum = sizes.stream().reduce(BigInteger.ZERO, BigInteger::add);
+            List<BigInteger> sorted = sizes.stream()
+                .map(size -> size.min(BigInteger.valueOf(Long.MAX_VALUE)))
+                .sorted()
+                .toList();
+            assertThat(group.count()).isEqualTo(sizes.size());
+            assertThat(group.sum()).isEqualTo(sum);
+            assertThat(group.average()).isEqualTo(sum.divide(BigInteger.valueOf(sizes.size())));
+            assertThat(group.percentiles()).isEqualTo(List.of(
+                sorted.get((int) Math.ceil(sorted.size() * 0.5) - 1),
+                sorted.get((int) Math.ceil(sorted.size() * 0.95) - 1),
+                sorted.getLast()
+            ));
+        }
+        Comparator<Group> order = Comparator.comparing(Group::bucket, Comparator.nullsFirst(Comparator.naturalOrder()))
+            .thenComparing(Comparator.comparingLong(Group::count).reversed());
+        assertThat(groups).isSortedAccordingTo(order);
+    }
+
+    @Test
+    @DisplayName("Limiting groups of each time bucket test.")
+    public void limitingGroupsTest_ExpectLargestGroupsOfEachBucket() {
+        List<Log> logs = getLogs();
+        AnalyzerSettings settings = getSettings(List.of(FilterField.HTTP_PATH), TimeBucket.DAY);
+        GroupedStatistics all = new GroupedStatistics(settings);
+        GroupedStatistics limited = new GroupedStatistics(settings.toBuilder().groupLimit(2).build());
+        logs.forEach(all::update);
+        logs.forEach(limited::update);
+
+        Map<OffsetDateTime, List<Group>> expected = new HashMap<>();
+        for (var group : all.groups()) {
+            List<Group> bucketGroups = expected.computeIfAbsent(group.bucket(), _ -> new ArrayList<>());
+            if (bucketGroups.size() < 2) {
+                bucketGroups.add(group);
+            }
+        }
+        assertThat(limited.groups()).isEqualTo(
+            all.groups().stream().filter(group -> expected.get(group.bucket()).contains(group)).toList()
+        );
+        assertThat(limited.groups()).hasSize(4 * 2);
+    }
+
+    @Test
+    @DisplayName("Estimating percentiles of groups test.")
+    public void estimatingPercentilesTest_ExpectPercentilesWithinRelativeError() {
+        List<Log> logs = getLogs();
+        AnalyzerSettings exactSettings = getSettings(List.of(FilterField.HTTP_STATUS), TimeBucket.DAY);
+        GroupedStatistics exact = new GroupedStatistics(exactSettings);
+        GroupedStatistics estimated = new GroupedStatistics(exactSettings.toBuilder().percentileError(0.01).build());
+        logs.forEach(exact::update);
+        logs.forEach(estimated::update);
+
+        List<Group> exactGroups = exact.groups();
+        List<Group> estimatedGroups = estimated.groups();
+        assertThat(estimatedGroups).hasSize(exactGroups.size());
+        for (int i = 0; i < exactGroups.size(); i++) {
+            assertThat(estimatedGroups.get(i).sum()).isEqualTo(exactGroups.get(i).sum());
+            for (int j = 0; j < exactGroups.get(i).percentiles().size(); j++) {
+                double actual = exactGroups.get(i).percentiles().get(j).doubleValue();
+                double estimate = estimatedGroups.get(i).percentiles().get(j).doubleValue();
+                assertThat(Math.abs(estimate - actual)).isLessThanOrEqualTo(actual * 0.01 + 1);
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Merging statistics grouped in different ways test.")
+    public void mergingDifferentGroupingsTest_ExpectIllegalArgumentException() {
+        GroupedStatistics byStatus = new GroupedStatistics(getSettings(List.of(FilterField.HTTP_STATUS), null));
+        GroupedStatistics byHour = new GroupedStatistics(getSettings(List.of(), TimeBucket.HOUR));
+        assertThatThrownBy(() -> byStatus.addAll(byHour)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Grouping logs of a file in chunks test.")
+    public void groupingLogsOfFileTest_ExpectSameGroupsAsSequentialReading() throws IOException {
+        Path path = Files.createTempFile("grouped", ".txt");
+        path.toFile().deleteOnExit();
+        Files.write(path, getLines());
+        AnalyzerSettings settings = getSettings(List.of(FilterField.HTTP_STATUS), TimeBucket.HOUR);
+        LogStatistics sequential = LogAnalyzer.getStatisticsFromFile(path, settings);
+        LogStatistics chunked = LogAnalyzer.getStatisticsFromFile(
+            path,
+            settings.toBuilder().memoryMapped(true).threads(3).build()
+        );
+        assertThat(sequential.groups().groups()).isNotEmpty();
+        assertThat(chunked.groups().groups()).isEqualTo(sequential.groups().groups());
+    }
+}
@@ -1,26 +1,40 @@
 package analyzer.statistics;
 
+import analyzer.io.RangeHttpServer;
+import analyzer.parser.ParserService;
 import java.io.BufferedReader;
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.OutputStream;
 import java.math.BigInteger;
 import java.net.MalformedURLException;
 import java.net.URI;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
 import org.apache.commons.math3.util.Pair;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.MethodSource;
 import static org.assertj.core.api.Assertions.assertThat;
@@ -34,6 +48,18 @@ class LogAnalyzerTest {
         "https://raw.githubusercontent.com/elastic/examples/master/Common%20Data%20Formats/nginx_logs/nginx_logs"
     );
 
+    private static final int FIXTURE_REPETITIONS = 2_000;
+
+    private static final byte[] BGZF_HEADER = {
+        0x1f, (byte) 0x8b, 8, 4, 0, 0, 0, 0, 0, (byte) 0xff, 6, 0, 'B', 'C', 2, 0
+    };
+    private static final int BGZF_OVERHEAD = 1 << 10;
+
+    private static final int ORDERED_LOGS_NUMBER = 50_000;
+    private static final OffsetDateTime ORDERED_LOGS_START = OffsetDateTime.parse("2015-05-01T00:00:00Z");
+    private static final DateTimeFormatter LOG_DATE_FORMATTER =
+        DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.ENGLISH);
+
     private static Stream<Path> getSourcesPaths() {
         return Stream.of(TEST_FILE_PATH);
     }
@@ -65,6 +91,131 @@ class LogAnalyzerTest {
             .containsExactlyInAnyOrderElementsOf(theMostFrequentHttpAddress);
     }
 
+    private static Stream<AnalyzerSettings> getSequentialSettings() {
+        return Stream.of(
+            AnalyzerSettings.builder().build(),
+            AnalyzerSettings.builder().parser(ParserService.getParser("scanner")).build(),
+            AnalyzerSettings.builder()
+                .from(OffsetDateTime.parse("2015-05-17T08:05:30Z"))
+                .filterParams(Map.of("httpStatus", "30"))
+                .build()
+        );
+    }
+
+    private static Stream<AnalyzerSettings> getTimeRangeSettings() {
+        return Stream.of(
+            AnalyzerSettings.builder()
+                .from(OffsetDateTime.parse("2015-05-02T10:00:00Z"))
+                .to(OffsetDateTime.parse("2015-05-02T11:00:00.0005+00:00"))
+                .build(),
+            AnalyzerSettings.builder()
+                .from(OffsetDateTime.parse("2015-05-03T00:00:00+03:00"))
+                .parser(ParserService.getParser("scanner"))
+                .build(),
+            AnalyzerSettings.builder()
+                .to(OffsetDateTime.parse("2015-05-01T01:00:00Z"))
+                .filterParams(Map.of("httpStatus", "30"))
+                .build(),
+            AnalyzerSettings.builder()
+                .from(OffsetDateTime.parse("2016-01-01T00:00:00Z"))
+                .to(OffsetDateTime.parse("2016-01-02T00:00:00Z"))
+                .build()
+        );
+    }
+
+    /**
+     * Writes logs one to seven seconds apart, every tenth log being half a minute earlier than the preceding one.
+     */
+    private static Path writeOrderedFile(Path directory) throws IOException {
+        StringBuilder logs = new StringBuilder();
+        OffsetDateTime dateTime = ORDERED_LOGS_START;
+        for (int i = 0; i < ORDERED_LOGS_NUMBER; i++) {
+            dateTime = dateTime.plusSeconds(1 + i % 7);
+            OffsetDateTime logDateTime = i % 10 == 0 ? dateTime.minusSeconds(30) : dateTime;
+            logs.append("93.180.71.").append(i % 256).append(" - - [")
+                .append(LOG_DATE_FORMATTER.format(logDateTime))
+                .append("] \"GET /downloads/product_").append(i % 3).append(" HTTP/1.1\" ")
+                .append(i % 5 == 0 ? "304" : "200").append(' ').append(i % 1000)
+                .append(" \"-\" \"Debian APT-HTTP/1.3 (0.8.16~exp12ubuntu10.21)\"\n");
+        }
+        Path file = directory.resolve("ordered.txt");
+        Files.writeString(file, logs.toString());
+        return file;
+    }
+
+    private static Path writeFixturesFile(Path directory) throws IOException {
+        StringBuilder logs = new StringBuilder();
+        for (var fixture : List.of("/logs/logs.txt", "/logs/logs1.txt", "/logs/logs2.txt")) {
+            try (InputStream stream = LogAnalyzerTest.class.getResourceAsStream(fixture)) {
+                logs.append(new String(Objects.requireNonNull(stream).readAllBytes(), StandardCharsets.UTF_8));
+            }
+        }
+        Path file = directory.resolve("fixtures.txt");
+        Files.writeString(file, logs.toString().repeat(FIXTURE_REPETITIONS));
+        return file;
+    }
+
+    private static Path writeGzipFile(Path file, int... memberStarts) throws IOException {
+        byte[] content = Files.readAllBytes(file);
+        Path compressed = file.resolveSibling(file.getFileName() + ".gz");
+        try (OutputStream out = Files.newOutputStream(compressed)) {
+            for (int i = 0; i < memberStarts.length; i++) {
+                int end = i + 1 < memberStarts.length ? memberStarts[i + 1] : content.length;
+                GZIPOutputStream member = new GZIPOutputStream(out);
+                member.write(content, memberStarts[i], end - memberStarts[i]);
+                member.finish();
+            }
+        }
+        return compressed;
+    }
+
+    /**
+     * Writes the file in the BGZF format: gzip members of at most {@code memberSize} uncompressed bytes with
+     * the compressed size in the {@code BC} subfield of the header, followed by an empty member.
+     */
+    private static Path writeBgzfFile(Path file, int memberSize) throws IOException {
+        byte[] content = Files.readAllBytes(file);
+        Path compressed = file.resolveSibling(file.getFileName() + ".bgz");
+        try (OutputStream out = Files.newOutputStream(compressed)) {
+            for (int start = 0; start <= content.length; start += memberSize) {
+                int length = Math.min(memberSize, content.length - start);
+                Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+                deflater.setInput(content, start, length);
+                deflater.finish();
+                byte[] deflated = new byte[length + BGZF_OVERHEAD];
+                int deflatedLength = 0;
+                while (!deflater.finished()) {
+                    deflatedLength += deflater.deflate(deflated, deflatedLength, deflated.length - deflatedLength);
+                }
+                deflater.end();
+                CRC32 crc = new CRC32();
+                crc.update(content, start, length);
+                int memberLength = BGZF_HEADER.length + 2 + deflatedLength + 2 * Integer.BYTES;
+                out.write(ByteBuffer.allocate(memberLength).order(ByteOrder.LITTLE_ENDIAN)
+                    .put(BGZF_HEADER)
+                    .putShort((short) (memberLength - 1))
+                    .put(deflated, 0, deflatedLength)
+                    .putInt((int) crc.getValue())
+                    .putInt(length)
+                    .array());
+            }
+        }
+        return compressed;
+    }
+
+    private static void assertStatisticsAreEqual(LogStatistics actual, LogStatistics expected) {
+        assertStatisticsMatchesExpectedValues(
+            actual,
+            expected.numberOfRequests(),
+            expected.averageServerResponseSize(),
+            expected.responseSizePercentile(),
+            expected.theMostCommonResponseCodes(),
+            expected.theMostFrequentlyRequestedResources(),
+            expected.theMostFrequentHttpReferer(),
+            expected.theMostFrequentRemoteAddresses()
+        );
+    }
+
     @BeforeAll
     public static void prepareNewDirectoryWithTestFiles() throws IOException {
         Files.createDirectory(TEST_DIRECTORY_PATH);
@@ -176,4 +327,164 @@ class LogAnalyzerTest {
             List.of(Pair.create("217.168.17.5", BigInteger.valueOf(4)))
         );
     }
+
+    @ParameterizedTest
+    @MethodSource("getSequentialSettings")
+    @DisplayName("Memory-mapped statistics match sequential statistics test.")
+    public void gettingStatisticsFromMappedFileTest_ExpectSameStatistics(
+        AnalyzerSettings settings,
+        @TempDir Path directory
+    ) throws IOException {
+        Path file = writeFixturesFile(directory);
+        LogStatistics expected = LogAnalyzer.getStatisticsFromFile(file, settings);
+        LogStatistics actual = LogAnalyzer.getStatisticsFromFile(
+            file,
+            settings.toBuilder().memoryMapped(true).threads(4).build()
+        );
+        assertStatisticsAreEqual(actual, expected);
+    }
+
+    @ParameterizedTest
+    @MethodSource("getSequentialSettings")
+    @DisplayName("Parallel stream statistics match sequential statistics test.")
+    public void gettingStatisticsWithParallelStreamTest_ExpectSameStatistics(
+        AnalyzerSettings settings,
+        @TempDir Path directory
+    ) throws IOException {
+        Path file = writeFixturesFile(directory);
+        LogStatistics expected = LogAnalyzer.getStatisticsFromFile(file, settings);
+        LogStatistics actual = LogAnalyzer.getStatisticsFromFile(
+            file,
+            settings.toBuilder().parallel(true).threads(4).build()
+        );
+        assertStatisticsAreEqual(actual, expected);
+    }
+
+    @ParameterizedTest
+    @MethodSource("getTimeRangeSettings")
+    @DisplayName("Statistics of a time range of an ordered file match full scan statistics test.")
+    public void gettingStatisticsWithSeekTest_ExpectSameStatistics(
+        AnalyzerSettings settings,
+        @TempDir Path directory
+    ) throws IOException {
+        Path file = writeOrderedFile(directory);
+        LogStatistics expected = LogAnalyzer.getStatisticsFromFile(file, settings);
+        LogStatistics actual = LogAnalyzer.getStatisticsFromFile(file, settings.toBuilder().seek(true).build());
+        assertStatisticsAreEqual(actual, expected);
+    }
+
+    @ParameterizedTest
+    @MethodSource("getTimeRangeSettings")
+    @DisplayName("Statistics of a time range of an unordered file match full scan statistics test.")
+    public void gettingStatisticsWithSeekFromUnorderedFileTest_ExpectSameStatistics(
+        AnalyzerSettings settings,
+        @TempDir Path directory
+    ) throws IOException {
+        Path file = writeFixturesFile(directory);
+        LogStatistics expected = LogAnalyzer.getStatisticsFromFile(file, settings);
+        LogStatistics actual = LogAnalyzer.getStatisticsFromFile(file, settings.toBuilder().seek(true).build());
+        assertStatisticsAreEqual(actual, expected);
+    }
+
+    @ParameterizedTest
+    @MethodSource("getTimeRangeSettings")
+    @DisplayName("Statistics collected with a built and a reused index match full scan statistics test.")
+    public void gettingStatisticsWithIndexTest_ExpectSameStatistics(
+        AnalyzerSettings settings,
+        @TempDir Path directory
+    ) throws IOException {
+        Path file = writeOrderedFile(directory);
+        LogStatistics expected = LogAnalyzer.getStatisticsFromFile(file, settings);
+        AnalyzerSettings indexed = settings.toBuilder().indexed(true).build();
+        assertStatisticsAreEqual(LogAnalyzer.getStatisticsFromFile(file, indexed), expected);
+        assertThat(directory.resolve("ordered.txt.idx")).exists();
+        assertStatisticsAreEqual(LogAnalyzer.getStatisticsFromFile(file, indexed), expected);
+    }
+
+    @ParameterizedTest
+    @MethodSource("getTimeRangeSettings")
+    @DisplayName("Statistics collected with an index of a grown file match full scan statistics test.")
+    public void gettingStatisticsWithIndexAfterAppendingTest_ExpectSameStatistics(
+        AnalyzerSettings settings,
+        @TempDir Path directory
+    ) throws IOException {
+        Path file = writeOrderedFile(directory);
+        AnalyzerSettings indexed = settings.toBuilder().indexed(true).build();
+        LogAnalyzer.getStatisticsFromFile(file, indexed);
+        Files.write(file, Files.readAllBytes(writeFixturesFile(directory)), StandardOpenOption.APPEND);
+        LogStatistics expected = LogAnalyzer.getStatisticsFromFile(file, settings);
+        assertStatisticsAreEqual(LogAnalyzer.getStatisticsFromFile(file, indexed), expected);
+    }
+
+    @ParameterizedTest
+    @MethodSource("getTimeRangeSettings")
+    @DisplayName("Statistics collected with an index of a rewritten file match full scan statistics test.")
+    public void gettingStatisticsWithIndexAfterRewritingTest_ExpectSameStatistics(
+        AnalyzerSettings settings,
+        @TempDir Path directory
+    ) throws IOException {
+        Path file = writeOrderedFile(directory);
+        Path indexDirectory = Files.createDirectory(directory.resolve("indexes"));
+        AnalyzerSettings indexed = settings.toBuilder().indexed(true).indexDirectory(indexDirectory).build();
+        LogAnalyzer.getStatisticsFromFile(file, indexed);
+        Files.write(file, Files.readAllBytes(writeFixturesFile(directory)));
+        LogStatistics expected = LogAnalyzer.getStatisticsFromFile(file, settings);
+        assertStatisticsAreEqual(LogAnalyzer.getStatisticsFromFile(file, indexed), expected);
+        assertThat(indexDirectory).isNotEmptyDirectory();
+    }
+
+    @ParameterizedTest
+    @MethodSource("getTimeRangeSettings")
+    @DisplayName("Statistics of gzip-compressed files match statistics of uncompressed files test.")
+    public void gettingStatisticsFromGzipFileTest_ExpectSameStatistics(
+        AnalyzerSettings settings,
+        @TempDir Path directory
+    ) throws IOException {
+        Path file = writeOrderedFile(directory);
+        LogStatistics expected = LogAnalyzer.getStatisticsFromFile(file, settings);
+        for (var compressed : List.of(
+            writeGzipFile(file, 0),
+            writeGzipFile(file, 0, 1_000_001, 2_777_777),
+            writeBgzfFile(file, 65_280),
+            writeBgzfFile(file, 100)
+        )) {
+            LogStatistics actual = LogAnalyzer.getStatisticsFromFile(compressed, settings);
+            assertStatisticsAreEqual(actual, expected);
+            assertThat(actual.pathToFile()).isEqualTo(compressed.toString());
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("getTimeRangeSettings")
+    @DisplayName("Statistics of logs served over HTTP match statistics of local files test.")
+    public void gettingStatisticsFromHttpServerTest_ExpectSameStatistics(
+        AnalyzerSettings settings,
+        @TempDir Path directory
+    ) throws IOException {
+        Path file = writeOrderedFile(directory);
+        LogStatistics expected = LogAnalyzer.getStatisticsFromFile(file, settings);
+        byte[] content = Files.readAllBytes(file);
+        byte[] compressed = Files.readAllBytes(writeGzipFile(file, 0));
+        AnalyzerSettings retrying = settings.toBuilder().retries(2).build();
+        for (var server : List.of(
+            new RangeHttpServer(content, true, 0, 0),
+            new RangeHttpServer(content, false, 0, 0),
+            new RangeHttpServer(content, true, 3, 1_000_001),
+            new RangeHttpServer(compressed, true, 2, 100_001)
+        )) {
+            try (server) {
+                LogStatistics actual = LogAnalyzer.getStatisticsFromURL(server.url(), retrying);
+                assertStatisticsAreEqual(actual, expected);
+                assertThat(actual.pathToFile()).isEqualTo(server.url().toString());
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Getting statistics from a file compressed in an unsupported format test.")
+    public void gettingStatisticsFromZstdFileTest_ExpectNull(@TempDir Path directory) throws IOException {
+        Path file = directory.resolve("logs.zst");
+        Files.write(file, new byte[] {0x28, (byte) 0xb5, 0x2f, (byte) 0xfd, 0, 0, 0, 0});
+        assertThat(LogAnalyzer.getStatisticsFromFile(file, AnalyzerSettings.builder().build())).isNull();
+    }
 }
@@ -0,0 +1,175 @@
+package analyzer.statistics;
+
+import analyzer.error.InvalidLogFormatException;
+import analyzer.filter.FilterExpression;
+import analyzer.filter.FilterParser;
+import analyzer.parser.Log;
+import analyzer.parser.LogFixtures;
+import analyzer.parser.LogParser;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.OffsetDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("LogFilter test.")
+class LogFilterTest {
+
+    private static final int FUZZ_ITERATIONS = 20_000;
+
+    private static final List<String> FIELD_NAMES = List.of(
+        "remoteAddress", "remoteUser", "dateTime", "httpRequest",
+        "httpStatus", "bodyBytesSent", "httpReferer", "httpUserAgent"
+    );
+
+    private static List<String> getLogs() throws IOException {
+        List<String> logs = LogFixtures.getLogs();
+        logs.add(" - - [17/May/2015:08:05:45 +0000] \"GET /a\"b HTTP/1.0\" 100 1 \"a b\" \"ü \"");
+        logs.add("1.2.3.4 - user [17/May/2015:08:05:45 +0000] \"GET / HTTP/1.0\" 200 10 \"\" \"agent\"");
+        return logs;
+    }
+
+    private static Stream<Map<String, String>> getFilterParams() {
+        return Stream.of(
+            Map.of(),
+            Map.of("httpStatus", "30"),
+            Map.of("httpStatus", "404", "remoteAddress", "217.168.17.5"),
+            Map.of("bodyBytesSent", "3", "httpReferer", "-"),
+            Map.of("httpUserAgent", "Debian APT-HTTP/1.3 (0.8", "httpRequest", "GET /downloads/product_1"),
+            Map.of("remoteAddress", "", "httpUserAgent", "ü"),
+            Map.of("remoteUser", "-", "dateTime", "2015-05-17T08:05:4"),
+            Map.of("remoteAddress", "8", "httpStatus", "2", "bodyBytesSent", "1", "httpReferer", "\"")
+        );
+    }
+
+    private static Stream<String> getFilterExpressions() {
+        return Stream.of(
+            "httpStatus >= 400",
+            "httpStatus in 300..399 or bodyBytesSent > 1000",
+            "not remoteAddress in 80.0.0.0/4 and method in (GET, HEAD)",
+            "remoteAddress in ::/0 or path glob \"/downloads/*_1\"",
+            "httpUserAgent ~ \"\\(0\\.8\" and httpReferer = \"-\"",
+            "httpRequest ^= \"GET /downloads/product_2\" or httpStatus = 100",
+            "(httpStatus = 404 or remoteUser = user) and not httpUserAgent !~ \"ü|APT\"",
+            "dateTime ^= 2015-05-17T08:05:4 || path glob \"/**\" && bodyBytesSent < 10"
+        );
+    }
+
+    private static boolean isExpectedToMatch(Log log, Map<String, String> filterParams) {
+        return filterParams.entrySet().stream()
+            .allMatch(parameter -> log.getFieldByName(parameter.getKey()).startsWith(parameter.getValue()));
+    }
+
+    private static Log parseOrNull(String log) {
+        try {
+            return LogParser.parse(log);
+        } catch (InvalidLogFormatException e) {
+            return null;
+        }
+    }
+
+    private static void assertFilterMatches(AnalyzerSettings settings, String line, Log log, boolean expected) {
+        LogFilter filter = LogFilter.compile(settings);
+        byte[] bytes = ("garbage\n" + line + "\n").getBytes(StandardCharsets.UTF_8);
+        int from = "garbage\n".length();
+        int to = bytes.length - 1;
+        assertThat(filter.matches(log)).as(line).isEqualTo(expected);
+        assertThat(filter.mayMatch(bytes, from, to) && filter.matchesParsed(log)).as(line).isEqualTo(expected);
+        assertThat(filter.mayMatch(line) && filter.matchesParsed(log)).as(line).isEqualTo(expected);
+    }
+
+    @ParameterizedTest
+    @MethodSource("getFilterParams")
+    @DisplayName("Filtering logs by fields test.")
+    public void filteringByFieldsTest_ExpectSameResultAsFilterParameters(Map<String, String> filterParams)
+        throws IOException {
+        AnalyzerSettings settings = AnalyzerSettings.builder().filterParams(filterParams).build();
+        for (var line : getLogs()) {
+            Log log = LogParser.parse(line);
+            assertFilterMatches(settings, line, log, isExpectedToMatch(log, filterParams));
+        }
+    }
+
+    @Test
+    @DisplayName("Filtering logs by dates test.")
+    public void filteringByDatesTest_ExpectLogsWithinRange() throws IOException {
+        AnalyzerSettings settings = AnalyzerSettings.builder()
+            .from(OffsetDateTime.parse("2015-05-17T08:05:30Z"))
+            .to(OffsetDateTime.parse("2015-05-17T08:06:00Z"))
+            .filterParams(Map.of("httpStatus", "404"))
+            .build();
+        for (var line : getLogs()) {
+            Log log = LogParser.parse(line);
+            OffsetDateTime dateTime = OffsetDateTime.parse(log.dateTime());
+            boolean expected = dateTime.isAfter(settings.from()) && dateTime.isBefore(settings.to())
+                && log.httpStatus().startsWith("404");
+            assertFilterMatches(settings, line, log, expected);
+        }
+    }
+
+    @Test
+    @DisplayName("Filtering fuzzed logs test.")
+    public void filteringFuzzedLogsTest_ExpectSameResultAsFilterParameters() throws IOException {
+        List<String> logs = getLogs();
+        Random random = new Random(FUZZ_ITERATIONS);
+        for (int i = 0; i < FUZZ_ITERATIONS; i++) {
+            String line = LogFixtures.mutate(logs.get(random.nextInt(logs.size())), random);
+            Log log = parseOrNull(line);
+            if (log == null) {
+                continue;
+            }
+            String fieldName = FIELD_NAMES.get(random.nextInt(FIELD_NAMES.size()));
+            Log other = LogParser.parse(logs.get(random.nextInt(logs.size())));
+            String value = (random.nextBoolean() ? log : other).getFieldByName(fieldName);
+            String prefix = value.substring(0, random.nextInt(value.length() + 1));
+            Map<String, String> filterParams = Map.of(fieldName, prefix);
+            AnalyzerSettings settings = AnalyzerSettings.builder().filterParams(filterParams).build();
+            assertFilterMatches(settings, line, log, isExpectedToMatch(log, filterParams));
+        }
+    }
+
+    @ParameterizedTest
+    @MethodSource("getFilterExpressions")
+    @DisplayName("Filtering logs by expression test.")
+    public void filteringByExpressionTest_ExpectSameResultAsParsedLog(String expression) throws IOException {
+        FilterExpression filter = FilterParser.parse(expression);
+        Map<String, String> filterParams = Map.of("remoteUser", "-");
+        AnalyzerSettings settings = AnalyzerSettings.builder().filterParams(filterParams).filter(filter).build();
+        List<String> logs = getLogs();
+        Random random = new Random(FUZZ_ITERATIONS);
+        for (int i = 0; i < logs.size() + FUZZ_ITERATIONS / 10; i++) {
+            String line = i < logs.size() ? logs.get(i) : LogFixtures.mutate(logs.get(random.nextInt(logs.size())), random);
+            Log log = parseOrNull(line);
+            if (log != null) {
+                assertFilterMatches(settings, line, log, filter.matches(log) && isExpectedToMatch(log, filterParams));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Line without fields test.")
+    public void lineWithoutFieldsTest_ExpectLineAccepted() {
+        LogFilter filter = LogFilter.compile(
+            AnalyzerSettings.builder().filterParams(Map.of("httpStatus", "2", "remoteAddress", "1")).build()
+        );
+        byte[] line = "invalid".getBytes(StandardCharsets.UTF_8);
+        assertThat(filter.mayMatch(line, 0, line.length)).isTrue();
+        assertThat(filter.mayMatch("invalid")).isTrue();
+        assertThat(filter.mayMatch("")).isTrue();
+    }
+
+    @Test
+    @DisplayName("Filter by unknown field test.")
+    public void unknownFieldTest_ExpectIllegalArgumentException() {
+        AnalyzerSettings settings = AnalyzerSettings.builder().filterParams(Map.of("unknown", "1")).build();
+        Assertions.assertThrows(IllegalArgumentException.class, () -> LogFilter.compile(settings));
+    }
+}
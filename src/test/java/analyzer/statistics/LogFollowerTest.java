@@ -0,0 +1,97 @@
+package analyzer.statistics;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("LogFollower test.")
+class LogFollowerTest {
+
+    private static final String LOG = "93.180.71.3 - - [17/May/2015:08:05:32 +0000] "
+        + "\"GET /downloads/product_1 HTTP/1.1\" 304 0 \"-\" \"Debian APT-HTTP/1.3 (0.8.16~exp12ubuntu10.21)\"\n";
+
+    private static final Duration WINDOW = Duration.ofMinutes(60);
+
+    @TempDir
+    private Path directory;
+
+    private final ManualClock clock = new ManualClock();
+
+    private static void append(Path file, String content) throws IOException {
+        Files.writeString(file, content, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    @Test
+    @DisplayName("Following appended logs test.")
+    public void followingAppendedLogsTest_ExpectStatisticsOfNewLogs() throws IOException {
+        Path file = directory.resolve("access.log");
+        append(file, LOG.repeat(3));
+        try (LogFollower follower = new LogFollower(file, AnalyzerSettings.builder().build(), WINDOW, clock)) {
+            follower.poll();
+            assertThat(follower.statistics().numberOfRequests()).isEqualTo(BigInteger.ZERO);
+            append(file, LOG.repeat(2) + "invalid log\n" + LOG.substring(0, 10));
+            follower.poll();
+            assertThat(follower.statistics().numberOfRequests()).isEqualTo(BigInteger.TWO);
+            append(file, LOG.substring(10));
+            follower.poll();
+            LogStatistics statistics = follower.statistics();
+            assertThat(statistics.numberOfRequests()).isEqualTo(BigInteger.valueOf(3));
+            assertThat(statistics.theMostFrequentlyRequestedResources()).hasSize(1);
+            assertThat(statistics.pathToFile()).isEqualTo(file.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Statistics leave the window test.")
+    public void followingLogsTest_ExpectOnlyLogsReadDuringWindow() throws IOException {
+        Path file = directory.resolve("access.log");
+        try (LogFollower follower = new LogFollower(file, AnalyzerSettings.builder().build(), WINDOW, clock)) {
+            follower.poll();
+            append(file, LOG);
+            follower.poll();
+            clock.advance(WINDOW.dividedBy(2));
+            append(file, LOG.repeat(2));
+            follower.poll();
+            assertThat(follower.statistics().numberOfRequests()).isEqualTo(BigInteger.valueOf(3));
+            clock.advance(WINDOW.dividedBy(2));
+            assertThat(follower.statistics().numberOfRequests()).isEqualTo(BigInteger.TWO);
+            clock.advance(WINDOW);
+            assertThat(follower.statistics().numberOfRequests()).isEqualTo(BigInteger.ZERO);
+        }
+    }
+
+    private static final class ManualClock extends Clock {
+
+        private Instant instant = Instant.EPOCH;
+
+        private void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
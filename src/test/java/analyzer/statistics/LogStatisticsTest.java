@@ -0,0 +1,185 @@
+package analyzer.statistics;
+
+import analyzer.filter.FilterField;
+import analyzer.parser.LineParser;
+import analyzer.parser.Log;
+import analyzer.parser.LogBatch;
+import analyzer.parser.LogParser;
+import analyzer.parser.ParserService;
+import analyzer.render.MarkdownRenderer;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("LogStatistics test.")
+class LogStatisticsTest {
+
+    private static final String SOURCE = "source";
+
+    private static final int REPETITIONS = 50;
+
+    private static final List<Log> LOGS = new ArrayList<>();
+
+    private static final List<String> LINES = new ArrayList<>();
+
+    private static final String WIDE_SIZE_LINE = "1.1.1.1 - - [17/May/2015:08:05:32 +0000] \"GET /a HTTP/1.1\" 200 "
+        + "99999999999999999999999 \"-\" \"agent\"";
+
+    @BeforeAll
+    public static void parseFixtureLogs() throws IOException {
+        for (var fixture : List.of("/logs/logs.txt", "/logs/logs1.txt", "/logs/logs2.txt")) {
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                Objects.requireNonNull(LogStatisticsTest.class.getResourceAsStream(fixture)),
+                StandardCharsets.UTF_8
+            ))) {
+                reader.lines().forEach(LINES::add);
+            }
+        }
+        LINES.stream().map(LogParser::parse).forEach(LOGS::add);
+        LINES.add(WIDE_SIZE_LINE);
+    }
+
+    private static Stream<Arguments> getBatchSettings() {
+        AnalyzerSettings settings = AnalyzerSettings.builder().topK(1000).percentiles(List.of(50.0, 99.0)).build();
+        List<AnalyzerSettings> variants = List.of(
+            settings,
+            settings.toBuilder().percentileError(0.01).topKCapacity(20).build(),
+            settings.toBuilder().groupBy(List.of(FilterField.HTTP_STATUS)).timeBucket(TimeBucket.HOUR).build()
+        );
+        return Stream.of("regex", "scanner", "simd")
+            .flatMap(engine -> variants.stream().map(variant -> Arguments.of(engine, variant)));
+    }
+
+    private static LogStatistics collect(List<Log> logs) {
+        LogStatistics statistics = new LogStatistics(null, null, SOURCE);
+        logs.forEach(statistics::update);
+        return statistics;
+    }
+
+    private static List<Object> snapshot(LogStatistics statistics) {
+        return List.of(
+            statistics.numberOfRequests(),
+            statistics.averageServerResponseSize(),
+            statistics.responseSizePercentile(),
+            statistics.theMostFrequentlyRequestedResources(),
+            statistics.theMostCommonResponseCodes(),
+            statistics.theMostFrequentRemoteAddresses(),
+            statistics.theMostFrequentHttpReferer()
+        );
+    }
+
+    @Test
+    @DisplayName("Combining is associative test.")
+    public void combiningTest_ExpectAssociativity() {
+        int third = LOGS.size() / 3;
+        List<Log> first = LOGS.subList(0, third);
+        List<Log> second = LOGS.subList(third, 2 * third);
+        List<Log> last = LOGS.subList(2 * third, LOGS.size());
+        LogStatistics left = collect(first).combine(collect(second)).combine(collect(last));
+        LogStatistics right = collect(first).combine(collect(second).combine(collect(last)));
+        assertThat(snapshot(left))
+            .isEqualTo(snapshot(right))
+            .isEqualTo(snapshot(collect(LOGS)));
+    }
+
+    @Test
+    @DisplayName("Combining is commutative test.")
+    public void combiningTest_ExpectCommutativity() {
+        int half = LOGS.size() / 2;
+        List<Log> first = LOGS.subList(0, half);
+        List<Log> second = LOGS.subList(half, LOGS.size());
+        assertThat(snapshot(collect(first).combine(collect(second))))
+            .isEqualTo(snapshot(collect(second).combine(collect(first))))
+            .isEqualTo(snapshot(collect(LOGS)));
+    }
+
+    @Test
+    @DisplayName("Combining with empty statistics test.")
+    public void combiningWithEmptyTest_ExpectSameStatistics() {
+        assertThat(snapshot(collect(LOGS).combine(collect(List.of()))))
+            .isEqualTo(snapshot(collect(List.of()).combine(collect(LOGS))))
+            .isEqualTo(snapshot(collect(LOGS)));
+    }
+
+    @Test
+    @DisplayName("Combining keeps sources of both statistics test.")
+    public void combiningTest_ExpectBothSources() {
+        LogStatistics statistics = new LogStatistics(null, null, "first")
+            .combine(new LogStatistics(null, null, "second"))
+            .combine(new LogStatistics(null, null, "first"));
+        assertThat(statistics.pathToFile()).isEqualTo("first, second");
+    }
+
+    @Test
+    @DisplayName("Collecting parallel stream test.")
+    public void collectingParallelStreamTest_ExpectSameStatisticsAsSequential() {
+        List<Log> logs = new ArrayList<>();
+        for (int i = 0; i < REPETITIONS; i++) {
+            logs.addAll(LOGS);
+        }
+        LogStatistics statistics = logs
+            .parallelStream()
+            .collect(LogStatistics.collector(null, null, SOURCE));
+        assertThat(snapshot(statistics)).isEqualTo(snapshot(collect(logs)));
+    }
+
+    @ParameterizedTest
+    @MethodSource("getBatchSettings")
+    @DisplayName("Updating statistics by batches test.")
+    public void updatingBatchesTest_ExpectSameStatisticsAsUpdatingLogs(String engine, AnalyzerSettings settings) {
+        LineParser parser = ParserService.getParser(engine);
+        LogStatistics expected = new LogStatistics(SOURCE, settings);
+        LogStatistics actual = new LogStatistics(SOURCE, settings);
+        LogBatch batch = new LogBatch(7);
+        for (var line : LINES) {
+            byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+            expected.update(parser.parse(bytes, 0, bytes.length));
+            if (batch.add(parser.parse(bytes, 0, bytes.length, batch.view()))) {
+                actual.updateBatch(batch);
+                batch.clear();
+            }
+        }
+        actual.updateBatch(batch);
+        MarkdownRenderer renderer = new MarkdownRenderer();
+        assertThat(actual.numberOfRequests()).isEqualTo(BigInteger.valueOf(LINES.size()));
+        assertThat(renderer.render(actual)).isEqualTo(renderer.render(expected));
+    }
+
+    @Test
+    @DisplayName("Response sizes exceeding long test.")
+    public void wideResponseSizesTest_ExpectExactAverageAndPercentile() {
+        List<String> sizes = List.of("99999999999999999999999", "0009223372036854775807", "9223372036854775808", "1");
+        LogStatistics statistics = collect(sizes.stream()
+            .map(size -> new Log("1.1.1.1", "-", "", "GET / HTTP/1.1", "200", size, "-", "-"))
+            .toList());
+        BigInteger sum = sizes.stream().map(BigInteger::new).reduce(BigInteger.ZERO, BigInteger::add);
+        assertThat(statistics.numberOfRequests()).isEqualTo(BigInteger.valueOf(sizes.size()));
+        assertThat(statistics.averageServerResponseSize()).isEqualTo(sum.divide(BigInteger.valueOf(sizes.size())));
+        assertThat(statistics.responseSizePercentile()).isEqualTo(BigInteger.ONE);
+    }
+
+    @Test
+    @DisplayName("Nearest-rank percentiles test.")
+    public void percentilesTest_ExpectNearestRankValues() {
+        LogStatistics statistics = collect(Stream.iterate(1, size -> size + 1)
+            .limit(200)
+            .map(size -> new Log("1.1.1.1", "-", "", "GET / HTTP/1.1", "200", size.toString(), "-", "-"))
+            .toList());
+        assertThat(statistics.responseSizePercentile(50)).isEqualTo(BigInteger.valueOf(100));
+        assertThat(statistics.responseSizePercentile(99.9)).isEqualTo(BigInteger.valueOf(200));
+        assertThat(statistics.responseSizePercentile(0.1)).isEqualTo(BigInteger.ONE);
+    }
+}
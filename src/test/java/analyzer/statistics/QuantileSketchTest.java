@@ -0,0 +1,165 @@
+package analyzer.statistics;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.math.BigInteger;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+@DisplayName("QuantileSketch test.")
+class QuantileSketchTest {
+
+    private static final double RELATIVE_ERROR = 0.01;
+
+    private static final int VALUES_NUMBER = 100_000;
+
+    private static final double[] PERCENTILES = {0.1, 1, 50, 90, 95, 99, 99.9, 100};
+
+    private static Stream<Long> getSeeds() {
+        return Stream.of(1L, 2L, 3L);
+    }
+
+    @ParameterizedTest
+    @MethodSource("getSeeds")
+    @DisplayName("Percentiles of merged sketches are within the relative error test.")
+    public void percentilesOfMergedSketchesTest_ExpectWithinRelativeError(long seed) {
+        Random random = new Random(seed);
+        ExactQuantileEstimator exact = new ExactQuantileEstimator();
+        QuantileSketch first = new QuantileSketch(RELATIVE_ERROR);
+        QuantileSketch second = new QuantileSketch(RELATIVE_ERROR);
+        for (int i = 0; i < VALUES_NUMBER; i++) {
+            long value = (long) Math.exp(random.nextDouble() * Math.log(Long.MAX_VALUE));
+            exact.add(value);
+            (i % 2 == 0 ? first : second).add(value);
+        }
+        first.addAll(second);
+        assertThat(first.count()).isEqualTo(exact.count());
+        for (var percentile : PERCENTILES) {
+            double expected = exact.percentile(percentile).doubleValue();
+            assertThat(first.percentile(percentile).doubleValue())
+                .as("p" + percentile)
+                .isCloseTo(expected, within(expected * RELATIVE_ERROR + 1));
+        }
+    }
+
+    @Test
+    @DisplayName("Minimum and maximum are exact test.")
+    public void minimumAndMaximumTest_ExpectExactValues() {
+        QuantileSketch sketch = new QuantileSketch(RELATIVE_ERROR);
+        sketch.add(0);
+        sketch.add(12_345);
+        sketch.add(BigInteger.TEN.pow(30));
+        assertThat(sketch.valueAtRank(0)).isEqualTo(BigInteger.ZERO);
+        assertThat(sketch.valueAtRank(2)).isEqualTo(BigInteger.valueOf(Long.MAX_VALUE));
+        assertThat(sketch.percentile(50).doubleValue()).isCloseTo(12_345, within(12_345 * RELATIVE_ERROR));
+    }
+
+    @Test
+    @DisplayName("Empty sketch test.")
+    public void emptySketchTest_ExpectZeroPercentile() {
+        assertThat(new QuantileSketch(RELATIVE_ERROR).percentile(99)).isEqualTo(BigInteger.ZERO);
+    }
+
+    @Test
+    @DisplayName("Merging incompatible estimators test.")
+    public void mergingIncompatibleEstimatorsTest_ExpectException() {
+        QuantileSketch sketch = new QuantileSketch(RELATIVE_ERROR);
+        assertThatThrownBy(() -> sketch.addAll(new QuantileSketch(RELATIVE_ERROR * 2)))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> sketch.addAll(new ExactQuantileEstimator()))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Invalid relative error test.")
+    public void invalidRelativeErrorTest_ExpectException() {
+        assertThatThrownBy(() -> new QuantileSketch(0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new QuantileSketch(1)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new QuantileSketch(Math.nextDown(QuantileSketch.MIN_RELATIVE_ERROR)))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new QuantileSketch(1e-9)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("Sketch with the minimum relative error test.")
+    public void minimumRelativeErrorTest_ExpectBoundedBucketsAndAccurateEstimates() throws IOException {
+        QuantileSketch sketch = new QuantileSketch(QuantileSketch.MIN_RELATIVE_ERROR);
+        sketch.add(1);
+        sketch.add(1_000_000_007L);
+        sketch.add(Long.MAX_VALUE);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        sketch.writeTo(new DataOutputStream(bytes));
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+        in.skipNBytes(Double.BYTES + 4 * Long.BYTES);
+        assertThat(in.readInt()).isBetween(1, 250_000);
+        double estimate = sketch.valueAtRank(1).doubleValue();
+        assertThat(Math.abs(estimate - 1_000_000_007L) / 1_000_000_007L).isLessThanOrEqualTo(1e-4);
+        assertThat(sketch.valueAtRank(2)).isEqualTo(BigInteger.valueOf(Long.MAX_VALUE));
+    }
+
+    private static QuantileSketch getSketch() {
+        QuantileSketch sketch = new QuantileSketch(RELATIVE_ERROR);
+        for (long value = 1; value <= 1000; value++) {
+            sketch.add(value);
+        }
+        return sketch;
+    }
+
+    private static void assertUnchanged(QuantileSketch sketch) {
+        QuantileSketch expected = getSketch();
+        assertThat(sketch.count()).isEqualTo(expected.count());
+        for (var percentile : PERCENTILES) {
+            assertThat(sketch.percentile(percentile)).isEqualTo(expected.percentile(percentile));
+        }
+    }
+
+    @Test
+    @DisplayName("Reading corrupted binary sketch test.")
+    public void readingCorruptedBinarySketchTest_ExpectIOExceptionAndUnchangedSketch() throws IOException {
+        QuantileSketch sketch = getSketch();
+        for (int[] lengthAndIndex : new int[][] {{Integer.MAX_VALUE, 0}, {10, 10}, {10, -1}}) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeDouble(RELATIVE_ERROR);
+            out.writeLong(5);
+            out.writeLong(0);
+            out.writeLong(1);
+            out.writeLong(Long.MAX_VALUE);
+            out.writeInt(lengthAndIndex[0]);
+            out.writeInt(1);
+            out.writeInt(lengthAndIndex[1]);
+            out.writeLong(5);
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes.toByteArray()));
+            assertThatThrownBy(() -> sketch.readFrom(in))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("Corrupted data");
+            assertUnchanged(sketch);
+        }
+    }
+
+    @Test
+    @DisplayName("Reading corrupted JSON sketch test.")
+    public void readingCorruptedJsonSketchTest_ExpectIOExceptionAndUnchangedSketch() throws IOException {
+        QuantileSketch sketch = getSketch();
+        JsonNode node = new ObjectMapper().readTree(
+            "{\"relativeError\": " + RELATIVE_ERROR + ", \"count\": 5, \"zeroCount\": 0, \"min\": 1, "
+                + "\"max\": 9223372036854775807, \"buckets\": [[1, 2], [2147483647, 3]]}"
+        );
+        assertThatThrownBy(() -> sketch.readJson(node))
+            .isInstanceOf(IOException.class)
+            .hasMessageContaining("Corrupted data");
+        assertUnchanged(sketch);
+    }
+}
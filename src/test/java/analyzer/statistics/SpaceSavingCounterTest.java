@@ -0,0 +1,99 @@
+package analyzer.statistics;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("SpaceSavingCounter test.")
+class SpaceSavingCounterTest {
+
+    private static final int VALUES_NUMBER = 50_000;
+
+    private static final int DISTINCT_VALUES = 5_000;
+
+    private static Stream<Arguments> getCapacitiesAndParts() {
+        return Stream.of(
+            Arguments.of(1, 1),
+            Arguments.of(10, 1),
+            Arguments.of(10, 4),
+            Arguments.of(100, 3)
+        );
+    }
+
+    @ParameterizedTest
+    @MethodSource("getCapacitiesAndParts")
+    @DisplayName("Counts stay within error bounds and heavy hitters are tracked test.")
+    public void countingSkewedValuesTest_ExpectBoundedErrorsAndTrackedHeavyHitters(int capacity, int parts) {
+        Random random = new Random(capacity * 31L + parts);
+        Map<String, Long> actualCounts = new HashMap<>();
+        List<SpaceSavingCounter> counters = new ArrayList<>();
+        for (int part = 0; part < parts; part++) {
+            SpaceSavingCounter counter = new SpaceSavingCounter(capacity);
+            for (int i = 0; i < VALUES_NUMBER; i++) {
+                String value = "value_" + (int) (Math.pow(random.nextDouble(), 3) * DISTINCT_VALUES);
+                counter.increment(value);
+                actualCounts.merge(value, 1L, Long::sum);
+            }
+            counters.add(counter);
+        }
+        SpaceSavingCounter merged = counters.getFirst();
+        counters.stream().skip(1).forEach(merged::addAll);
+
+        List<Frequency> frequencies = merged.top(Long.MAX_VALUE);
+        assertThat(frequencies).hasSizeLessThanOrEqualTo(capacity).isSortedAccordingTo(FrequencyEstimator.ORDER);
+        for (var frequency : frequencies) {
+            BigInteger actual = BigInteger.valueOf(actualCounts.getOrDefault(frequency.value(), 0L));
+            assertThat(actual).isBetween(frequency.count().subtract(frequency.error()), frequency.count());
+        }
+        long threshold = (long) VALUES_NUMBER * parts / capacity;
+        List<String> trackedValues = frequencies.stream().map(Frequency::value).toList();
+        actualCounts.forEach((value, count) -> {
+            if (count > threshold) {
+                assertThat(trackedValues).contains(value);
+            }
+        });
+    }
+
+    @Test
+    @DisplayName("Counting fewer values than capacity test.")
+    public void countingFewValuesTest_ExpectExactCounts() {
+        SpaceSavingCounter counter = new SpaceSavingCounter(3);
+        Stream.of("b", "a", "b", "c", "a", "b").forEach(counter::increment);
+        assertThat(counter.top(2)).containsExactly(
+            new Frequency("b", BigInteger.valueOf(3), BigInteger.ZERO),
+            new Frequency("a", BigInteger.TWO, BigInteger.ZERO)
+        );
+    }
+
+    @Test
+    @DisplayName("Evicting the least frequent value test.")
+    public void evictingValueTest_ExpectInheritedError() {
+        SpaceSavingCounter counter = new SpaceSavingCounter(2);
+        Stream.of("a", "a", "b", "c").forEach(counter::increment);
+        assertThat(counter.top(2)).containsExactly(
+            new Frequency("a", BigInteger.TWO, BigInteger.ZERO),
+            new Frequency("c", BigInteger.TWO, BigInteger.ONE)
+        );
+    }
+
+    @Test
+    @DisplayName("Merging incompatible counters test.")
+    public void mergingIncompatibleCountersTest_ExpectException() {
+        SpaceSavingCounter counter = new SpaceSavingCounter(2);
+        assertThatThrownBy(() -> counter.addAll(new SpaceSavingCounter(3)))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> counter.addAll(new CounterMap()))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,66 @@
+package analyzer.statistics;
+
+import analyzer.io.FileChunk;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Objects;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("StatisticsIndex test.")
+class StatisticsIndexTest {
+
+    private static final long MAX_CHUNK_LENGTH = 1L << 20;
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    @DisplayName("Splitting edges larger than the chunk limit test.")
+    public void splittingEdgesTest_ExpectAlignedChunksWithinLimit() throws IOException {
+        String content = IntStream.range(0, 100_000)
+            .mapToObj(i -> "line " + i + " " + "x".repeat(i % 61))
+            .collect(Collectors.joining("\n", "", "\n"));
+        Path file = directory.resolve("edges.log");
+        Files.writeString(file, content, StandardCharsets.UTF_8);
+        byte[] bytes = Files.readAllBytes(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            long tail = content.lastIndexOf('\n', content.length() - 1000) + 1;
+            List<FileChunk> edges = List.of(new FileChunk(0, tail), new FileChunk(tail, size));
+            List<FileChunk> chunks = StatisticsIndex.splitEdges(channel, edges, MAX_CHUNK_LENGTH);
+            assertThat(chunks).hasSizeGreaterThan(edges.size());
+            assertThat(chunks.getFirst().start()).isEqualTo(0L);
+            assertThat(chunks.getLast().end()).isEqualTo(size);
+            for (int i = 0; i < chunks.size(); i++) {
+                FileChunk chunk = chunks.get(i);
+                assertThat(chunk.length()).isLessThanOrEqualTo(MAX_CHUNK_LENGTH + 100);
+                assertThat(bytes[(int) chunk.end() - 1]).isEqualTo((byte) '\n');
+                if (i > 0) {
+                    assertThat(chunk.start()).isEqualTo(chunks.get(i - 1).end());
+                }
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Detecting indexes test.")
+    public void detectingIndexesTest_ExpectOnlyIndexesDetected() throws IOException {
+        Path file = directory.resolve("access.idx");
+        Files.copy(Objects.requireNonNull(StatisticsIndexTest.class.getResourceAsStream("/logs/logs.txt")), file);
+        assertThat(LogAnalyzer.isIndex(file)).isFalse();
+        LogAnalyzer.getStatisticsFromFile(file, AnalyzerSettings.builder().indexed(true).build());
+        assertThat(LogAnalyzer.isIndex(directory.resolve("access.idx.idx"))).isTrue();
+        assertThat(LogAnalyzer.isIndex(file)).isFalse();
+        assertThat(LogAnalyzer.isIndex(directory.resolve("missing.idx"))).isFalse();
+    }
+}
@@ -0,0 +1,180 @@
+package analyzer.statistics;
+
+import analyzer.filter.FilterField;
+import analyzer.render.MarkdownRenderer;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DisplayName("StatisticsSnapshots test.")
+class StatisticsSnapshotsTest {
+
+    private static final DateTimeFormatter DATE_FORMATTER =
+        DateTimeFormatter.ofPattern("dd/MMM/yyyy:HH:mm:ss Z", Locale.ENGLISH);
+
+    private static final List<String> STATUSES = List.of("200", "304", "404", "500");
+
+    private static final long START_SECONDS = 1_431_849_600L;
+
+    private static final int LOGS_NUMBER = 5_000;
+
+    private static final String HUGE_SIZE = "99999999999999999999";
+
+    private static Path getLogs(int seed) throws IOException {
+        Random random = new Random(seed);
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < LOGS_NUMBER; i++) {
+            Instant instant = Instant.ofEpochSecond(START_SECONDS + random.nextInt(2 * 24 * 3600));
+            String size = random.nextInt(500) == 0 ? HUGE_SIZE : String.valueOf(random.nextInt(5000));
+            lines.add(
+                "10.0." + random.nextInt(3) + "." + random.nextInt(100) + " - - ["
+                    + DATE_FORMATTER.format(OffsetDateTime.ofInstant(instant, ZoneOffset.UTC)) + "] \"GET "
+                    + "/downloads/product_" + random.nextInt(300) + " HTTP/1.1\" "
+                    + STATUSES.get(random.nextInt(STATUSES.size())) + " " + size
+                    + " \"http://referer/" + random.nextInt(20) + "\" \"agent\""
+            );
+        }
+        Path path = Files.createTempFile("logs", ".txt");
+        path.toFile().deleteOnExit();
+        Files.write(path, lines);
+        return path;
+    }
+
+    private static Stream<AnalyzerSettings> getSettings() {
+        AnalyzerSettings settings = AnalyzerSettings.builder()
+            .topK(1000)
+            .percentiles(List.of(50.0, 95.0, 100.0))
+            .build();
+        return Stream.of(
+            settings,
+            settings.toBuilder().percentileError(0.01).topKCapacity(50).build(),
+            settings.toBuilder().groupBy(List.of(FilterField.HTTP_STATUS)).timeBucket(TimeBucket.HOUR).build(),
+            settings.toBuilder()
+                .from(OffsetDateTime.parse("2015-05-17T00:00:00Z"))
+                .groupBy(List.of(FilterField.REMOTE_ADDRESS))
+                .timeBucket(TimeBucket.DAY)
+                .groupLimit(2)
+                .percentileError(0.01)
+                .build()
+        );
+    }
+
+    private static String render(LogStatistics statistics) {
+        return new MarkdownRenderer().render(statistics);
+    }
+
+    private static Path export(LogStatistics statistics) throws IOException {
+        Path path = Files.createTempFile("statistics", ".lpst");
+        path.toFile().deleteOnExit();
+        try (OutputStream out = Files.newOutputStream(path)) {
+            StatisticsSnapshots.write(statistics, out);
+        }
+        return path;
+    }
+
+    @ParameterizedTest
+    @MethodSource("getSettings")
+    @DisplayName("Reading written binary snapshot test.")
+    public void readingBinarySnapshotTest_ExpectSameStatistics(AnalyzerSettings settings) throws IOException {
+        LogStatistics statistics = LogAnalyzer.getStatisticsFromFile(getLogs(1), settings);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        StatisticsSnapshots.write(statistics, out);
+        LogStatistics read = StatisticsSnapshots.read(new ByteArrayInputStream(out.toByteArray()));
+        assertThat(read.settings()).isEqualTo(statistics.settings());
+        assertThat(render(read)).isEqualTo(render(statistics));
+    }
+
+    @ParameterizedTest
+    @MethodSource("getSettings")
+    @DisplayName("Reading written JSON document test.")
+    public void readingJsonDocumentTest_ExpectSameStatistics(AnalyzerSettings settings) throws IOException {
+        LogStatistics statistics = LogAnalyzer.getStatisticsFromFile(getLogs(2), settings);
+        StringWriter out = new StringWriter();
+        StatisticsSnapshots.writeJson(statistics, out);
+        LogStatistics read = StatisticsSnapshots.readJson(new StringReader(out.toString()));
+        assertThat(read.settings()).isEqualTo(statistics.settings());
+        assertThat(render(read)).isEqualTo(render(statistics));
+
+        StringWriter rewritten = new StringWriter();
+        StatisticsSnapshots.writeJson(read, rewritten);
+        assertThat(rewritten.toString()).isEqualTo(out.toString());
+    }
+
+    @ParameterizedTest
+    @MethodSource("getSettings")
+    @DisplayName("Merging loaded snapshots test.")
+    public void mergingSnapshotsTest_ExpectSameStatisticsAsMergedDirectly(AnalyzerSettings settings)
+        throws IOException {
+        Path first = getLogs(3);
+        Path second = getLogs(4);
+        LogStatistics direct = LogAnalyzer.getStatisticsFromFile(first, settings)
+            .combine(LogAnalyzer.getStatisticsFromFile(second, settings));
+        LogStatistics firstSnapshot = LogAnalyzer.getStatisticsFromFile(
+            export(LogAnalyzer.getStatisticsFromFile(first, settings)),
+            settings
+        );
+        LogStatistics secondSnapshot = LogAnalyzer.getStatisticsFromFile(
+            export(LogAnalyzer.getStatisticsFromFile(second, settings)),
+            settings
+        );
+        assertThat(render(firstSnapshot.combine(secondSnapshot))).isEqualTo(render(direct));
+    }
+
+    @Test
+    @DisplayName("Duplicate percentiles test.")
+    public void duplicatePercentilesTest_ExpectEachPercentileOnce() throws IOException {
+        AnalyzerSettings settings = AnalyzerSettings.builder()
+            .percentiles(List.of(50.0, 95.0, 50.0, 95.0))
+            .groupBy(List.of(FilterField.HTTP_STATUS))
+            .build();
+        assertThat(settings.percentiles()).containsExactly(50.0, 95.0);
+        LogStatistics statistics = LogAnalyzer.getStatisticsFromFile(getLogs(7), settings);
+        StringWriter out = new StringWriter();
+        StatisticsSnapshots.writeJson(statistics, out);
+        LogStatistics read = StatisticsSnapshots.readJson(new StringReader(out.toString()));
+        assertThat(read.settings().percentiles()).containsExactly(50.0, 95.0);
+        assertThat(render(read).split("50p response's size's", -1)).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("Loading snapshot collected with other settings test.")
+    public void loadingSnapshotWithOtherSettingsTest_ExpectIOException() throws IOException {
+        AnalyzerSettings settings = AnalyzerSettings.builder().groupBy(List.of(FilterField.HTTP_STATUS)).build();
+        Path snapshot = export(LogAnalyzer.getStatisticsFromFile(getLogs(5), settings));
+        assertThat(StatisticsSnapshots.isSnapshot(snapshot)).isTrue();
+        assertThatThrownBy(() -> StatisticsSnapshots.load(snapshot, AnalyzerSettings.builder().build()))
+            .isInstanceOf(IOException.class);
+        assertThat(LogAnalyzer.getStatisticsFromFile(snapshot, AnalyzerSettings.builder().build())).isNull();
+    }
+
+    @Test
+    @DisplayName("Reading logs as snapshot test.")
+    public void readingLogsAsSnapshotTest_ExpectIOException() throws IOException {
+        Path logs = getLogs(6);
+        assertThat(StatisticsSnapshots.isSnapshot(logs)).isFalse();
+        assertThatThrownBy(() -> StatisticsSnapshots.read(Files.newInputStream(logs)))
+            .isInstanceOf(IOException.class);
+        assertThatThrownBy(() -> StatisticsSnapshots.readJson(new StringReader("{\"format\": \"other\"}")))
+            .isInstanceOf(IOException.class);
+    }
+}